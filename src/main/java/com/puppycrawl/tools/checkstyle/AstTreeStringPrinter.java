@@ -21,7 +21,8 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.regex.Pattern;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -33,20 +34,30 @@ import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
- * Class for printing AST to String.
+ * Class for printing AST to String or to a writer. Printing to a writer
+ * emits the tree node by node, so the output of large files is never
+ * held in memory as a whole.
  */
 public final class AstTreeStringPrinter {
 
-    /** Newline pattern. */
-    private static final Pattern NEWLINE = Pattern.compile("\n");
-    /** Return pattern. */
-    private static final Pattern RETURN = Pattern.compile("\r");
-    /** Tab pattern. */
-    private static final Pattern TAB = Pattern.compile("\t");
-
     /** OS specific line separator. */
     private static final String LINE_SEPARATOR = System7.lineSeparator();
 
+    /** Indentation added for the children of a node which has a next sibling. */
+    private static final String SIBLING_INDENTATION = "|   ";
+
+    /** Indentation added for the children of a node which is the last child. */
+    private static final String LAST_CHILD_INDENTATION = "    ";
+
+    /**
+     * Marker of a node which has a next sibling. Only ASCII symbols are
+     * used for the markers due to problems with running tests on Windows.
+     */
+    private static final String SIBLING_MARKER = "|--";
+
+    /** Marker of a node which is the last child. */
+    private static final String LAST_CHILD_MARKER = "`--";
+
     /** Prevent instances. */
     private AstTreeStringPrinter() {
         // no code
@@ -66,6 +77,20 @@ public final class AstTreeStringPrinter {
         return printTree(JavaParser.parseFile(file, options));
     }
 
+    /**
+     * Parse a file and print the parse tree to a writer.
+     *
+     * @param file the file to print.
+     * @param options {@link JavaParser.Options} to control the inclusion of comment nodes.
+     * @param out the writer to print to.
+     * @throws IOException if the file could not be read.
+     * @throws CheckstyleException if the file is not a Java source.
+     */
+    public static void printFileAst(File file, JavaParser.Options options, PrintWriter out)
+            throws IOException, CheckstyleException {
+        printTree(JavaParser.parseFile(file, options), "", out);
+    }
+
     /**
      * Prints full AST (java + comments + javadoc) of the java file.
      *
@@ -76,51 +101,68 @@ public final class AstTreeStringPrinter {
      */
     public static String printJavaAndJavadocTree(File file)
             throws IOException, CheckstyleException {
+        final StringWriter result = new StringWriter(1024);
+        final PrintWriter printer = new PrintWriter(result);
+        printJavaAndJavadocTree(file, printer);
+        printer.flush();
+        return result.toString();
+    }
+
+    /**
+     * Prints full AST (java + comments + javadoc) of the java file to a writer.
+     *
+     * @param file java file
+     * @param out the writer to print to
+     * @throws IOException Failed to open a file
+     * @throws CheckstyleException error while parsing the file
+     */
+    public static void printJavaAndJavadocTree(File file, PrintWriter out)
+            throws IOException, CheckstyleException {
         final DetailAST tree = JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS);
-        return printJavaAndJavadocTree(tree);
+        printJavaAndJavadocTree(tree, "", out);
     }
 
     /**
      * Prints full tree (java + comments + javadoc) of the DetailAST.
      *
-     * @param ast root DetailAST
-     * @return Full tree
+     * @param ast first DetailAST of the siblings to print
+     * @param parentIndentation indentation of the children of the parent of the siblings
+     * @param out the writer to print to
      */
-    private static String printJavaAndJavadocTree(DetailAST ast) {
-        final StringBuilder messageBuilder = new StringBuilder(1024);
+    private static void printJavaAndJavadocTree(DetailAST ast, String parentIndentation,
+            PrintWriter out) {
         DetailAST node = ast;
         while (node != null) {
-            messageBuilder.append(getIndentation(node))
-                .append(getNodeInfo(node))
-                .append(LINE_SEPARATOR);
+            final String indentation = getIndentation(node, parentIndentation);
+            printNode(node, indentation, out);
             if (node.getType() == TokenTypes.COMMENT_CONTENT
                     && JavadocUtil.isJavadocComment(node.getParent())) {
-                final String javadocTree = parseAndPrintJavadocTree(node);
-                messageBuilder.append(javadocTree);
+                parseAndPrintJavadocTree(node, indentation, out);
             }
             else {
-                messageBuilder.append(printJavaAndJavadocTree(node.getFirstChild()));
+                printJavaAndJavadocTree(node.getFirstChild(),
+                        getChildIndentation(node, parentIndentation), out);
             }
             node = node.getNextSibling();
         }
-        return messageBuilder.toString();
     }
 
     /**
      * Parses block comment as javadoc and prints its tree.
      *
      * @param node block comment begin
-     * @return string javadoc tree
+     * @param indentation indentation of the block comment
+     * @param out the writer to print to
      */
-    private static String parseAndPrintJavadocTree(DetailAST node) {
+    private static void parseAndPrintJavadocTree(DetailAST node, String indentation,
+            PrintWriter out) {
         final DetailAST javadocBlock = node.getParent();
         final DetailNode tree = DetailNodeTreeStringPrinter.parseJavadocAsDetailNode(javadocBlock);
 
-        String baseIndentation = getIndentation(node);
-        baseIndentation = baseIndentation.substring(0, baseIndentation.length() - 2);
+        final String baseIndentation = indentation.substring(0, indentation.length() - 2);
         final String rootPrefix = baseIndentation + "   `--";
         final String prefix = baseIndentation + "       ";
-        return DetailNodeTreeStringPrinter.printTree(tree, rootPrefix, prefix);
+        DetailNodeTreeStringPrinter.printTree(tree, rootPrefix, prefix, out);
     }
 
     /**
@@ -144,17 +186,28 @@ public final class AstTreeStringPrinter {
      * @return branch as string
      */
     public static String printBranch(DetailAST node) {
-        final String result;
-        if (node == null) {
-            result = "";
-        }
-        else {
-            result = printBranch(node.getParent())
-                + getIndentation(node)
-                + getNodeInfo(node)
-                + LINE_SEPARATOR;
+        final StringWriter result = new StringWriter();
+        final PrintWriter printer = new PrintWriter(result);
+        printBranch(node, printer);
+        printer.flush();
+        return result.toString();
+    }
+
+    /**
+     * Print branch info from root down to given {@code node} to a writer.
+     *
+     * @param node last item of the branch
+     * @param out the writer to print to
+     * @return indentation of the children of the node
+     */
+    private static String printBranch(DetailAST node, PrintWriter out) {
+        String childIndentation = "";
+        if (node != null) {
+            final String parentIndentation = printBranch(node.getParent(), out);
+            printNode(node, getIndentation(node, parentIndentation), out);
+            childIndentation = getChildIndentation(node, parentIndentation);
         }
-        return result;
+        return childIndentation;
     }
 
     /**
@@ -164,75 +217,137 @@ public final class AstTreeStringPrinter {
      * @return string AST.
      */
     private static String printTree(DetailAST ast) {
-        final StringBuilder messageBuilder = new StringBuilder(1024);
+        final StringWriter result = new StringWriter(1024);
+        final PrintWriter printer = new PrintWriter(result);
+        printTree(ast, "", printer);
+        printer.flush();
+        return result.toString();
+    }
+
+    /**
+     * Print AST to a writer.
+     *
+     * @param ast first AST node of the siblings to print.
+     * @param parentIndentation indentation of the children of the parent of the siblings.
+     * @param out the writer to print to.
+     */
+    private static void printTree(DetailAST ast, String parentIndentation, PrintWriter out) {
         DetailAST node = ast;
         while (node != null) {
-            messageBuilder.append(getIndentation(node))
-                    .append(getNodeInfo(node))
-                    .append(LINE_SEPARATOR)
-                    .append(printTree(node.getFirstChild()));
+            printNode(node, getIndentation(node, parentIndentation), out);
+            printTree(node.getFirstChild(), getChildIndentation(node, parentIndentation), out);
             node = node.getNextSibling();
         }
-        return messageBuilder.toString();
     }
 
     /**
-     * Get string representation of the node as token name,
-     * node text, line number and column number.
+     * Print a line with the token name, node text, line number and column
+     * number of the node.
      *
      * @param node DetailAST
-     * @return node info
+     * @param indentation indentation of the node
+     * @param out the writer to print to
      */
-    private static String getNodeInfo(DetailAST node) {
-        return TokenUtil.getTokenName(node.getType())
-                + " -> " + escapeAllControlChars(node.getText())
-                + " [" + node.getLineNo() + ':' + node.getColumnNo() + ']';
+    private static void printNode(DetailAST node, String indentation, PrintWriter out) {
+        out.write(indentation);
+        out.write(TokenUtil.getTokenName(node.getType()));
+        out.write(" -> ");
+        writeEscaped(out, node.getText());
+        out.write(" [");
+        out.print(node.getLineNo());
+        out.write(':');
+        out.print(node.getColumnNo());
+        out.write(']');
+        out.write(LINE_SEPARATOR);
     }
 
     /**
      * Get indentation for an AST node.
      *
      * @param ast the AST to get the indentation for.
+     * @param parentIndentation indentation of the children of the parent of the node.
      * @return the indentation in String format.
      */
-    private static String getIndentation(DetailAST ast) {
-        final boolean isLastChild = ast.getNextSibling() == null;
-        DetailAST node = ast;
-        final StringBuilder indentation = new StringBuilder(1024);
-        while (node.getParent() != null) {
-            node = node.getParent();
-            if (node.getParent() == null) {
-                if (isLastChild) {
-                    // only ASCII symbols must be used due to
-                    // problems with running tests on Windows
-                    indentation.append("`--");
-                }
-                else {
-                    indentation.append("|--");
-                }
-            }
-            else {
-                if (node.getNextSibling() == null) {
-                    indentation.insert(0, "    ");
-                }
-                else {
-                    indentation.insert(0, "|   ");
-                }
-            }
+    private static String getIndentation(DetailAST ast, String parentIndentation) {
+        final String indentation;
+        if (ast.getParent() == null) {
+            indentation = "";
+        }
+        else if (ast.getNextSibling() == null) {
+            indentation = parentIndentation + LAST_CHILD_MARKER;
+        }
+        else {
+            indentation = parentIndentation + SIBLING_MARKER;
+        }
+        return indentation;
+    }
+
+    /**
+     * Get indentation of the children of an AST node, which the markers of
+     * the children are appended to.
+     *
+     * @param ast the AST to get the indentation of the children for.
+     * @param parentIndentation indentation of the children of the parent of the node.
+     * @return the indentation in String format.
+     */
+    private static String getChildIndentation(DetailAST ast, String parentIndentation) {
+        final String indentation;
+        if (ast.getParent() == null) {
+            indentation = "";
+        }
+        else if (ast.getNextSibling() == null) {
+            indentation = parentIndentation + LAST_CHILD_INDENTATION;
+        }
+        else {
+            indentation = parentIndentation + SIBLING_INDENTATION;
         }
-        return indentation.toString();
+        return indentation;
     }
 
     /**
-     * Replace all control chars with escaped symbols.
+     * Writes the text with all control chars replaced by escaped symbols.
+     * Runs of characters that need no escaping are written at once.
      *
+     * @param out the writer to write to.
      * @param text the String to process.
-     * @return the processed String with all control chars escaped.
      */
-    private static String escapeAllControlChars(String text) {
-        final String textWithoutNewlines = NEWLINE.matcher(text).replaceAll("\\\\n");
-        final String textWithoutReturns = RETURN.matcher(textWithoutNewlines).replaceAll("\\\\r");
-        return TAB.matcher(textWithoutReturns).replaceAll("\\\\t");
+    /* package */ static void writeEscaped(PrintWriter out, String text) {
+        final int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final String replacement = getReplacement(text.charAt(i));
+            if (replacement != null) {
+                out.write(text, start, i - start);
+                out.write(replacement);
+                start = i + 1;
+            }
+        }
+        out.write(text, start, length - start);
+    }
+
+    /**
+     * Returns the escaped symbol of a control char.
+     *
+     * @param chr the character to escape.
+     * @return the escaped symbol, or {@code null} if the character needs no escaping.
+     */
+    private static String getReplacement(char chr) {
+        final String replacement;
+        switch (chr) {
+            case '\n':
+                replacement = "\\n";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            default:
+                replacement = null;
+                break;
+        }
+        return replacement;
     }
 
 }
@@ -0,0 +1,282 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * Audit listener, which passes the events to other listeners on a dedicated thread.
+ * Slow listeners, like loggers writing to a file or the network, do not hold up the
+ * audit this way. The events are queued in the order they are fired and the queue is
+ * bounded, the auditing thread waits for the listeners when it is full.
+ * {@code auditFinished} waits until all events are passed to the listeners.
+ * An exception thrown by a listener stops the delivery of events and is rethrown on the
+ * auditing thread with the next event, at the latest in {@code auditFinished}.
+ */
+final class AsyncAuditListener implements AuditListener {
+
+    /** The listeners to pass the events to. */
+    private final List<AuditListener> listeners;
+
+    /** The queued events. */
+    private final BlockingQueue<QueuedEvent> queue;
+
+    /** The thread passing the events to the listeners. */
+    private final Thread thread;
+
+    /** The first exception thrown by a listener. */
+    private volatile Throwable failure;
+
+    /**
+     * Creates a new {@code AsyncAuditListener} instance.
+     *
+     * @param listeners the listeners to pass the events to
+     * @param queueSize the maximum number of queued events
+     */
+    /* package */ AsyncAuditListener(List<AuditListener> listeners, int queueSize) {
+        this.listeners = new ArrayList<AuditListener>(listeners);
+        queue = new ArrayBlockingQueue<QueuedEvent>(queueSize);
+        thread = new Thread(new Dispatcher(), "checkstyle-audit-listeners");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the thread passing the events to the listeners.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops the thread passing the events to the listeners after the queued events,
+     * without notifying the listeners about the end of the audit. Used when the audit
+     * is aborted, exceptions of listeners are not rethrown.
+     */
+    public void stop() {
+        if (thread.isAlive()) {
+            put(new QueuedEvent(EventType.STOP, null, null));
+            awaitTermination();
+        }
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.AUDIT_STARTED, event, null));
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.AUDIT_FINISHED, event, null));
+        awaitTermination();
+        rethrowFailure();
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.FILE_STARTED, event, null));
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.FILE_FINISHED, event, null));
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.ERROR, event, null));
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        enqueue(new QueuedEvent(EventType.EXCEPTION, event, throwable));
+    }
+
+    /**
+     * Queues an event, after rethrowing the exception of a failed listener.
+     *
+     * @param event the event to queue
+     */
+    private void enqueue(QueuedEvent event) {
+        rethrowFailure();
+        put(event);
+    }
+
+    /**
+     * Queues an event, waiting for space in the queue.
+     *
+     * @param event the event to queue
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    private void put(QueuedEvent event) {
+        try {
+            queue.put(event);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing audit event", ex);
+        }
+    }
+
+    /**
+     * Waits for the thread passing the events to terminate.
+     *
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    private void awaitTermination() {
+        try {
+            thread.join();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for audit listeners", ex);
+        }
+    }
+
+    /**
+     * Rethrows the exception thrown by a listener, if any.
+     */
+    private void rethrowFailure() {
+        final Throwable throwable = failure;
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+    }
+
+    /**
+     * Passes an event to all listeners.
+     *
+     * @param queuedEvent the event to pass
+     */
+    private void dispatch(QueuedEvent queuedEvent) {
+        final AuditEvent event = queuedEvent.event;
+        for (final AuditListener listener : listeners) {
+            switch (queuedEvent.type) {
+                case AUDIT_STARTED:
+                    listener.auditStarted(event);
+                    break;
+                case AUDIT_FINISHED:
+                    listener.auditFinished(event);
+                    break;
+                case FILE_STARTED:
+                    listener.fileStarted(event);
+                    break;
+                case FILE_FINISHED:
+                    listener.fileFinished(event);
+                    break;
+                case ERROR:
+                    listener.addError(event);
+                    break;
+                case EXCEPTION:
+                    listener.addException(event, queuedEvent.throwable);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /** The types of queued events. */
+    private enum EventType {
+
+        /** The audit started. */
+        AUDIT_STARTED,
+        /** The audit finished. */
+        AUDIT_FINISHED,
+        /** The audit of a file started. */
+        FILE_STARTED,
+        /** The audit of a file finished. */
+        FILE_FINISHED,
+        /** A violation was found. */
+        ERROR,
+        /** An exception occurred. */
+        EXCEPTION,
+        /** The audit was aborted. */
+        STOP
+
+    }
+
+    /** An event waiting to be passed to the listeners. */
+    private static final class QueuedEvent {
+
+        /** The type of the event. */
+        private final EventType type;
+
+        /** The audit event. */
+        private final AuditEvent event;
+
+        /** The exception of an {@code EXCEPTION} event. */
+        private final Throwable throwable;
+
+        /**
+         * Creates a new {@code QueuedEvent} instance.
+         *
+         * @param type the type of the event
+         * @param event the audit event
+         * @param throwable the exception of an {@code EXCEPTION} event
+         */
+        /* package */ QueuedEvent(EventType type, AuditEvent event, Throwable throwable) {
+            this.type = type;
+            this.event = event;
+            this.throwable = throwable;
+        }
+
+    }
+
+    /**
+     * Takes the events from the queue until the audit finishes, and passes them to the
+     * listeners until one of them fails. The queue is drained after a failure, so the
+     * auditing thread never waits for space in the queue.
+     */
+    private final class Dispatcher implements Runnable {
+
+        @Override
+        public void run() {
+            boolean finished = false;
+            while (!finished) {
+                try {
+                    final QueuedEvent event = queue.take();
+                    finished = event.type == EventType.AUDIT_FINISHED
+                            || event.type == EventType.STOP;
+                    if (failure == null) {
+                        dispatch(event);
+                    }
+                }
+                catch (InterruptedException ex) {
+                    failure = new IllegalStateException("Audit listener thread interrupted", ex);
+                }
+                // -@cs[IllegalCatch] Any exception of a listener is rethrown on the audit thread
+                catch (Throwable ex) {
+                    failure = ex;
+                }
+            }
+        }
+
+    }
+
+}
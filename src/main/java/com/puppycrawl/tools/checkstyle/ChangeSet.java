@@ -0,0 +1,503 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * The files and lines changed in a git working tree relative to a base revision.
+ * It is used for incremental audits, where only the changed files are checked
+ * and, optionally, only violations on changed lines are reported.
+ * Files that are not tracked by git (and not ignored) are considered changed as a whole.
+ *
+ * <p>
+ * The information is taken from the output of the {@code git} executable,
+ * which has to be available on the {@code PATH}.
+ * </p>
+ */
+public final class ChangeSet {
+
+    /** The name of the git executable. */
+    private static final String GIT = "git";
+
+    /** The prefix of the first header line of a file in a git diff. */
+    private static final String FILE_HEADER_PREFIX = "diff --git ";
+
+    /** The prefix of the line with the new name of a file in a unified diff. */
+    private static final String NEW_FILE_PREFIX = "+++ ";
+
+    /** The prefix used for the new version of a file, it is passed to git explicitly. */
+    private static final String DESTINATION_PREFIX = "b/";
+
+    /** The pattern of a hunk header, capturing the start and the length of the new range. */
+    private static final Pattern HUNK_HEADER =
+            Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+
+    /** The range covering a file that is changed as a whole. */
+    private static final int[] WHOLE_FILE = {1, Integer.MAX_VALUE};
+
+    /** The number of digits of an octal escape in a quoted git path. */
+    private static final int OCTAL_ESCAPE_LENGTH = 3;
+
+    /** The radix of an octal escape in a quoted git path. */
+    private static final int OCTAL_RADIX = 8;
+
+    /**
+     * Changed lines by canonical file path. Each value holds consecutive pairs
+     * of the first and the last line of a changed range, in ascending order.
+     */
+    private final Map<String, int[]> changedLines;
+
+    /** The commit the changes are relative to, {@code null} if unknown. */
+    private final String baseCommit;
+
+    /**
+     * Creates a new {@code ChangeSet} instance.
+     *
+     * @param changedLines changed line ranges by canonical file path
+     * @param baseCommit the commit the changes are relative to, {@code null} if unknown
+     */
+    private ChangeSet(Map<String, int[]> changedLines, String baseCommit) {
+        this.changedLines = changedLines;
+        this.baseCommit = baseCommit;
+    }
+
+    /**
+     * Computes the files and lines changed relative to a base revision in the git
+     * repository that contains the given file or directory. Uncommitted changes of the
+     * working tree are included.
+     *
+     * @param location a file or directory inside the working tree of a git repository
+     * @param baseRevision the revision to compare with, e.g. {@code origin/master}
+     * @return the changes of the working tree
+     * @throws CheckstyleException if git could not be run or has failed, or if the
+     *     revision is not a valid commit
+     */
+    public static ChangeSet fromGit(File location, String baseRevision)
+            throws CheckstyleException {
+        if (baseRevision.startsWith("-")) {
+            // would be taken as an option by git
+            throw new CheckstyleException("Invalid base revision: " + baseRevision);
+        }
+        File directory = location.getAbsoluteFile();
+        if (!directory.isDirectory()) {
+            directory = directory.getParentFile();
+        }
+        final List<String> topLevel = runGit(directory, "rev-parse", "--show-toplevel");
+        if (topLevel.isEmpty()) {
+            throw new CheckstyleException("Unable to locate git working tree of " + location);
+        }
+        final File root = new File(topLevel.get(0));
+        final List<String> commit = runGit(root, "rev-parse", "--verify",
+                baseRevision + "^{commit}");
+        final List<String> diff = runGit(root, "-c", "core.quotePath=false", "diff",
+                "--no-color", "--no-ext-diff", "--no-renames", "--unified=0",
+                "--diff-filter=d", "--src-prefix=a/", "--dst-prefix=" + DESTINATION_PREFIX,
+                commit.get(0), "--");
+        final List<String> untracked = runGit(root, "-c", "core.quotePath=false",
+                "ls-files", "--others", "--exclude-standard", "--full-name");
+        return parse(root, commit.get(0), diff, untracked);
+    }
+
+    /**
+     * Creates a change set from the output of {@code git diff --unified=0} and the list
+     * of untracked files, relative to an unknown commit.
+     *
+     * @param root the top level directory of the working tree
+     * @param diff the lines of the diff
+     * @param untracked the paths of untracked files, relative to the root
+     * @return the change set
+     */
+    // package-private for tests
+    static ChangeSet parse(File root, List<String> diff, List<String> untracked) {
+        return parse(root, null, diff, untracked);
+    }
+
+    /**
+     * Creates a change set from the output of {@code git diff --unified=0} and the list
+     * of untracked files.
+     *
+     * @param root the top level directory of the working tree
+     * @param commit the commit the diff is relative to, {@code null} if unknown
+     * @param diff the lines of the diff
+     * @param untracked the paths of untracked files, relative to the root
+     * @return the change set
+     */
+    // package-private for tests
+    static ChangeSet parse(File root, String commit, List<String> diff,
+            List<String> untracked) {
+        final Map<String, List<Integer>> ranges = new HashMap<String, List<Integer>>();
+        List<Integer> current = null;
+        boolean inHeader = false;
+        for (String line : diff) {
+            if (line.startsWith(FILE_HEADER_PREFIX)) {
+                inHeader = true;
+                current = null;
+            }
+            else if (inHeader && line.startsWith(NEW_FILE_PREFIX)) {
+                final String path = unquote(line.substring(NEW_FILE_PREFIX.length()));
+                if (path.startsWith(DESTINATION_PREFIX)) {
+                    current = new ArrayList<Integer>();
+                    ranges.put(getPath(new File(root,
+                            path.substring(DESTINATION_PREFIX.length()))), current);
+                }
+            }
+            else if (current != null && addHunk(current, line)) {
+                inHeader = false;
+            }
+        }
+
+        final Map<String, int[]> changedLines = new HashMap<String, int[]>();
+        for (Map.Entry<String, List<Integer>> entry : ranges.entrySet()) {
+            final List<Integer> fileRanges = entry.getValue();
+            final int[] lines = new int[fileRanges.size()];
+            for (int index = 0; index < lines.length; index++) {
+                lines[index] = fileRanges.get(index);
+            }
+            changedLines.put(entry.getKey(), lines);
+        }
+        for (String path : untracked) {
+            changedLines.put(getPath(new File(root, unquote(path))), WHOLE_FILE);
+        }
+        return new ChangeSet(changedLines, commit);
+    }
+
+    /**
+     * Returns the commit the changes are relative to. The changed lines of a file
+     * only depend on the content of the file and this commit.
+     *
+     * @return the hash of the commit, {@code null} if unknown
+     */
+    public String getBaseCommit() {
+        return baseCommit;
+    }
+
+    /**
+     * Adds the new range of a hunk header to the list of ranges.
+     * Hunks which only delete lines have an empty new range and are ignored.
+     *
+     * @param ranges the ranges of the current file
+     * @param line a line of the diff
+     * @return {@code true} if the line is a hunk header
+     */
+    private static boolean addHunk(List<Integer> ranges, String line) {
+        final Matcher matcher = HUNK_HEADER.matcher(line);
+        final boolean result = matcher.find();
+        if (result) {
+            final int start = Integer.parseInt(matcher.group(1));
+            int length = 1;
+            if (matcher.group(2) != null) {
+                length = Integer.parseInt(matcher.group(2));
+            }
+            if (length > 0) {
+                ranges.add(start);
+                ranges.add(start + length - 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a file is changed.
+     *
+     * @param file the file to check
+     * @return {@code true} if the file is changed
+     */
+    public boolean isChangedFile(File file) {
+        return getChangedLines(file) != null;
+    }
+
+    /**
+     * Checks whether a line of a file is changed. Violations which are not bound to a line
+     * (with a line number less than 1) are treated as changed in any changed file.
+     *
+     * @param file the file to check
+     * @param lineNo the line number, starting at 1
+     * @return {@code true} if the line is changed
+     */
+    public boolean isChangedLine(File file, int lineNo) {
+        final int[] lines = getChangedLines(file);
+        boolean result = false;
+        if (lines != null) {
+            if (lineNo < 1) {
+                result = true;
+            }
+            else {
+                // find the first range which ends at or after the line
+                int low = 0;
+                int high = lines.length / 2;
+                while (low < high) {
+                    final int middle = (low + high) >>> 1;
+                    if (lines[middle * 2 + 1] < lineNo) {
+                        low = middle + 1;
+                    }
+                    else {
+                        high = middle;
+                    }
+                }
+                result = low < lines.length / 2 && lines[low * 2] <= lineNo;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical paths of all changed files.
+     *
+     * @return the changed files
+     */
+    public Set<String> getChangedFiles() {
+        return Collections.unmodifiableSet(changedLines.keySet());
+    }
+
+    /**
+     * Returns the changed files of the given list, keeping their order.
+     *
+     * @param files the files to filter
+     * @return the changed files
+     */
+    public List<File> filter(List<File> files) {
+        final List<File> result = new ArrayList<File>();
+        for (File file : files) {
+            if (isChangedFile(file)) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the changed line ranges of a file.
+     *
+     * @param file the file
+     * @return the ranges, or {@code null} if the file is not changed
+     */
+    private int[] getChangedLines(File file) {
+        int[] result = changedLines.get(file.getAbsolutePath());
+        if (result == null) {
+            result = changedLines.get(getPath(file));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical path of a file, or the absolute path if it could not
+     * be resolved.
+     *
+     * @param file the file
+     * @return the path
+     */
+    private static String getPath(File file) {
+        String result;
+        try {
+            result = file.getCanonicalPath();
+        }
+        catch (IOException ignored) {
+            result = file.getAbsolutePath();
+        }
+        return result;
+    }
+
+    /**
+     * Removes the C-style quoting git applies to paths with special characters.
+     *
+     * @param path the path as printed by git
+     * @return the path without quoting
+     */
+    // package-private for tests
+    static String unquote(String path) {
+        final String result;
+        if (path.length() > 1 && path.charAt(0) == '"' && path.endsWith("\"")) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            int index = 1;
+            final int end = path.length() - 1;
+            while (index < end) {
+                final char character = path.charAt(index);
+                if (character == '\\' && index + 1 < end) {
+                    index = unescape(path, index + 1, bytes);
+                }
+                else {
+                    final byte[] encoded = String.valueOf(character)
+                            .getBytes(StandardCharsets.UTF_8);
+                    bytes.write(encoded, 0, encoded.length);
+                    index++;
+                }
+            }
+            result = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+        else {
+            result = path;
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a single escape sequence of a quoted git path.
+     *
+     * @param path the quoted path
+     * @param index the index of the character after the backslash
+     * @param bytes the decoded bytes
+     * @return the index after the escape sequence
+     */
+    private static int unescape(String path, int index, ByteArrayOutputStream bytes) {
+        final char character = path.charAt(index);
+        int next = index + 1;
+        if (character >= '0' && character <= '7'
+                && index + OCTAL_ESCAPE_LENGTH < path.length()) {
+            next = index + OCTAL_ESCAPE_LENGTH;
+            bytes.write(Integer.parseInt(path.substring(index, next), OCTAL_RADIX));
+        }
+        else if (character == 't') {
+            bytes.write('\t');
+        }
+        else if (character == 'n') {
+            bytes.write('\n');
+        }
+        else {
+            bytes.write(character);
+        }
+        return next;
+    }
+
+    /**
+     * Runs git in the given directory and returns its standard output.
+     *
+     * @param directory the working directory
+     * @param arguments the git arguments
+     * @return the lines of the output
+     * @throws CheckstyleException if git could not be run or exited with an error
+     */
+    private static List<String> runGit(File directory, String... arguments)
+            throws CheckstyleException {
+        final List<String> command = new ArrayList<String>();
+        command.add(GIT);
+        command.addAll(Arrays.asList(arguments));
+        try {
+            final Process process = new ProcessBuilder(command).directory(directory).start();
+            process.getOutputStream().close();
+            // the error output is drained concurrently, git blocks if its pipe fills up
+            final ErrorReader errorReader = new ErrorReader(process.getErrorStream());
+            errorReader.start();
+            final List<String> output = readLines(process.getInputStream());
+            final int exitCode = process.waitFor();
+            final List<String> errors = errorReader.getLines();
+            if (exitCode != 0) {
+                throw new CheckstyleException("Command '" + command + "' failed with exit code "
+                        + exitCode + ": " + errors);
+            }
+            return output;
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Unable to run " + GIT, ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while running " + GIT, ex);
+        }
+    }
+
+    /**
+     * Reads all lines of a stream as UTF-8 and closes it.
+     *
+     * @param stream the stream to read
+     * @return the lines
+     * @throws IOException if the stream could not be read
+     */
+    private static List<String> readLines(InputStream stream) throws IOException {
+        final List<String> result = new ArrayList<String>();
+        final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                result.add(line);
+                line = reader.readLine();
+            }
+        }
+        finally {
+            CommonUtil.close(reader);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the error output of a process on its own thread.
+     */
+    private static final class ErrorReader extends Thread {
+
+        /** The error output of the process. */
+        private final InputStream stream;
+
+        /** The lines read, replaced by the lines read so far if reading failed. */
+        private List<String> lines = Collections.emptyList();
+
+        /**
+         * Creates a new reader.
+         *
+         * @param stream the error output of the process
+         */
+        /* package */ ErrorReader(InputStream stream) {
+            super("git error reader");
+            setDaemon(true);
+            this.stream = stream;
+        }
+
+        @Override
+        public void run() {
+            try {
+                lines = readLines(stream);
+            }
+            catch (IOException ex) {
+                lines = Collections.singletonList(ex.toString());
+            }
+        }
+
+        /**
+         * Waits until the whole error output has been read and returns it.
+         *
+         * @return the lines of the error output
+         * @throws InterruptedException if interrupted while waiting
+         */
+        public List<String> getLines() throws InterruptedException {
+            join();
+            return lines;
+        }
+
+    }
+
+}
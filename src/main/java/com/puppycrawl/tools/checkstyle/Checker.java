@@ -30,9 +30,11 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -56,6 +58,7 @@ import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.jre6.util.Objects;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
@@ -66,6 +69,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Message to use when an exception occurs and should be printed as a violation. */
     public static final String EXCEPTION_MSG = "general.exception";
 
+    /**
+     * Key of the cache entry which holds the base commit of the changes if the
+     * cached files were checked with only the violations on changed lines reported.
+     */
+    private static final String CHANGED_LINES_BASE_CACHE_KEY = "changed-lines-base*?";
+
     /** Logger for Checker. */
     private final Log log;
 
@@ -73,9 +82,16 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     private final SeverityLevelCounter counter = new SeverityLevelCounter(
             SeverityLevel.ERROR);
 
+    /** Maintains warning count for the violation budget. */
+    private final SeverityLevelCounter warningCounter = new SeverityLevelCounter(
+            SeverityLevel.WARNING);
+
     /** Vector of listeners. */
     private final List<AuditListener> listeners = new ArrayList<AuditListener>();
 
+    /** The listeners events are fired to, the asynchronous dispatcher during an audit. */
+    private List<AuditListener> dispatchedListeners = listeners;
+
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = new ArrayList<FileSetCheck>();
 
@@ -103,6 +119,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** The context of all child components. */
     private Context childContext;
 
+    /**
+     * The state of the file being processed, which is shared by the child modules,
+     * so that filters can use data collected by the checks of the file.
+     */
+    private final Map<String, Object> fileState = new ConcurrentHashMap<String, Object>();
+
     /** The file extensions that are accepted. */
     private String[] fileExtensions = CommonUtil.EMPTY_STRING_ARRAY;
 
@@ -130,12 +152,31 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** The tab width for column reporting. */
     private int tabWidth = CommonUtil.DEFAULT_TAB_WIDTH;
 
+    /** The changes to restrict the audit to, {@code null} to audit all files. */
+    private ChangeSet changeSet;
+
+    /** Whether only violations on changed lines are reported. */
+    private boolean changedLinesOnly;
+
+    /** Size of the queue of events to dispatch asynchronously, 0 to notify synchronously. */
+    private int asyncListenerQueueSize;
+
+    /** The number of errors tolerated before the audit stops checking files. */
+    private int maxErrors = Integer.MAX_VALUE;
+
+    /** The number of warnings tolerated before the audit stops checking files. */
+    private int maxWarnings = Integer.MAX_VALUE;
+
+    /** The number of files the last audit skipped after the violation budget was exceeded. */
+    private int uncheckedFileCount;
+
     /**
      * Creates a new {@code Checker} instance.
      * The instance needs to be contextualized and configured.
      */
     public Checker() {
         addListener(counter);
+        addListener(warningCounter);
         log = LogFactory.getLog(Checker.class);
     }
 
@@ -151,6 +192,59 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         cacheFile.load();
     }
 
+    /**
+     * Restricts the audit to changed files. Unchanged files are only passed to
+     * the file set checks annotated with {@link GlobalStatefulCheck}, since those
+     * need to see the whole file set, and are skipped if there are none.
+     *
+     * @param changes the changes to restrict the audit to, {@code null} to audit all files
+     * @param onlyChangedLines whether to report only violations on changed lines
+     */
+    public void setChangeSet(ChangeSet changes, boolean onlyChangedLines) {
+        changeSet = changes;
+        changedLinesOnly = changes != null && onlyChangedLines;
+    }
+
+    /**
+     * Sets the violation budget of the audit. As soon as more errors or warnings than
+     * tolerated are reported, the audit stops checking files: the file in progress is
+     * finished, the remaining files are skipped and not cached, and the audit ends as usual.
+     *
+     * @param errors the number of errors tolerated
+     * @param warnings the number of warnings tolerated
+     * @throws IllegalArgumentException if a number is negative
+     */
+    public void setViolationBudget(int errors, int warnings) {
+        if (errors < 0 || warnings < 0) {
+            throw new IllegalArgumentException("Invalid violation budget: "
+                    + errors + " errors, " + warnings + " warnings");
+        }
+        maxErrors = errors;
+        maxWarnings = warnings;
+    }
+
+    /**
+     * Returns the number of files the last audit skipped because the violation
+     * budget was exceeded.
+     *
+     * @return the number of files not checked
+     */
+    public int getUncheckedFileCount() {
+        return uncheckedFileCount;
+    }
+
+    /**
+     * Checks whether the files of an audit can be split across several
+     * checkers with the same configuration. This is not the case if file set
+     * checks have to see all files of the audit, or if the checkers would
+     * overwrite each other's cache file.
+     *
+     * @return {@code true} if the files can be processed by several checkers
+     */
+    public boolean isPartitionable() {
+        return cacheFile == null && getGlobalFileSetChecks().isEmpty();
+    }
+
     /**
      * Removes before execution file filter.
      *
@@ -206,39 +300,93 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     @Override
     public int process(List<File> files) throws CheckstyleException {
         if (cacheFile != null) {
+            // files cached while only changed lines were reported may have violations
+            // on lines which are not changed relative to another commit
+            String baseCommit = null;
+            if (changedLinesOnly) {
+                baseCommit = changeSet.getBaseCommit();
+            }
+            if (!Objects.equals(cacheFile.get(CHANGED_LINES_BASE_CACHE_KEY), baseCommit)) {
+                cacheFile.reset();
+            }
+            if (baseCommit != null) {
+                cacheFile.put(CHANGED_LINES_BASE_CACHE_KEY, baseCommit);
+            }
             cacheFile.putExternalResources(getExternalResourceLocations());
         }
 
         // Prepare to start
-        fireAuditStarted();
-        for (final FileSetCheck fsc : fileSetChecks) {
-            fsc.beginProcessing(charset);
-        }
+        final AsyncAuditListener asyncListener = startAsyncListener();
+        final int errorCount;
+        try {
+            fireAuditStarted();
+            for (final FileSetCheck fsc : fileSetChecks) {
+                fsc.beginProcessing(charset);
+            }
 
-        final List<File> targetFiles = new ArrayList<File>();
-        for (File file : files) {
-            if (CommonUtil.matchesFileExtension(file, fileExtensions)) {
-                targetFiles.add(file);
+            final List<File> targetFiles = new ArrayList<File>();
+            for (File file : files) {
+                if (CommonUtil.matchesFileExtension(file, fileExtensions)) {
+                    targetFiles.add(file);
+                }
             }
-        }
-        processFiles(targetFiles);
+            processFiles(targetFiles);
 
-        // Finish up
-        for (final FileSetCheck fsc : fileSetChecks) {
-            // It may also log!!!
-            fsc.finishProcessing();
-        }
+            // Finish up
+            for (final FileSetCheck fsc : fileSetChecks) {
+                // It may also log!!!
+                fsc.finishProcessing();
+            }
 
-        for (final FileSetCheck fsc : fileSetChecks) {
-            // It may also log!!!
-            fsc.destroy();
-        }
+            for (final FileSetCheck fsc : fileSetChecks) {
+                // It may also log!!!
+                fsc.destroy();
+            }
 
-        final int errorCount = counter.getCount();
-        fireAuditFinished();
+            errorCount = counter.getCount();
+            fireAuditFinished();
+        }
+        finally {
+            if (asyncListener != null) {
+                asyncListener.stop();
+            }
+            dispatchedListeners = listeners;
+        }
         return errorCount;
     }
 
+    /**
+     * Starts the asynchronous dispatch of events to the listeners, if it is enabled.
+     * The violation counters and the xpath suppressions generator stay synchronous, the
+     * counts are read during the audit and the generator reads the xpath queries
+     * of the auditing thread.
+     *
+     * @return the started dispatcher, or {@code null} if events are fired synchronously
+     */
+    private AsyncAuditListener startAsyncListener() {
+        AsyncAuditListener result = null;
+        if (asyncListenerQueueSize > 0) {
+            final List<AuditListener> synchronousListeners = new ArrayList<AuditListener>();
+            final List<AuditListener> asyncListeners = new ArrayList<AuditListener>();
+            for (final AuditListener listener : listeners) {
+                if (listener == counter || listener == warningCounter
+                        || listener instanceof XpathFileGeneratorAuditListener) {
+                    synchronousListeners.add(listener);
+                }
+                else {
+                    asyncListeners.add(listener);
+                }
+            }
+            if (!asyncListeners.isEmpty()) {
+                result = new AsyncAuditListener(asyncListeners, asyncListenerQueueSize);
+                result.start();
+                synchronousListeners.add(result);
+                dispatchedListeners = synchronousListeners;
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns a set of external configuration resource locations which are used by all file set
      * checks and filters.
@@ -271,7 +419,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Notify all listeners about the audit start. */
     private void fireAuditStarted() {
         final AuditEvent event = new AuditEvent(this);
-        for (final AuditListener listener : listeners) {
+        for (final AuditListener listener : dispatchedListeners) {
             listener.auditStarted(event);
         }
     }
@@ -279,7 +427,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Notify all listeners about the audit end. */
     private void fireAuditFinished() {
         final AuditEvent event = new AuditEvent(this);
-        for (final AuditListener listener : listeners) {
+        for (final AuditListener listener : dispatchedListeners) {
             listener.auditFinished(event);
         }
     }
@@ -294,21 +442,38 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     // -@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
     private void processFiles(List<File> files) throws CheckstyleException {
+        final List<FileSetCheck> globalFileSetChecks = getGlobalFileSetChecks();
+        uncheckedFileCount = 0;
         for (final File file : files) {
+            if (isViolationBudgetExceeded()) {
+                uncheckedFileCount++;
+                continue;
+            }
             String fileName = null;
             try {
                 fileName = file.getAbsolutePath();
                 final long timestamp = file.lastModified();
+                final boolean changed = changeSet == null || changeSet.isChangedFile(file);
                 if (cacheFile != null && cacheFile.isInCache(fileName, timestamp)
+                        || !changed && globalFileSetChecks.isEmpty()
                         || !acceptFileStarted(fileName)) {
                     continue;
                 }
-                if (cacheFile != null) {
-                    cacheFile.put(fileName, timestamp);
+                final List<FileSetCheck> checks;
+                if (changed) {
+                    checks = fileSetChecks;
+                    if (isCachingFiles()) {
+                        cacheFile.put(fileName, timestamp);
+                    }
+                }
+                else {
+                    checks = globalFileSetChecks;
                 }
                 fireFileStarted(fileName);
-                final SortedSet<Violation> fileMessages = processFile(file);
+                fileState.clear();
+                final SortedSet<Violation> fileMessages = processFile(file, checks);
                 fireErrors(fileName, fileMessages);
+                fileState.clear();
                 fireFileFinished(fileName);
             }
             // -@cs[IllegalCatch] There is no other way to deliver filename that was under
@@ -334,18 +499,64 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     }
 
     /**
-     * Processes a file with all FileSetChecks.
+     * Checks whether more errors or warnings than tolerated were reported so far.
+     *
+     * @return {@code true} if the audit has to stop checking files
+     */
+    private boolean isViolationBudgetExceeded() {
+        return counter.getCount() > maxErrors || warningCounter.getCount() > maxWarnings;
+    }
+
+    /**
+     * Returns the file set checks which have to see all files, even in an audit
+     * restricted to changed files.
+     *
+     * @return the global stateful file set checks
+     */
+    private List<FileSetCheck> getGlobalFileSetChecks() {
+        final List<FileSetCheck> result = new ArrayList<FileSetCheck>();
+        for (final FileSetCheck fsc : fileSetChecks) {
+            if (fsc.getClass().isAnnotationPresent(GlobalStatefulCheck.class)) {
+                result.add(fsc);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether any of the given file set checks inspects the raw bytes of
+     * the file, so the file text has to keep them.
+     *
+     * @param checks the FileSetChecks to run
+     * @return {@code true} if a check is annotated with {@link RawBytesCheck}
+     */
+    private static boolean isRawBytesNeeded(List<FileSetCheck> checks) {
+        boolean result = false;
+        for (final FileSetCheck fsc : checks) {
+            if (fsc.getClass().isAnnotationPresent(RawBytesCheck.class)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Processes a file with the given FileSetChecks.
      *
      * @param file a file to process.
+     * @param checks the FileSetChecks to run.
      * @return a sorted set of violations to be logged.
      * @throws Exception if error condition within Checkstyle occurs.
      * @noinspection ProhibitedExceptionThrown
      */
-    private SortedSet<Violation> processFile(File file) throws Exception {
+    private SortedSet<Violation> processFile(File file, List<FileSetCheck> checks)
+            throws Exception {
         final SortedSet<Violation> fileMessages = new TreeSet<Violation>();
         try {
-            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
-            for (final FileSetCheck fsc : fileSetChecks) {
+            final FileText theText = new FileText(file.getAbsoluteFile(), charset,
+                    isRawBytesNeeded(checks));
+            for (final FileSetCheck fsc : checks) {
                 fileMessages.addAll(fsc.process(file, theText));
             }
         }
@@ -398,7 +609,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     public void fireFileStarted(String fileName) {
         final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
         final AuditEvent event = new AuditEvent(this, stripped);
-        for (final AuditListener listener : listeners) {
+        for (final AuditListener listener : dispatchedListeners) {
             listener.fileStarted(event);
         }
     }
@@ -415,9 +626,9 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         boolean hasNonFilteredViolations = false;
         for (final Violation element : errors) {
             final AuditEvent event = new AuditEvent(this, stripped, element);
-            if (filters.accept(event)) {
+            if (filters.accept(event) && isReportedLine(fileName, element.getLineNo())) {
                 hasNonFilteredViolations = true;
-                for (final AuditListener listener : listeners) {
+                for (final AuditListener listener : dispatchedListeners) {
                     listener.addError(event);
                 }
             }
@@ -427,6 +638,29 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         }
     }
 
+    /**
+     * Checks whether checked files are added to the cache. Files are not cached if
+     * only violations on lines changed relative to an unknown commit are reported.
+     *
+     * @return {@code true} if files are added to the cache
+     */
+    private boolean isCachingFiles() {
+        return cacheFile != null
+                && (!changedLinesOnly || changeSet.getBaseCommit() != null);
+    }
+
+    /**
+     * Checks whether a violation on the given line is reported, which is only
+     * the case for changed lines if the audit is restricted to them.
+     *
+     * @param fileName the audited file
+     * @param lineNo the line of the violation
+     * @return {@code true} if the violation is reported
+     */
+    private boolean isReportedLine(String fileName, int lineNo) {
+        return !changedLinesOnly || changeSet.isChangedLine(new File(fileName), lineNo);
+    }
+
     /**
      * Notify all listeners about the end of a file audit.
      *
@@ -437,7 +671,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     public void fireFileFinished(String fileName) {
         final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
         final AuditEvent event = new AuditEvent(this, stripped);
-        for (final AuditListener listener : listeners) {
+        for (final AuditListener listener : dispatchedListeners) {
             listener.fileFinished(event);
         }
     }
@@ -466,6 +700,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         context.add("severity", severity.getName());
         context.add("basedir", basedir);
         context.add("tabWidth", String.valueOf(tabWidth));
+        context.add("fileState", fileState);
         childContext = context;
     }
 
@@ -642,6 +877,22 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         this.haltOnException = haltOnException;
     }
 
+    /**
+     * Sets the size of the queue of events to pass to the listeners on a dedicated
+     * thread, so slow listeners do not hold up the audit. {@code 0} notifies the
+     * listeners on the auditing thread.
+     *
+     * @param asyncListenerQueueSize the size of the queue, {@code 0} to disable
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public void setAsyncListenerQueueSize(int asyncListenerQueueSize) {
+        if (asyncListenerQueueSize < 0) {
+            throw new IllegalArgumentException(
+                    "Invalid async listener queue size: " + asyncListenerQueueSize);
+        }
+        this.asyncListenerQueueSize = asyncListenerQueueSize;
+    }
+
     /**
      * Set the tab width to report audit events with.
      *
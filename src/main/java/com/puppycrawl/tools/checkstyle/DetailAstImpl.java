@@ -62,6 +62,7 @@ public final class DetailAstImpl extends CommonASTWithHiddenTokens implements De
     @Override
     public void initialize(Token token) {
         super.initialize(token);
+        setText(TextInterner.intern(token.getText()));
         lineNo = token.getLine();
 
         // expect columns to start @ 0
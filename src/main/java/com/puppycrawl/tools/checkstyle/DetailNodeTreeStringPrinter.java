@@ -21,6 +21,8 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser.ParseErrorMessage;
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser.ParseStatus;
@@ -57,6 +59,17 @@ public final class DetailNodeTreeStringPrinter {
         return printTree(parseFile(file), "", "");
     }
 
+    /**
+     * Parse a file and print the parse tree to a writer.
+     *
+     * @param file the file to print.
+     * @param out the writer to print to.
+     * @throws IOException if the file could not be read.
+     */
+    public static void printFileAst(File file, PrintWriter out) throws IOException {
+        printTree(parseFile(file), "", "", out);
+    }
+
     /**
      * Parse block comment DetailAST as Javadoc DetailNode tree.
      *
@@ -111,58 +124,109 @@ public final class DetailNodeTreeStringPrinter {
      * @return string AST.
      */
     public static String printTree(DetailNode ast, String rootPrefix, String prefix) {
-        final StringBuilder messageBuilder = new StringBuilder(1024);
+        final StringWriter result = new StringWriter(1024);
+        final PrintWriter printer = new PrintWriter(result);
+        printTree(ast, rootPrefix, prefix, printer);
+        printer.flush();
+        return result.toString();
+    }
+
+    /**
+     * Print AST to a writer.
+     *
+     * @param ast the root AST node.
+     * @param rootPrefix prefix for the root node
+     * @param prefix prefix for other nodes
+     * @param out the writer to print to.
+     */
+    public static void printTree(DetailNode ast, String rootPrefix, String prefix,
+            PrintWriter out) {
+        printTree(ast, rootPrefix, prefix, "", out);
+    }
+
+    /**
+     * Print AST to a writer.
+     *
+     * @param ast first node of the siblings to print.
+     * @param rootPrefix prefix for the root node
+     * @param prefix prefix for other nodes
+     * @param parentIndentation indentation of the children of the parent of the siblings.
+     * @param out the writer to print to.
+     */
+    private static void printTree(DetailNode ast, String rootPrefix, String prefix,
+            String parentIndentation, PrintWriter out) {
         DetailNode node = ast;
         while (node != null) {
+            final boolean isLastChild = JavadocUtil.getNextSibling(node) == null;
             if (node.getType() == JavadocTokenTypes.JAVADOC) {
-                messageBuilder.append(rootPrefix);
+                out.write(rootPrefix);
             }
             else {
-                messageBuilder.append(prefix);
+                out.write(prefix);
             }
-            messageBuilder.append(getIndentation(node))
-                    .append(JavadocUtil.getTokenName(node.getType())).append(" -> ")
-                    .append(JavadocUtil.escapeAllControlChars(node.getText())).append(" [")
-                    .append(node.getLineNumber()).append(':').append(node.getColumnNumber())
-                    .append(']').append(LINE_SEPARATOR)
-                    .append(printTree(JavadocUtil.getFirstChild(node), rootPrefix, prefix));
+            out.write(getIndentation(node, isLastChild, parentIndentation));
+            out.write(JavadocUtil.getTokenName(node.getType()));
+            out.write(" -> ");
+            AstTreeStringPrinter.writeEscaped(out, node.getText());
+            out.write(" [");
+            out.print(node.getLineNumber());
+            out.write(':');
+            out.print(node.getColumnNumber());
+            out.write(']');
+            out.write(LINE_SEPARATOR);
+            printTree(JavadocUtil.getFirstChild(node), rootPrefix, prefix,
+                    getChildIndentation(node, isLastChild, parentIndentation), out);
             node = JavadocUtil.getNextSibling(node);
         }
-        return messageBuilder.toString();
     }
 
     /**
      * Get indentation for a node.
      *
      * @param node the DetailNode to get the indentation for.
+     * @param isLastChild whether the node is the last child of its parent.
+     * @param parentIndentation indentation of the children of the parent of the node.
      * @return the indentation in String format.
      */
-    private static String getIndentation(DetailNode node) {
-        final boolean isLastChild = JavadocUtil.getNextSibling(node) == null;
-        DetailNode currentNode = node;
-        final StringBuilder indentation = new StringBuilder(1024);
-        while (currentNode.getParent() != null) {
-            currentNode = currentNode.getParent();
-            if (currentNode.getParent() == null) {
-                if (isLastChild) {
-                    // only ASCII symbols must be used due to
-                    // problems with running tests on Windows
-                    indentation.append("`--");
-                }
-                else {
-                    indentation.append("|--");
-                }
-            }
-            else {
-                if (JavadocUtil.getNextSibling(currentNode) == null) {
-                    indentation.insert(0, "    ");
-                }
-                else {
-                    indentation.insert(0, "|   ");
-                }
-            }
+    private static String getIndentation(DetailNode node, boolean isLastChild,
+            String parentIndentation) {
+        final String indentation;
+        if (node.getParent() == null) {
+            indentation = "";
+        }
+        else if (isLastChild) {
+            // only ASCII symbols must be used due to
+            // problems with running tests on Windows
+            indentation = parentIndentation + "`--";
+        }
+        else {
+            indentation = parentIndentation + "|--";
+        }
+        return indentation;
+    }
+
+    /**
+     * Get indentation of the children of a node, which the markers of the
+     * children are appended to.
+     *
+     * @param node the DetailNode to get the indentation of the children for.
+     * @param isLastChild whether the node is the last child of its parent.
+     * @param parentIndentation indentation of the children of the parent of the node.
+     * @return the indentation in String format.
+     */
+    private static String getChildIndentation(DetailNode node, boolean isLastChild,
+            String parentIndentation) {
+        final String indentation;
+        if (node.getParent() == null) {
+            indentation = "";
+        }
+        else if (isLastChild) {
+            indentation = parentIndentation + "    ";
+        }
+        else {
+            indentation = parentIndentation + "|   ";
         }
-        return indentation.toString();
+        return indentation;
     }
 
     /**
@@ -21,8 +21,6 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
 import java.util.Locale;
 
 import antlr.CommonASTWithHiddenTokens;
@@ -37,11 +35,13 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.grammar.CharSequenceInputBuffer;
 import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaLexer;
 import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaRecognizer;
 import com.puppycrawl.tools.checkstyle.grammar.GeneratedTextBlockLexer;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 import com.puppycrawl.tools.checkstyle.utils.ParserUtil;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * Helper methods to parse java source files.
@@ -80,27 +80,7 @@ public final class JavaParser {
      */
     public static DetailAST parse(FileContents contents)
             throws CheckstyleException {
-        final String fullText = contents.getText().getFullText().toString();
-        final Reader reader = new StringReader(fullText);
-        final GeneratedJavaLexer lexer = new GeneratedJavaLexer(reader);
-        lexer.setCommentListener(contents);
-
-        final GeneratedTextBlockLexer textBlockLexer =
-                new GeneratedTextBlockLexer(lexer.getInputState());
-
-        final String tokenObjectClass = "antlr.CommonHiddenStreamToken";
-        lexer.setTokenObjectClass(tokenObjectClass);
-        textBlockLexer.setTokenObjectClass(tokenObjectClass);
-
-        final TokenStreamHiddenTokenFilter filter = new TokenStreamHiddenTokenFilter(lexer);
-        filter.hide(TokenTypes.SINGLE_LINE_COMMENT);
-        filter.hide(TokenTypes.BLOCK_COMMENT_BEGIN);
-
-        final TokenStreamSelector selector = new TokenStreamSelector();
-        lexer.selector = selector;
-        textBlockLexer.selector = selector;
-        selector.addInputStream(textBlockLexer, "textBlockLexer");
-        selector.select(filter);
+        final TokenStreamSelector selector = createTokenStream(contents, true);
 
         final GeneratedJavaRecognizer parser = new GeneratedJavaRecognizer(selector) {
             @Override
@@ -135,6 +115,89 @@ public final class JavaParser {
         return (DetailAST) parser.getAST();
     }
 
+    /**
+     * Splits a Java source file into tokens, without parsing it.
+     * The tokens are returned as nodes of the lexer's token types, the
+     * parser changes some of them and adds imaginary tokens. Every token
+     * is the next sibling of the token before it, none of them has a
+     * parent. Comments are included as comment nodes, like the ones
+     * created by {@link #appendHiddenCommentNodes(DetailAST)}.
+     *
+     * @param contents contains the contents of the file
+     * @return the first token, or {@code null} if the file has no tokens
+     * @throws CheckstyleException if the contents can't be split into Java tokens
+     */
+    public static DetailAST tokenize(FileContents contents)
+            throws CheckstyleException {
+        final TokenStreamSelector selector = createTokenStream(contents, false);
+        DetailAstImpl first = null;
+        DetailAstImpl last = null;
+        try {
+            Token token = selector.nextToken();
+            while (token.getType() != Token.EOF_TYPE) {
+                final DetailAstImpl ast;
+                if (TokenUtil.isCommentType(token.getType())) {
+                    ast = (DetailAstImpl) createCommentAstFromToken(token);
+                }
+                else {
+                    ast = new DetailAstImpl();
+                    ast.initialize(token);
+                }
+                if (last == null) {
+                    first = ast;
+                }
+                else {
+                    last.setNextSibling(ast);
+                }
+                last = ast;
+                token = selector.nextToken();
+            }
+        }
+        catch (TokenStreamException ex) {
+            final String exceptionMsg = String.format(Locale.ROOT,
+                "%s occurred while lexing file %s.",
+                ex.getClass().getSimpleName(), contents.getFileName());
+            throw new CheckstyleException(exceptionMsg, ex);
+        }
+        return first;
+    }
+
+    /**
+     * Creates the stream of tokens of a Java source file.
+     *
+     * @param contents contains the contents of the file
+     * @param hideComments whether comment tokens are hidden from the stream
+     * @return the stream of tokens
+     */
+    private static TokenStreamSelector createTokenStream(FileContents contents,
+            boolean hideComments) {
+        final GeneratedJavaLexer lexer = new GeneratedJavaLexer(
+                new CharSequenceInputBuffer(contents.getText().getFullText()));
+        lexer.setCommentListener(contents);
+
+        final GeneratedTextBlockLexer textBlockLexer =
+                new GeneratedTextBlockLexer(lexer.getInputState());
+
+        final String tokenObjectClass = "antlr.CommonHiddenStreamToken";
+        lexer.setTokenObjectClass(tokenObjectClass);
+        textBlockLexer.setTokenObjectClass(tokenObjectClass);
+
+        final TokenStreamSelector selector = new TokenStreamSelector();
+        lexer.selector = selector;
+        textBlockLexer.selector = selector;
+        selector.addInputStream(textBlockLexer, "textBlockLexer");
+        if (hideComments) {
+            final TokenStreamHiddenTokenFilter filter = new TokenStreamHiddenTokenFilter(lexer);
+            filter.hide(TokenTypes.SINGLE_LINE_COMMENT);
+            filter.hide(TokenTypes.BLOCK_COMMENT_BEGIN);
+            selector.select(filter);
+        }
+        else {
+            selector.select(lexer);
+        }
+        return selector;
+    }
+
     /**
      * Parse a text and return the parse tree.
      *
@@ -19,11 +19,16 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -34,6 +39,7 @@ import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,6 +51,7 @@ import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.RootModule;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
 import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 import com.puppycrawl.tools.checkstyle.jre6.file.Paths;
@@ -58,6 +65,7 @@ import picocli.CommandLine.Option;
 import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.TypeConversionException;
 
 /**
  * Wrapper command line program for the Checker.
@@ -83,6 +91,9 @@ public final class Main {
     /** Logger for Main. */
     private static final Log LOG = LogFactory.getLog(Main.class);
 
+    /** Extension of output files that SARIF reports are written compressed to. */
+    private static final String GZIP_EXTENSION = ".gz";
+
     /** Exit code returned when user specified invalid command line arguments. */
     private static final int EXIT_WITH_INVALID_USER_INPUT_CODE = -1;
 
@@ -109,6 +120,7 @@ public final class Main {
         final CliOptions cliOptions = new CliOptions();
         final CommandLine commandLine = new CommandLine(cliOptions);
         commandLine.registerConverter(Path.class, new PathConverter());
+        commandLine.registerConverter(Shard.class, new ShardConverter());
         commandLine.setUsageHelpWidth(CliOptions.HELP_WIDTH);
         commandLine.setCaseInsensitiveEnumValuesAllowed(true);
 
@@ -232,6 +244,9 @@ public final class Main {
                 final File[] files = node.listFiles();
                 // listFiles() can return null, so we need to check it
                 if (files != null) {
+                    // the order of the listing depends on the file system, sorting it
+                    // gives every run, and every shard of it, the same order
+                    Arrays.sort(files);
                     for (File element : files) {
                         result.addAll(listFiles(element, patternsToExclude));
                     }
@@ -282,33 +297,14 @@ public final class Main {
         final boolean hasSuppressionLineColumnNumber = options.suppressionLineColumnNumber != null;
 
         // create config helper object
-        if (options.printAst) {
-            // print AST
-            final File file = filesToProcess.get(0);
-            final String stringAst = AstTreeStringPrinter.printFileAst(file,
-                    JavaParser.Options.WITHOUT_COMMENTS);
-            System.out.print(stringAst);
+        if (options.printAst || options.printAstWithComments || options.printJavadocTree
+                || options.printTreeWithJavadoc) {
+            printTree(options, filesToProcess.get(0));
         }
         else if (options.xpath != null) {
             final String branch = XpathUtil.printXpathBranch(options.xpath, filesToProcess.get(0));
             System.out.print(branch);
         }
-        else if (options.printAstWithComments) {
-            final File file = filesToProcess.get(0);
-            final String stringAst = AstTreeStringPrinter.printFileAst(file,
-                    JavaParser.Options.WITH_COMMENTS);
-            System.out.print(stringAst);
-        }
-        else if (options.printJavadocTree) {
-            final File file = filesToProcess.get(0);
-            final String stringAst = DetailNodeTreeStringPrinter.printFileAst(file);
-            System.out.print(stringAst);
-        }
-        else if (options.printTreeWithJavadoc) {
-            final File file = filesToProcess.get(0);
-            final String stringAst = AstTreeStringPrinter.printJavaAndJavadocTree(file);
-            System.out.print(stringAst);
-        }
         else if (hasSuppressionLineColumnNumber) {
             final File file = filesToProcess.get(0);
             final String stringSuppressions =
@@ -316,6 +312,9 @@ public final class Main {
                             options.suppressionLineColumnNumber, options.tabWidth);
             System.out.print(stringSuppressions);
         }
+        else if (options.mergeReports) {
+            result = mergeReports(options, filesToProcess);
+        }
         else {
             if (options.debug) {
                 final Logger parentLogger = Logger.getLogger(Main.class.getName()).getParent();
@@ -407,9 +406,12 @@ public final class Main {
             rootModule.setModuleClassLoader(moduleClassLoader);
             rootModule.configure(config);
             rootModule.addListener(listener);
+            applyViolationBudget(options, rootModule);
 
             // run RootModule
-            errorCounter = rootModule.process(filesToProcess);
+            errorCounter = rootModule.process(
+                    applyChangeSet(options, rootModule, applyShard(options, filesToProcess)));
+            reportUncheckedFiles(rootModule);
         }
         finally {
             rootModule.destroy();
@@ -418,6 +420,159 @@ public final class Main {
         return errorCounter;
     }
 
+    /**
+     * Stops the audit once more errors than tolerated are found, if a maximum is specified.
+     *
+     * @param options user-specified options
+     * @param rootModule the configured root module
+     */
+    private static void applyViolationBudget(CliOptions options, RootModule rootModule) {
+        if (options.maxErrors != null && rootModule instanceof Checker) {
+            ((Checker) rootModule).setViolationBudget(options.maxErrors, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Prints the number of files the audit skipped after it exceeded the tolerated
+     * errors, if there are any.
+     *
+     * @param rootModule the root module which ran the audit
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    private static void reportUncheckedFiles(RootModule rootModule) {
+        if (rootModule instanceof Checker) {
+            final int uncheckedFiles = ((Checker) rootModule).getUncheckedFileCount();
+            if (uncheckedFiles > 0) {
+                // output stream might be used by validation report content
+                System.err.println(String.format(Locale.ROOT, "Stopped the audit as the "
+                        + "maximum number of errors was exceeded, %d files were not checked.",
+                        uncheckedFiles));
+            }
+        }
+    }
+
+    /**
+     * Restricts the audit to the files of the shard, if one is specified.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the list of files whose style to check
+     * @return the files of the shard
+     */
+    private static List<File> applyShard(CliOptions options, List<File> filesToProcess) {
+        List<File> result = filesToProcess;
+        if (options.shard != null) {
+            result = options.shard.select(filesToProcess, new File("").getAbsoluteFile(),
+                    options.shardBySize);
+        }
+        return result;
+    }
+
+    /**
+     * Merges the reports of the shards of an audit into one report.
+     *
+     * @param options user-specified options
+     * @param reports the reports to merge
+     * @return number of violations of ERROR level in the merged report
+     * @throws IOException if a report could not be read or written
+     * @throws CheckstyleException if a file is not a report of the given format
+     */
+    private static int mergeReports(CliOptions options, List<File> reports)
+            throws IOException, CheckstyleException {
+        OutputStream out = getOutputStream(options.outputPath);
+        if (options.format == OutputFormat.SARIF && options.outputPath != null
+                && options.outputPath.toFile().getName().endsWith(GZIP_EXTENSION)) {
+            out = new GZIPOutputStream(out);
+        }
+        final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        final int result;
+        try {
+            if (options.format == OutputFormat.XML) {
+                result = ReportMerger.mergeXml(reports, writer);
+            }
+            else {
+                result = ReportMerger.mergeSarif(reports, writer);
+            }
+        }
+        finally {
+            if (options.outputPath == null) {
+                writer.flush();
+            }
+            else {
+                writer.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prints the tree of the file requested by the options to the output
+     * location node by node, without building the whole tree as a string.
+     *
+     * @param options user-specified options
+     * @param file the file to print the tree of
+     * @throws IOException if the file could not be read or the tree could not be written
+     * @throws CheckstyleException if the file is not a Java source
+     */
+    private static void printTree(CliOptions options, File file)
+            throws IOException, CheckstyleException {
+        final PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                getOutputStream(options.outputPath),
+                System.getProperty("file.encoding", StandardCharsets.UTF_8.name()))));
+        try {
+            if (options.printAst) {
+                AstTreeStringPrinter.printFileAst(file, JavaParser.Options.WITHOUT_COMMENTS,
+                        writer);
+            }
+            else if (options.printAstWithComments) {
+                AstTreeStringPrinter.printFileAst(file, JavaParser.Options.WITH_COMMENTS,
+                        writer);
+            }
+            else if (options.printJavadocTree) {
+                DetailNodeTreeStringPrinter.printFileAst(file, writer);
+            }
+            else {
+                AstTreeStringPrinter.printJavaAndJavadocTree(file, writer);
+            }
+        }
+        finally {
+            if (options.outputPath == null) {
+                writer.flush();
+            }
+            else {
+                writer.close();
+            }
+        }
+        if (options.outputPath != null && writer.checkError()) {
+            throw new IOException("Failed to write the tree to " + options.outputPath);
+        }
+    }
+
+    /**
+     * Restricts the audit to the files changed relative to the base revision,
+     * if one is specified.
+     *
+     * @param options user-specified options
+     * @param rootModule the configured root module
+     * @param filesToProcess the list of files whose style to check
+     * @return the files to pass to the root module
+     * @throws CheckstyleException if the changes could not be computed
+     */
+    private static List<File> applyChangeSet(CliOptions options, RootModule rootModule,
+            List<File> filesToProcess) throws CheckstyleException {
+        List<File> result = filesToProcess;
+        if (options.diffBase != null) {
+            final ChangeSet changeSet = ChangeSet.fromGit(options.files.get(0),
+                    options.diffBase);
+            if (rootModule instanceof Checker) {
+                ((Checker) rootModule).setChangeSet(changeSet, options.changedLinesOnly);
+            }
+            else {
+                result = changeSet.filter(filesToProcess);
+            }
+        }
+        return result;
+    }
+
     /**
      * Loads properties from a File.
      *
@@ -490,7 +645,8 @@ public final class Main {
     /**
      * This method creates in AuditListener an open stream for validation data, it must be
      * closed by {@link RootModule} (default implementation is {@link Checker}) by calling
-     * {@link AuditListener#auditFinished(AuditEvent)}.
+     * {@link AuditListener#auditFinished(AuditEvent)}. SARIF reports written to a file
+     * with the {@code .gz} extension are compressed with gzip.
      *
      * @param format format of the audit listener
      * @param outputLocation the location of output
@@ -502,7 +658,15 @@ public final class Main {
         final OutputStream out = getOutputStream(outputLocation);
         final AutomaticBean.OutputStreamOptions closeOutputStreamOption =
                 getOutputStreamOptions(outputLocation);
-        return format.createListener(out, closeOutputStreamOption);
+        final AuditListener result;
+        if (format == OutputFormat.SARIF && outputLocation != null
+                && outputLocation.toFile().getName().endsWith(GZIP_EXTENSION)) {
+            result = new SarifLogger(out, closeOutputStreamOption, true);
+        }
+        else {
+            result = format.createListener(out, closeOutputStreamOption);
+        }
+        return result;
     }
 
     /**
@@ -719,15 +883,15 @@ public final class Main {
         /** Option that controls whether to print the AST of the file. */
         @Option(names = {"-t", "--tree"},
                 description = "Prints Abstract Syntax Tree(AST) of the checked file. The option "
-                        + "cannot be used other options and requires exactly one file to run on "
-                        + "to be specified.")
+                        + "cannot be used with other options except -o and requires exactly one "
+                        + "file to run on to be specified.")
         private boolean printAst;
 
         /** Option that controls whether to print the AST of the file including comments. */
         @Option(names = {"-T", "--treeWithComments"},
                 description = "Prints Abstract Syntax Tree(AST) with comment nodes "
                         + "of the checked file. The option cannot be used with other options "
-                        + "and requires exactly one file to run on to be specified.")
+                        + "except -o and requires exactly one file to run on to be specified.")
         private boolean printAstWithComments;
 
         /** Option that controls whether to print the parse tree of the javadoc comment. */
@@ -735,8 +899,8 @@ public final class Main {
                 description = "Prints Parse Tree of the Javadoc comment. "
                         + "The file have to contain only Javadoc comment content without "
                         + "including '/**' and '*/' at the beginning and at the end respectively. "
-                        + "The option cannot be used other options and requires exactly one file "
-                        + "to run on to be specified.")
+                        + "The option cannot be used with other options except -o and requires "
+                        + "exactly one file to run on to be specified.")
         private boolean printJavadocTree;
 
         /** Option that controls whether to print the full AST of the file. */
@@ -745,8 +909,8 @@ public final class Main {
                         + "and comment nodes of the checked file. Attention that line number and "
                         + "columns will not be the same as it is a file due to the fact that each "
                         + "javadoc comment is parsed separately from java file. The option cannot "
-                        + "be used with other options and requires exactly one file to run on to "
-                        + "be specified.")
+                        + "be used with other options except -o and requires exactly one file to "
+                        + "run on to be specified.")
         private boolean printTreeWithJavadoc;
 
         /** Option that controls whether to print debug info. */
@@ -787,6 +951,48 @@ public final class Main {
             description = "Shows Abstract Syntax Tree(AST) branches that match given XPath query.")
         private String xpath;
 
+        /** Base revision to restrict the audit to files changed since. */
+        @Option(names = {"-r", "--diff-base"}, paramLabel = "<ref>",
+                description = "Checks only files changed relative to the given git revision, "
+                        + "including uncommitted and untracked files. Checks annotated with "
+                        + "@GlobalStatefulCheck still process all files.")
+        private String diffBase;
+
+        /** Switch whether to report only violations on changed lines. */
+        @Option(names = {"-l", "--changed-lines"},
+                description = "Reports only violations on lines changed relative to the "
+                        + "revision given with --diff-base.")
+        private boolean changedLinesOnly;
+
+        /** The number of errors tolerated before the audit stops checking files. */
+        @Option(names = "--max-errors", paramLabel = "<number>",
+                description = "Stops checking files as soon as more errors than the given "
+                        + "number are found. The file being checked is finished and the "
+                        + "remaining files are skipped.")
+        private Integer maxErrors;
+
+        /** The shard of the files to check. */
+        @Option(names = "--shard", paramLabel = "<i/N>",
+                description = "Checks only the i-th of N shards of the files, to split an audit "
+                        + "across processes. Files are assigned to shards by a hash of their "
+                        + "path relative to the current directory.")
+        private Shard shard;
+
+        /** Switch whether to balance the total size of the files of the shards. */
+        @Option(names = "--shard-by-size",
+                description = "Assigns the files to shards so the total size of the files of "
+                        + "the shards is balanced. Used only with --shard option.")
+        private boolean shardBySize;
+
+        /** Switch whether to merge reports instead of checking files. */
+        @Option(names = "--merge-reports",
+                description = "Merges the reports given instead of files to check, like the "
+                        + "reports of the shards of an audit, into one report. The reports have "
+                        + "to be in the format given with -f option, xml or sarif. Files are "
+                        + "ordered by path, which may differ from the order they were given to "
+                        + "the audits in. Output location can be specified with -o option.")
+        private boolean mergeReports;
+
         /**
          * Gets the list of exclusions provided through the command line arguments.
          *
@@ -822,7 +1028,7 @@ public final class Main {
             else if (printAst || printAstWithComments || printJavadocTree || printTreeWithJavadoc
                 || xpath != null) {
                 if (suppressionLineColumnNumber != null || configurationFile != null
-                        || propertiesFile != null || outputPath != null
+                        || propertiesFile != null || outputPath != null && xpath != null
                         || parseResult.hasMatchedOption(OUTPUT_FORMAT_OPTION)) {
                     result.add("Option '-t' cannot be used with other options.");
                 }
@@ -830,6 +1036,16 @@ public final class Main {
                     result.add("Printing AST is allowed for only one file.");
                 }
             }
+            else if (mergeReports) {
+                if (hasSuppressionLineColumnNumber || configurationFile != null
+                        || propertiesFile != null || generateXpathSuppressionsFile
+                        || shard != null || diffBase != null || maxErrors != null) {
+                    result.add("Option '--merge-reports' cannot be used with other options.");
+                }
+                else if (format == OutputFormat.PLAIN) {
+                    result.add("Option '--merge-reports' requires '-f xml' or '-f sarif'.");
+                }
+            }
             else if (hasSuppressionLineColumnNumber) {
                 if (configurationFile != null || propertiesFile != null
                         || outputPath != null
@@ -869,10 +1085,34 @@ public final class Main {
                 result.add(String.format(Locale.ROOT,
                         "Could not find file '%s'.", propertiesFile));
             }
+            if (changedLinesOnly && diffBase == null) {
+                result.add("Option '--changed-lines' requires '--diff-base'.");
+            }
+            if (maxErrors != null && maxErrors < 0) {
+                result.add("Option '--max-errors' requires a non-negative number.");
+            }
+            if (shardBySize && shard == null) {
+                result.add("Option '--shard-by-size' requires '--shard'.");
+            }
             return result;
         }
     }
 
+    /**
+     * Converter to turn String into a Shard.
+     */
+    private static class ShardConverter implements ITypeConverter<Shard> {
+        @Override
+        public Shard convert(String value) {
+            try {
+                return Shard.parse(value);
+            }
+            catch (IllegalArgumentException ex) {
+                throw new TypeConversionException(ex.getMessage());
+            }
+        }
+    }
+
     /**
      * Converter to turn String into a Path.
      */
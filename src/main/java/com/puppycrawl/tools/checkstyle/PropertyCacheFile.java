@@ -191,6 +191,16 @@ public final class PropertyCacheFile {
         details.setProperty(checkedFileName, Long.toString(timestamp));
     }
 
+    /**
+     * Records a value which is not the timestamp of a file.
+     *
+     * @param name the name of the value
+     * @param value the value
+     */
+    public void put(String name, String value) {
+        details.setProperty(name, value);
+    }
+
     /**
      * Retrieves the hash of a specific file.
      *
@@ -0,0 +1,994 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
+import com.puppycrawl.tools.checkstyle.jre6.file.Path;
+import com.puppycrawl.tools.checkstyle.jre6.lang.Boolean7;
+import com.puppycrawl.tools.checkstyle.jre6.lang.System7;
+
+/**
+ * Merges the reports of {@link XMLLogger} or {@link SarifLogger} written by audits of
+ * the shards of a file set into the report of an audit of the whole file set.
+ * The reports are parsed, so their layout does not matter, and the file elements
+ * and results they contain are written as the loggers write them. The files of the
+ * merged report are ordered by their paths, directory by directory, which is the order
+ * the command line visits the files of a directory in, but not necessarily the order
+ * of files given one by one. Results of a file keep their order, and exceptions not
+ * related to a file come last. Like
+ * {@link com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter}, the count returned
+ * by the merge includes errors with error severity and exceptions.
+ */
+final class ReportMerger {
+
+    /** The extension of compressed reports. */
+    private static final String GZIP_EXTENSION = ".gz";
+
+    /** Separator of the components of file names. */
+    private static final Pattern PATH_SEPARATOR = Pattern.compile("[/\\\\]");
+
+    /** The SAX property of the handler of CDATA sections. */
+    private static final String LEXICAL_HANDLER =
+            "http://xml.org/sax/properties/lexical-handler";
+
+    /** The root element of XML reports. */
+    private static final String XML_ROOT = "checkstyle";
+
+    /** The file element of XML reports. */
+    private static final String XML_FILE = "file";
+
+    /** The error element of XML reports. */
+    private static final String XML_ERROR = "error";
+
+    /** The exception element of XML reports. */
+    private static final String XML_EXCEPTION = "exception";
+
+    /** The severity of errors with error severity in XML reports. */
+    private static final String XML_ERROR_SEVERITY = "error";
+
+    /** The line separator of SARIF reports. */
+    private static final String SARIF_LINE_SEPARATOR = "\n";
+
+    /** The indentation of a level of SARIF reports. */
+    private static final String SARIF_INDENT = "  ";
+
+    /** The indentation of the results of SARIF reports. */
+    private static final String SARIF_RESULT_INDENT = "        ";
+
+    /** The level of results with error severity in SARIF reports. */
+    private static final String SARIF_ERROR_LEVEL = "error";
+
+    /** Prevent instances. */
+    private ReportMerger() {
+    }
+
+    /**
+     * Merges XML reports.
+     *
+     * @param reports the reports to merge
+     * @param out the writer to write the merged report to
+     * @return the number of errors with error severity and exceptions in the merged report
+     * @throws IOException if a report could not be read or written
+     * @throws CheckstyleException if a file is not an XML report
+     */
+    public static int mergeXml(List<File> reports, Writer out)
+            throws IOException, CheckstyleException {
+        final String separator = System7.lineSeparator();
+        final List<ReportSection> sections = new ArrayList<ReportSection>();
+        String version = null;
+        for (File report : reports) {
+            final XmlReportHandler handler = new XmlReportHandler(sections, separator);
+            parseXml(report, handler);
+            if (version == null) {
+                version = handler.version;
+            }
+        }
+        sortSections(sections);
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        out.write(separator);
+        out.write("<checkstyle version=\"" + XMLLogger.encode(String.valueOf(version)) + "\">");
+        out.write(separator);
+        int errors = 0;
+        for (ReportSection section : sections) {
+            out.append(section.content);
+            errors += section.errors;
+        }
+        out.write("</checkstyle>");
+        out.write(separator);
+        return errors;
+    }
+
+    /**
+     * Parses an XML report.
+     *
+     * @param report the report file
+     * @param handler the handler of the content of the report
+     * @throws IOException if the report could not be read
+     * @throws CheckstyleException if the file is not an XML report
+     */
+    private static void parseXml(File report, XmlReportHandler handler)
+            throws IOException, CheckstyleException {
+        final InputStream stream = openReport(report);
+        try {
+            final SAXParserFactory factory = SAXParserFactory.newInstance();
+            XmlLoader.LoadExternalDtdFeatureProvider.setFeaturesBySystemProperty(factory);
+            final XMLReader reader = factory.newSAXParser().getXMLReader();
+            reader.setContentHandler(handler);
+            reader.setProperty(LEXICAL_HANDLER, handler);
+            reader.parse(new InputSource(stream));
+        }
+        catch (SAXException ex) {
+            throw new CheckstyleException("Not an XML report: " + report, ex);
+        }
+        catch (ParserConfigurationException ex) {
+            throw new CheckstyleException("Unable to create an XML parser", ex);
+        }
+        finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Merges SARIF reports. The results of the first run of the reports are merged
+     * into the first run of the first report. The rules of the merged report are the
+     * rules of its results, in the order of their first appearance.
+     *
+     * @param reports the reports to merge
+     * @param out the writer to write the merged report to
+     * @return the number of results with error level and exception results in the
+     *     merged report
+     * @throws IOException if a report could not be read or written
+     * @throws CheckstyleException if a file is not a SARIF report
+     */
+    public static int mergeSarif(List<File> reports, Writer out)
+            throws IOException, CheckstyleException {
+        final List<ReportSection> sections = new ArrayList<ReportSection>();
+        final Map<String, Object> rules = new LinkedHashMap<String, Object>();
+        Map<String, Object> document = null;
+        for (File report : reports) {
+            final Map<String, Object> parsed = parseSarif(report);
+            final Map<String, Object> run = getSarifRun(parsed);
+            for (Object result : getList(run, "results")) {
+                sections.add(createSarifSection(result));
+            }
+            for (Object rule : getSarifRules(run)) {
+                final String ruleId = getString(rule, "id");
+                if (ruleId != null && !rules.containsKey(ruleId)) {
+                    rules.put(ruleId, rule);
+                }
+            }
+            if (document == null) {
+                document = parsed;
+            }
+        }
+        sortSections(sections);
+
+        final List<Object> results = new ArrayList<Object>();
+        final Map<String, Object> mergedRules = new LinkedHashMap<String, Object>();
+        int errors = 0;
+        for (ReportSection section : sections) {
+            results.add(new JsonScalar(section.content.toString()));
+            if (section.ruleId != null && !mergedRules.containsKey(section.ruleId)) {
+                Object rule = rules.get(section.ruleId);
+                if (rule == null) {
+                    final Map<String, Object> idOnly = new LinkedHashMap<String, Object>();
+                    idOnly.put("id", JsonScalar.ofString(section.ruleId));
+                    rule = idOnly;
+                }
+                mergedRules.put(section.ruleId, rule);
+            }
+            errors += section.errors;
+        }
+        final Map<String, Object> run = getSarifRun(document);
+        run.put("results", results);
+        final Map<String, Object> driver = getMap(getMap(run, "tool"), "driver");
+        if (driver != null && driver.get("rules") instanceof List) {
+            driver.put("rules", new ArrayList<Object>(mergedRules.values()));
+        }
+        writeJson(document, "", out);
+        out.write(SARIF_LINE_SEPARATOR);
+        return errors;
+    }
+
+    /**
+     * Parses a SARIF report.
+     *
+     * @param report the report file
+     * @return the root object of the report
+     * @throws IOException if the report could not be read
+     * @throws CheckstyleException if the file is not a SARIF report
+     */
+    private static Map<String, Object> parseSarif(File report)
+            throws IOException, CheckstyleException {
+        final InputStream stream = openReport(report);
+        final Object result;
+        try {
+            result = new JsonReader(new BufferedReader(
+                    new InputStreamReader(stream, StandardCharsets.UTF_8))).readDocument();
+        }
+        catch (IllegalArgumentException ex) {
+            throw new CheckstyleException("Not a SARIF report: " + report, ex);
+        }
+        finally {
+            stream.close();
+        }
+        final Map<String, Object> run = getSarifRun(result);
+        if (run == null || getList(run, "results") == null) {
+            throw new CheckstyleException("Not a SARIF report: " + report);
+        }
+        return getMap(result);
+    }
+
+    /**
+     * Returns the first run of a SARIF report.
+     *
+     * @param document the root object of the report
+     * @return the first run, or {@code null} if the report has no runs
+     */
+    private static Map<String, Object> getSarifRun(Object document) {
+        final List<Object> runs = getList(document, "runs");
+        Map<String, Object> result = null;
+        if (runs != null && !runs.isEmpty()) {
+            result = getMap(runs.get(0));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rules of the tool of a SARIF run.
+     *
+     * @param run the run
+     * @return the rules, empty if the run has none
+     */
+    private static List<Object> getSarifRules(Map<String, Object> run) {
+        List<Object> result = getList(getMap(getMap(run, "tool"), "driver"), "rules");
+        if (result == null) {
+            result = Collections.emptyList();
+        }
+        return result;
+    }
+
+    /**
+     * Creates the section of a SARIF result. Results without a rule id are
+     * exceptions, which count as an error whatever their level is.
+     *
+     * @param result the result
+     * @return the section of the result
+     */
+    private static ReportSection createSarifSection(Object result) {
+        String fileName = null;
+        final List<Object> locations = getList(result, "locations");
+        if (locations != null && !locations.isEmpty()) {
+            fileName = getString(getMap(getMap(locations.get(0), "physicalLocation"),
+                    "artifactLocation"), "uri");
+        }
+        final ReportSection section = new ReportSection(fileName);
+        section.ruleId = getString(result, "ruleId");
+        if (section.ruleId == null || SARIF_ERROR_LEVEL.equals(getString(result, "level"))) {
+            section.errors = 1;
+        }
+        writeJson(result, SARIF_RESULT_INDENT, section.content);
+        return section;
+    }
+
+    /**
+     * Returns an object as a JSON object.
+     *
+     * @param value the object
+     * @return the JSON object, or {@code null} if the object is not a JSON object
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Object value) {
+        Map<String, Object> result = null;
+        if (value instanceof Map) {
+            result = (Map<String, Object>) value;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a member of a JSON object which is a JSON object itself.
+     *
+     * @param object the JSON object, may be {@code null}
+     * @param name the name of the member
+     * @return the member, or {@code null} if there is no such JSON object
+     */
+    private static Map<String, Object> getMap(Object object, String name) {
+        Map<String, Object> result = null;
+        final Map<String, Object> map = getMap(object);
+        if (map != null) {
+            result = getMap(map.get(name));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a member of a JSON object which is an array.
+     *
+     * @param object the JSON object, may be {@code null}
+     * @param name the name of the member
+     * @return the member, or {@code null} if there is no such array
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> getList(Object object, String name) {
+        List<Object> result = null;
+        final Map<String, Object> map = getMap(object);
+        if (map != null && map.get(name) instanceof List) {
+            result = (List<Object>) map.get(name);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a member of a JSON object which is a string.
+     *
+     * @param object the JSON object, may be {@code null}
+     * @param name the name of the member
+     * @return the value of the member, or {@code null} if there is no such string
+     */
+    private static String getString(Object object, String name) {
+        String result = null;
+        final Map<String, Object> map = getMap(object);
+        if (map != null && map.get(name) instanceof JsonScalar) {
+            result = ((JsonScalar) map.get(name)).getString();
+        }
+        return result;
+    }
+
+    /**
+     * Writes a JSON value as {@link SarifLogger} writes it, with members and
+     * elements on their own lines. Scalars are written as they were read.
+     *
+     * @param value the JSON object, array or scalar
+     * @param indent the indentation of the line the value starts on
+     * @param out the appendable to write to
+     * @throws IllegalStateException if the value could not be written
+     */
+    private static void writeJson(Object value, String indent, Appendable out) {
+        try {
+            final String innerIndent = indent + SARIF_INDENT;
+            if (value instanceof Map) {
+                out.append('{');
+                String separator = SARIF_LINE_SEPARATOR;
+                for (Map.Entry<String, Object> member : getMap(value).entrySet()) {
+                    out.append(separator).append(innerIndent).append('"')
+                            .append(SarifLogger.escape(member.getKey())).append("\": ");
+                    writeJson(member.getValue(), innerIndent, out);
+                    separator = "," + SARIF_LINE_SEPARATOR;
+                }
+                out.append(SARIF_LINE_SEPARATOR).append(indent).append('}');
+            }
+            else if (value instanceof List) {
+                out.append('[');
+                String separator = SARIF_LINE_SEPARATOR;
+                for (Object element : (List<?>) value) {
+                    out.append(separator).append(innerIndent);
+                    writeJson(element, innerIndent, out);
+                    separator = "," + SARIF_LINE_SEPARATOR;
+                }
+                out.append(SARIF_LINE_SEPARATOR).append(indent).append(']');
+            }
+            else {
+                out.append(((JsonScalar) value).text);
+            }
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Unable to write JSON", ex);
+        }
+    }
+
+    /**
+     * Sorts the sections by the components of their file names, keeping the order of
+     * sections of the same file. Sections without a file come last.
+     *
+     * @param sections the sections to sort
+     */
+    private static void sortSections(List<ReportSection> sections) {
+        Collections.sort(sections, new Comparator<ReportSection>() {
+            @Override
+            public int compare(ReportSection first, ReportSection second) {
+                final int result;
+                if (first.fileName == null || second.fileName == null) {
+                    result = Boolean7.compare(first.fileName == null,
+                            second.fileName == null);
+                }
+                else {
+                    result = comparePaths(first.fileName, second.fileName);
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Compares two paths component by component.
+     *
+     * @param first the first path
+     * @param second the second path
+     * @return a negative number, zero or a positive number if the first path is
+     *     ordered before, like or after the second path
+     */
+    /* package */ static int comparePaths(String first, String second) {
+        final String[] firstComponents = PATH_SEPARATOR.split(first, -1);
+        final String[] secondComponents = PATH_SEPARATOR.split(second, -1);
+        final int length = Math.min(firstComponents.length, secondComponents.length);
+        int result = 0;
+        for (int i = 0; i < length && result == 0; i++) {
+            result = firstComponents[i].compareTo(secondComponents[i]);
+        }
+        if (result == 0) {
+            result = firstComponents.length - secondComponents.length;
+        }
+        return result;
+    }
+
+    /**
+     * Opens a report, reports with the {@code .gz} extension are decompressed.
+     *
+     * @param report the report file
+     * @return the stream of the content of the report
+     * @throws IOException if the report could not be opened
+     */
+    private static InputStream openReport(File report) throws IOException {
+        InputStream result = Files7.newInputStream(new Path(report));
+        if (report.getName().endsWith(GZIP_EXTENSION)) {
+            try {
+                result = new GZIPInputStream(result);
+            }
+            catch (IOException ex) {
+                result.close();
+                throw ex;
+            }
+        }
+        return result;
+    }
+
+    /** A file element of an XML report, or a result of a SARIF report. */
+    private static final class ReportSection {
+
+        /** The content of the section as it is written to the merged report. */
+        private final StringBuilder content = new StringBuilder();
+
+        /** The name of the file of the section, {@code null} for results without file. */
+        private final String fileName;
+
+        /** The id of the rule of a SARIF result. */
+        private String ruleId;
+
+        /** The number of errors with error severity and exceptions in the section. */
+        private int errors;
+
+        /**
+         * Creates a new {@code ReportSection} instance.
+         *
+         * @param fileName the name of the file of the section
+         */
+        /* package */ ReportSection(String fileName) {
+            this.fileName = fileName;
+        }
+
+    }
+
+    /**
+     * Collects the file elements and the exceptions outside of file elements of an
+     * XML report as sections, written as {@link XMLLogger} writes them.
+     */
+    private static final class XmlReportHandler extends DefaultHandler
+            implements LexicalHandler {
+
+        /** The list to add the sections to. */
+        private final List<ReportSection> sections;
+
+        /** The line separator of the merged report. */
+        private final String separator;
+
+        /** The character data of the exception being read. */
+        private final StringBuilder exceptionData = new StringBuilder();
+
+        /** The version attribute of the root element. */
+        private String version;
+
+        /** The depth of the current element, 1 for children of the root element. */
+        private int depth;
+
+        /** The section being read, {@code null} outside of sections. */
+        private ReportSection section;
+
+        /** Whether an exception is being read. */
+        private boolean inException;
+
+        /** Whether a CDATA section is being read. */
+        private boolean inCharacterData;
+
+        /**
+         * Creates a new {@code XmlReportHandler} instance.
+         *
+         * @param sections the list to add the sections to
+         * @param separator the line separator of the merged report
+         */
+        /* package */ XmlReportHandler(List<ReportSection> sections, String separator) {
+            this.sections = sections;
+            this.separator = separator;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName,
+                Attributes attributes) throws SAXException {
+            if (depth == 0) {
+                if (!XML_ROOT.equals(qName)) {
+                    throw new SAXException("Unexpected root element: " + qName);
+                }
+                version = attributes.getValue("version");
+            }
+            else if (depth == 1) {
+                if (XML_FILE.equals(qName)) {
+                    final String fileName = attributes.getValue("name");
+                    if (fileName == null) {
+                        throw new SAXException("File element without name");
+                    }
+                    section = new ReportSection(fileName);
+                    section.content.append("<file name=\"")
+                            .append(XMLLogger.encode(fileName)).append("\">").append(separator);
+                    sections.add(section);
+                }
+                else if (XML_EXCEPTION.equals(qName)) {
+                    section = new ReportSection(null);
+                    startException();
+                    sections.add(section);
+                }
+            }
+            else if (depth == 2 && section != null && !inException) {
+                if (XML_EXCEPTION.equals(qName)) {
+                    startException();
+                }
+                else {
+                    writeEmptyElement(qName, attributes);
+                }
+            }
+            depth++;
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            depth--;
+            if (section != null) {
+                if (inException && depth <= 2 && XML_EXCEPTION.equals(qName)) {
+                    endException();
+                }
+                if (depth == 1) {
+                    if (XML_FILE.equals(qName)) {
+                        section.content.append("</file>").append(separator);
+                    }
+                    section = null;
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inCharacterData) {
+                exceptionData.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void startCDATA() {
+            inCharacterData = inException;
+        }
+
+        @Override
+        public void endCDATA() {
+            inCharacterData = false;
+        }
+
+        @Override
+        public void startDTD(String name, String publicId, String systemId) {
+            // no code
+        }
+
+        @Override
+        public void endDTD() {
+            // no code
+        }
+
+        @Override
+        public void startEntity(String name) {
+            // no code
+        }
+
+        @Override
+        public void endEntity(String name) {
+            // no code
+        }
+
+        @Override
+        public void comment(char[] ch, int start, int length) {
+            // no code
+        }
+
+        /**
+         * Writes an element without content, like an error, counting errors with
+         * error severity.
+         *
+         * @param name the name of the element
+         * @param attributes the attributes of the element
+         */
+        private void writeEmptyElement(String name, Attributes attributes) {
+            section.content.append('<').append(name);
+            for (int i = 0; i < attributes.getLength(); i++) {
+                section.content.append(' ').append(attributes.getQName(i)).append("=\"")
+                        .append(XMLLogger.encode(attributes.getValue(i))).append('"');
+            }
+            section.content.append("/>").append(separator);
+            if (XML_ERROR.equals(name)
+                    && XML_ERROR_SEVERITY.equals(attributes.getValue("severity"))) {
+                section.errors++;
+            }
+        }
+
+        /** Starts reading an exception, which counts as an error. */
+        private void startException() {
+            inException = true;
+            exceptionData.setLength(0);
+            section.errors++;
+        }
+
+        /** Writes the exception read. */
+        private void endException() {
+            section.content.append("<exception>").append(separator)
+                    .append("<![CDATA[")
+                    .append(exceptionData.toString().replace("\n", separator))
+                    .append("]]>").append(separator)
+                    .append("</exception>").append(separator);
+            inException = false;
+        }
+
+    }
+
+    /** A JSON string, number or literal, kept as it was written. */
+    private static final class JsonScalar {
+
+        /** The JSON text of the value. */
+        private final String text;
+
+        /**
+         * Creates a new {@code JsonScalar} instance.
+         *
+         * @param text the JSON text of the value
+         */
+        /* package */ JsonScalar(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Creates a JSON string.
+         *
+         * @param value the value of the string
+         * @return the JSON string
+         */
+        public static JsonScalar ofString(String value) {
+            return new JsonScalar('"' + SarifLogger.escape(value) + '"');
+        }
+
+        /**
+         * Returns the value of a JSON string.
+         *
+         * @return the value, or {@code null} if the scalar is not a string
+         */
+        public String getString() {
+            String result = null;
+            if (text.charAt(0) == '"') {
+                result = JsonReader.unescape(text);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Reads a JSON document into maps of members, lists of elements and scalars
+     * kept as they were written.
+     */
+    private static final class JsonReader {
+
+        /** The length of a unicode escape sequence after the {@code \\u}. */
+        private static final int UNICODE_LENGTH = 4;
+
+        /** Hex radix. */
+        private static final int BASE_16 = 16;
+
+        /** The pattern of JSON numbers and literals. */
+        private static final Pattern SCALAR = Pattern.compile(
+                "true|false|null|-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+        /** The reader to read the document from. */
+        private final Reader reader;
+
+        /** The next character of the document, -1 at its end. */
+        private int next;
+
+        /**
+         * Creates a new {@code JsonReader} instance.
+         *
+         * @param reader the reader to read the document from
+         */
+        /* package */ JsonReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the document.
+         *
+         * @return the root value of the document
+         * @throws IOException if the document could not be read
+         * @throws IllegalArgumentException if the document is not valid JSON
+         */
+        public Object readDocument() throws IOException {
+            next = reader.read();
+            final Object result = readValue();
+            skipWhitespace();
+            if (next != -1) {
+                throw new IllegalArgumentException("Unexpected content after the document");
+            }
+            return result;
+        }
+
+        /**
+         * Reads a value.
+         *
+         * @return the value
+         * @throws IOException if the document could not be read
+         */
+        private Object readValue() throws IOException {
+            skipWhitespace();
+            final Object result;
+            if (next == '{') {
+                result = readObject();
+            }
+            else if (next == '[') {
+                result = readArray();
+            }
+            else if (next == '"') {
+                result = new JsonScalar(readString());
+            }
+            else {
+                result = readScalar();
+            }
+            return result;
+        }
+
+        /**
+         * Reads an object.
+         *
+         * @return the members of the object
+         * @throws IOException if the document could not be read
+         */
+        private Map<String, Object> readObject() throws IOException {
+            final Map<String, Object> result = new LinkedHashMap<String, Object>();
+            read();
+            skipWhitespace();
+            if (next == '}') {
+                read();
+            }
+            else {
+                do {
+                    skipWhitespace();
+                    if (next != '"') {
+                        throw new IllegalArgumentException("Member name expected");
+                    }
+                    final String name = unescape(readString());
+                    skipWhitespace();
+                    if (read() != ':') {
+                        throw new IllegalArgumentException("':' expected");
+                    }
+                    result.put(name, readValue());
+                } while (readSeparator('}'));
+            }
+            return result;
+        }
+
+        /**
+         * Reads an array.
+         *
+         * @return the elements of the array
+         * @throws IOException if the document could not be read
+         */
+        private List<Object> readArray() throws IOException {
+            final List<Object> result = new ArrayList<Object>();
+            read();
+            skipWhitespace();
+            if (next == ']') {
+                read();
+            }
+            else {
+                do {
+                    result.add(readValue());
+                } while (readSeparator(']'));
+            }
+            return result;
+        }
+
+        /**
+         * Reads the separator after a member or an element.
+         *
+         * @param end the character ending the object or array
+         * @return {@code true} if another member or element follows
+         * @throws IOException if the document could not be read
+         */
+        private boolean readSeparator(char end) throws IOException {
+            skipWhitespace();
+            final int chr = read();
+            if (chr != ',' && chr != end) {
+                throw new IllegalArgumentException("',' or '" + end + "' expected");
+            }
+            return chr == ',';
+        }
+
+        /**
+         * Reads a string.
+         *
+         * @return the string with its quotes and escape sequences
+         * @throws IOException if the document could not be read
+         */
+        private String readString() throws IOException {
+            final StringBuilder text = new StringBuilder();
+            text.append((char) read());
+            boolean escaped = false;
+            boolean closed = false;
+            while (!closed) {
+                final int chr = read();
+                if (chr == -1) {
+                    throw new IllegalArgumentException("Unterminated string");
+                }
+                text.append((char) chr);
+                closed = !escaped && chr == '"';
+                escaped = !escaped && chr == '\\';
+            }
+            final String result = text.toString();
+            // escape sequences are validated once, values are decoded only when needed
+            unescape(result);
+            return result;
+        }
+
+        /**
+         * Reads a number or a literal.
+         *
+         * @return the scalar
+         * @throws IOException if the document could not be read
+         */
+        private JsonScalar readScalar() throws IOException {
+            final StringBuilder text = new StringBuilder();
+            while (next != -1 && (Character.isLetterOrDigit(next)
+                    || next == '-' || next == '+' || next == '.')) {
+                text.append((char) read());
+            }
+            if (!SCALAR.matcher(text).matches()) {
+                throw new IllegalArgumentException("Unexpected value: " + text);
+            }
+            return new JsonScalar(text.toString());
+        }
+
+        /**
+         * Skips whitespace.
+         *
+         * @throws IOException if the document could not be read
+         */
+        private void skipWhitespace() throws IOException {
+            while (next == ' ' || next == '\t' || next == '\n' || next == '\r') {
+                read();
+            }
+        }
+
+        /**
+         * Reads a character.
+         *
+         * @return the character, -1 at the end of the document
+         * @throws IOException if the document could not be read
+         */
+        private int read() throws IOException {
+            final int result = next;
+            next = reader.read();
+            return result;
+        }
+
+        /**
+         * Decodes a quoted JSON string.
+         *
+         * @param text the string with its quotes and escape sequences
+         * @return the value of the string
+         * @throws IllegalArgumentException if an escape sequence is not valid
+         */
+        public static String unescape(String text) {
+            final StringBuilder result = new StringBuilder(text.length());
+            final int end = text.length() - 1;
+            int index = 1;
+            while (index < end) {
+                char chr = text.charAt(index);
+                if (chr == '\\') {
+                    index++;
+                    chr = text.charAt(index);
+                    switch (chr) {
+                        case 'b':
+                            chr = '\b';
+                            break;
+                        case 'f':
+                            chr = '\f';
+                            break;
+                        case 'n':
+                            chr = '\n';
+                            break;
+                        case 'r':
+                            chr = '\r';
+                            break;
+                        case 't':
+                            chr = '\t';
+                            break;
+                        case 'u':
+                            if (index + UNICODE_LENGTH >= end) {
+                                throw new IllegalArgumentException(
+                                        "Invalid unicode escape sequence");
+                            }
+                            chr = (char) Integer.parseInt(
+                                    text.substring(index + 1, index + 1 + UNICODE_LENGTH),
+                                    BASE_16);
+                            index += UNICODE_LENGTH;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                result.append(chr);
+                index++;
+            }
+            return result.toString();
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,21 +27,28 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
-import com.puppycrawl.tools.checkstyle.jre6.lang.String7;
 
 /**
  * Simple SARIF logger.
  * SARIF stands for the static analysis results interchange format.
  * Reference: https://sarifweb.azurewebsites.net/
+ *
+ * <p>
+ * Results are written to the output as soon as they are reported, so memory usage does not
+ * grow with the number of violations. Only the distinct rule ids are kept until the end of the
+ * audit, where they are written as the rule descriptors of the tool. The report can optionally
+ * be compressed with gzip.
+ * </p>
  */
 public class SarifLogger extends AutomaticBean implements AuditListener {
 
@@ -53,53 +61,41 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
     /** Input stream buffer size. */
     private static final int BUFFER_SIZE = 1024;
 
-    /** The placeholder for message. */
-    private static final String MESSAGE_PLACEHOLDER = "${message}";
-
-    /** The placeholder for severity level. */
-    private static final String SEVERITY_LEVEL_PLACEHOLDER = "${severityLevel}";
-
-    /** The placeholder for uri. */
-    private static final String URI_PLACEHOLDER = "${uri}";
-
-    /** The placeholder for line. */
-    private static final String LINE_PLACEHOLDER = "${line}";
-
-    /** The placeholder for column. */
-    private static final String COLUMN_PLACEHOLDER = "${column}";
-
-    /** The placeholder for rule id. */
-    private static final String RULE_ID_PLACEHOLDER = "${ruleId}";
-
     /** The placeholder for version. */
     private static final String VERSION_PLACEHOLDER = "${version}";
 
     /** The placeholder for results. */
     private static final String RESULTS_PLACEHOLDER = "${results}";
 
+    /** The placeholder for rules. */
+    private static final String RULES_PLACEHOLDER = "${rules}";
+
     /** Helper writer that allows easy encoding and printing. */
     private final PrintWriter writer;
 
+    /** Compressing stream the writer prints to, or {@code null} if output is not compressed. */
+    private final GZIPOutputStream compressedStream;
+
     /** Close output stream in auditFinished. */
     private final boolean closeStream;
 
-    /** The results. */
-    private final List<String> results = new ArrayList<String>();
+    /** Ids of the rules reported so far, in order of their first appearance. */
+    private final Set<String> ruleIds = new LinkedHashSet<String>();
 
-    /** Content for the entire report. */
-    private final String report;
+    /** Content of the report before the results. */
+    private final String reportHeader;
 
-    /** Content for result representing an error with source line and column. */
-    private final String resultLineColumn;
+    /** Content of the report between the results and the rules. */
+    private final String reportMiddle;
 
-    /** Content for result representing an error with source line only. */
-    private final String resultLineOnly;
+    /** Content of the report after the rules. */
+    private final String reportFooter;
 
-    /** Content for result representing an error with filename only and without source location. */
-    private final String resultFileOnly;
+    /** Reusable buffer holding the characters of the string being escaped. */
+    private char[] escapeBuffer = new char[BUFFER_SIZE];
 
-    /** Content for result representing an error without filename or location. */
-    private final String resultErrorOnly;
+    /** Whether a result has already been written. */
+    private boolean hasResults;
 
     /**
      * Creates a new {@code SarifLogger} instance.
@@ -112,20 +108,44 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
     public SarifLogger(
         OutputStream outputStream,
         OutputStreamOptions outputStreamOptions) throws IOException {
+        this(outputStream, outputStreamOptions, false);
+    }
+
+    /**
+     * Creates a new {@code SarifLogger} instance.
+     *
+     * @param outputStream where to log audit events
+     * @param outputStreamOptions if {@code CLOSE} that should be closed in auditFinished()
+     * @param compress whether the report should be compressed with gzip
+     * @throws IllegalArgumentException if outputStreamOptions is null
+     * @throws IOException if there is reading errors.
+     */
+    public SarifLogger(
+        OutputStream outputStream,
+        OutputStreamOptions outputStreamOptions,
+        boolean compress) throws IOException {
         if (outputStreamOptions == null) {
             throw new IllegalArgumentException("Parameter outputStreamOptions can not be null");
         }
-        writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        final String report =
+            readResource("/com/puppycrawl/tools/checkstyle/sarif/SarifReport.template");
+        final int resultsIndex = report.indexOf(RESULTS_PLACEHOLDER);
+        final int rulesIndex = report.indexOf(RULES_PLACEHOLDER);
+        reportHeader = report.substring(0, resultsIndex);
+        reportMiddle = report.substring(resultsIndex + RESULTS_PLACEHOLDER.length(), rulesIndex);
+        reportFooter = report.substring(rulesIndex + RULES_PLACEHOLDER.length());
+        final OutputStream target;
+        if (compress) {
+            compressedStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            target = compressedStream;
+        }
+        else {
+            compressedStream = null;
+            target = outputStream;
+        }
+        writer = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(target, StandardCharsets.UTF_8)));
         closeStream = outputStreamOptions == OutputStreamOptions.CLOSE;
-        report = readResource("/com/puppycrawl/tools/checkstyle/sarif/SarifReport.template");
-        resultLineColumn =
-            readResource("/com/puppycrawl/tools/checkstyle/sarif/ResultLineColumn.template");
-        resultLineOnly =
-            readResource("/com/puppycrawl/tools/checkstyle/sarif/ResultLineOnly.template");
-        resultFileOnly =
-            readResource("/com/puppycrawl/tools/checkstyle/sarif/ResultFileOnly.template");
-        resultErrorOnly =
-            readResource("/com/puppycrawl/tools/checkstyle/sarif/ResultErrorOnly.template");
     }
 
     @Override
@@ -135,7 +155,7 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
 
     @Override
     public void auditStarted(AuditEvent event) {
-        // No code by default
+        writer.print(reportHeader);
     }
 
     /**
@@ -146,72 +166,73 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
      */
     @Override
     public void auditFinished(AuditEvent event) {
+        writer.print(reportMiddle);
+        boolean first = true;
+        for (String ruleId : ruleIds) {
+            if (first) {
+                writer.print("\n");
+                first = false;
+            }
+            else {
+                writer.print(",\n");
+            }
+            writer.print("            {\n              \"id\": ");
+            writeString(ruleId);
+            writer.print("\n            }");
+        }
         final String version = SarifLogger.class.getPackage().getImplementationVersion();
-        final String rendered = report
-            .replace(VERSION_PLACEHOLDER, String.valueOf(version))
-            .replace(RESULTS_PLACEHOLDER, String7.join(",\n", results));
-        writer.print(rendered);
+        writer.print(reportFooter.replace(VERSION_PLACEHOLDER, String.valueOf(version)));
         if (closeStream) {
             writer.close();
         }
+        else if (compressedStream == null) {
+            writer.flush();
+        }
         else {
             writer.flush();
+            try {
+                compressedStream.finish();
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Unable to finish compressed SARIF report", ex);
+            }
         }
     }
 
-    /**
-     * {@inheritDoc}
-     * Following idea suppressions are false positives
-     *
-     * @noinspection DynamicRegexReplaceableByCompiledPattern
-     */
     @Override
     public void addError(AuditEvent event) {
+        final String ruleId = event.getViolation().getKey();
+        startResult(event.getSeverityLevel());
+        startLocation(event.getFileName());
+        writer.print(",\n                \"region\": {\n");
         if (event.getColumn() > 0) {
-            results.add(resultLineColumn
-                .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
-                .replace(URI_PLACEHOLDER, event.getFileName())
-                .replace(COLUMN_PLACEHOLDER, Integer.toString(event.getColumn()))
-                .replace(LINE_PLACEHOLDER, Integer.toString(event.getLine()))
-                .replace(MESSAGE_PLACEHOLDER, escape(event.getMessage()))
-                .replace(RULE_ID_PLACEHOLDER, event.getViolation().getKey())
-            );
-        }
-        else {
-            results.add(resultLineOnly
-                .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
-                .replace(URI_PLACEHOLDER, event.getFileName())
-                .replace(LINE_PLACEHOLDER, Integer.toString(event.getLine()))
-                .replace(MESSAGE_PLACEHOLDER, escape(event.getMessage()))
-                .replace(RULE_ID_PLACEHOLDER, event.getViolation().getKey())
-            );
+            writer.print("                  \"startColumn\": ");
+            writer.print(event.getColumn());
+            writer.print(",\n");
         }
+        writer.print("                  \"startLine\": ");
+        writer.print(event.getLine());
+        writer.print("\n                }");
+        endLocation();
+        writeMessage(event.getMessage());
+        writer.print(",\n          \"ruleId\": ");
+        writeString(ruleId);
+        writer.print("\n        }");
+        ruleIds.add(ruleId);
     }
 
-    /**
-     * {@inheritDoc}
-     * Following idea suppressions are false positives
-     *
-     * @noinspection DynamicRegexReplaceableByCompiledPattern
-     */
     @Override
     public void addException(AuditEvent event, Throwable throwable) {
         final StringWriter stringWriter = new StringWriter();
         final PrintWriter printer = new PrintWriter(stringWriter);
         throwable.printStackTrace(printer);
-        if (event.getFileName() == null) {
-            results.add(resultErrorOnly
-                .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
-                .replace(MESSAGE_PLACEHOLDER, escape(stringWriter.toString()))
-            );
-        }
-        else {
-            results.add(resultFileOnly
-                .replace(SEVERITY_LEVEL_PLACEHOLDER, renderSeverityLevel(event.getSeverityLevel()))
-                .replace(URI_PLACEHOLDER, event.getFileName())
-                .replace(MESSAGE_PLACEHOLDER, escape(stringWriter.toString()))
-            );
+        startResult(event.getSeverityLevel());
+        if (event.getFileName() != null) {
+            startLocation(event.getFileName());
+            endLocation();
         }
+        writeMessage(stringWriter.toString());
+        writer.print("\n        }");
     }
 
     @Override
@@ -224,6 +245,71 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
         // No need to implement this method in this class
     }
 
+    /**
+     * Writes the beginning of a result up to and including its level.
+     *
+     * @param severityLevel the severity level of the result.
+     */
+    private void startResult(SeverityLevel severityLevel) {
+        if (hasResults) {
+            writer.print(",\n");
+        }
+        else {
+            writer.print("\n");
+            hasResults = true;
+        }
+        writer.print("        {\n          \"level\": \"");
+        writer.print(renderSeverityLevel(severityLevel));
+        writer.print('"');
+    }
+
+    /**
+     * Writes the beginning of the location of a result up to and including its uri.
+     *
+     * @param fileName the name of the file the result belongs to.
+     */
+    private void startLocation(String fileName) {
+        writer.print(",\n          \"locations\": [\n            {\n"
+            + "              \"physicalLocation\": {\n"
+            + "                \"artifactLocation\": {\n                  \"uri\": ");
+        writeString(fileName);
+        writer.print("\n                }");
+    }
+
+    /**
+     * Writes the end of the location of a result.
+     */
+    private void endLocation() {
+        writer.print("\n              }\n            }\n          ]");
+    }
+
+    /**
+     * Writes the message of a result.
+     *
+     * @param message the message text.
+     */
+    private void writeMessage(String message) {
+        writer.print(",\n          \"message\": {\n            \"text\": ");
+        writeString(message);
+        writer.print("\n          }");
+    }
+
+    /**
+     * Writes the value as a quoted JSON string.
+     *
+     * @param value the value to write.
+     */
+    private void writeString(String value) {
+        final int length = value.length();
+        if (escapeBuffer.length < length) {
+            escapeBuffer = new char[Math.max(length, escapeBuffer.length * 2)];
+        }
+        value.getChars(0, length, escapeBuffer, 0);
+        writer.print('"');
+        writeEscaped(writer, escapeBuffer, length);
+        writer.print('"');
+    }
+
     /**
      * Render the severity level into SARIF severity level.
      *
@@ -258,45 +344,77 @@ public class SarifLogger extends AutomaticBean implements AuditListener {
      * @return the escaped value if necessary.
      */
     public static String escape(String value) {
-        final StringBuilder sb = new StringBuilder(value.length());
-        for (int i = 0; i < value.length(); i++) {
-            final char chr = value.charAt(i);
-            switch (chr) {
-                case '"':
-                    sb.append("\\\"");
-                    break;
-                case '\\':
-                    sb.append("\\\\");
-                    break;
-                case '\b':
-                    sb.append("\\b");
-                    break;
-                case '\f':
-                    sb.append("\\f");
-                    break;
-                case '\n':
-                    sb.append("\\n");
-                    break;
-                case '\r':
-                    sb.append("\\r");
-                    break;
-                case '\t':
-                    sb.append("\\t");
-                    break;
-                case '/':
-                    sb.append("\\/");
-                    break;
-                default:
-                    if (chr <= UNICODE_ESCAPE_UPPER_LIMIT) {
-                        sb.append(escapeUnicode1F(chr));
-                    }
-                    else {
-                        sb.append(chr);
-                    }
-                    break;
+        final StringWriter result = new StringWriter(value.length());
+        final PrintWriter printer = new PrintWriter(result);
+        writeEscaped(printer, value.toCharArray(), value.length());
+        printer.flush();
+        return result.toString();
+    }
+
+    /**
+     * Writes the characters with \b, \f, \n, \r, \t, \", \\ and U+0000 through U+001F
+     * escaped. Runs of characters that need no escaping are written at once.
+     *
+     * @param out the writer to write to.
+     * @param chars the characters to escape.
+     * @param length the number of characters to escape.
+     */
+    private static void writeEscaped(PrintWriter out, char[] chars, int length) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final String replacement = getReplacement(chars[i]);
+            if (replacement != null) {
+                out.write(chars, start, i - start);
+                out.write(replacement);
+                start = i + 1;
             }
         }
-        return sb.toString();
+        out.write(chars, start, length - start);
+    }
+
+    /**
+     * Returns the JSON escape sequence of the character.
+     *
+     * @param chr the character to escape.
+     * @return the escape sequence, or {@code null} if the character needs no escaping.
+     */
+    private static String getReplacement(char chr) {
+        final String replacement;
+        switch (chr) {
+            case '"':
+                replacement = "\\\"";
+                break;
+            case '\\':
+                replacement = "\\\\";
+                break;
+            case '\b':
+                replacement = "\\b";
+                break;
+            case '\f':
+                replacement = "\\f";
+                break;
+            case '\n':
+                replacement = "\\n";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            case '/':
+                replacement = "\\/";
+                break;
+            default:
+                if (chr <= UNICODE_ESCAPE_UPPER_LIMIT) {
+                    replacement = escapeUnicode1F(chr);
+                }
+                else {
+                    replacement = null;
+                }
+                break;
+        }
+        return replacement;
     }
 
     /**
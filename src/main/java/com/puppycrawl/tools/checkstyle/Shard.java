@@ -0,0 +1,229 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.jre6.lang.Integer7;
+import com.puppycrawl.tools.checkstyle.jre6.lang.Long7;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * One of several parts of a file set, which are audited by separate processes.
+ * Every process selects the files of its shard from the same file set, so the
+ * assignment of a file depends only on its path relative to the base directory
+ * and, if shards are balanced by size, on the sizes of all files.
+ * Files keep their relative order within a shard.
+ */
+final class Shard {
+
+    /** The number of the shard, starting at 1. */
+    private final int number;
+
+    /** The number of shards. */
+    private final int count;
+
+    /**
+     * Creates a new {@code Shard} instance.
+     *
+     * @param number the number of the shard, starting at 1
+     * @param count the number of shards
+     */
+    private Shard(int number, int count) {
+        this.number = number;
+        this.count = count;
+    }
+
+    /**
+     * Parses a shard given as {@code i/N}, where {@code i} is the number of the shard
+     * between 1 and the number of shards {@code N}.
+     *
+     * @param value the shard specification
+     * @return the shard
+     * @throws IllegalArgumentException if the value is not a valid shard
+     */
+    public static Shard parse(String value) {
+        final int separator = value.indexOf('/');
+        Shard result = null;
+        if (separator > 0) {
+            try {
+                final int number = Integer.parseInt(value.substring(0, separator));
+                final int count = Integer.parseInt(value.substring(separator + 1));
+                if (number >= 1 && number <= count) {
+                    result = new Shard(number, count);
+                }
+            }
+            catch (NumberFormatException ignored) {
+                // reported below
+            }
+        }
+        if (result == null) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                    "Invalid shard '%s', expected i/N with 1 <= i <= N.", value));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of the shard.
+     *
+     * @return the number of the shard, starting at 1
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Selects the files of this shard. Files are assigned by a hash of their path, or
+     * if balanced by size, from the largest to the smallest to the shard with the least
+     * total size so far.
+     *
+     * @param files the file set
+     * @param baseDirectory the directory paths are relative to
+     * @param bySize whether to balance the total size of the files of the shards
+     * @return the files of this shard, in the order of the file set
+     */
+    public List<File> select(List<File> files, File baseDirectory, boolean bySize) {
+        final List<ShardedFile> shardedFiles = new ArrayList<ShardedFile>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            final File file = files.get(i);
+            final String path = CommonUtil.relativizeAndNormalizePath(
+                    baseDirectory.getAbsolutePath(), file.getAbsolutePath())
+                    .replace(File.separatorChar, '/');
+            shardedFiles.add(new ShardedFile(file, i, path));
+        }
+        if (bySize) {
+            assignBySize(shardedFiles);
+        }
+        else {
+            for (ShardedFile shardedFile : shardedFiles) {
+                shardedFile.shard = getHashShard(shardedFile.path);
+            }
+        }
+        final List<File> result = new ArrayList<File>();
+        for (ShardedFile shardedFile : shardedFiles) {
+            if (shardedFile.shard == number) {
+                result.add(shardedFile.file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the shard a path is assigned to by its hash.
+     *
+     * @param path the relative path of a file
+     * @return the number of the shard
+     */
+    private int getHashShard(String path) {
+        final CRC32 crc = new CRC32();
+        crc.update(path.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % count) + 1;
+    }
+
+    /**
+     * Assigns the files from the largest to the smallest to the shard with the least
+     * total size so far, the first of them on ties. Files of the same size are taken
+     * in the order of their paths, so the assignment does not depend on the order of
+     * the file set.
+     *
+     * @param shardedFiles the files of the file set
+     */
+    private void assignBySize(List<ShardedFile> shardedFiles) {
+        final List<ShardedFile> sorted = new ArrayList<ShardedFile>(shardedFiles);
+        for (ShardedFile shardedFile : sorted) {
+            shardedFile.size = shardedFile.file.length();
+        }
+        Collections.sort(sorted, new Comparator<ShardedFile>() {
+            @Override
+            public int compare(ShardedFile first, ShardedFile second) {
+                int result = Long7.compare(second.size, first.size);
+                if (result == 0) {
+                    result = first.path.compareTo(second.path);
+                }
+                if (result == 0) {
+                    result = Integer7.compare(first.index, second.index);
+                }
+                return result;
+            }
+        });
+        final long[] sizes = new long[count];
+        for (ShardedFile shardedFile : sorted) {
+            int smallest = 0;
+            for (int i = 1; i < count; i++) {
+                if (sizes[i] < sizes[smallest]) {
+                    smallest = i;
+                }
+            }
+            sizes[smallest] += shardedFile.size;
+            shardedFile.shard = smallest + 1;
+        }
+    }
+
+    /** A file of the file set and its shard. */
+    private static final class ShardedFile {
+
+        /** The file. */
+        private final File file;
+
+        /** The position of the file in the file set. */
+        private final int index;
+
+        /** The path of the file relative to the base directory, separated by slashes. */
+        private final String path;
+
+        /** The size of the file, if shards are balanced by size. */
+        private long size;
+
+        /** The number of the shard the file is assigned to. */
+        private int shard;
+
+        /**
+         * Creates a new {@code ShardedFile} instance.
+         *
+         * @param file the file
+         * @param index the position of the file in the file set
+         * @param path the relative path of the file
+         */
+        /* package */ ShardedFile(File file, int index, String path) {
+            this.file = file;
+            this.index = index;
+            this.path = path;
+        }
+
+    }
+
+}
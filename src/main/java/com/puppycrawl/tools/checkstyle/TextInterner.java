@@ -0,0 +1,93 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded table of canonical token texts, shared by the nodes created by a thread.
+ * The lexer creates a new string for every token, so the same identifiers, keywords
+ * and operators are stored over and over in the trees of a run. Texts up to a maximum
+ * length are replaced by a canonical instance. The least recently used texts are
+ * dropped when the table is full, texts like keywords, operators and common
+ * identifiers are used all the time and stay in the table.
+ */
+final class TextInterner {
+
+    /** The maximum number of texts in the table of a thread. */
+    /* package */ static final int MAX_SIZE = 8192;
+
+    /** The maximum length of texts to intern, longer ones hardly repeat. */
+    /* package */ static final int MAX_LENGTH = 64;
+
+    /** Texts of the current thread, in access order. */
+    private static final ThreadLocal<Map<String, String>> TEXTS =
+            new ThreadLocal<Map<String, String>>() {
+                @Override
+                protected Map<String, String> initialValue() {
+                    return new BoundedMap();
+                }
+            };
+
+    /** Prevent instances. */
+    private TextInterner() {
+    }
+
+    /**
+     * Returns the canonical instance of a text.
+     *
+     * @param text the text, may be {@code null}
+     * @return a string equal to the text
+     */
+    public static String intern(String text) {
+        String result = text;
+        if (text != null && text.length() <= MAX_LENGTH) {
+            final Map<String, String> texts = TEXTS.get();
+            result = texts.get(text);
+            if (result == null) {
+                texts.put(text, text);
+                result = text;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Map which drops its least recently used entry, when it grows beyond the
+     * maximum size.
+     */
+    private static final class BoundedMap extends LinkedHashMap<String, String> {
+
+        private static final long serialVersionUID = 4873467216853546383L;
+
+        /** Creates an empty map in access order. */
+        /* package */ BoundedMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_SIZE;
+        }
+
+    }
+
+}
@@ -23,7 +23,6 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
@@ -41,24 +40,28 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable;
+import com.puppycrawl.tools.checkstyle.api.TokenIndex;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+import com.puppycrawl.tools.checkstyle.utils.collections.IntObjectMap;
 
 /**
  * Responsible for walking an abstract syntax tree and notifying interested
- * checks at each each node.
+ * checks at each each node. If none of the checks requires the tree, the
+ * file is not parsed and the checks are notified of the tokens of the lexer.
  *
  */
 @FileStatefulCheck
 public final class TreeWalker extends AbstractFileSetCheck implements ExternalResourceHolder {
 
     /** Maps from token name to ordinary checks. */
-    private final Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks =
-        new HashMap<Integer, Set<AbstractCheck>>();
+    private final IntObjectMap<Set<AbstractCheck>> tokenToOrdinaryChecks =
+        new IntObjectMap<Set<AbstractCheck>>();
 
     /** Maps from token name to comment checks. */
-    private final Map<Integer, Set<AbstractCheck>> tokenToCommentChecks =
-            new HashMap<Integer, Set<AbstractCheck>>();
+    private final IntObjectMap<Set<AbstractCheck>> tokenToCommentChecks =
+            new IntObjectMap<Set<AbstractCheck>>();
 
     /** Registered ordinary checks, that don't use comment nodes. */
     private final Set<AbstractCheck> ordinaryChecks = createNewCheckSortedSet();
@@ -78,6 +81,12 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     /** A factory for creating submodules (i.e. the Checks) */
     private ModuleFactory moduleFactory;
 
+    /** Whether a registered check requires the syntax tree. */
+    private boolean astRequired;
+
+    /** The state of the file being processed, shared by the modules of the Checker. */
+    private Map<String, Object> fileState;
+
     /**
      * Creates a new {@code TreeWalker} instance.
      */
@@ -94,11 +103,22 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         this.moduleFactory = moduleFactory;
     }
 
+    /**
+     * Sets the state of the file being processed, which is passed on to the checks
+     * and filters.
+     *
+     * @param fileState the state shared by the modules of the Checker
+     */
+    public void setFileState(Map<String, Object> fileState) {
+        this.fileState = fileState;
+    }
+
     @Override
     public void finishLocalSetup() {
         final DefaultContext checkContext = new DefaultContext();
         checkContext.add("severity", getSeverity());
         checkContext.add("tabWidth", String.valueOf(getTabWidth()));
+        checkContext.add("fileState", fileState);
         childContext = checkContext;
     }
 
@@ -147,26 +167,69 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         // check if already checked and passed the file
         if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
             final FileContents contents = getFileContents();
-            final DetailAST rootAST = JavaParser.parse(contents);
+            final DetailAST rootAST;
+            final SymbolTable symbolTable;
+            if (astRequired) {
+                rootAST = JavaParser.parse(contents);
+                symbolTable = new SymbolTable(rootAST);
+            }
+            else {
+                // the checks only need tokens, the first one is the root of the token list
+                rootAST = JavaParser.tokenize(contents);
+                symbolTable = null;
+            }
             if (!ordinaryChecks.isEmpty()) {
-                walk(rootAST, contents, AstState.ORDINARY);
+                walk(rootAST, contents, symbolTable, new TokenIndex(rootAST),
+                        AstState.ORDINARY);
             }
             if (!commentChecks.isEmpty()) {
-                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
-                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+                final DetailAST astWithComments;
+                if (astRequired) {
+                    astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
+                }
+                else {
+                    astWithComments = rootAST;
+                }
+                walk(astWithComments, contents, symbolTable, new TokenIndex(astWithComments),
+                        AstState.WITH_COMMENTS);
             }
             if (filters.isEmpty()) {
                 addViolations(violations);
             }
             else {
+                DetailAST filterRootAST = rootAST;
+                if (!astRequired && !violations.isEmpty()) {
+                    filterRootAST = parseForFilters(contents, rootAST);
+                }
                 final SortedSet<Violation> filteredViolations =
-                    getFilteredViolations(file.getAbsolutePath(), contents, rootAST);
+                    getFilteredViolations(file.getAbsolutePath(), contents, filterRootAST);
                 addViolations(filteredViolations);
             }
             violations.clear();
         }
     }
 
+    /**
+     * Builds the syntax tree given to the filters when the checks only needed tokens.
+     * The tree is only built if there is something to filter, and comments are not
+     * reported to the contents again. Token-only checks also report violations in
+     * files which cannot be parsed, filters get the token list for these files.
+     *
+     * @param contents the contents of the file
+     * @param tokens the first token of the token list of the file
+     * @return the root of the syntax tree, or the token list if the file cannot be parsed
+     */
+    private static DetailAST parseForFilters(FileContents contents, DetailAST tokens) {
+        DetailAST rootAST;
+        try {
+            rootAST = JavaParser.parse(new FileContents(contents.getText()));
+        }
+        catch (CheckstyleException ignored) {
+            rootAST = tokens;
+        }
+        return rootAST;
+    }
+
     /**
      * Returns filtered set of {@link Violation}.
      *
@@ -231,6 +294,9 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         else {
             ordinaryChecks.add(check);
         }
+        if (check.isAstRequired()) {
+            astRequired = true;
+        }
     }
 
     /**
@@ -275,11 +341,13 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      *
      * @param ast the root AST
      * @param contents the contents of the file the AST was generated from.
+     * @param symbolTable the symbol table of the file, null if the file is not parsed.
+     * @param tokenIndex the token index of the AST.
      * @param astState state of AST.
      */
-    private void walk(DetailAST ast, FileContents contents,
-            AstState astState) {
-        notifyBegin(ast, contents, astState);
+    private void walk(DetailAST ast, FileContents contents, SymbolTable symbolTable,
+            TokenIndex tokenIndex, AstState astState) {
+        notifyBegin(ast, contents, symbolTable, tokenIndex, astState);
         processIter(ast, astState);
         notifyEnd(ast, astState);
     }
@@ -289,10 +357,12 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      *
      * @param rootAST the root of the tree.
      * @param contents the contents of the file the AST was generated from.
+     * @param symbolTable the symbol table of the file, null if the file is not parsed.
+     * @param tokenIndex the token index of the tree.
      * @param astState state of AST.
      */
     private void notifyBegin(DetailAST rootAST, FileContents contents,
-            AstState astState) {
+            SymbolTable symbolTable, TokenIndex tokenIndex, AstState astState) {
         final Set<AbstractCheck> checks;
 
         if (astState == AstState.WITH_COMMENTS) {
@@ -304,6 +374,8 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
 
         for (AbstractCheck check : checks) {
             check.setFileContents(contents);
+            check.setSymbolTable(symbolTable);
+            check.setTokenIndex(tokenIndex);
             check.clearViolations();
             check.beginTree(rootAST);
         }
@@ -19,15 +19,25 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedReader;
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Queue;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
@@ -41,6 +51,14 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * It outputs everything in UTF-8 (default XML encoding is UTF-8) in case
  * we want to localize error messages or simply that file names are
  * localized and takes care about escaping as well.
+ *
+ * <p>
+ * Errors are written as soon as they arrive for the file which was started first,
+ * so nothing is retained for the usual case of files being audited one after another.
+ * Errors of files audited in parallel to it are rendered into a per-file buffer, which
+ * spills to a temporary file once it grows too large, and are written when the file is
+ * finished and no other file section is open.
+ * </p>
  */
 // -@cs[AbbreviationAsWordInName] We can not change it as,
 // check's name is part of API (used in configurations).
@@ -58,21 +76,32 @@ public class XMLLogger
     private static final String[] ENTITIES = {"gt", "amp", "lt", "apos",
                                               "quot", };
 
+    /** The number of buffered characters of a file after which they are spilled to disk. */
+    private static final int SPILL_THRESHOLD = 64 * 1024;
+
     /** Close output stream in auditFinished. */
     private final boolean closeStream;
 
-    /** The writer lock object. */
+    /** The writer lock object, it also guards the state of the file sections. */
     private final Object writerLock = new Object();
 
-    /** Holds all messages for the given file. */
-    private final Map<String, FileMessages> fileMessages =
-            new ConcurrentHashMap<String, FileMessages>();
+    /** Holds the buffered messages of files audited in parallel to the streamed one. */
+    private final Map<String, FileMessages> fileMessages = new HashMap<String, FileMessages>();
+
+    /** Finished files which wait for the streamed file section to be closed. */
+    private final Queue<FileMessages> finishedFiles = new LinkedList<FileMessages>();
 
     /**
      * Helper writer that allows easy encoding and printing.
      */
     private final PrintWriter writer;
 
+    /** The name of the file whose section is open on the writer, or {@code null}. */
+    private String streamedFileName;
+
+    /** The exceptions of the streamed file, written after its errors. */
+    private final List<Throwable> streamedExceptions = new ArrayList<Throwable>();
+
     /**
      * Creates a new {@code XMLLogger} instance.
      * Sets the output to a defined stream.
@@ -105,6 +134,15 @@ public class XMLLogger
 
     @Override
     public void auditFinished(AuditEvent event) {
+        synchronized (writerLock) {
+            if (streamedFileName != null) {
+                closeStreamedFile();
+            }
+            for (FileMessages messages : fileMessages.values()) {
+                messages.discard();
+            }
+            fileMessages.clear();
+        }
         writer.println("</checkstyle>");
         if (closeStream) {
             writer.close();
@@ -116,36 +154,77 @@ public class XMLLogger
 
     @Override
     public void fileStarted(AuditEvent event) {
-        fileMessages.put(event.getFileName(), new FileMessages());
+        final String fileName = event.getFileName();
+        synchronized (writerLock) {
+            if (streamedFileName == null) {
+                streamedFileName = fileName;
+                writeFileOpeningTag(fileName);
+            }
+            else {
+                fileMessages.put(fileName, new FileMessages(fileName));
+            }
+        }
     }
 
     @Override
     public void fileFinished(AuditEvent event) {
         final String fileName = event.getFileName();
-        final FileMessages messages = fileMessages.get(fileName);
-
         synchronized (writerLock) {
-            writeFileMessages(fileName, messages);
+            if (isStreamed(fileName)) {
+                closeStreamedFile();
+            }
+            else {
+                FileMessages messages = fileMessages.remove(fileName);
+                if (messages == null) {
+                    messages = new FileMessages(fileName);
+                }
+                if (streamedFileName == null) {
+                    writeFileMessages(messages);
+                }
+                else {
+                    finishedFiles.add(messages);
+                }
+            }
         }
+    }
 
-        fileMessages.remove(fileName);
+    /**
+     * Checks whether the section of the given file is open on the writer.
+     *
+     * @param fileName the file name
+     * @return {@code true} if the messages of the file are written directly
+     */
+    private boolean isStreamed(String fileName) {
+        return fileName != null && fileName.equals(streamedFileName);
     }
 
     /**
-     * Prints the file section with all file errors and exceptions.
+     * Closes the section of the streamed file and writes the files which were
+     * finished in the meantime.
+     */
+    private void closeStreamedFile() {
+        for (Throwable exception : streamedExceptions) {
+            writeException(exception);
+        }
+        streamedExceptions.clear();
+        writeFileClosingTag();
+        streamedFileName = null;
+
+        while (!finishedFiles.isEmpty()) {
+            writeFileMessages(finishedFiles.remove());
+        }
+    }
+
+    /**
+     * Prints the file section with all buffered file errors and exceptions.
      *
-     * @param fileName The file name, as should be printed in the opening file tag.
      * @param messages The file messages.
      */
-    private void writeFileMessages(String fileName, FileMessages messages) {
-        writeFileOpeningTag(fileName);
-        if (messages != null) {
-            for (AuditEvent errorEvent : messages.getErrors()) {
-                writeFileError(errorEvent);
-            }
-            for (Throwable exception : messages.getExceptions()) {
-                writeException(exception);
-            }
+    private void writeFileMessages(FileMessages messages) {
+        writeFileOpeningTag(messages.getFileName());
+        messages.writeErrorsTo(writer);
+        for (Throwable exception : messages.getExceptions()) {
+            writeException(exception);
         }
         writeFileClosingTag();
     }
@@ -156,7 +235,9 @@ public class XMLLogger
      * @param fileName The filename to output.
      */
     private void writeFileOpeningTag(String fileName) {
-        writer.println("<file name=\"" + encode(fileName) + "\">");
+        writer.print("<file name=\"");
+        encode(fileName, writer);
+        writer.println("\">");
     }
 
     /**
@@ -170,56 +251,77 @@ public class XMLLogger
     public void addError(AuditEvent event) {
         if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
             final String fileName = event.getFileName();
-            if (fileName == null || !fileMessages.containsKey(fileName)) {
-                synchronized (writerLock) {
-                    writeFileError(event);
+            synchronized (writerLock) {
+                final FileMessages messages = getFileMessages(fileName);
+                if (messages == null) {
+                    writeFileError(event, writer);
+                }
+                else {
+                    writeFileError(event, messages.getErrorWriter());
                 }
             }
-            else {
-                final FileMessages messages = fileMessages.get(fileName);
-                messages.addError(event);
-            }
         }
     }
 
+    /**
+     * Returns the buffer of a file audited in parallel to the streamed one.
+     *
+     * @param fileName the file name
+     * @return the buffered messages, or {@code null} if messages of the file are written
+     *     directly
+     */
+    private FileMessages getFileMessages(String fileName) {
+        FileMessages result = null;
+        if (fileName != null) {
+            result = fileMessages.get(fileName);
+        }
+        return result;
+    }
+
     /**
      * Outputs the given event to the writer.
      *
      * @param event An event to print.
+     * @param out The writer to print to.
      */
-    private void writeFileError(AuditEvent event) {
-        writer.print("<error" + " line=\"" + event.getLine() + "\"");
+    private static void writeFileError(AuditEvent event, PrintWriter out) {
+        out.print("<error line=\"");
+        out.print(event.getLine());
+        out.print('"');
         if (event.getColumn() > 0) {
-            writer.print(" column=\"" + event.getColumn() + "\"");
+            out.print(" column=\"");
+            out.print(event.getColumn());
+            out.print('"');
         }
-        writer.print(" severity=\""
-                + event.getSeverityLevel().getName()
-                + "\"");
-        writer.print(" message=\""
-                + encode(event.getMessage())
-                + "\"");
-        writer.print(" source=\"");
+        out.print(" severity=\"");
+        out.print(event.getSeverityLevel().getName());
+        out.print("\" message=\"");
+        encode(event.getMessage(), out);
+        out.print("\" source=\"");
         if (event.getModuleId() == null) {
-            writer.print(encode(event.getSourceName()));
+            encode(event.getSourceName(), out);
         }
         else {
-            writer.print(encode(event.getModuleId()));
+            encode(event.getModuleId(), out);
         }
-        writer.println("\"/>");
+        out.println("\"/>");
     }
 
     @Override
     public void addException(AuditEvent event, Throwable throwable) {
         final String fileName = event.getFileName();
-        if (fileName == null || !fileMessages.containsKey(fileName)) {
-            synchronized (writerLock) {
+        synchronized (writerLock) {
+            final FileMessages messages = getFileMessages(fileName);
+            if (messages != null) {
+                messages.addException(throwable);
+            }
+            else if (isStreamed(fileName)) {
+                streamedExceptions.add(throwable);
+            }
+            else {
                 writeException(throwable);
             }
         }
-        else {
-            final FileMessages messages = fileMessages.get(fileName);
-            messages.addException(throwable);
-        }
     }
 
     /**
@@ -234,7 +336,8 @@ public class XMLLogger
         final StringWriter stringWriter = new StringWriter();
         final PrintWriter printer = new PrintWriter(stringWriter);
         throwable.printStackTrace(printer);
-        writer.println(encode(stringWriter.toString()));
+        encode(stringWriter.toString(), writer);
+        writer.println();
 
         writer.println("]]>");
         writer.println("</exception>");
@@ -247,45 +350,103 @@ public class XMLLogger
      * @return the escaped value if necessary.
      */
     public static String encode(String value) {
-        final StringBuilder sb = new StringBuilder(256);
-        for (int i = 0; i < value.length(); i++) {
-            final char chr = value.charAt(i);
-            switch (chr) {
-                case '<':
-                    sb.append("&lt;");
-                    break;
-                case '>':
-                    sb.append("&gt;");
-                    break;
-                case '\'':
-                    sb.append("&apos;");
-                    break;
-                case '\"':
-                    sb.append("&quot;");
-                    break;
-                case '&':
-                    sb.append("&amp;");
-                    break;
-                case '\r':
-                    break;
-                case '\n':
-                    sb.append("&#10;");
-                    break;
-                default:
-                    if (Character.isISOControl(chr)) {
-                        // true escape characters need '&' before but it also requires XML 1.1
-                        // until https://github.com/checkstyle/checkstyle/issues/5168
-                        sb.append("#x");
-                        sb.append(Integer.toHexString(chr));
-                        sb.append(';');
-                    }
-                    else {
-                        sb.append(chr);
-                    }
-                    break;
+        final String result;
+        final int length = value.length();
+        int index = 0;
+        while (index < length && getReplacement(value.charAt(index)) == null) {
+            index++;
+        }
+        if (index == length) {
+            result = value;
+        }
+        else {
+            final CharArrayWriter out = new CharArrayWriter(length + length / 2);
+            out.write(value, 0, index);
+            encode(value, index, out);
+            result = out.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Writes a value to the writer, escaping &lt;, &gt; &amp; &#39; and &quot; as their
+     * entities. Runs of characters which need no escaping are written at once.
+     *
+     * @param value the value to escape.
+     * @param out the writer to write to.
+     */
+    private static void encode(String value, Writer out) {
+        encode(value, 0, out);
+    }
+
+    /**
+     * Writes a value to the writer starting at the given index, escaping special characters.
+     *
+     * @param value the value to escape.
+     * @param start the index of the first character to write.
+     * @param out the writer to write to.
+     */
+    private static void encode(String value, int start, Writer out) {
+        try {
+            final int length = value.length();
+            int runStart = start;
+            for (int index = start; index < length; index++) {
+                final String replacement = getReplacement(value.charAt(index));
+                if (replacement != null) {
+                    out.write(value, runStart, index - runStart);
+                    out.write(replacement);
+                    runStart = index + 1;
+                }
             }
+            out.write(value, runStart, length - runStart);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Unable to write encoded value", ex);
+        }
+    }
+
+    /**
+     * Returns the text a character is replaced with in the output.
+     *
+     * @param chr the character.
+     * @return the replacement, or {@code null} if the character is written as is.
+     */
+    private static String getReplacement(char chr) {
+        final String result;
+        switch (chr) {
+            case '<':
+                result = "&lt;";
+                break;
+            case '>':
+                result = "&gt;";
+                break;
+            case '\'':
+                result = "&apos;";
+                break;
+            case '\"':
+                result = "&quot;";
+                break;
+            case '&':
+                result = "&amp;";
+                break;
+            case '\r':
+                result = "";
+                break;
+            case '\n':
+                result = "&#10;";
+                break;
+            default:
+                if (Character.isISOControl(chr)) {
+                    // true escape characters need '&' before but it also requires XML 1.1
+                    // until https://github.com/checkstyle/checkstyle/issues/5168
+                    result = "#x" + Integer.toHexString(chr) + ';';
+                }
+                else {
+                    result = null;
+                }
+                break;
         }
-        return sb.toString();
+        return result;
     }
 
     /**
@@ -331,32 +492,117 @@ public class XMLLogger
     }
 
     /**
-     * The registered file messages.
+     * The buffered messages of a file audited in parallel to the streamed one.
+     * Errors are kept rendered, not as events, and spill to a temporary file
+     * once they exceed {@link #SPILL_THRESHOLD} characters.
      */
-    private static class FileMessages {
+    private static final class FileMessages {
+
+        /** The file name. */
+        private final String fileName;
 
-        /** The file error events. */
-        private final List<AuditEvent> errors = Collections.synchronizedList(new ArrayList<AuditEvent>());
+        /** The rendered errors kept in memory. */
+        private final CharArrayWriter errors = new CharArrayWriter();
+
+        /** The writer rendering errors into this buffer. */
+        private final PrintWriter errorWriter = new PrintWriter(new SpillWriter());
 
         /** The file exceptions. */
-        private final List<Throwable> exceptions = Collections.synchronizedList(new ArrayList<Throwable>());
+        private final List<Throwable> exceptions = new ArrayList<Throwable>();
+
+        /** The temporary file with the spilled errors, or {@code null}. */
+        private File spillFile;
+
+        /** The writer of the spilled errors, or {@code null}. */
+        private Writer spill;
+
+        /**
+         * Creates the messages of a file.
+         *
+         * @param fileName the file name.
+         */
+        /* package */ FileMessages(String fileName) {
+            this.fileName = fileName;
+        }
 
         /**
-         * Returns the file error events.
+         * Returns the file name.
          *
-         * @return the file error events.
+         * @return the file name.
          */
-        public List<AuditEvent> getErrors() {
-            return Collections.unmodifiableList(errors);
+        public String getFileName() {
+            return fileName;
         }
 
         /**
-         * Adds the given error event to the messages.
+         * Returns the writer to render error elements into.
          *
-         * @param event the error event.
+         * @return the error writer.
          */
-        public void addError(AuditEvent event) {
-            errors.add(event);
+        public PrintWriter getErrorWriter() {
+            return errorWriter;
+        }
+
+        /**
+         * Writes all rendered errors to the given writer and releases the buffer.
+         *
+         * @param out the writer.
+         */
+        public void writeErrorsTo(PrintWriter out) {
+            if (errorWriter.checkError()) {
+                discard();
+                throw new IllegalStateException("Unable to buffer errors of " + fileName);
+            }
+            try {
+                if (spill != null) {
+                    spill.close();
+                    copySpill(out);
+                }
+                errors.writeTo(out);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Unable to write errors of " + fileName, ex);
+            }
+            finally {
+                discard();
+            }
+        }
+
+        /**
+         * Copies the content of the spill file to the given writer.
+         *
+         * @param out the writer.
+         * @throws IOException if the spill file could not be read.
+         */
+        private void copySpill(Writer out) throws IOException {
+            final Reader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(spillFile), StandardCharsets.UTF_8));
+            try {
+                final char[] buffer = new char[SPILL_THRESHOLD];
+                int read = reader.read(buffer);
+                while (read != -1) {
+                    out.write(buffer, 0, read);
+                    read = reader.read(buffer);
+                }
+            }
+            finally {
+                CommonUtil.close(reader);
+            }
+        }
+
+        /**
+         * Releases the buffered errors and the spill file, if any.
+         */
+        public void discard() {
+            errors.reset();
+            if (spill != null) {
+                CommonUtil.close(spill);
+                spill = null;
+                if (!spillFile.delete()) {
+                    spillFile.deleteOnExit();
+                }
+                spillFile = null;
+            }
         }
 
         /**
@@ -365,7 +611,7 @@ public class XMLLogger
          * @return the file exceptions.
          */
         public List<Throwable> getExceptions() {
-            return Collections.unmodifiableList(exceptions);
+            return exceptions;
         }
 
         /**
@@ -377,6 +623,41 @@ public class XMLLogger
             exceptions.add(throwable);
         }
 
+        /**
+         * Writer which keeps rendered errors in memory up to the threshold
+         * and appends them to a temporary file afterwards.
+         */
+        private final class SpillWriter extends Writer {
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                if (spill == null) {
+                    errors.write(cbuf, off, len);
+                    if (errors.size() > SPILL_THRESHOLD) {
+                        spillFile = File.createTempFile("checkstyle-xml", ".tmp");
+                        spill = new OutputStreamWriter(new FileOutputStream(spillFile),
+                                StandardCharsets.UTF_8);
+                        errors.writeTo(spill);
+                        errors.reset();
+                    }
+                }
+                else {
+                    spill.write(cbuf, off, len);
+                }
+            }
+
+            @Override
+            public void flush() {
+                // the content is flushed when it is written out
+            }
+
+            @Override
+            public void close() {
+                // the buffer is released by discard
+            }
+
+        }
+
     }
 
 }
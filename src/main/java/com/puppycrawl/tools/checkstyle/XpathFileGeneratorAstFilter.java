@@ -25,14 +25,21 @@ import java.util.Map;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.jre6.lang.String7;
+import com.puppycrawl.tools.checkstyle.jre6.util.Objects;
 import com.puppycrawl.tools.checkstyle.xpath.XpathQueryGenerator;
+import com.puppycrawl.tools.checkstyle.xpath.XpathQueryIndex;
 
 /**
  * Catches {@code TreeWalkerAuditEvent} and generates corresponding xpath query.
- * Stores violations and xpath queries map inside static variable
- * for {@code XpathFileGeneratorAuditListener}.
+ * Stores violations and xpath queries map of the file being processed by the current
+ * thread, together with the xpath query index of the file, for
+ * {@code XpathFileGeneratorAuditListener}, which releases them when the file is finished.
+ * Queries of a previous file are dropped as soon as the next file is filtered, so only
+ * the queries of a single file are kept per thread.
  * See issue #102 https://github.com/checkstyle/checkstyle/issues/102
  */
 public class XpathFileGeneratorAstFilter extends AutomaticBean implements TreeWalkerFilter {
@@ -40,8 +47,8 @@ public class XpathFileGeneratorAstFilter extends AutomaticBean implements TreeWa
     /** The delimiter between xpath queries. */
     private static final String DELIMITER = " | \n";
 
-    /** Map from {@code Violation} objects to xpath queries. */
-    private static final Map<Violation, String> MESSAGE_QUERY_MAP = new HashMap<Violation, String>();
+    /** Xpath queries of the file being processed by the current thread. */
+    private static final ThreadLocal<FileQueries> FILE_QUERIES = new ThreadLocal<FileQueries>();
 
     /** The distance between tab stop position. */
     private int tabWidth;
@@ -64,25 +71,102 @@ public class XpathFileGeneratorAstFilter extends AutomaticBean implements TreeWa
      * @return returns corresponding xpath query
      */
     public static String findCorrespondingXpathQuery(AuditEvent event) {
-        return MESSAGE_QUERY_MAP.get(event.getViolation());
+        final FileQueries fileQueries = FILE_QUERIES.get();
+        String result = null;
+        if (fileQueries != null) {
+            result = fileQueries.queries.get(event.getViolation());
+        }
+        return result;
+    }
+
+    /**
+     * Releases xpath queries and the index of the file processed by the current thread.
+     */
+    public static void releaseXpathQueries() {
+        FILE_QUERIES.remove();
     }
 
     @Override
     protected void finishLocalSetup() {
-        MESSAGE_QUERY_MAP.clear();
+        FILE_QUERIES.remove();
     }
 
     @Override
     public boolean accept(TreeWalkerAuditEvent event) {
         if (event.getTokenType() != 0) {
-            final XpathQueryGenerator xpathQueryGenerator =
-                    new XpathQueryGenerator(event, tabWidth);
+            final FileQueries fileQueries = getFileQueries(event.getFileName());
+            final XpathQueryIndex index = fileQueries.getIndex(event, tabWidth);
+            final XpathQueryGenerator xpathQueryGenerator = new XpathQueryGenerator(index,
+                    event.getLine(), event.getColumn(), event.getTokenType());
             final List<String> xpathQueries = xpathQueryGenerator.generate();
             if (!xpathQueries.isEmpty()) {
                 final String query = String7.join(DELIMITER, xpathQueries);
-                MESSAGE_QUERY_MAP.put(event.getViolation(), query);
+                fileQueries.queries.put(event.getViolation(), query);
             }
         }
         return true;
     }
+
+    /**
+     * Returns xpath queries of the given file for the current thread.
+     * Queries of any other file are dropped.
+     *
+     * @param fileName the name of the file
+     * @return xpath queries of the file
+     */
+    private static FileQueries getFileQueries(String fileName) {
+        FileQueries fileQueries = FILE_QUERIES.get();
+        if (fileQueries == null || !Objects.equals(fileQueries.fileName, fileName)) {
+            fileQueries = new FileQueries(fileName);
+            FILE_QUERIES.set(fileQueries);
+        }
+        return fileQueries;
+    }
+
+    /** Xpath queries of the violations of a single file. */
+    private static final class FileQueries {
+
+        /** The name of the file. */
+        private final String fileName;
+
+        /** Map from {@code Violation} objects to xpath queries. */
+        private final Map<Violation, String> queries = new HashMap<Violation, String>();
+
+        /** Index of the file, shared by the queries of all its violations. */
+        private XpathQueryIndex index;
+
+        /** The contents the index was built from. */
+        private FileContents indexedContents;
+
+        /** The text the index was built from, a new copy is returned for each call. */
+        private FileText indexedText;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param fileName the name of the file
+         */
+        private FileQueries(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Returns the index of the tree of the given event, reusing the index built
+         * for a previous violation of the file.
+         *
+         * @param event the event to generate queries for
+         * @param tabWidth the distance between tab stops
+         * @return the index of the tree of the event
+         */
+        private XpathQueryIndex getIndex(TreeWalkerAuditEvent event, int tabWidth) {
+            if (index == null || indexedContents != event.getFileContents()
+                    || !index.isIndexOf(event.getRootAst(), indexedText, tabWidth)) {
+                indexedContents = event.getFileContents();
+                indexedText = indexedContents.getText();
+                index = new XpathQueryIndex(event.getRootAst(), indexedText, tabWidth);
+            }
+            return index;
+        }
+
+    }
 }
@@ -86,7 +86,7 @@ public class XpathFileGeneratorAuditListener extends AutomaticBean implements Au
 
     @Override
     public void fileFinished(AuditEvent event) {
-        // No code by default
+        XpathFileGeneratorAstFilter.releaseXpathQueries();
     }
 
     @Override
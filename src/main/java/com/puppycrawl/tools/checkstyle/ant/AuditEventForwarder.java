@@ -0,0 +1,85 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.ant;
+
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * Forwards the file events of an audit to other listeners as they are fired.
+ * The start and the end of the audit are not forwarded, so the events of the
+ * audit can be followed by the replayed events of other audits, as the events
+ * of a single audit.
+ */
+final class AuditEventForwarder implements AuditListener {
+
+    /** The listeners to forward the events to. */
+    private final List<AuditListener> listeners;
+
+    /**
+     * Creates a new {@code AuditEventForwarder} instance.
+     *
+     * @param listeners the listeners to forward the events to
+     */
+    /* package */ AuditEventForwarder(List<AuditListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        // not forwarded
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // not forwarded
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        for (AuditListener listener : listeners) {
+            listener.fileStarted(event);
+        }
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        for (AuditListener listener : listeners) {
+            listener.fileFinished(event);
+        }
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        for (AuditListener listener : listeners) {
+            listener.addError(event);
+        }
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        for (AuditListener listener : listeners) {
+            listener.addException(event, throwable);
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.ant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * Records the file events of an audit to replay them later to other listeners.
+ * The start and the end of the audit are not recorded, so the events of several
+ * audits can be replayed as the events of a single audit.
+ */
+final class AuditEventRecorder implements AuditListener {
+
+    /** The recorded events in the order they were fired. */
+    private final List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        // not recorded
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // not recorded
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        events.add(new RecordedEvent(EventType.FILE_STARTED, event, null));
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        events.add(new RecordedEvent(EventType.FILE_FINISHED, event, null));
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        events.add(new RecordedEvent(EventType.ERROR, event, null));
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        events.add(new RecordedEvent(EventType.EXCEPTION, event, throwable));
+    }
+
+    /**
+     * Fires the recorded events to the listeners in the order they were recorded.
+     * The events are released afterwards, they are replayed only once.
+     *
+     * @param listeners the listeners to fire the events to
+     */
+    public void replay(List<AuditListener> listeners) {
+        for (RecordedEvent recorded : events) {
+            for (AuditListener listener : listeners) {
+                recorded.fire(listener);
+            }
+        }
+        events.clear();
+    }
+
+    /** Types of the recorded events. */
+    private enum EventType {
+
+        /** Start of a file. */
+        FILE_STARTED,
+        /** End of a file. */
+        FILE_FINISHED,
+        /** A violation. */
+        ERROR,
+        /** An exception. */
+        EXCEPTION,
+
+    }
+
+    /** An event and its type. */
+    private static final class RecordedEvent {
+
+        /** The type of the event. */
+        private final EventType type;
+
+        /** The event. */
+        private final AuditEvent event;
+
+        /** The exception of an exception event, {@code null} otherwise. */
+        private final Throwable throwable;
+
+        /**
+         * Creates a new {@code RecordedEvent} instance.
+         *
+         * @param type the type of the event
+         * @param event the event
+         * @param throwable the exception of an exception event
+         */
+        /* package */ RecordedEvent(EventType type, AuditEvent event, Throwable throwable) {
+            this.type = type;
+            this.event = event;
+            this.throwable = throwable;
+        }
+
+        /**
+         * Fires the event to a listener.
+         *
+         * @param listener the listener to fire the event to
+         */
+        public void fire(AuditListener listener) {
+            switch (type) {
+                case FILE_STARTED:
+                    listener.fileStarted(event);
+                    break;
+                case FILE_FINISHED:
+                    listener.fileFinished(event);
+                    break;
+                case ERROR:
+                    listener.addError(event);
+                    break;
+                default:
+                    listener.addException(event, throwable);
+                    break;
+            }
+        }
+
+    }
+
+}
@@ -24,10 +24,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.DirectoryScanner;
@@ -39,6 +45,7 @@ import org.apache.tools.ant.types.FileSet;
 import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.Reference;
 
+import com.puppycrawl.tools.checkstyle.ChangeSet;
 import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
 import com.puppycrawl.tools.checkstyle.DefaultLogger;
@@ -47,6 +54,7 @@ import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
 import com.puppycrawl.tools.checkstyle.PropertiesExpander;
 import com.puppycrawl.tools.checkstyle.ThreadModeSettings;
 import com.puppycrawl.tools.checkstyle.XMLLogger;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -107,6 +115,9 @@ public class CheckstyleAntTask extends Task {
     /** The maximum number of warnings that are tolerated. */
     private int maxWarnings = Integer.MAX_VALUE;
 
+    /** Whether to stop checking files once the tolerated violations are exceeded. */
+    private boolean failFast;
+
     /**
      * Whether to execute ignored modules - some modules may log above
      * their severity depending on their configuration (e.g. WriteTag) so
@@ -114,6 +125,15 @@ public class CheckstyleAntTask extends Task {
      */
     private boolean executeIgnoredModules;
 
+    /** The git revision to restrict the audit to files changed since. */
+    private String diffBase;
+
+    /** Whether to report only violations on changed lines. */
+    private boolean changedLinesOnly;
+
+    /** The number of threads to check the files with. */
+    private int threads = 1;
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for ANT specific attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -157,6 +177,17 @@ public class CheckstyleAntTask extends Task {
         this.maxWarnings = maxWarnings;
     }
 
+    /**
+     * Sets flag - whether to stop checking files as soon as more errors or warnings
+     * than allowed are found. If the files are checked by several threads, the
+     * maximums apply to the part of the files of each thread.
+     *
+     * @param failFast whether to stop the audit once the maximum is exceeded
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
     /**
      * Adds a path.
      *
@@ -259,6 +290,36 @@ public class CheckstyleAntTask extends Task {
         executeIgnoredModules = omit;
     }
 
+    /**
+     * Sets the git revision to restrict the audit to files changed since.
+     *
+     * @param revision the base revision
+     */
+    public void setDiffBase(String revision) {
+        diffBase = revision;
+    }
+
+    /**
+     * Sets flag - whether to report only violations on lines changed since
+     * the revision set by {@code diffBase}.
+     *
+     * @param changedLinesOnly whether to report only violations on changed lines
+     */
+    public void setChangedLinesOnly(boolean changedLinesOnly) {
+        this.changedLinesOnly = changedLinesOnly;
+    }
+
+    /**
+     * Sets the number of threads to check the files with. Each thread checks
+     * a consecutive part of the files with its own instance of the root module,
+     * and stops on its own if {@code failFast} is set. Default is 1.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for Root Module's configuration attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -297,6 +358,10 @@ public class CheckstyleAntTask extends Task {
             if (config == null) {
                 throw new BuildException("Must specify 'config'.", getLocation());
             }
+            if (threads < 1) {
+                throw new BuildException("Attribute 'threads' must be a positive number.",
+                        getLocation());
+            }
             realExecute(version);
         }
         finally {
@@ -318,15 +383,13 @@ public class CheckstyleAntTask extends Task {
             rootModule = createRootModule();
 
             // setup the listeners
-            final AuditListener[] listeners = getListeners();
-            for (AuditListener element : listeners) {
-                rootModule.addListener(element);
-            }
+            final List<AuditListener> listeners =
+                    new ArrayList<AuditListener>(Arrays.asList(getListeners()));
             final SeverityLevelCounter warningCounter =
                 new SeverityLevelCounter(SeverityLevel.WARNING);
-            rootModule.addListener(warningCounter);
+            listeners.add(warningCounter);
 
-            processFiles(rootModule, warningCounter, checkstyleVersion);
+            processFiles(rootModule, listeners, warningCounter, checkstyleVersion);
         }
         finally {
             if (rootModule != null) {
@@ -339,15 +402,17 @@ public class CheckstyleAntTask extends Task {
      * Scans and processes files by means given root module.
      *
      * @param rootModule Root module to process files
+     * @param listeners the listeners of the audit
      * @param warningCounter Root Module's counter of warnings
      * @param checkstyleVersion Checkstyle compile version
      * @throws BuildException if the files could not be processed,
      *     or if the build failed due to violations.
      */
-    private void processFiles(RootModule rootModule, final SeverityLevelCounter warningCounter,
-            final String checkstyleVersion) {
+    private void processFiles(RootModule rootModule, List<AuditListener> listeners,
+            final SeverityLevelCounter warningCounter, final String checkstyleVersion) {
         final long startTime = System.currentTimeMillis();
-        final List<File> files = getFilesToCheck();
+        final ChangeSet changeSet = computeChangeSet();
+        final List<File> files = applyChangeSet(rootModule, changeSet, getFilesToCheck());
         final long endTime = System.currentTimeMillis();
         log("To locate the files took " + (endTime - startTime) + TIME_SUFFIX,
             Project.MSG_VERBOSE);
@@ -359,10 +424,37 @@ public class CheckstyleAntTask extends Task {
         log("Using configuration " + config, Project.MSG_VERBOSE);
 
         final int numErrs;
+        final int uncheckedFiles;
 
         try {
             final long processingStartTime = System.currentTimeMillis();
-            numErrs = rootModule.process(files);
+            final boolean partitionable = rootModule instanceof Checker
+                    && ((Checker) rootModule).isPartitionable();
+            if (threads > 1 && !partitionable) {
+                log("Checking the files with a single thread, as the configuration "
+                        + "does not allow to split them.", Project.MSG_VERBOSE);
+            }
+            if (threads > 1 && partitionable && files.size() > 1) {
+                final List<Checker> checkers =
+                        createPartitionCheckers((Checker) rootModule, changeSet, files.size());
+                try {
+                    numErrs = processPartitions(checkers, listeners, files);
+                    uncheckedFiles = getUncheckedFileCount(checkers);
+                }
+                finally {
+                    for (int i = 1; i < checkers.size(); i++) {
+                        checkers.get(i).destroy();
+                    }
+                }
+            }
+            else {
+                for (AuditListener listener : listeners) {
+                    rootModule.addListener(listener);
+                }
+                applyViolationBudget(rootModule);
+                numErrs = rootModule.process(files);
+                uncheckedFiles = getUncheckedFileCount(Arrays.asList(rootModule));
+            }
             final long processingEndTime = System.currentTimeMillis();
             log("To process the files took " + (processingEndTime - processingStartTime)
                 + TIME_SUFFIX, Project.MSG_VERBOSE);
@@ -370,6 +462,11 @@ public class CheckstyleAntTask extends Task {
         catch (CheckstyleException ex) {
             throw new BuildException("Unable to process files: " + files, ex);
         }
+        if (uncheckedFiles > 0) {
+            log("Stopped the audit as the maximum number of errors or warnings was "
+                    + "exceeded, " + uncheckedFiles + " files were not checked.",
+                    Project.MSG_WARN);
+        }
         final int numWarnings = warningCounter.getCount();
         final boolean okStatus = numErrs <= maxErrors && numWarnings <= maxWarnings;
 
@@ -388,6 +485,193 @@ public class CheckstyleAntTask extends Task {
         }
     }
 
+    /**
+     * Sets the violation budget of the root module if the audit has to stop
+     * once the tolerated violations are exceeded. The checkers of the parts of
+     * the files do not share the budget, each stops once it exceeds the budget.
+     *
+     * @param rootModule the root module
+     */
+    private void applyViolationBudget(RootModule rootModule) {
+        if (failFast && rootModule instanceof Checker) {
+            ((Checker) rootModule).setViolationBudget(maxErrors, maxWarnings);
+        }
+    }
+
+    /**
+     * Returns the number of files the root modules skipped because the
+     * violation budget was exceeded.
+     *
+     * @param rootModules the root modules of the audit
+     * @return the number of files not checked
+     */
+    private static int getUncheckedFileCount(List<? extends RootModule> rootModules) {
+        int result = 0;
+        for (RootModule rootModule : rootModules) {
+            if (rootModule instanceof Checker) {
+                result += ((Checker) rootModule).getUncheckedFileCount();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the checkers of the partitions of the files, the given checker
+     * being the one of the first partition.
+     *
+     * @param checker the checker created for the audit
+     * @param changeSet the changes to restrict the audit to, {@code null} if not restricted
+     * @param fileCount the number of files to check
+     * @return the checkers of the partitions
+     * @throws BuildException if a checker could not be created
+     */
+    private List<Checker> createPartitionCheckers(Checker checker, ChangeSet changeSet,
+            int fileCount) {
+        final int partitionCount = Math.min(threads, fileCount);
+        final List<Checker> result = new ArrayList<Checker>(partitionCount);
+        result.add(checker);
+        try {
+            while (result.size() < partitionCount) {
+                final Checker partitionChecker = (Checker) createRootModule();
+                result.add(partitionChecker);
+                if (changeSet != null) {
+                    partitionChecker.setChangeSet(changeSet, changedLinesOnly);
+                }
+            }
+        }
+        catch (BuildException ex) {
+            for (int i = 1; i < result.size(); i++) {
+                result.get(i).destroy();
+            }
+            throw ex;
+        }
+        for (Checker partitionChecker : result) {
+            applyViolationBudget(partitionChecker);
+        }
+        return result;
+    }
+
+    /**
+     * Checks consecutive parts of the files in parallel, one part by each
+     * checker. The events of the first checker are fired to the listeners as
+     * they come, the events of the other checkers are recorded and fired as soon
+     * as all earlier parts are done, so the listeners see a single audit in the
+     * order of the files.
+     *
+     * @param checkers the checkers of the partitions
+     * @param listeners the listeners of the audit
+     * @param files the files to check
+     * @return the number of errors found
+     * @throws CheckstyleException if a checker failed to process its files
+     */
+    private static int processPartitions(List<Checker> checkers, List<AuditListener> listeners,
+            List<File> files) throws CheckstyleException {
+        final int partitionCount = checkers.size();
+        final List<AuditEventRecorder> recorders = new ArrayList<AuditEventRecorder>();
+        final List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < partitionCount; i++) {
+            final Checker checker = checkers.get(i);
+            if (i == 0) {
+                checker.addListener(new AuditEventForwarder(listeners));
+            }
+            else {
+                final AuditEventRecorder recorder = new AuditEventRecorder();
+                checker.addListener(recorder);
+                recorders.add(recorder);
+            }
+            final List<File> partition = files.subList(i * files.size() / partitionCount,
+                    (i + 1) * files.size() / partitionCount);
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws CheckstyleException {
+                    return checker.process(partition);
+                }
+            });
+        }
+
+        final AuditEvent auditEvent = new AuditEvent(checkers.get(0));
+        for (AuditListener listener : listeners) {
+            listener.auditStarted(auditEvent);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(partitionCount);
+        int result = 0;
+        try {
+            final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (Callable<Integer> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            result += futures.get(0).get();
+            for (int i = 1; i < partitionCount; i++) {
+                result += futures.get(i).get();
+                // the events of all earlier parts were fired, the replay releases the events
+                recorders.get(i - 1).replay(listeners);
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BuildException("Interrupted while processing files", ex);
+        }
+        catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof CheckstyleException) {
+                throw (CheckstyleException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        for (AuditListener listener : listeners) {
+            listener.auditFinished(auditEvent);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the files changed relative to {@code diffBase}, if it is set.
+     *
+     * @return the changes, or {@code null} if {@code diffBase} is not set
+     * @throws BuildException if the changes could not be computed
+     */
+    private ChangeSet computeChangeSet() {
+        ChangeSet result = null;
+        if (diffBase != null) {
+            try {
+                result = ChangeSet.fromGit(getProject().getBaseDir(), diffBase);
+            }
+            catch (CheckstyleException ex) {
+                throw new BuildException("Unable to compute changes since " + diffBase, ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Restricts the audit to the given changes, if there are any.
+     *
+     * @param rootModule the root module
+     * @param changeSet the changes to restrict the audit to, {@code null} if not restricted
+     * @param files the files to check
+     * @return the files to pass to the root module
+     */
+    private List<File> applyChangeSet(RootModule rootModule, ChangeSet changeSet,
+            List<File> files) {
+        List<File> result = files;
+        if (changeSet != null) {
+            if (rootModule instanceof Checker) {
+                ((Checker) rootModule).setChangeSet(changeSet, changedLinesOnly);
+            }
+            else {
+                result = changeSet.filter(files);
+            }
+        }
+        return result;
+    }
+
     /**
      * Creates new instance of the root module.
      *
@@ -92,6 +92,21 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         return false;
     }
 
+    /**
+     * Whether the syntax tree is required or not. Checks which only inspect
+     * single tokens, their text and position, return false. If no check of a
+     * file requires the tree, the file is not parsed and the checks are called
+     * for the tokens of the lexer. These tokens have no parent, their siblings
+     * are the adjacent tokens, and they keep the token types of the lexer:
+     * imaginary tokens are missing and tokens retyped by the parser keep
+     * their original type.
+     *
+     * @return true as a default value.
+     */
+    public boolean isAstRequired() {
+        return true;
+    }
+
     /**
      * Adds a set of tokens the check is interested in.
      *
@@ -199,6 +214,80 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         return context.get().fileContents;
     }
 
+    /**
+     * Set the symbol table of the file the tree was generated from.
+     *
+     * @param symbolTable the symbol table
+     */
+    public final void setSymbolTable(SymbolTable symbolTable) {
+        final FileContext fileContext = context.get();
+        fileContext.symbolTable = symbolTable;
+        fileContext.ownSymbolTable = null;
+    }
+
+    /**
+     * Returns the symbol table of the file the tree was generated from.
+     * The table is shared by all checks of the file and is only built when
+     * it is queried the first time. When no table was set, like for a check
+     * which is not run by {@code TreeWalker}, a table is created for the
+     * tree of the given node and kept until a node of another tree is passed.
+     *
+     * @param ast any node of the tree, may be {@code null} for an empty file
+     * @return the symbol table
+     */
+    public final SymbolTable getSymbolTable(DetailAST ast) {
+        final FileContext fileContext = context.get();
+        SymbolTable symbolTable = fileContext.symbolTable;
+        if (symbolTable == null) {
+            final DetailAST rootAst = getRoot(ast);
+            symbolTable = fileContext.ownSymbolTable;
+            if (symbolTable == null || symbolTable.getRootAst() != rootAst) {
+                symbolTable = new SymbolTable(rootAst);
+                fileContext.ownSymbolTable = symbolTable;
+            }
+        }
+        return symbolTable;
+    }
+
+    /**
+     * Finds the first top level node of the tree a node belongs to.
+     *
+     * @param ast the node, may be {@code null} for an empty file
+     * @return the root of the tree
+     */
+    private static DetailAST getRoot(DetailAST ast) {
+        DetailAST root = ast;
+        if (root != null) {
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            while (root.getPreviousSibling() != null) {
+                root = root.getPreviousSibling();
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Set the token index of the tree which is walked.
+     *
+     * @param tokenIndex the token index
+     */
+    public final void setTokenIndex(TokenIndex tokenIndex) {
+        context.get().tokenIndex = tokenIndex;
+    }
+
+    /**
+     * Returns the token index of the tree which is walked.
+     * The index is shared by all checks walking the tree and is only built when
+     * it is queried the first time.
+     *
+     * @return the token index
+     */
+    public final TokenIndex getTokenIndex() {
+        return context.get().tokenIndex;
+    }
+
     /**
      * Get tab width to report audit events with.
      *
@@ -311,6 +400,15 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         /** The current file contents. */
         private FileContents fileContents;
 
+        /** The symbol table of the current file. */
+        private SymbolTable symbolTable;
+
+        /** The symbol table created by the check when none was set. */
+        private SymbolTable ownSymbolTable;
+
+        /** The token index of the current tree. */
+        private TokenIndex tokenIndex;
+
     }
 
 }
@@ -21,14 +21,13 @@ package com.puppycrawl.tools.checkstyle.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.grammar.CommentListener;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.collections.IntObjectMap;
 
 /**
  * Represents the contents of a file.
@@ -55,15 +54,16 @@ public final class FileContents implements CommentListener {
      * Map of the Javadoc comments indexed on the last line of the comment.
      * The hack is it assumes that there is only one Javadoc comment per line.
      */
-    private final Map<Integer, TextBlock> javadocComments = new HashMap<Integer, TextBlock>();
+    private final IntObjectMap<TextBlock> javadocComments = new IntObjectMap<TextBlock>();
     /** Map of the C++ comments indexed on the first line of the comment. */
-    private final Map<Integer, TextBlock> cppComments = new HashMap<Integer, TextBlock>();
+    private final IntObjectMap<TextBlock> cppComments = new IntObjectMap<TextBlock>();
 
     /**
      * Map of the C comments indexed on the first line of the comment to a list
      * of comments on that line.
      */
-    private final Map<Integer, List<TextBlock>> clangComments = new HashMap<Integer, List<TextBlock>>();
+    private final IntObjectMap<List<TextBlock>> clangComments =
+        new IntObjectMap<List<TextBlock>>();
 
     /**
      * Creates a new {@code FileContents} instance.
@@ -154,15 +154,12 @@ public final class FileContents implements CommentListener {
                 endColNo);
 
         // save the comment
-        if (clangComments.containsKey(startLineNo)) {
-            final List<TextBlock> entries = clangComments.get(startLineNo);
-            entries.add(comment);
-        }
-        else {
-            final List<TextBlock> entries = new ArrayList<TextBlock>();
-            entries.add(comment);
+        List<TextBlock> entries = clangComments.get(startLineNo);
+        if (entries == null) {
+            entries = new ArrayList<TextBlock>();
             clangComments.put(startLineNo, entries);
         }
+        entries.add(comment);
 
         // Remember if possible Javadoc comment
         final String firstLine = line(startLineNo - 1);
@@ -330,7 +327,7 @@ public final class FileContents implements CommentListener {
      * @return the Map of comments
      */
     public Map<Integer, TextBlock> getSingleLineComments() {
-        return Collections.unmodifiableMap(cppComments);
+        return cppComments.asMap();
     }
 
     /**
@@ -341,7 +338,7 @@ public final class FileContents implements CommentListener {
      * @return the map of comments
      */
     public Map<Integer, List<TextBlock>> getBlockComments() {
-        return Collections.unmodifiableMap(clangComments);
+        return clangComments.asMap();
     }
 
     /**
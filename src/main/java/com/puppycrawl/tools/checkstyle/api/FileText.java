@@ -23,10 +23,8 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
@@ -51,11 +49,6 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  */
 public final class FileText {
 
-    /**
-     * The number of characters to read in one go.
-     */
-    private static final int READ_BUFFER_SIZE = 1024;
-
     /**
      * Regular expression pattern matching all line terminators.
      */
@@ -78,6 +71,13 @@ public final class FileText {
      */
     private final Charset charset;
 
+    /**
+     * The bytes of the file as they were read, before decoding.
+     * {@code null} if the file was reconstructed from a list of lines or
+     * the bytes were not requested.
+     */
+    private final byte[] bytes;
+
     /**
      * The lines of the file, without terminators.
      */
@@ -105,6 +105,7 @@ public final class FileText {
     public FileText(FileText fileText) {
         file = fileText.file;
         charset = fileText.charset;
+        bytes = fileText.bytes;
         fullText = fileText.fullText;
         lines = fileText.lines.clone();
         if (fileText.lineBreaks == null) {
@@ -134,6 +135,7 @@ public final class FileText {
 
         this.file = file;
         charset = null;
+        bytes = null;
         fullText = buf.toString();
         this.lines = lines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
     }
@@ -152,6 +154,25 @@ public final class FileText {
      * @throws IOException if the file could not be read
      */
     public FileText(File file, String charsetName) throws IOException {
+        this(file, charsetName, false);
+    }
+
+    /**
+     * Creates a new file text representation, which optionally keeps the bytes
+     * of the file for {@link #getBytes()}.
+     *
+     * <p>The file will be read using the specified encoding, replacing
+     * malformed input and unmappable characters with the default
+     * replacement character.
+     *
+     * @param file the name of the file
+     * @param charsetName the encoding to use when reading the file
+     * @param keepBytes whether the bytes of the file are kept after decoding
+     * @throws NullPointerException if the text is null
+     * @throws IllegalStateException if the charset is not supported.
+     * @throws IOException if the file could not be read
+     */
+    public FileText(File file, String charsetName, boolean keepBytes) throws IOException {
         this.file = file;
 
         // We use our own decoder, to be sure we have complete control
@@ -168,7 +189,14 @@ public final class FileText {
             throw new IllegalStateException(message, ex);
         }
 
-        fullText = readFile(file, decoder);
+        final byte[] fileBytes = readFile(file);
+        fullText = decoder.decode(ByteBuffer.wrap(fileBytes)).toString();
+        if (keepBytes) {
+            bytes = fileBytes;
+        }
+        else {
+            bytes = null;
+        }
 
         // Use the BufferedReader to break down the lines as this
         // is about 30% faster than using the
@@ -191,36 +219,19 @@ public final class FileText {
     }
 
     /**
-     * Reads file using specific decoder and returns all its content as a String.
+     * Reads all bytes of a file, so they are decoded and possibly kept without
+     * opening the file again.
      *
      * @param inputFile File to read
-     * @param decoder Charset decoder
-     * @return File's text
+     * @return File's bytes
      * @throws IOException Unable to open or read the file
      * @throws FileNotFoundException when inputFile does not exists
      */
-    private static String readFile(final File inputFile, final CharsetDecoder decoder)
-            throws IOException {
+    private static byte[] readFile(final File inputFile) throws IOException {
         if (!inputFile.exists()) {
             throw new FileNotFoundException(inputFile.getPath() + " (No such file or directory)");
         }
-        final StringBuilder buf = new StringBuilder(1024);
-        final InputStream stream = Files7.newInputStream(new Path(inputFile));
-        final Reader reader = new InputStreamReader(stream, decoder);
-        try {
-            final char[] chars = new char[READ_BUFFER_SIZE];
-            while (true) {
-                final int len = reader.read(chars);
-                if (len == -1) {
-                    break;
-                }
-                buf.append(chars, 0, len);
-            }
-        }
-        finally {
-            reader.close();
-        }
-        return buf.toString();
+        return Files7.readAllBytes(new Path(inputFile));
     }
 
     /**
@@ -253,6 +264,21 @@ public final class FileText {
         return charset;
     }
 
+    /**
+     * Get the bytes of the file as they were read, before decoding, for checks
+     * which inspect the raw content like line terminators. Will be {@code null}
+     * for a file reconstructed from its lines, or read without keeping its bytes.
+     *
+     * @return a read-only view of the bytes of the file
+     */
+    public ByteBuffer getBytes() {
+        ByteBuffer result = null;
+        if (bytes != null) {
+            result = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+        return result;
+    }
+
     /**
      * Retrieve the full text of the file.
      *
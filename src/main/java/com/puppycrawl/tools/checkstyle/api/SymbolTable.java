@@ -0,0 +1,776 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-file model of the declarations of a Java source file and the frames
+ * (scopes) they are declared in.
+ *
+ * <p>
+ * The table is created for the root of a file's AST and is built lazily on
+ * the first query, with a single traversal of the tree. It is shared by all
+ * checks that walk the same file, so scope analysis is done once per file
+ * instead of once per check. References are resolved by name only, there is
+ * no type information available.
+ * </p>
+ *
+ * <p>
+ * Frames are opened by the compilation unit, class-like definitions
+ * (classes, interfaces, enums, annotations and records), anonymous classes,
+ * enum constants with a body, methods, constructors, lambdas, statement lists,
+ * {@code catch} clauses and {@code for} loops. A declaration belongs to the
+ * innermost frame that was open when it was encountered.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe, they are meant to be used by the thread that
+ * walks the file.
+ * </p>
+ */
+public final class SymbolTable {
+
+    /** The root of the AST the table is built from. */
+    private final DetailAST rootAst;
+
+    /** Maps frame-opening ASTs to their frames. */
+    private Map<DetailAST, Frame> frames;
+
+    /** All frames except the compilation unit, in tree order. */
+    private List<Frame> frameList;
+
+    /** The frame of the compilation unit. */
+    private Frame compilationUnit;
+
+    /**
+     * Creates a new symbol table for the given AST.
+     * Nothing is computed until the table is queried.
+     *
+     * @param rootAst the root of the AST, may be {@code null} for an empty file
+     */
+    public SymbolTable(DetailAST rootAst) {
+        this.rootAst = rootAst;
+    }
+
+    /**
+     * Returns the root of the AST the table is created for.
+     *
+     * @return the root of the AST
+     */
+    /* package */ DetailAST getRootAst() {
+        return rootAst;
+    }
+
+    /**
+     * Returns the frame of the compilation unit, which holds the top level types.
+     *
+     * @return the frame of the compilation unit
+     */
+    public Frame getCompilationUnitFrame() {
+        build();
+        return compilationUnit;
+    }
+
+    /**
+     * Returns all frames of the file except the compilation unit. A frame always
+     * comes after its enclosing frame.
+     *
+     * @return unmodifiable list of the frames, in tree order
+     */
+    public List<Frame> getFrames() {
+        build();
+        return Collections.unmodifiableList(frameList);
+    }
+
+    /**
+     * Returns the frame opened by the given AST.
+     *
+     * @param ast the AST to look up
+     * @return the frame opened by {@code ast}, or {@code null} if it does not open one
+     */
+    public Frame getFrame(DetailAST ast) {
+        build();
+        return frames.get(ast);
+    }
+
+    /**
+     * Returns the innermost frame that contains the given AST. A frame opening
+     * AST is contained in its own frame.
+     *
+     * @param ast the AST to look up
+     * @return the innermost frame containing {@code ast}
+     */
+    public Frame getEnclosingFrame(DetailAST ast) {
+        build();
+        Frame result = null;
+        for (DetailAST node = ast; node != null && result == null; node = node.getParent()) {
+            result = frames.get(node);
+        }
+        if (result == null) {
+            result = compilationUnit;
+        }
+        return result;
+    }
+
+    /**
+     * Resolves an identifier to the declaration of the variable, field, parameter
+     * or enum constant it refers to. Members of a class-like frame are only visible
+     * from inside its body, local declarations are only visible after the point
+     * they are declared at. The IDENT of a declaration resolves to the declaration
+     * itself.
+     *
+     * @param ident the IDENT node to resolve
+     * @return the declaration the identifier refers to, or {@code null} if it is not
+     *     declared in this file
+     */
+    public Symbol resolveVariable(DetailAST ident) {
+        build();
+        return resolve(ident, ident.getText(), false);
+    }
+
+    /**
+     * Resolves a type name, as seen from the given AST, to a type declared in this
+     * file. Types are visible in the whole frame that declares them.
+     *
+     * @param ast the AST the name is referenced from
+     * @param name the simple name of the type
+     * @return the declaration of the type, or {@code null} if it is not declared in
+     *     this file
+     */
+    public Symbol resolveType(DetailAST ast, String name) {
+        build();
+        return resolve(ast, name, true);
+    }
+
+    /**
+     * Walks from the given AST to the root, searching the frames on the way.
+     *
+     * @param ast the AST the name is referenced from
+     * @param name the name to resolve
+     * @param lookForType whether type or variable declarations are searched
+     * @return the found declaration or {@code null}
+     */
+    private Symbol resolve(DetailAST ast, String name, boolean lookForType) {
+        Symbol result = null;
+        DetailAST previous = null;
+        for (DetailAST node = ast; node != null && result == null; node = node.getParent()) {
+            final Frame frame = frames.get(node);
+            if (frame != null && (!frame.isClassLike() || isInBody(previous))) {
+                result = findInFrame(frame, ast, name, lookForType);
+            }
+            if (result == null && node.getType() == TokenTypes.CASE_GROUP) {
+                result = findInPreviousCaseGroups(node, ast, name, lookForType);
+            }
+            previous = node;
+        }
+        if (result == null) {
+            result = findInFrame(compilationUnit, ast, name, lookForType);
+        }
+        return result;
+    }
+
+    /**
+     * Searches the statement lists of the case groups before the given one. They
+     * share the scope of the whole switch block.
+     *
+     * @param caseGroup the case group the search came from
+     * @param reference the AST the name is referenced from
+     * @param name the name to find
+     * @param lookForType whether type or variable declarations are searched
+     * @return the found declaration or {@code null}
+     */
+    private Symbol findInPreviousCaseGroups(DetailAST caseGroup, DetailAST reference,
+            String name, boolean lookForType) {
+        Symbol result = null;
+        for (DetailAST previousGroup = caseGroup.getPreviousSibling();
+                previousGroup != null && result == null;
+                previousGroup = previousGroup.getPreviousSibling()) {
+            final Frame frame = frames.get(previousGroup.findFirstToken(TokenTypes.SLIST));
+            if (frame != null) {
+                result = findInFrame(frame, reference, name, lookForType);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the child of a class-like frame's AST, that a search came from,
+     * is the body of the frame.
+     *
+     * @param child the child of the frame AST the search came from
+     * @return true if {@code child} is the body of the frame
+     */
+    private static boolean isInBody(DetailAST child) {
+        return child != null && child.getType() == TokenTypes.OBJBLOCK;
+    }
+
+    /**
+     * Finds a declaration with the given name in a single frame.
+     *
+     * @param frame the frame to search
+     * @param reference the AST the name is referenced from
+     * @param name the name to find
+     * @param lookForType whether type or variable declarations are searched
+     * @return the found declaration or {@code null}
+     */
+    private static Symbol findInFrame(Frame frame, DetailAST reference, String name,
+            boolean lookForType) {
+        Symbol result = null;
+        for (Symbol symbol : frame.getSymbols(name)) {
+            final SymbolKind kind = symbol.getKind();
+            if (lookForType) {
+                if (kind == SymbolKind.TYPE) {
+                    result = symbol;
+                    break;
+                }
+            }
+            else if (kind.isVariable()
+                    && (frame.isClassLike() || symbol.getIdent() == reference
+                        || isBeforeInSource(symbol.getIdent(), reference))) {
+                result = symbol;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves whether ast1 is located before ast2.
+     *
+     * @param ast1 the first node.
+     * @param ast2 the second node.
+     * @return true, if ast1 is located before ast2.
+     */
+    private static boolean isBeforeInSource(DetailAST ast1, DetailAST ast2) {
+        return ast1.getLineNo() < ast2.getLineNo()
+            || ast1.getLineNo() == ast2.getLineNo()
+                && ast1.getColumnNo() < ast2.getColumnNo();
+    }
+
+    /**
+     * Builds the table, if it was not built yet.
+     */
+    private void build() {
+        if (frames == null) {
+            frames = new HashMap<DetailAST, Frame>();
+            frameList = new ArrayList<Frame>();
+            compilationUnit = new Frame(FrameType.COMPILATION_UNIT, null, null);
+
+            final Deque<Frame> frameStack = new ArrayDeque<Frame>();
+            frameStack.push(compilationUnit);
+            DetailAST curNode = rootAst;
+            while (curNode != null) {
+                visit(frameStack, curNode);
+                DetailAST toVisit = curNode.getFirstChild();
+                while (curNode != null && toVisit == null) {
+                    leave(frameStack, curNode);
+                    toVisit = curNode.getNextSibling();
+                    if (toVisit == null) {
+                        curNode = curNode.getParent();
+                    }
+                }
+                curNode = toVisit;
+            }
+        }
+    }
+
+    /**
+     * Collects the declaration made by an AST and opens its frame, if it opens one.
+     *
+     * @param frameStack the stack of open frames
+     * @param ast the AST to visit
+     */
+    // -@cs[CyclomaticComplexity] This method is a big switch and is too hard to split.
+    private void visit(Deque<Frame> frameStack, DetailAST ast) {
+        final Frame frame = frameStack.peek();
+        switch (ast.getType()) {
+            case TokenTypes.CLASS_DEF:
+            case TokenTypes.INTERFACE_DEF:
+            case TokenTypes.ENUM_DEF:
+            case TokenTypes.ANNOTATION_DEF:
+            case TokenTypes.RECORD_DEF:
+                frame.addSymbol(new Symbol(SymbolKind.TYPE, ast, frame));
+                openFrame(frameStack, FrameType.CLASS, ast);
+                break;
+            case TokenTypes.LITERAL_NEW:
+                if (ast.getLastChild() != null
+                        && ast.getLastChild().getType() == TokenTypes.OBJBLOCK) {
+                    openFrame(frameStack, FrameType.ANONYMOUS_CLASS, ast);
+                }
+                break;
+            case TokenTypes.ENUM_CONSTANT_DEF:
+                frame.addSymbol(new Symbol(SymbolKind.ENUM_CONSTANT, ast, frame));
+                if (ast.findFirstToken(TokenTypes.OBJBLOCK) != null) {
+                    openFrame(frameStack, FrameType.ENUM_CONSTANT, ast);
+                }
+                break;
+            case TokenTypes.METHOD_DEF:
+                frame.addSymbol(new Symbol(SymbolKind.METHOD, ast, frame));
+                openFrame(frameStack, FrameType.METHOD, ast);
+                break;
+            case TokenTypes.CTOR_DEF:
+            case TokenTypes.COMPACT_CTOR_DEF:
+                openFrame(frameStack, FrameType.CTOR, ast);
+                break;
+            case TokenTypes.LAMBDA:
+                // the arrow of a switch rule is a LAMBDA token too
+                if (ast.getParent().getType() != TokenTypes.SWITCH_RULE) {
+                    openFrame(frameStack, FrameType.LAMBDA, ast);
+                    if (ast.getFirstChild().getType() == TokenTypes.IDENT) {
+                        frameStack.peek().addSymbol(
+                            new Symbol(SymbolKind.LAMBDA_PARAMETER, ast, frameStack.peek()));
+                    }
+                }
+                break;
+            case TokenTypes.SLIST:
+                openFrame(frameStack, FrameType.BLOCK, ast);
+                break;
+            case TokenTypes.LITERAL_CATCH:
+                openFrame(frameStack, FrameType.CATCH, ast);
+                break;
+            case TokenTypes.LITERAL_FOR:
+                openFrame(frameStack, FrameType.FOR, ast);
+                break;
+            default:
+                visitVariable(frame, ast);
+                break;
+        }
+    }
+
+    /**
+     * Collects the declaration of a variable, if the AST declares one.
+     *
+     * @param frame the innermost open frame
+     * @param ast the AST to visit
+     */
+    private static void visitVariable(Frame frame, DetailAST ast) {
+        switch (ast.getType()) {
+            case TokenTypes.VARIABLE_DEF:
+                if (frame.isClassLike()) {
+                    frame.addSymbol(new Symbol(SymbolKind.FIELD, ast, frame));
+                }
+                else {
+                    frame.addSymbol(new Symbol(SymbolKind.LOCAL_VARIABLE, ast, frame));
+                }
+                break;
+            case TokenTypes.RECORD_COMPONENT_DEF:
+                frame.addSymbol(new Symbol(SymbolKind.RECORD_COMPONENT, ast, frame));
+                break;
+            case TokenTypes.PARAMETER_DEF:
+                if (ast.findFirstToken(TokenTypes.IDENT) != null) {
+                    frame.addSymbol(new Symbol(getParameterKind(frame), ast, frame));
+                }
+                break;
+            case TokenTypes.PATTERN_VARIABLE_DEF:
+                frame.addSymbol(new Symbol(SymbolKind.PATTERN_VARIABLE, ast, frame));
+                break;
+            case TokenTypes.RESOURCE:
+                if (ast.findFirstToken(TokenTypes.TYPE) != null) {
+                    frame.addSymbol(new Symbol(SymbolKind.RESOURCE, ast, frame));
+                }
+                break;
+            default:
+                // no declaration
+                break;
+        }
+    }
+
+    /**
+     * Returns the kind of a parameter declared in a frame.
+     *
+     * @param frame the frame the parameter is declared in
+     * @return the kind of the parameter
+     */
+    private static SymbolKind getParameterKind(Frame frame) {
+        final SymbolKind kind;
+        if (frame.getType() == FrameType.LAMBDA) {
+            kind = SymbolKind.LAMBDA_PARAMETER;
+        }
+        else if (frame.getType() == FrameType.CATCH) {
+            kind = SymbolKind.CATCH_PARAMETER;
+        }
+        else {
+            kind = SymbolKind.PARAMETER;
+        }
+        return kind;
+    }
+
+    /**
+     * Closes the frame opened by an AST, if it opened one.
+     *
+     * @param frameStack the stack of open frames
+     * @param ast the AST that is left
+     */
+    private static void leave(Deque<Frame> frameStack, DetailAST ast) {
+        if (frameStack.peek().getAst() == ast) {
+            frameStack.pop();
+        }
+    }
+
+    /**
+     * Opens a new frame.
+     *
+     * @param frameStack the stack of open frames
+     * @param type the type of the new frame
+     * @param ast the AST opening the frame
+     */
+    private void openFrame(Deque<Frame> frameStack, FrameType type, DetailAST ast) {
+        final Frame frame = new Frame(type, ast, frameStack.peek());
+        frames.put(ast, frame);
+        frameList.add(frame);
+        frameStack.push(frame);
+    }
+
+    /** The type of a frame. */
+    public enum FrameType {
+
+        /** The frame of the whole file. */
+        COMPILATION_UNIT,
+        /** Class, interface, enum, annotation or record definition. */
+        CLASS,
+        /** Anonymous class, opened by its {@code new} expression. */
+        ANONYMOUS_CLASS,
+        /** Body of an enum constant. */
+        ENUM_CONSTANT,
+        /** Method definition. */
+        METHOD,
+        /** Constructor or compact constructor definition. */
+        CTOR,
+        /** Lambda expression. */
+        LAMBDA,
+        /** Statement list. */
+        BLOCK,
+        /** Catch clause. */
+        CATCH,
+        /** For loop. */
+        FOR,
+
+    }
+
+    /** The kind of a declaration. */
+    public enum SymbolKind {
+
+        /** Class, interface, enum, annotation or record. */
+        TYPE(false),
+        /** Method. */
+        METHOD(false),
+        /** Field of a class-like frame. */
+        FIELD(true),
+        /** Enum constant. */
+        ENUM_CONSTANT(true),
+        /** Record component. */
+        RECORD_COMPONENT(true),
+        /** Method or constructor parameter. */
+        PARAMETER(true),
+        /** Lambda parameter. */
+        LAMBDA_PARAMETER(true),
+        /** Catch parameter. */
+        CATCH_PARAMETER(true),
+        /** Local variable, including {@code for} loop variables. */
+        LOCAL_VARIABLE(true),
+        /** Pattern variable. */
+        PATTERN_VARIABLE(true),
+        /** Try-with-resources variable. */
+        RESOURCE(true);
+
+        /** Whether this kind declares a variable. */
+        private final boolean variable;
+
+        /**
+         * Creates a new kind.
+         *
+         * @param variable whether this kind declares a variable
+         */
+        SymbolKind(boolean variable) {
+            this.variable = variable;
+        }
+
+        /**
+         * Checks whether this kind declares a variable, i.e. whether it can be referenced
+         * by a simple expression name.
+         *
+         * @return true if this kind declares a variable
+         */
+        public boolean isVariable() {
+            return variable;
+        }
+
+    }
+
+    /**
+     * A scope of the file, holding the declarations made directly in it.
+     */
+    public static final class Frame {
+
+        /** The type of the frame. */
+        private final FrameType type;
+
+        /** The AST opening the frame, {@code null} for the compilation unit. */
+        private final DetailAST ast;
+
+        /** The enclosing frame, {@code null} for the compilation unit. */
+        private final Frame parent;
+
+        /** The declarations of the frame, by name. */
+        private final Map<String, List<Symbol>> symbols = new HashMap<String, List<Symbol>>();
+
+        /** The declarations of the frame, in tree order. */
+        private final List<Symbol> allSymbols = new ArrayList<Symbol>();
+
+        /**
+         * Creates a new frame.
+         *
+         * @param type the type of the frame
+         * @param ast the AST opening the frame
+         * @param parent the enclosing frame
+         */
+        private Frame(FrameType type, DetailAST ast, Frame parent) {
+            this.type = type;
+            this.ast = ast;
+            this.parent = parent;
+        }
+
+        /**
+         * Returns the type of the frame.
+         *
+         * @return the type of the frame
+         */
+        public FrameType getType() {
+            return type;
+        }
+
+        /**
+         * Returns the AST opening the frame.
+         *
+         * @return the AST opening the frame, {@code null} for the compilation unit
+         */
+        public DetailAST getAst() {
+            return ast;
+        }
+
+        /**
+         * Returns the IDENT naming the frame, for types, enum constants, methods and
+         * constructors.
+         *
+         * @return the name of the frame or {@code null} if the frame has no name
+         */
+        public DetailAST getNameIdent() {
+            DetailAST result = null;
+            if (type == FrameType.CLASS || type == FrameType.ENUM_CONSTANT
+                    || type == FrameType.METHOD || type == FrameType.CTOR) {
+                result = ast.findFirstToken(TokenTypes.IDENT);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the enclosing frame.
+         *
+         * @return the enclosing frame, {@code null} for the compilation unit
+         */
+        public Frame getParent() {
+            return parent;
+        }
+
+        /**
+         * Checks whether declarations of this frame are members of a type.
+         *
+         * @return true for class, anonymous class and enum constant frames
+         */
+        public boolean isClassLike() {
+            return type == FrameType.CLASS
+                || type == FrameType.ANONYMOUS_CLASS
+                || type == FrameType.ENUM_CONSTANT;
+        }
+
+        /**
+         * Returns all declarations made directly in this frame.
+         *
+         * @return unmodifiable list of the declarations, in tree order
+         */
+        public List<Symbol> getSymbols() {
+            return Collections.unmodifiableList(allSymbols);
+        }
+
+        /**
+         * Returns the declarations with the given name made directly in this frame.
+         *
+         * @param name the name of the declarations
+         * @return unmodifiable list of the declarations, in tree order
+         */
+        public List<Symbol> getSymbols(String name) {
+            List<Symbol> result = symbols.get(name);
+            if (result == null) {
+                result = Collections.emptyList();
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        /**
+         * Adds a declaration to this frame.
+         *
+         * @param symbol the declaration
+         */
+        private void addSymbol(Symbol symbol) {
+            List<Symbol> list = symbols.get(symbol.getName());
+            if (list == null) {
+                list = new ArrayList<Symbol>();
+                symbols.put(symbol.getName(), list);
+            }
+            list.add(symbol);
+            allSymbols.add(symbol);
+        }
+
+    }
+
+    /**
+     * A single declaration.
+     */
+    public static final class Symbol {
+
+        /** The kind of the declaration. */
+        private final SymbolKind kind;
+
+        /** The declaring AST. */
+        private final DetailAST definition;
+
+        /** The IDENT naming the declaration. */
+        private final DetailAST ident;
+
+        /** The frame the declaration is made in. */
+        private final Frame frame;
+
+        /**
+         * Creates a new declaration.
+         *
+         * @param kind the kind of the declaration
+         * @param definition the declaring AST
+         * @param frame the frame the declaration is made in
+         */
+        private Symbol(SymbolKind kind, DetailAST definition, Frame frame) {
+            this.kind = kind;
+            this.definition = definition;
+            this.frame = frame;
+            if (definition.getType() == TokenTypes.LAMBDA) {
+                ident = definition.getFirstChild();
+            }
+            else {
+                ident = definition.findFirstToken(TokenTypes.IDENT);
+            }
+        }
+
+        /**
+         * Returns the kind of the declaration.
+         *
+         * @return the kind of the declaration
+         */
+        public SymbolKind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the name of the declaration.
+         *
+         * @return the name of the declaration
+         */
+        public String getName() {
+            return ident.getText();
+        }
+
+        /**
+         * Returns the IDENT naming the declaration.
+         *
+         * @return the IDENT naming the declaration
+         */
+        public DetailAST getIdent() {
+            return ident;
+        }
+
+        /**
+         * Returns the declaring AST, e.g. {@link TokenTypes#VARIABLE_DEF} or
+         * {@link TokenTypes#METHOD_DEF}. For an untyped single lambda parameter
+         * this is the {@link TokenTypes#LAMBDA}.
+         *
+         * @return the declaring AST
+         */
+        public DetailAST getDefinition() {
+            return definition;
+        }
+
+        /**
+         * Returns the frame the declaration is made in.
+         *
+         * @return the frame the declaration is made in
+         */
+        public Frame getFrame() {
+            return frame;
+        }
+
+        /**
+         * Checks whether the declaration has the {@code static} modifier, or is
+         * implicitly static as a field of an interface or an enum constant.
+         *
+         * @return true if the declaration is static
+         */
+        public boolean isStatic() {
+            final boolean result;
+            if (kind == SymbolKind.ENUM_CONSTANT) {
+                result = true;
+            }
+            else if (kind == SymbolKind.FIELD
+                    && frame.getAst().getType() == TokenTypes.INTERFACE_DEF) {
+                result = true;
+            }
+            else {
+                result = hasModifier(TokenTypes.LITERAL_STATIC);
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether the declaration has the {@code final} modifier.
+         *
+         * @return true if the declaration is final
+         */
+        public boolean isFinal() {
+            return hasModifier(TokenTypes.FINAL);
+        }
+
+        /**
+         * Checks whether the declaration has a modifier.
+         *
+         * @param modifierType the token type of the modifier
+         * @return true if the modifier is present
+         */
+        private boolean hasModifier(int modifierType) {
+            final DetailAST modifiers = definition.findFirstToken(TokenTypes.MODIFIERS);
+            return modifiers != null && modifiers.findFirstToken(modifierType) != null;
+        }
+
+    }
+
+}
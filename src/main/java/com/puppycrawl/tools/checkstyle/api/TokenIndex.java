@@ -0,0 +1,241 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-file index of the nodes of an AST by their token type.
+ *
+ * <p>
+ * The index is created for the root of a file's AST and is built lazily on
+ * the first query, with a single traversal of the tree. Every node gets its
+ * number in pre-order, together with the number of the last node of its
+ * subtree, so a node is an ancestor of another one if the number of the other
+ * node lies in its range. The nodes of every token type are kept in document
+ * order, so the descendants of a node having a certain type are found by a
+ * binary search instead of a traversal of the subtree.
+ * </p>
+ *
+ * <p>
+ * The index reflects the tree at the time it was built, nodes added later are
+ * not part of it. Instances are not thread-safe, they are meant to be used by
+ * the thread that walks the file.
+ * </p>
+ */
+public final class TokenIndex {
+
+    /** The root of the AST the index is built from. */
+    private final DetailAST rootAst;
+
+    /** Maps the nodes to their pre-order numbers. */
+    private Map<DetailAST, Integer> preOrderNumbers;
+
+    /** The pre-order numbers of the last nodes of the subtrees, by pre-order number. */
+    private int[] subtreeEnds;
+
+    /** Maps token types to their occurrences. */
+    private Map<Integer, Occurrences> occurrencesByType;
+
+    /**
+     * Creates a new index for the given AST.
+     * Nothing is computed until the index is queried.
+     *
+     * @param rootAst the root of the AST, may be {@code null} for an empty file
+     */
+    public TokenIndex(DetailAST rootAst) {
+        this.rootAst = rootAst;
+    }
+
+    /**
+     * Returns the root of the indexed AST.
+     *
+     * @return the root of the AST, {@code null} for an empty file
+     */
+    public DetailAST getRootAst() {
+        return rootAst;
+    }
+
+    /**
+     * Returns all nodes of the given token type, in document order.
+     *
+     * @param type the token type
+     * @return an unmodifiable list of the nodes
+     */
+    public List<DetailAST> getTokens(int type) {
+        build();
+        final List<DetailAST> result;
+        final Occurrences occurrences = occurrencesByType.get(type);
+        if (occurrences == null) {
+            result = Collections.emptyList();
+        }
+        else {
+            result = Collections.unmodifiableList(occurrences.nodes);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the descendants of a node with the given token type, in document
+     * order. The node itself is not included.
+     *
+     * @param ast the node, {@code null} stands for the parent of the top level nodes
+     * @param type the token type
+     * @return an unmodifiable list of the descendants
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public List<DetailAST> getDescendants(DetailAST ast, int type) {
+        List<DetailAST> result = getTokens(type);
+        if (ast != null && !result.isEmpty()) {
+            final int number = getPreOrderNumber(ast);
+            final int[] numbers = occurrencesByType.get(type).numbers;
+            final int from = getInsertionPoint(numbers, number + 1);
+            final int to = getInsertionPoint(numbers, subtreeEnds[number] + 1);
+            result = result.subList(from, to);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a node has a descendant of the given token type.
+     *
+     * @param ast the node, {@code null} stands for the parent of the top level nodes
+     * @param type the token type
+     * @return true if a descendant of the node has the type
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public boolean containsDescendant(DetailAST ast, int type) {
+        return !getDescendants(ast, type).isEmpty();
+    }
+
+    /**
+     * Checks whether a node is a proper ancestor of another node.
+     *
+     * @param ancestor the possible ancestor, {@code null} stands for the parent of
+     *     the top level nodes
+     * @param node the node
+     * @return true if {@code ancestor} is an ancestor of {@code node}
+     * @throws IllegalArgumentException if a node is not part of the indexed tree
+     */
+    public boolean isAncestor(DetailAST ancestor, DetailAST node) {
+        final int number = getPreOrderNumber(node);
+        final boolean result;
+        if (ancestor == null) {
+            result = true;
+        }
+        else {
+            final int ancestorNumber = getPreOrderNumber(ancestor);
+            result = ancestorNumber < number && number <= subtreeEnds[ancestorNumber];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of a node in a pre-order traversal of the tree, which
+     * is its position in document order.
+     *
+     * @param ast the node
+     * @return the zero-based number of the node
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public int getPreOrderNumber(DetailAST ast) {
+        build();
+        final Integer result = preOrderNumbers.get(ast);
+        if (result == null) {
+            throw new IllegalArgumentException("Node is not part of the indexed tree: " + ast);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the position of the first number greater than or equal to the given one.
+     *
+     * @param numbers the sorted distinct numbers
+     * @param number the number to search
+     * @return the position of the number or of its insertion point
+     */
+    private static int getInsertionPoint(int[] numbers, int number) {
+        int result = Arrays.binarySearch(numbers, number);
+        if (result < 0) {
+            result = -result - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Builds the index if it was not built before.
+     */
+    private void build() {
+        if (preOrderNumbers == null) {
+            preOrderNumbers = new IdentityHashMap<DetailAST, Integer>();
+            occurrencesByType = new HashMap<Integer, Occurrences>();
+            final List<Integer> ends = new ArrayList<Integer>();
+            DetailAST curNode = rootAst;
+            while (curNode != null) {
+                final int number = preOrderNumbers.size();
+                preOrderNumbers.put(curNode, number);
+                ends.add(number);
+                Occurrences occurrences = occurrencesByType.get(curNode.getType());
+                if (occurrences == null) {
+                    occurrences = new Occurrences();
+                    occurrencesByType.put(curNode.getType(), occurrences);
+                }
+                occurrences.nodes.add(curNode);
+                DetailAST toVisit = curNode.getFirstChild();
+                while (curNode != null && toVisit == null) {
+                    ends.set(preOrderNumbers.get(curNode), preOrderNumbers.size() - 1);
+                    toVisit = curNode.getNextSibling();
+                    curNode = curNode.getParent();
+                }
+                curNode = toVisit;
+            }
+            subtreeEnds = new int[ends.size()];
+            for (int index = 0; index < subtreeEnds.length; index++) {
+                subtreeEnds[index] = ends.get(index);
+            }
+            for (Occurrences occurrences : occurrencesByType.values()) {
+                occurrences.numbers = new int[occurrences.nodes.size()];
+                for (int index = 0; index < occurrences.numbers.length; index++) {
+                    occurrences.numbers[index] = preOrderNumbers.get(occurrences.nodes.get(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * The nodes of a token type.
+     */
+    private static final class Occurrences {
+
+        /** The nodes in document order. */
+        private final List<DetailAST> nodes = new ArrayList<DetailAST>();
+
+        /** The pre-order numbers of the nodes. */
+        private int[] numbers;
+
+    }
+
+}
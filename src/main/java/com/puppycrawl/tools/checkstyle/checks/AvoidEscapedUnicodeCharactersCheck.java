@@ -342,6 +342,11 @@ public class AvoidEscapedUnicodeCharactersCheck
         allowNonPrintableEscapes = allow;
     }
 
+    @Override
+    public boolean isAstRequired() {
+        return false;
+    }
+
     @Override
     public int[] getDefaultTokens() {
         return getRequiredTokens();
@@ -22,8 +22,10 @@ package com.puppycrawl.tools.checkstyle.checks;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.Locale;
 
+import com.puppycrawl.tools.checkstyle.RawBytesCheck;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
@@ -165,6 +167,7 @@ import com.puppycrawl.tools.checkstyle.api.FileText;
  * @since 3.1
  */
 @StatelessCheck
+@RawBytesCheck
 public class NewlineAtEndOfFileCheck
     extends AbstractFileSetCheck {
 
@@ -191,11 +194,22 @@ public class NewlineAtEndOfFileCheck
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        try {
-            readAndCheckFile(file);
+        // Cannot use lines as the line separators have been removed!
+        final ByteBuffer bytes = fileText.getBytes();
+        if (bytes == null) {
+            try {
+                readAndCheckFile(file);
+            }
+            catch (final IOException ignored) {
+                log(1, MSG_KEY_UNABLE_OPEN, file.getPath());
+            }
+        }
+        else if (lineSeparator == LineSeparatorOption.LF
+                && endsWithNewline(bytes, LineSeparatorOption.CRLF)) {
+            log(1, MSG_KEY_WRONG_ENDING, file.getPath());
         }
-        catch (final IOException ignored) {
-            log(1, MSG_KEY_UNABLE_OPEN, file.getPath());
+        else if (!endsWithNewline(bytes, lineSeparator)) {
+            log(1, MSG_KEY_NO_NEWLINE_EOF, file.getPath());
         }
     }
 
@@ -213,14 +227,14 @@ public class NewlineAtEndOfFileCheck
     }
 
     /**
-     * Reads the file provided and checks line separators.
+     * Reads the file provided and checks line separators, for a text which
+     * was not read from the file.
      *
      * @param file the file to be processed
      * @throws IOException When an IO error occurred while reading from the
      *         file provided
      */
     private void readAndCheckFile(File file) throws IOException {
-        // Cannot use lines as the line separators have been removed!
         final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
         try {
             if (lineSeparator == LineSeparatorOption.LF
@@ -266,4 +280,27 @@ public class NewlineAtEndOfFileCheck
         return result;
     }
 
+    /**
+     * Checks whether the bytes of a file end with the line separator.
+     *
+     * @param bytes the bytes of the file
+     * @param separator the line separator
+     * @return whether the bytes end with the line separator
+     */
+    private static boolean endsWithNewline(ByteBuffer bytes, LineSeparatorOption separator) {
+        final boolean result;
+        final int len = separator.length();
+        if (bytes.limit() < len) {
+            result = false;
+        }
+        else {
+            final byte[] lastBytes = new byte[len];
+            final ByteBuffer end = bytes.duplicate();
+            end.position(bytes.limit() - len);
+            end.get(lastBytes);
+            result = separator.matches(lastBytes);
+        }
+        return result;
+    }
+
 }
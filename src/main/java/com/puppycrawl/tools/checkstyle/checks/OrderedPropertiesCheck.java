@@ -20,22 +20,12 @@
 package com.puppycrawl.tools.checkstyle.checks;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
-import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.FileText;
-import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
-import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 
 /**
  * <p>Detects if keys in properties files are in correct order.</p>
@@ -108,10 +98,6 @@ public class OrderedPropertiesCheck extends AbstractFileSetCheck {
      * Localization key for IO exception occurred on file open.
      */
     public static final String MSG_IO_EXCEPTION_KEY = "unable.open.cause";
-    /**
-     * Pattern matching single space.
-     */
-    private static final Pattern SPACE_PATTERN = Pattern.compile(" ");
 
     /**
      * Construct the check with default values.
@@ -125,140 +111,25 @@ public class OrderedPropertiesCheck extends AbstractFileSetCheck {
      *
      * @param file the file to be processed
      * @param fileText the contents of the file.
-     * @noinspection EnumerationCanBeIteration
      */
     @Override
-    protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
-        final SequencedProperties properties = new SequencedProperties();
+    protected void processFiltered(File file, FileText fileText) {
+        final List<PropertiesParser.Property> properties =
+                new ArrayList<PropertiesParser.Property>();
         try {
-            final InputStream inputStream = Files7.newInputStream(new Path(file));
-            try {
-                properties.load(inputStream);
-            }
-            finally {
-                inputStream.close();
-            }
-        }
-        catch (IOException ex) {
-            log(1, MSG_IO_EXCEPTION_KEY, file.getPath(), ex.getLocalizedMessage());
+            PropertiesParser.parse(fileText, properties);
         }
         catch (IllegalArgumentException ex) {
             log(1, MSG_IO_EXCEPTION_KEY, file.getPath(), ex.getLocalizedMessage());
         }
 
         String previousProp = "";
-        int startLineNo = 0;
-
-        final Enumeration<Object> keys = properties.keys();
-
-        while (keys.hasMoreElements()) {
-
-            final String propKey = (String) keys.nextElement();
-
+        for (PropertiesParser.Property property : properties) {
+            final String propKey = property.getKey();
             if (String.CASE_INSENSITIVE_ORDER.compare(previousProp, propKey) > 0) {
-
-                final int lineNo = getLineNumber(startLineNo, fileText, previousProp, propKey);
-                log(lineNo + 1, MSG_KEY, propKey, previousProp);
-                // start searching at position of the last reported validation
-                startLineNo = lineNo;
+                log(property.getLineNo(), MSG_KEY, propKey, previousProp);
             }
-
             previousProp = propKey;
         }
     }
-
-    /**
-     * Method returns the index number where the key is detected (starting at 0).
-     * To assure that we get the correct line it starts at the point
-     * of the last occurrence.
-     * Also the previousProp should be in file before propKey.
-     *
-     * @param startLineNo start searching at line
-     * @param fileText {@link FileText} object contains the lines to process
-     * @param previousProp key name found last iteration, works only if valid
-     * @param propKey key name to look for
-     * @return index number of first occurrence. If no key found in properties file, 0 is returned
-     */
-    private static int getLineNumber(int startLineNo, FileText fileText,
-                                     String previousProp, String propKey) {
-        final int indexOfPreviousProp = getIndex(startLineNo, fileText, previousProp);
-        return getIndex(indexOfPreviousProp, fileText, propKey);
-    }
-
-    /**
-     * Inner method to get the index number of the position of keyName.
-     *
-     * @param startLineNo start searching at line
-     * @param fileText {@link FileText} object contains the lines to process
-     * @param keyName key name to look for
-     * @return index number of first occurrence. If no key found in properties file, 0 is returned
-     */
-    private static int getIndex(int startLineNo, FileText fileText, String keyName) {
-        final Pattern keyPattern = getKeyPattern(keyName);
-        int indexNumber = 0;
-        final Matcher matcher = keyPattern.matcher("");
-        for (int index = startLineNo; index < fileText.size(); index++) {
-            final String line = fileText.get(index);
-            matcher.reset(line);
-            if (matcher.matches()) {
-                indexNumber = index;
-                break;
-            }
-        }
-        return indexNumber;
-    }
-
-    /**
-     * Method returns regular expression pattern given key name.
-     *
-     * @param keyName
-     *            key name to look for
-     * @return regular expression pattern given key name
-     */
-    private static Pattern getKeyPattern(String keyName) {
-        final String keyPatternString = "^" + SPACE_PATTERN.matcher(keyName)
-                .replaceAll(Matcher.quoteReplacement("\\\\ ")) + "[\\s:=].*";
-        return Pattern.compile(keyPatternString);
-    }
-
-    /**
-     * Private property implementation that keeps order of properties like in file.
-     *
-     * @noinspection ClassExtendsConcreteCollection, SerializableHasSerializationMethods
-     */
-    private static class SequencedProperties extends Properties {
-
-        private static final long serialVersionUID = 1L;
-
-        /**
-         * Holding the keys in the same order than in the file.
-         */
-        private final List<Object> keyList = new ArrayList<Object>();
-
-        /**
-         * Returns a copy of the keys.
-         */
-        @Override
-        public synchronized Enumeration<Object> keys() {
-            return Collections.enumeration(keyList);
-        }
-
-        /**
-         * Puts the value into list by its key.
-         *
-         * @noinspection UseOfPropertiesAsHashtable
-         *
-         * @param key the hashtable key
-         * @param value the value
-         * @return the previous value of the specified key in this hashtable,
-         *      or null if it did not have one
-         * @throws NullPointerException - if the key or value is null
-         */
-        @Override
-        public synchronized Object put(Object key, Object value) {
-            keyList.add(key);
-
-            return super.put(key, value);
-        }
-    }
 }
@@ -0,0 +1,284 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks;
+
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Parses the properties of a properties file from its already decoded text, following the
+ * syntax of {@link java.util.Properties#load(java.io.Reader)}, so properties based checks
+ * need not read the file once more. Unlike {@code Properties}, the parser keeps every
+ * occurrence of a key in file order together with the line it starts on.
+ */
+/* package */ final class PropertiesParser {
+
+    /** Message of the exception thrown for an invalid unicode escape, as of Properties. */
+    private static final String MALFORMED_ESCAPE = "Malformed \\uxxxx encoding.";
+
+    /** Number of hexadecimal digits of an unicode escape. */
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+    /** Radix of the digits of an unicode escape. */
+    private static final int HEX_RADIX = 16;
+
+    /** Prevent instantiation. */
+    private PropertiesParser() {
+    }
+
+    /**
+     * Parses the properties of the given text. The properties before an invalid
+     * escape sequence are still added to the list when the exception is thrown.
+     *
+     * @param fileText the text of the properties file
+     * @param properties the list to add the properties to, in file order
+     * @throws IllegalArgumentException if the text contains a malformed unicode escape
+     */
+    public static void parse(FileText fileText, List<Property> properties) {
+        final StringBuilder logicalLine = new StringBuilder();
+        int index = 0;
+        while (index < fileText.size()) {
+            final int lineNo = index + 1;
+            String line = fileText.get(index);
+            index++;
+            int start = skipWhitespace(line, 0);
+            if (start < line.length() && !isComment(line.charAt(start))) {
+                logicalLine.setLength(0);
+                while (true) {
+                    logicalLine.append(line, start, line.length());
+                    if (!isContinued(line, start)) {
+                        break;
+                    }
+                    logicalLine.setLength(logicalLine.length() - 1);
+                    if (index == fileText.size()) {
+                        break;
+                    }
+                    line = fileText.get(index);
+                    index++;
+                    start = skipWhitespace(line, 0);
+                }
+                properties.add(parseLine(logicalLine, lineNo));
+            }
+        }
+    }
+
+    /**
+     * Splits a logical line into the key and the value of a property.
+     *
+     * @param line the logical line, without leading whitespace and continuations
+     * @param lineNo the number of the line the property starts on
+     * @return the property
+     * @throws IllegalArgumentException if the line contains a malformed unicode escape
+     */
+    private static Property parseLine(CharSequence line, int lineNo) {
+        final int length = line.length();
+        int keyEnd = 0;
+        int valueStart = length;
+        boolean hasSeparator = false;
+        boolean precedingBackslash = false;
+        while (keyEnd < length) {
+            final char chr = line.charAt(keyEnd);
+            if (!precedingBackslash && (chr == '=' || chr == ':')) {
+                valueStart = keyEnd + 1;
+                hasSeparator = true;
+                break;
+            }
+            if (!precedingBackslash && isWhitespace(chr)) {
+                valueStart = keyEnd + 1;
+                break;
+            }
+            precedingBackslash = chr == '\\' && !precedingBackslash;
+            keyEnd++;
+        }
+        while (valueStart < length) {
+            final char chr = line.charAt(valueStart);
+            if (!isWhitespace(chr)) {
+                if (hasSeparator || chr != '=' && chr != ':') {
+                    break;
+                }
+                hasSeparator = true;
+            }
+            valueStart++;
+        }
+        return new Property(unescape(line, 0, keyEnd), unescape(line, valueStart, length),
+                lineNo);
+    }
+
+    /**
+     * Replaces the escape sequences of a key or a value by the characters they stand for.
+     *
+     * @param line the logical line
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return the unescaped text
+     * @throws IllegalArgumentException if the text contains a malformed unicode escape
+     */
+    private static String unescape(CharSequence line, int start, int end) {
+        final StringBuilder result = new StringBuilder(end - start);
+        int index = start;
+        while (index < end) {
+            char chr = line.charAt(index);
+            index++;
+            if (chr == '\\' && index < end) {
+                chr = line.charAt(index);
+                index++;
+                if (chr == 'u') {
+                    if (index + UNICODE_ESCAPE_LENGTH > end) {
+                        throw new IllegalArgumentException(MALFORMED_ESCAPE);
+                    }
+                    int value = 0;
+                    for (int digit = 0; digit < UNICODE_ESCAPE_LENGTH; digit++) {
+                        final int digitValue = Character.digit(line.charAt(index), HEX_RADIX);
+                        if (digitValue < 0) {
+                            throw new IllegalArgumentException(MALFORMED_ESCAPE);
+                        }
+                        value = value * HEX_RADIX + digitValue;
+                        index++;
+                    }
+                    chr = (char) value;
+                }
+                else if (chr == 't') {
+                    chr = '\t';
+                }
+                else if (chr == 'r') {
+                    chr = '\r';
+                }
+                else if (chr == 'n') {
+                    chr = '\n';
+                }
+                else if (chr == 'f') {
+                    chr = '\f';
+                }
+            }
+            result.append(chr);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Checks whether a line is continued on the next line, which is the case
+     * if it ends with an odd number of backslashes.
+     *
+     * @param line the line
+     * @param start the index of the first character of the line to consider
+     * @return {@code true} if the line is continued
+     */
+    private static boolean isContinued(String line, int start) {
+        int index = line.length() - 1;
+        while (index >= start && line.charAt(index) == '\\') {
+            index--;
+        }
+        return (line.length() - 1 - index) % 2 == 1;
+    }
+
+    /**
+     * Returns the index of the first character at or after the given index
+     * which is not whitespace.
+     *
+     * @param line the line
+     * @param start the index to start at
+     * @return the index of the first non whitespace character, or the line length
+     */
+    private static int skipWhitespace(String line, int start) {
+        int index = start;
+        while (index < line.length() && isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether a character is whitespace in properties files.
+     *
+     * @param chr the character
+     * @return {@code true} for space, tab and form feed
+     */
+    private static boolean isWhitespace(char chr) {
+        return chr == ' ' || chr == '\t' || chr == '\f';
+    }
+
+    /**
+     * Checks whether a character starts a comment line.
+     *
+     * @param chr the first non whitespace character of a line
+     * @return {@code true} for '#' and '!'
+     */
+    private static boolean isComment(char chr) {
+        return chr == '#' || chr == '!';
+    }
+
+    /**
+     * A property of a properties file.
+     */
+    /* package */ static final class Property {
+
+        /** The unescaped key. */
+        private final String key;
+
+        /** The unescaped value. */
+        private final String value;
+
+        /** The number of the line the property starts on. */
+        private final int lineNo;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param key the unescaped key
+         * @param value the unescaped value
+         * @param lineNo the number of the line the property starts on
+         */
+        /* package */ Property(String key, String value, int lineNo) {
+            this.key = key;
+            this.value = value;
+            this.lineNo = lineNo;
+        }
+
+        /**
+         * Returns the key.
+         *
+         * @return the unescaped key
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the value.
+         *
+         * @return the unescaped value
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the number of the line the property starts on.
+         *
+         * @return the line number
+         */
+        public int getLineNo() {
+            return lineNo;
+        }
+
+    }
+
+}
@@ -19,12 +19,17 @@
 
 package com.puppycrawl.tools.checkstyle.checks;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
@@ -133,6 +138,10 @@ public class SuppressWarningsHolder
     /** A map from check source names to suppression aliases. */
     private static final Map<String, String> CHECK_ALIAS_MAP = new HashMap<String, String>();
 
+    /** A cache of default aliases of check source names. */
+    private static final ConcurrentMap<String, String> DEFAULT_ALIAS_MAP =
+            new ConcurrentHashMap<String, String>();
+
     /**
      * Compiled pattern used to match whitespace in text block content.
      */
@@ -143,16 +152,11 @@ public class SuppressWarningsHolder
      */
     private static final Pattern NEWLINE = Pattern.compile("\\n");
 
-    /**
-     * A thread-local holder for the list of suppression entries for the last
-     * file parsed.
-     */
-    private static final ThreadLocal<List<Entry>> ENTRIES = new ThreadLocal<List<Entry>>() {
-        @Override
-        protected List<Entry> initialValue() {
-            return new LinkedList<Entry>();
-        }
-    };
+    /** The key of the suppression entries in the state of the file being processed. */
+    private static final String FILE_STATE_KEY = SuppressWarningsHolder.class.getName();
+
+    /** The state of the file being processed, shared by the modules of the Checker. */
+    private Map<String, Object> fileState;
 
     /**
      * Returns the default alias for the source name of a check, which is the
@@ -184,7 +188,11 @@ public class SuppressWarningsHolder
     public static String getAlias(String sourceName) {
         String checkAlias = CHECK_ALIAS_MAP.get(sourceName);
         if (checkAlias == null) {
-            checkAlias = getDefaultAlias(sourceName);
+            checkAlias = DEFAULT_ALIAS_MAP.get(sourceName);
+            if (checkAlias == null) {
+                checkAlias = getDefaultAlias(sourceName);
+                DEFAULT_ALIAS_MAP.put(sourceName, checkAlias);
+            }
         }
         return checkAlias;
     }
@@ -222,66 +230,44 @@ public class SuppressWarningsHolder
     }
 
     /**
-     * Checks for a suppression of a check with the given source name and
-     * location in the last file processed.
+     * Sets the state of the file being processed, in which the suppression
+     * entries of the file are kept for the filters of the Checker.
      *
-     * @param event audit event.
-     * @return whether the check with the given name is suppressed at the given
-     *         source location
+     * @param fileState the state shared by the modules of the Checker
      */
-    public static boolean isSuppressed(AuditEvent event) {
-        final List<Entry> entries = ENTRIES.get();
-        final String sourceName = event.getSourceName();
-        final String checkAlias = getAlias(sourceName);
-        final int line = event.getLine();
-        final int column = event.getColumn();
-        boolean suppressed = false;
-        for (Entry entry : entries) {
-            final boolean afterStart = isSuppressedAfterEventStart(line, column, entry);
-            final boolean beforeEnd = isSuppressedBeforeEventEnd(line, column, entry);
-            final boolean nameMatches =
-                ALL_WARNING_MATCHING_ID.equals(entry.getCheckName())
-                    || entry.getCheckName().equalsIgnoreCase(checkAlias);
-            final boolean idMatches = event.getModuleId() != null
-                && event.getModuleId().equals(entry.getCheckName());
-            if (afterStart && beforeEnd && (nameMatches || idMatches)) {
-                suppressed = true;
-                break;
-            }
-        }
-        return suppressed;
+    public void setFileState(Map<String, Object> fileState) {
+        this.fileState = fileState;
     }
 
     /**
-     * Checks whether suppression entry position is after the audit event occurrence position
-     * in the source file.
+     * Checks for a suppression of a check with the given source name and
+     * location in the file of the event.
      *
-     * @param line the line number in the source file where the event occurred.
-     * @param column the column number in the source file where the event occurred.
-     * @param entry suppression entry.
-     * @return true if suppression entry position is after the audit event occurrence position
-     *         in the source file.
+     * @param fileState the state of the file of the event, may be null.
+     * @param event audit event.
+     * @return whether the check with the given name is suppressed at the given
+     *         source location
      */
-    private static boolean isSuppressedAfterEventStart(int line, int column, Entry entry) {
-        return entry.getFirstLine() < line
-            || entry.getFirstLine() == line
-            && (column == 0 || entry.getFirstColumn() <= column);
+    public static boolean isSuppressed(Map<String, Object> fileState, AuditEvent event) {
+        FileSuppressions suppressions = null;
+        if (fileState != null) {
+            suppressions = (FileSuppressions) fileState.get(FILE_STATE_KEY);
+        }
+        return suppressions != null
+                && suppressions.isSuppressed(getAlias(event.getSourceName()),
+                        event.getModuleId(), event.getLine(), event.getColumn());
     }
 
     /**
-     * Checks whether suppression entry position is before the audit event occurrence position
-     * in the source file.
+     * Encodes a position in the source file, so that positions are ordered
+     * by line and then by column.
      *
-     * @param line the line number in the source file where the event occurred.
-     * @param column the column number in the source file where the event occurred.
-     * @param entry suppression entry.
-     * @return true if suppression entry position is before the audit event occurrence position
-     *         in the source file.
+     * @param line the line number.
+     * @param column the column number.
+     * @return the encoded position.
      */
-    private static boolean isSuppressedBeforeEventEnd(int line, int column, Entry entry) {
-        return entry.getLastLine() > line
-            || entry.getLastLine() == line && entry
-                .getLastColumn() >= column;
+    private static long getPosition(int line, int column) {
+        return ((long) line << Integer.SIZE) + column;
     }
 
     @Override
@@ -301,7 +287,9 @@ public class SuppressWarningsHolder
 
     @Override
     public void beginTree(DetailAST rootAST) {
-        ENTRIES.get().clear();
+        if (fileState != null) {
+            fileState.put(FILE_STATE_KEY, new FileSuppressions());
+        }
     }
 
     @Override
@@ -312,7 +300,8 @@ public class SuppressWarningsHolder
         if (identifier.startsWith(JAVA_LANG_PREFIX)) {
             identifier = identifier.substring(JAVA_LANG_PREFIX.length());
         }
-        if ("SuppressWarnings".equals(identifier)) {
+        // entries are only kept in the state of a file processed by a Checker
+        if (fileState != null && "SuppressWarnings".equals(identifier)) {
             getAnnotationTarget(ast).ifPresent(new Consumer<DetailAST>() {
                 @Override
                 public boolean accept(DetailAST targetAST) {
@@ -331,7 +320,7 @@ public class SuppressWarningsHolder
      * @param targetAST
      *            - annotation target
      */
-    private static void addSuppressions(List<String> values, DetailAST targetAST) {
+    private void addSuppressions(List<String> values, DetailAST targetAST) {
         // get text range of target
         final int firstLine = targetAST.getLineNo();
         final int firstColumn = targetAST.getColumnNo();
@@ -347,11 +336,11 @@ public class SuppressWarningsHolder
             lastColumn = nextAST.getColumnNo() - 1;
         }
 
-        final List<Entry> entries = ENTRIES.get();
+        final FileSuppressions suppressions = (FileSuppressions) fileState.get(FILE_STATE_KEY);
         for (String value : values) {
             // strip off the checkstyle-only prefix if present
             final String checkName = removeCheckstylePrefixIfExists(value);
-            entries.add(new Entry(checkName, firstLine, firstColumn,
+            suppressions.add(new Entry(checkName, firstLine, firstColumn,
                     lastLine, lastColumn));
         }
     }
@@ -564,10 +553,197 @@ public class SuppressWarningsHolder
         return WHITESPACE.matcher(contentWithNoPrecedingNewline).replaceAll("");
     }
 
-    @Override
-    public void destroy() {
-        super.destroy();
-        ENTRIES.remove();
+    /**
+     * The suppression entries of a single file. Entries are indexed on the first
+     * lookup after they were added: they are grouped by check name, ignoring case,
+     * and by module id, with a separate group for the entries matching all checks,
+     * so a lookup is a map lookup plus a stabbing query on the regions of a group.
+     * Methods are synchronized, so the entries collected by the thread walking
+     * the tree are visible to a thread filtering the events of the file.
+     */
+    private static final class FileSuppressions {
+
+        /** The entries in the order they were added. */
+        private final List<Entry> entries = new ArrayList<Entry>();
+
+        /** Regions of entries matching all checks, null if not indexed yet. */
+        private Regions allRegions;
+        /** Regions of entries grouped by check name, ignoring case. */
+        private Map<String, Regions> regionsByName;
+        /** Regions of entries grouped by check name matching a module id. */
+        private Map<String, Regions> regionsByModuleId;
+
+        /**
+         * Adds an entry and drops the index.
+         *
+         * @param entry the suppression entry.
+         */
+        public synchronized void add(Entry entry) {
+            entries.add(entry);
+            allRegions = null;
+        }
+
+        /**
+         * Checks for a suppression of a check at the given location.
+         *
+         * @param checkAlias the alias of the check.
+         * @param moduleId the module id of the check, may be null.
+         * @param line the line number in the source file where the event occurred.
+         * @param column the column number in the source file where the event occurred.
+         * @return whether the check is suppressed at the given location
+         */
+        public synchronized boolean isSuppressed(String checkAlias, String moduleId,
+                int line, int column) {
+            if (allRegions == null) {
+                buildIndex();
+            }
+            final long start;
+            if (column == 0) {
+                // a violation without column is suppressed by any region starting on its line
+                start = getPosition(line, Integer.MAX_VALUE);
+            }
+            else {
+                start = getPosition(line, column);
+            }
+            final long position = getPosition(line, column);
+            boolean suppressed = allRegions.contains(start, position);
+            if (!suppressed) {
+                final Regions regions = regionsByName.get(checkAlias);
+                suppressed = regions != null && regions.contains(start, position);
+            }
+            if (!suppressed && moduleId != null) {
+                final Regions regions = regionsByModuleId.get(moduleId);
+                suppressed = regions != null && regions.contains(start, position);
+            }
+            return suppressed;
+        }
+
+        /**
+         * Groups the entries by check name and module id.
+         */
+        private void buildIndex() {
+            final List<Entry> allEntries = new ArrayList<Entry>();
+            final Map<String, List<Entry>> entriesByName =
+                    new TreeMap<String, List<Entry>>(String.CASE_INSENSITIVE_ORDER);
+            final Map<String, List<Entry>> entriesByModuleId =
+                    new HashMap<String, List<Entry>>();
+            for (Entry entry : entries) {
+                final String checkName = entry.getCheckName();
+                if (ALL_WARNING_MATCHING_ID.equals(checkName)) {
+                    allEntries.add(entry);
+                }
+                else {
+                    addToGroup(entriesByName, checkName, entry);
+                    addToGroup(entriesByModuleId, checkName, entry);
+                }
+            }
+            allRegions = new Regions(allEntries);
+            regionsByName = new TreeMap<String, Regions>(String.CASE_INSENSITIVE_ORDER);
+            for (Map.Entry<String, List<Entry>> group : entriesByName.entrySet()) {
+                regionsByName.put(group.getKey(), new Regions(group.getValue()));
+            }
+            regionsByModuleId = new HashMap<String, Regions>();
+            for (Map.Entry<String, List<Entry>> group : entriesByModuleId.entrySet()) {
+                regionsByModuleId.put(group.getKey(), new Regions(group.getValue()));
+            }
+        }
+
+        /**
+         * Adds an entry to the group with the given key.
+         *
+         * @param groups the groups of entries.
+         * @param key the key of the group.
+         * @param entry the entry to add.
+         */
+        private static void addToGroup(Map<String, List<Entry>> groups, String key,
+                Entry entry) {
+            List<Entry> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<Entry>();
+                groups.put(key, group);
+            }
+            group.add(entry);
+        }
+
+    }
+
+    /**
+     * Suppression regions sorted by their first position. Each region also keeps
+     * the greatest last position of the regions up to it, so the regions containing
+     * a position are found by a binary search on the first positions.
+     */
+    private static final class Regions {
+
+        /** Orders entries by the first position of their region. */
+        private static final Comparator<Entry> FIRST_POSITION_COMPARATOR =
+            new Comparator<Entry>() {
+                @Override
+                public int compare(Entry first, Entry second) {
+                    final long firstPosition =
+                            getPosition(first.getFirstLine(), first.getFirstColumn());
+                    final long secondPosition =
+                            getPosition(second.getFirstLine(), second.getFirstColumn());
+                    final int result;
+                    if (firstPosition < secondPosition) {
+                        result = -1;
+                    }
+                    else if (firstPosition == secondPosition) {
+                        result = 0;
+                    }
+                    else {
+                        result = 1;
+                    }
+                    return result;
+                }
+            };
+
+        /** The sorted first positions of the regions. */
+        private final long[] firstPositions;
+        /** The greatest last position of the regions up to each index. */
+        private final long[] maxLastPositions;
+
+        /**
+         * Creates sorted regions of the entries.
+         *
+         * @param entries the entries, which are sorted in place.
+         */
+        /* package */ Regions(List<Entry> entries) {
+            Collections.sort(entries, FIRST_POSITION_COMPARATOR);
+            firstPositions = new long[entries.size()];
+            maxLastPositions = new long[entries.size()];
+            long maxLastPosition = Long.MIN_VALUE;
+            for (int i = 0; i < firstPositions.length; i++) {
+                final Entry entry = entries.get(i);
+                firstPositions[i] = getPosition(entry.getFirstLine(), entry.getFirstColumn());
+                maxLastPosition = Math.max(maxLastPosition,
+                        getPosition(entry.getLastLine(), entry.getLastColumn()));
+                maxLastPositions[i] = maxLastPosition;
+            }
+        }
+
+        /**
+         * Checks whether a region starts at or before the given start and ends at
+         * or after the given position.
+         *
+         * @param start the greatest first position of a matching region.
+         * @param position the least last position of a matching region.
+         * @return true if such a region exists.
+         */
+        public boolean contains(long start, long position) {
+            int low = 0;
+            int high = firstPositions.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (firstPositions[middle] <= start) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low > 0 && maxLastPositions[low - 1] >= position;
+        }
+
     }
 
     /** Records a particular suppression for a region of a file. */
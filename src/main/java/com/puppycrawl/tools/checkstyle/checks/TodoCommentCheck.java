@@ -108,6 +108,11 @@ public class TodoCommentCheck
         return true;
     }
 
+    @Override
+    public boolean isAstRequired() {
+        return false;
+    }
+
     /**
      * Setter to specify pattern to match comments against.
      *
@@ -20,14 +20,13 @@
 package com.puppycrawl.tools.checkstyle.checks;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -45,8 +44,6 @@ import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
 import com.puppycrawl.tools.checkstyle.api.Violation;
-import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
-import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 import com.puppycrawl.tools.checkstyle.jre6.util.Optional;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -264,6 +261,13 @@ public class TranslationCheck extends AbstractFileSetCheck {
     /** The files to process. */
     private final Set<File> filesToProcess = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
 
+    /** The keys of the files of resource bundles, read while processing the files. */
+    private final Map<File, Set<String>> translationKeys =
+            new ConcurrentHashMap<File, Set<String>>();
+
+    /** The exceptions of the files of resource bundles which could not be parsed. */
+    private final Map<File, Exception> parseExceptions = new ConcurrentHashMap<File, Exception>();
+
     /**
      * Specify
      * <a href="https://docs.oracle.com/en/java/javase/11/docs/api/java.base/java/util/ResourceBundle.html">
@@ -348,12 +352,29 @@ public class TranslationCheck extends AbstractFileSetCheck {
     @Override
     public void beginProcessing(String charset) {
         filesToProcess.clear();
+        translationKeys.clear();
+        parseExceptions.clear();
     }
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        // We just collecting files for processing at finishProcessing()
+        // We just collecting files and their keys for processing at finishProcessing()
         filesToProcess.add(file);
+        if (baseName.matcher(extractBaseName(file.getName())).matches()) {
+            final List<PropertiesParser.Property> properties =
+                    new ArrayList<PropertiesParser.Property>();
+            try {
+                PropertiesParser.parse(fileText, properties);
+                final Set<String> keys = new HashSet<String>();
+                for (PropertiesParser.Property property : properties) {
+                    keys.add(property.getKey());
+                }
+                translationKeys.put(file, keys);
+            }
+            catch (IllegalArgumentException ex) {
+                parseExceptions.put(file, ex);
+            }
+        }
     }
 
     @Override
@@ -596,28 +617,17 @@ public class TranslationCheck extends AbstractFileSetCheck {
     }
 
     /**
-     * Loads the keys from the specified translation file into a set.
+     * Returns the keys of the specified translation file, which were read
+     * while processing it.
      *
      * @param file translation file.
-     * @return a Set object which holds the loaded keys.
+     * @return a Set object which holds the keys.
      */
     private Set<String> getTranslationKeys(File file) {
-        Set<String> keys = new HashSet<String>();
-        try {
-            final InputStream inStream = Files7.newInputStream(new Path(file));
-            try {
-                final Properties translations = new Properties();
-                translations.load(inStream);
-                keys = translations.stringPropertyNames();
-            }
-            finally {
-                inStream.close();
-            }
-        }
-        // -@cs[IllegalCatch] It is better to catch all exceptions since it can throw
-        // a runtime exception.
-        catch (final Exception ex) {
-            logException(ex, file);
+        Set<String> keys = translationKeys.get(file);
+        if (keys == null) {
+            logException(parseExceptions.get(file), file);
+            keys = Collections.emptySet();
         }
         return keys;
     }
@@ -629,22 +639,12 @@ public class TranslationCheck extends AbstractFileSetCheck {
      * @param file the file that could not be processed
      */
     private void logException(Exception exception, File file) {
-        final String[] args;
-        final String key;
-        if (exception instanceof FileNotFoundException) {
-            args = null;
-            key = "general.fileNotFound";
-        }
-        else {
-            args = new String[] {exception.getMessage()};
-            key = "general.exception";
-        }
         final Violation message =
             new Violation(
                 0,
                 Definitions.CHECKSTYLE_BUNDLE,
-                key,
-                args,
+                "general.exception",
+                new String[] {exception.getMessage()},
                 getId(),
                 getClass(), null);
         final SortedSet<Violation> messages = new TreeSet<Violation>();
@@ -20,21 +20,16 @@
 package com.puppycrawl.tools.checkstyle.checks;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Properties;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
-import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
-import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 
 /**
  * <p>
@@ -119,11 +114,6 @@ public class UniquePropertiesCheck extends AbstractFileSetCheck {
      */
     public static final String MSG_IO_EXCEPTION_KEY = "unable.open.cause";
 
-    /**
-     * Pattern matching single space.
-     */
-    private static final Pattern SPACE_PATTERN = Pattern.compile(" ");
-
     /**
      * Construct the check with default values.
      */
@@ -133,119 +123,34 @@ public class UniquePropertiesCheck extends AbstractFileSetCheck {
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        final UniqueProperties properties = new UniqueProperties();
+        final List<PropertiesParser.Property> properties =
+                new ArrayList<PropertiesParser.Property>();
         try {
-            final InputStream inputStream = Files7.newInputStream(new Path(file));
-            try {
-                properties.load(inputStream);
-            }
-            finally {
-                inputStream.close();
-            }
-        }
-        catch (IOException ex) {
-            log(1, MSG_IO_EXCEPTION_KEY, file.getPath(),
-                    ex.getLocalizedMessage());
+            PropertiesParser.parse(fileText, properties);
         }
-
-        for (Entry<String, AtomicInteger> duplication : properties
-                .getDuplicatedKeys().entrySet()) {
-            final String keyName = duplication.getKey();
-            final int lineNumber = getLineNumber(fileText, keyName);
-            // Number of occurrences is number of duplications + 1
-            log(lineNumber, MSG_KEY, keyName, duplication.getValue().get() + 1);
+        catch (IllegalArgumentException ex) {
+            log(1, MSG_IO_EXCEPTION_KEY, file.getPath(), ex.getLocalizedMessage());
         }
-    }
 
-    /**
-     * Method returns line number the key is detected in the checked properties
-     * files first.
-     *
-     * @param fileText
-     *            {@link FileText} object contains the lines to process
-     * @param keyName
-     *            key name to look for
-     * @return line number of first occurrence. If no key found in properties
-     *         file, 1 is returned
-     */
-    private static int getLineNumber(FileText fileText, String keyName) {
-        final Pattern keyPattern = getKeyPattern(keyName);
-        int lineNumber = 1;
-        final Matcher matcher = keyPattern.matcher("");
-        for (int index = 0; index < fileText.size(); index++) {
-            final String line = fileText.get(index);
-            matcher.reset(line);
-            if (matcher.matches()) {
-                break;
+        final Map<String, Integer> firstLines = new HashMap<String, Integer>();
+        final Map<String, Integer> occurrences = new LinkedHashMap<String, Integer>();
+        for (PropertiesParser.Property property : properties) {
+            final String key = property.getKey();
+            final Integer count = occurrences.get(key);
+            if (count == null) {
+                firstLines.put(key, property.getLineNo());
+                occurrences.put(key, 1);
             }
-            ++lineNumber;
-        }
-        // -1 as check seeks for the first duplicate occurrence in file,
-        // so it cannot be the last line.
-        if (lineNumber > fileText.size() - 1) {
-            lineNumber = 1;
-        }
-        return lineNumber;
-    }
-
-    /**
-     * Method returns regular expression pattern given key name.
-     *
-     * @param keyName
-     *            key name to look for
-     * @return regular expression pattern given key name
-     */
-    private static Pattern getKeyPattern(String keyName) {
-        final String keyPatternString = "^" + SPACE_PATTERN.matcher(keyName)
-                .replaceAll(Matcher.quoteReplacement("\\\\ ")) + "[\\s:=].*$";
-        return Pattern.compile(keyPatternString);
-    }
-
-    /**
-     * Properties subclass to store duplicated property keys in a separate map.
-     *
-     * @noinspection ClassExtendsConcreteCollection, SerializableHasSerializationMethods
-     */
-    private static class UniqueProperties extends Properties {
-
-        private static final long serialVersionUID = 1L;
-        /**
-         * Map, holding duplicated keys and their count. Keys are added here only if they
-         * already exist in Properties' inner map.
-         */
-        private final Map<String, AtomicInteger> duplicatedKeys = new HashMap<String, AtomicInteger>();
-
-        /**
-         * Puts the value into properties by the key specified.
-         *
-         * @noinspection UseOfPropertiesAsHashtable
-         */
-        @Override
-        public synchronized Object put(Object key, Object value) {
-            final Object oldValue = super.put(key, value);
-            if (oldValue != null && key instanceof String) {
-                final String keyString = (String) key;
-                AtomicInteger duplicatedValue = duplicatedKeys.get(keyString);
-
-                if (duplicatedValue == null) {
-                    duplicatedValue = new AtomicInteger(0);
-                    duplicatedKeys.put(keyString, duplicatedValue);
-                }
-
-                duplicatedValue.incrementAndGet();
+            else {
+                occurrences.put(key, count + 1);
             }
-            return oldValue;
         }
-
-        /**
-         * Retrieves a collections of duplicated properties keys.
-         *
-         * @return A collection of duplicated keys.
-         */
-        public Map<String, AtomicInteger> getDuplicatedKeys() {
-            return new HashMap<String, AtomicInteger>(duplicatedKeys);
+        for (Entry<String, Integer> occurrence : occurrences.entrySet()) {
+            if (occurrence.getValue() > 1) {
+                final String keyName = occurrence.getKey();
+                log(firstLines.get(keyName), MSG_KEY, keyName, occurrence.getValue());
+            }
         }
-
     }
 
 }
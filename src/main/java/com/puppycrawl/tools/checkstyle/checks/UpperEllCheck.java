@@ -71,6 +71,11 @@ public class UpperEllCheck extends AbstractCheck {
      */
     public static final String MSG_KEY = "upperEll";
 
+    @Override
+    public boolean isAstRequired() {
+        return false;
+    }
+
     @Override
     public int[] getDefaultTokens() {
         return getRequiredTokens();
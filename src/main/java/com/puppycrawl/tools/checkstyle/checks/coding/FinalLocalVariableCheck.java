@@ -29,6 +29,7 @@ import java.util.Map;
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable.Symbol;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.jre6.util.Optional;
 import com.puppycrawl.tools.checkstyle.utils.CheckUtil;
@@ -439,10 +440,26 @@ public class FinalLocalVariableCheck extends AbstractCheck {
      */
     private Optional<FinalVariableCandidate> getFinalCandidate(DetailAST ast) {
         Optional<FinalVariableCandidate> result = Optional.empty();
+        final DetailAST declaration = getDeclarationIdent(ast);
         final Iterator<ScopeData> iterator = scopeStack.descendingIterator();
         while (iterator.hasNext() && !result.isPresent()) {
             final ScopeData scopeData = iterator.next();
-            result = scopeData.findFinalVariableCandidateForAst(ast);
+            result = scopeData.findFinalVariableCandidateForAst(ast, declaration);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves an identifier to the IDENT of the variable declaration it refers to.
+     *
+     * @param ast the identifier.
+     * @return the IDENT of the declaration, or null if it is not declared in this file.
+     */
+    private DetailAST getDeclarationIdent(DetailAST ast) {
+        final Symbol symbol = getSymbolTable(ast).resolveVariable(ast);
+        DetailAST result = null;
+        if (symbol != null) {
+            result = symbol.getIdent();
         }
         return result;
     }
@@ -642,6 +659,7 @@ public class FinalLocalVariableCheck extends AbstractCheck {
      * @param ast variable to remove.
      */
     private void removeFinalVariableCandidateFromStack(DetailAST ast) {
+        final DetailAST declaration = getDeclarationIdent(ast);
         final Iterator<ScopeData> iterator = scopeStack.descendingIterator();
         while (iterator.hasNext()) {
             final ScopeData scopeData = iterator.next();
@@ -651,7 +669,7 @@ public class FinalLocalVariableCheck extends AbstractCheck {
             if (candidate != null) {
                 storedVariable = candidate.variableIdent;
             }
-            if (storedVariable != null && isSameVariables(storedVariable, ast)) {
+            if (storedVariable != null && storedVariable == declaration) {
                 if (shouldRemoveFinalVariableCandidate(scopeData, ast)) {
                     scope.remove(ast.getText());
                 }
@@ -857,9 +875,11 @@ public class FinalLocalVariableCheck extends AbstractCheck {
          * Searches for final local variable candidate for ast in the scope.
          *
          * @param ast ast.
+         * @param declaration IDENT of the declaration ast refers to.
          * @return Optional of {@link FinalVariableCandidate}.
          */
-        public Optional<FinalVariableCandidate> findFinalVariableCandidateForAst(DetailAST ast) {
+        public Optional<FinalVariableCandidate> findFinalVariableCandidateForAst(DetailAST ast,
+                DetailAST declaration) {
             Optional<FinalVariableCandidate> result = Optional.empty();
             DetailAST storedVariable = null;
             final Optional<FinalVariableCandidate> candidate =
@@ -867,7 +887,7 @@ public class FinalLocalVariableCheck extends AbstractCheck {
             if (candidate.isPresent()) {
                 storedVariable = candidate.get().variableIdent;
             }
-            if (storedVariable != null && isSameVariables(storedVariable, ast)) {
+            if (storedVariable != null && storedVariable == declaration) {
                 result = candidate;
             }
             return result;
@@ -26,6 +26,7 @@ import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * <p>
@@ -198,6 +199,15 @@ public class IllegalTokenTextCheck
         return true;
     }
 
+    /**
+     * {@inheritDoc} Identifiers are required to be checked on the tree, as the
+     * parser turns some of them into restricted keywords.
+     */
+    @Override
+    public boolean isAstRequired() {
+        return getTokenNames().contains(TokenUtil.getTokenName(TokenTypes.IDENT));
+    }
+
     @Override
     public void visitToken(DetailAST ast) {
         final String text = ast.getText();
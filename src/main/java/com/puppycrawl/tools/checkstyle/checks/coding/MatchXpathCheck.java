@@ -25,9 +25,11 @@ import java.util.List;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenIndex;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
+import com.puppycrawl.tools.checkstyle.xpath.SimpleXpathQuery;
 import net.sf.saxon.Configuration;
 import net.sf.saxon.om.Item;
 import net.sf.saxon.sxpath.XPathDynamicContext;
@@ -225,6 +227,9 @@ public class MatchXpathCheck extends AbstractCheck {
     /** Specify Xpath query. */
     private String query = "";
 
+    /** Xpath query evaluated without Saxon, if it is in the supported subset. */
+    private SimpleXpathQuery simpleQuery;
+
     /** Xpath expression. */
     private XPathExpression xpathExpression;
 
@@ -237,13 +242,17 @@ public class MatchXpathCheck extends AbstractCheck {
     public void setQuery(String query) {
         this.query = query;
         if (!query.isEmpty()) {
-            try {
-                final XPathEvaluator xpathEvaluator =
-                        new XPathEvaluator(Configuration.newConfiguration());
-                xpathExpression = xpathEvaluator.createExpression(query);
-            }
-            catch (XPathException ex) {
-                throw new IllegalStateException("Creating Xpath expression failed: " + query, ex);
+            simpleQuery = SimpleXpathQuery.compile(query);
+            if (simpleQuery == null) {
+                try {
+                    final XPathEvaluator xpathEvaluator =
+                            new XPathEvaluator(Configuration.newConfiguration());
+                    xpathExpression = xpathEvaluator.createExpression(query);
+                }
+                catch (XPathException ex) {
+                    throw new IllegalStateException(
+                            "Creating Xpath expression failed: " + query, ex);
+                }
             }
         }
     }
@@ -270,8 +279,20 @@ public class MatchXpathCheck extends AbstractCheck {
 
     @Override
     public void beginTree(DetailAST rootAST) {
-        if (xpathExpression != null) {
-            final List<DetailAST> matchingNodes = findMatchingNodesByXpathQuery(rootAST);
+        if (simpleQuery != null || xpathExpression != null) {
+            final List<DetailAST> matchingNodes;
+            if (simpleQuery == null) {
+                matchingNodes = findMatchingNodesByXpathQuery(rootAST);
+            }
+            else {
+                final TokenIndex tokenIndex = getTokenIndex();
+                if (tokenIndex != null && tokenIndex.getRootAst() == rootAST) {
+                    matchingNodes = simpleQuery.evaluate(tokenIndex);
+                }
+                else {
+                    matchingNodes = simpleQuery.evaluate(rootAST);
+                }
+            }
             for (DetailAST node : matchingNodes) {
                 log(node, MSG_KEY);
             }
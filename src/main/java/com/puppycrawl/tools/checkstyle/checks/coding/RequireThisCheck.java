@@ -24,14 +24,14 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable.Symbol;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.jre6.util.Collections7;
 import com.puppycrawl.tools.checkstyle.jre6.util.function.Predicate;
@@ -380,19 +380,8 @@ public class RequireThisCheck extends AbstractCheck {
         frames = new HashMap<DetailAST, AbstractFrame>();
         current.clear();
 
-        final Deque<AbstractFrame> frameStack = new LinkedList<AbstractFrame>();
-        DetailAST curNode = rootAST;
-        while (curNode != null) {
-            collectDeclarations(frameStack, curNode);
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                endCollectingDeclarations(frameStack, curNode);
-                toVisit = curNode.getNextSibling();
-                if (toVisit == null) {
-                    curNode = curNode.getParent();
-                }
-            }
-            curNode = toVisit;
+        for (SymbolTable.Frame frame : getSymbolTable(rootAST).getFrames()) {
+            collectDeclarations(frame);
         }
     }
 
@@ -540,149 +529,113 @@ public class RequireThisCheck extends AbstractCheck {
     }
 
     /**
-     * Parses the next AST for declarations.
+     * Converts a frame of the shared symbol table into a frame of this check
+     * and collects its declarations. Lambdas and enum constant bodies do not
+     * open frames of their own, their declarations belong to the enclosing frame.
      *
-     * @param frameStack stack containing the FrameTree being built.
-     * @param ast AST to parse.
+     * @param symbolFrame the frame of the symbol table, its enclosing frame is
+     *     already converted.
      */
-    // -@cs[JavaNCSS] This method is a big switch and is too hard to remove.
-    private static void collectDeclarations(Deque<AbstractFrame> frameStack, DetailAST ast) {
-        final AbstractFrame frame = frameStack.peek();
-        switch (ast.getType()) {
-            case TokenTypes.VARIABLE_DEF:
-                collectVariableDeclarations(ast, frame);
-                break;
-            case TokenTypes.RECORD_COMPONENT_DEF:
-                final DetailAST componentIdent = ast.findFirstToken(TokenTypes.IDENT);
-                ((ClassFrame) frame).addInstanceMember(componentIdent);
-                break;
-            case TokenTypes.PARAMETER_DEF:
-                if (!CheckUtil.isReceiverParameter(ast)
-                        && !isLambdaParameter(ast)
-                        && ast.getParent().getType() != TokenTypes.LITERAL_CATCH) {
-                    final DetailAST parameterIdent = ast.findFirstToken(TokenTypes.IDENT);
-                    frame.addIdent(parameterIdent);
-                }
-                break;
-            case TokenTypes.CLASS_DEF:
-            case TokenTypes.INTERFACE_DEF:
-            case TokenTypes.ENUM_DEF:
-            case TokenTypes.ANNOTATION_DEF:
-            case TokenTypes.RECORD_DEF:
-                final DetailAST classFrameNameIdent = ast.findFirstToken(TokenTypes.IDENT);
-                frameStack.addFirst(new ClassFrame(frame, classFrameNameIdent));
+    private void collectDeclarations(SymbolTable.Frame symbolFrame) {
+        final AbstractFrame parent = getEnclosingFrame(symbolFrame.getParent());
+        final DetailAST ast = symbolFrame.getAst();
+        AbstractFrame frame;
+        switch (symbolFrame.getType()) {
+            case CLASS:
+                frame = new ClassFrame(parent, symbolFrame.getNameIdent());
                 break;
-            case TokenTypes.SLIST:
-                frameStack.addFirst(new BlockFrame(frame, ast));
-                break;
-            case TokenTypes.METHOD_DEF:
-                final DetailAST methodFrameNameIdent = ast.findFirstToken(TokenTypes.IDENT);
-                final DetailAST mods = ast.findFirstToken(TokenTypes.MODIFIERS);
-                if (mods.findFirstToken(TokenTypes.LITERAL_STATIC) == null) {
-                    ((ClassFrame) frame).addInstanceMethod(methodFrameNameIdent);
-                }
-                else {
-                    ((ClassFrame) frame).addStaticMethod(methodFrameNameIdent);
-                }
-                frameStack.addFirst(new MethodFrame(frame, methodFrameNameIdent));
+            case ANONYMOUS_CLASS:
+                frame = new AnonymousClassFrame(parent, ast.getFirstChild().toString());
                 break;
-            case TokenTypes.CTOR_DEF:
-            case TokenTypes.COMPACT_CTOR_DEF:
-                final DetailAST ctorFrameNameIdent = ast.findFirstToken(TokenTypes.IDENT);
-                frameStack.addFirst(new ConstructorFrame(frame, ctorFrameNameIdent));
+            case METHOD:
+                frame = new MethodFrame(parent, symbolFrame.getNameIdent());
                 break;
-            case TokenTypes.ENUM_CONSTANT_DEF:
-                final DetailAST ident = ast.findFirstToken(TokenTypes.IDENT);
-                ((ClassFrame) frame).addStaticMember(ident);
+            case CTOR:
+                frame = new ConstructorFrame(parent, symbolFrame.getNameIdent());
                 break;
-            case TokenTypes.LITERAL_CATCH:
-                final AbstractFrame catchFrame = new CatchFrame(frame, ast);
-                catchFrame.addIdent(ast.findFirstToken(TokenTypes.PARAMETER_DEF).findFirstToken(
-                        TokenTypes.IDENT));
-                frameStack.addFirst(catchFrame);
+            case BLOCK:
+                frame = new BlockFrame(parent, ast);
                 break;
-            case TokenTypes.LITERAL_FOR:
-                final AbstractFrame forFrame = new ForFrame(frame, ast);
-                frameStack.addFirst(forFrame);
+            case CATCH:
+                frame = new CatchFrame(parent, ast);
                 break;
-            case TokenTypes.LITERAL_NEW:
-                if (isAnonymousClassDef(ast)) {
-                    frameStack.addFirst(new AnonymousClassFrame(frame,
-                            ast.getFirstChild().toString()));
-                }
+            case FOR:
+                frame = new ForFrame(parent, ast);
                 break;
             default:
-                // do nothing
+                frame = null;
+                break;
+        }
+        if (frame == null) {
+            frame = parent;
+        }
+        else {
+            frames.put(ast, frame);
+        }
+        for (Symbol symbol : symbolFrame.getSymbols()) {
+            collectDeclaration(frame, symbol);
         }
     }
 
     /**
-     * Collects variable declarations.
+     * Returns the frame of this check for the given frame of the symbol table,
+     * or for the nearest of its enclosing frames that has one.
      *
-     * @param ast variable token.
-     * @param frame current frame.
+     * @param symbolFrame the frame of the symbol table.
+     * @return the converted frame or null for the compilation unit.
      */
-    private static void collectVariableDeclarations(DetailAST ast, AbstractFrame frame) {
-        final DetailAST ident = ast.findFirstToken(TokenTypes.IDENT);
-        if (frame.getType() == FrameType.CLASS_FRAME) {
-            final DetailAST mods =
-                    ast.findFirstToken(TokenTypes.MODIFIERS);
-            if (ScopeUtil.isInInterfaceBlock(ast)
-                    || mods.findFirstToken(TokenTypes.LITERAL_STATIC) != null) {
-                ((ClassFrame) frame).addStaticMember(ident);
-            }
-            else {
-                ((ClassFrame) frame).addInstanceMember(ident);
-            }
-        }
-        else {
-            frame.addIdent(ident);
+    private AbstractFrame getEnclosingFrame(SymbolTable.Frame symbolFrame) {
+        AbstractFrame result = null;
+        for (SymbolTable.Frame frame = symbolFrame; frame != null && result == null;
+                frame = frame.getParent()) {
+            result = frames.get(frame.getAst());
         }
+        return result;
     }
 
     /**
-     * Ends parsing of the AST for declarations.
+     * Adds a declaration to a frame. Lambda parameters, pattern variables and
+     * resources are not tracked.
      *
-     * @param frameStack Stack containing the FrameTree being built.
-     * @param ast AST that was parsed.
+     * @param frame the frame to add to.
+     * @param symbol the declaration.
      */
-    private void endCollectingDeclarations(Queue<AbstractFrame> frameStack, DetailAST ast) {
-        switch (ast.getType()) {
-            case TokenTypes.CLASS_DEF:
-            case TokenTypes.INTERFACE_DEF:
-            case TokenTypes.ENUM_DEF:
-            case TokenTypes.ANNOTATION_DEF:
-            case TokenTypes.SLIST:
-            case TokenTypes.METHOD_DEF:
-            case TokenTypes.CTOR_DEF:
-            case TokenTypes.LITERAL_CATCH:
-            case TokenTypes.LITERAL_FOR:
-            case TokenTypes.RECORD_DEF:
-            case TokenTypes.COMPACT_CTOR_DEF:
-                frames.put(ast, frameStack.poll());
+    private static void collectDeclaration(AbstractFrame frame, Symbol symbol) {
+        final DetailAST ident = symbol.getIdent();
+        switch (symbol.getKind()) {
+            case FIELD:
+                if (symbol.isStatic()) {
+                    ((ClassFrame) frame).addStaticMember(ident);
+                }
+                else {
+                    ((ClassFrame) frame).addInstanceMember(ident);
+                }
+                break;
+            case RECORD_COMPONENT:
+                ((ClassFrame) frame).addInstanceMember(ident);
                 break;
-            case TokenTypes.LITERAL_NEW:
-                if (isAnonymousClassDef(ast)) {
-                    frames.put(ast, frameStack.poll());
+            case ENUM_CONSTANT:
+                ((ClassFrame) frame).addStaticMember(ident);
+                break;
+            case METHOD:
+                if (symbol.isStatic()) {
+                    ((ClassFrame) frame).addStaticMethod(ident);
+                }
+                else {
+                    ((ClassFrame) frame).addInstanceMethod(ident);
                 }
                 break;
+            case PARAMETER:
+            case CATCH_PARAMETER:
+            case LOCAL_VARIABLE:
+                frame.addIdent(ident);
+                break;
             default:
                 // do nothing
+                break;
         }
     }
 
-    /**
-     * Whether the AST is a definition of an anonymous class.
-     *
-     * @param ast the AST to process.
-     * @return true if the AST is a definition of an anonymous class.
-     */
-    private static boolean isAnonymousClassDef(DetailAST ast) {
-        final DetailAST lastChild = ast.getLastChild();
-        return lastChild != null
-            && lastChild.getType() == TokenTypes.OBJBLOCK;
-    }
-
     /**
      * Returns the class frame where violation is found (where the field is used without 'this')
      * or null otherwise.
@@ -1217,9 +1170,6 @@ public class RequireThisCheck extends AbstractCheck {
         if (parent == null) {
             isLambdaParameter = false;
         }
-        else if (ast.getType() == TokenTypes.PARAMETER_DEF) {
-            isLambdaParameter = true;
-        }
         else {
             final DetailAST lambdaParameters = parent.findFirstToken(TokenTypes.PARAMETERS);
             if (lambdaParameters == null) {
@@ -21,6 +21,8 @@ package com.puppycrawl.tools.checkstyle.checks.imports;
 
 import java.net.URI;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -501,6 +503,18 @@ public class ImportControlCheck extends AbstractCheck implements ExternalResourc
      */
     private AbstractImportControl currentImportControl;
 
+    /**
+     * Access results of the current import control configuration, by import control
+     * node, then by importing package, then by import. The result of an import only
+     * depends on these, so it is computed once per run.
+     */
+    private final Map<AbstractImportControl, Map<String, Map<String, AccessResult>>>
+        accessResults = new HashMap<AbstractImportControl,
+            Map<String, Map<String, AccessResult>>>();
+
+    /** Access results of the current file, by import. */
+    private Map<String, AccessResult> currentAccessResults;
+
     @Override
     public int[] getDefaultTokens() {
         return getRequiredTokens();
@@ -542,12 +556,20 @@ public class ImportControlCheck extends AbstractCheck implements ExternalResourc
                     if (currentImportControl == null) {
                         log(ast, MSG_UNKNOWN_PKG);
                     }
+                    else {
+                        currentAccessResults = getAccessResults(currentImportControl,
+                                packageName);
+                    }
                 }
             }
             else if (currentImportControl != null) {
                 final String importText = getImportText(ast);
-                final AccessResult access = currentImportControl.checkAccess(packageName, fileName,
-                        importText);
+                AccessResult access = currentAccessResults.get(importText);
+                if (access == null) {
+                    access = currentImportControl.checkAccess(packageName, fileName,
+                            importText);
+                    currentAccessResults.put(importText, access);
+                }
                 if (access != AccessResult.ALLOWED) {
                     log(ast, MSG_DISALLOWED, importText);
                 }
@@ -555,6 +577,31 @@ public class ImportControlCheck extends AbstractCheck implements ExternalResourc
         }
     }
 
+    /**
+     * Returns the memo of access results for imports of a package that is controlled
+     * by the given import control node. Rules local to a file node are only applied
+     * to the files the node was located for, so the node and the package determine
+     * the result of every import.
+     *
+     * @param importControl the finest import control node of the package
+     * @param pkg the package doing the import
+     * @return the access results, by import
+     */
+    private Map<String, AccessResult> getAccessResults(AbstractImportControl importControl,
+            String pkg) {
+        Map<String, Map<String, AccessResult>> byPackage = accessResults.get(importControl);
+        if (byPackage == null) {
+            byPackage = new HashMap<String, Map<String, AccessResult>>();
+            accessResults.put(importControl, byPackage);
+        }
+        Map<String, AccessResult> byImport = byPackage.get(pkg);
+        if (byImport == null) {
+            byImport = new HashMap<String, AccessResult>();
+            byPackage.put(pkg, byImport);
+        }
+        return byImport;
+    }
+
     @Override
     public Set<String> getExternalResourceLocations() {
         return Collections.singleton(file.toString());
@@ -604,6 +651,7 @@ public class ImportControlCheck extends AbstractCheck implements ExternalResourc
             try {
                 root = ImportControlLoader.load(uri);
                 file = uri;
+                accessResults.clear();
             }
             catch (CheckstyleException ex) {
                 throw new IllegalArgumentException(UNABLE_TO_LOAD + uri, ex);
@@ -20,7 +20,9 @@
 package com.puppycrawl.tools.checkstyle.checks.imports;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -41,8 +43,20 @@ class PkgImportControl extends AbstractImportControl {
     /** The regex for the escaped package separator: "\\\\.". */
     private static final String DOT_ESCAPED_REGEX = "\\\\.";
 
-    /** List of children {@link AbstractImportControl} objects. */
-    private final List<AbstractImportControl> children = new ArrayList<AbstractImportControl>();
+    /**
+     * Children that can not be looked up by the name of a sub-package: file nodes
+     * and regex sub-packages. They are candidates for every package.
+     */
+    private final List<AbstractImportControl> unindexedChildren =
+        new ArrayList<AbstractImportControl>();
+
+    /**
+     * Children by the first segment of their sub-package name. Each list also contains
+     * the unindexed children, all in the order they were added, so that the first
+     * matching child in declaration order is still found first.
+     */
+    private final Map<String, List<AbstractImportControl>> childrenBySegment =
+        new HashMap<String, List<AbstractImportControl>>();
 
     /** The full name for the package. */
     private final String fullPackageName;
@@ -197,7 +211,7 @@ class PkgImportControl extends AbstractImportControl {
             // If there won't be match so I am the best there is.
             finestMatch = this;
             // Check if any of the children match.
-            for (AbstractImportControl child : children) {
+            for (AbstractImportControl child : getCandidateChildren(forPkg)) {
                 final AbstractImportControl match = child.locateFinest(forPkg, forFileName);
                 if (match != null) {
                     finestMatch = match;
@@ -214,7 +228,83 @@ class PkgImportControl extends AbstractImportControl {
      * @param importControl child import control
      */
     public void addChild(AbstractImportControl importControl) {
-        children.add(importControl);
+        final String segment = getIndexSegment(importControl);
+        if (segment == null) {
+            unindexedChildren.add(importControl);
+            for (List<AbstractImportControl> indexedChildren : childrenBySegment.values()) {
+                indexedChildren.add(importControl);
+            }
+        }
+        else {
+            List<AbstractImportControl> indexedChildren = childrenBySegment.get(segment);
+            if (indexedChildren == null) {
+                indexedChildren = new ArrayList<AbstractImportControl>(unindexedChildren);
+                childrenBySegment.put(segment, indexedChildren);
+            }
+            indexedChildren.add(importControl);
+        }
+    }
+
+    /**
+     * Returns the first segment of the name of a non-regex sub-package relative to this
+     * package, the segment the child is indexed by.
+     *
+     * @param importControl child import control
+     * @return the segment or {@code null} if the child can not be indexed
+     */
+    private String getIndexSegment(AbstractImportControl importControl) {
+        String segment = null;
+        if (importControl instanceof PkgImportControl) {
+            final PkgImportControl child = (PkgImportControl) importControl;
+            if (!child.regex) {
+                segment = getNextSegment(child.fullPackageName);
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Returns the children that may match the given package, in the order they were added.
+     * Children whose sub-package name starts with a different segment than the package
+     * are skipped without matching them.
+     *
+     * @param pkg the package to locate.
+     * @return the candidate children
+     */
+    private List<AbstractImportControl> getCandidateChildren(String pkg) {
+        List<AbstractImportControl> candidates = null;
+        if (!regex) {
+            final String segment = getNextSegment(pkg);
+            if (segment != null) {
+                candidates = childrenBySegment.get(segment);
+            }
+        }
+        if (candidates == null) {
+            candidates = unindexedChildren;
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the segment following this package in a package name that starts with
+     * this package.
+     *
+     * @param pkg the package name.
+     * @return the next segment or {@code null} if there is none
+     */
+    private String getNextSegment(String pkg) {
+        String segment = null;
+        final int start = fullPackageName.length() + 1;
+        if (pkg.length() > start) {
+            final int end = pkg.indexOf('.', start);
+            if (end == -1) {
+                segment = pkg.substring(start);
+            }
+            else {
+                segment = pkg.substring(start, end);
+            }
+        }
+        return segment;
     }
 
     /**
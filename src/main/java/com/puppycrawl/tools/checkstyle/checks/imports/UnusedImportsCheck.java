@@ -20,9 +20,10 @@
 package com.puppycrawl.tools.checkstyle.checks.imports;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -32,6 +33,7 @@ import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable;
 import com.puppycrawl.tools.checkstyle.api.TextBlock;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocTag;
@@ -148,10 +150,12 @@ public class UnusedImportsCheck extends AbstractCheck {
     private boolean processJavadoc = true;
 
     /**
-     * The scope is being processed.
-     * Types declared in a scope can shadow imported types.
+     * Maps referenced type names to the ASTs they are referenced from.
+     * Types declared in the file can shadow imported types, this is resolved
+     * only for the names of imports.
      */
-    private Frame currentFrame;
+    private final Map<String, List<DetailAST>> referencedTypes =
+        new HashMap<String, List<DetailAST>>();
 
     /**
      * Setter to control whether to process Javadoc comments.
@@ -165,13 +169,12 @@ public class UnusedImportsCheck extends AbstractCheck {
     @Override
     public void beginTree(DetailAST rootAST) {
         collect = false;
-        currentFrame = Frame.compilationUnit();
+        referencedTypes.clear();
         imports.clear();
     }
 
     @Override
     public void finishTree(DetailAST rootAST) {
-        currentFrame.finish();
         // loop over all the imports to see if referenced.
         for (final FullIdent imprt : imports) {
             if (isUnusedImport(imprt.getText())) {
@@ -205,9 +208,6 @@ public class UnusedImportsCheck extends AbstractCheck {
             TokenTypes.VARIABLE_DEF,
             TokenTypes.RECORD_DEF,
             TokenTypes.COMPACT_CTOR_DEF,
-            // Tokens for creating a new frame
-            TokenTypes.OBJBLOCK,
-            TokenTypes.SLIST,
         };
     }
 
@@ -230,10 +230,6 @@ public class UnusedImportsCheck extends AbstractCheck {
             case TokenTypes.STATIC_IMPORT:
                 processStaticImport(ast);
                 break;
-            case TokenTypes.OBJBLOCK:
-            case TokenTypes.SLIST:
-                currentFrame = currentFrame.push();
-                break;
             default:
                 collect = true;
                 if (processJavadoc) {
@@ -243,13 +239,6 @@ public class UnusedImportsCheck extends AbstractCheck {
         }
     }
 
-    @Override
-    public void leaveToken(DetailAST ast) {
-        if (TokenUtil.isOfType(ast, TokenTypes.OBJBLOCK, TokenTypes.SLIST)) {
-            currentFrame = currentFrame.pop();
-        }
-    }
-
     /**
      * Checks whether an import is unused.
      *
@@ -258,10 +247,47 @@ public class UnusedImportsCheck extends AbstractCheck {
      */
     private boolean isUnusedImport(String imprt) {
         final Matcher javaLangPackageMatcher = JAVA_LANG_PACKAGE_PATTERN.matcher(imprt);
-        return !currentFrame.isReferencedType(CommonUtil.baseClassName(imprt))
+        return !isReferencedType(CommonUtil.baseClassName(imprt))
             || javaLangPackageMatcher.matches();
     }
 
+    /**
+     * Checks whether a type name is referenced anywhere it is not shadowed by
+     * a type declared in the file.
+     *
+     * @param type the type name
+     * @return {@code true} if the type is used
+     */
+    private boolean isReferencedType(String type) {
+        boolean result = false;
+        final List<DetailAST> references = referencedTypes.get(type);
+        if (references != null) {
+            final SymbolTable symbolTable = getSymbolTable(references.get(0));
+            for (DetailAST reference : references) {
+                if (symbolTable.resolveType(reference, type) == null) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a reference to a type name.
+     *
+     * @param ast the AST the type is referenced from
+     * @param type the type name
+     */
+    private void addReferencedType(DetailAST ast, String type) {
+        List<DetailAST> references = referencedTypes.get(type);
+        if (references == null) {
+            references = new ArrayList<DetailAST>();
+            referencedTypes.put(type, references);
+        }
+        references.add(ast);
+    }
+
     /**
      * Collects references made by IDENT.
      *
@@ -282,12 +308,10 @@ public class UnusedImportsCheck extends AbstractCheck {
                 && ast.getNextSibling() != null
                 && ast.getNextSibling().getType() == TokenTypes.ARRAY_DECLARATOR;
 
-        if (TokenUtil.isTypeDeclaration(parentType)) {
-            currentFrame.addDeclaredType(ast.getText());
-        }
-        else if ((!isPossibleDotClassOrInMethod || isQualifiedIdent)
-                    && !isQualifiedNameArrayType) {
-            currentFrame.addReferencedType(ast.getText());
+        if (!TokenUtil.isTypeDeclaration(parentType)
+                && (!isPossibleDotClassOrInMethod || isQualifiedIdent)
+                && !isQualifiedNameArrayType) {
+            addReferencedType(ast, ast.getText());
         }
     }
 
@@ -327,7 +351,9 @@ public class UnusedImportsCheck extends AbstractCheck {
         final int lineNo = ast.getLineNo();
         final TextBlock textBlock = contents.getJavadocBefore(lineNo);
         if (textBlock != null) {
-            currentFrame.addReferencedTypes(collectReferencesFromJavadoc(textBlock));
+            for (String type : collectReferencesFromJavadoc(textBlock)) {
+                addReferencedType(ast, type);
+            }
         }
     }
 
@@ -421,105 +447,4 @@ public class UnusedImportsCheck extends AbstractCheck {
         return topLevelType;
     }
 
-    /**
-     * Holds the names of referenced types and names of declared inner types.
-     */
-    private static final class Frame {
-
-        /** Parent frame. */
-        private final Frame parent;
-
-        /** Nested types declared in the current scope. */
-        private final Set<String> declaredTypes;
-
-        /** Set of references - possibly to imports or locally declared types. */
-        private final Set<String> referencedTypes;
-
-        /**
-         * Private constructor. Use {@link #compilationUnit()} to create a new top-level frame.
-         *
-         * @param parent the parent frame
-         */
-        private Frame(Frame parent) {
-            this.parent = parent;
-            declaredTypes = new HashSet<String>();
-            referencedTypes = new HashSet<String>();
-        }
-
-        /**
-         * Adds new inner type.
-         *
-         * @param type the type name
-         */
-        public void addDeclaredType(String type) {
-            declaredTypes.add(type);
-        }
-
-        /**
-         * Adds new type reference to the current frame.
-         *
-         * @param type the type name
-         */
-        public void addReferencedType(String type) {
-            referencedTypes.add(type);
-        }
-
-        /**
-         * Adds new inner types.
-         *
-         * @param types the type names
-         */
-        public void addReferencedTypes(Collection<String> types) {
-            referencedTypes.addAll(types);
-        }
-
-        /**
-         * Filters out all references to locally defined types.
-         *
-         */
-        public void finish() {
-            referencedTypes.removeAll(declaredTypes);
-        }
-
-        /**
-         * Creates new inner frame.
-         *
-         * @return a new frame.
-         */
-        public Frame push() {
-            return new Frame(this);
-        }
-
-        /**
-         * Pulls all referenced types up, except those that are declared in this scope.
-         *
-         * @return the parent frame
-         */
-        public Frame pop() {
-            finish();
-            parent.addReferencedTypes(referencedTypes);
-            return parent;
-        }
-
-        /**
-         * Checks whether this type name is used in this frame.
-         *
-         * @param type the type name
-         * @return {@code true} if the type is used
-         */
-        public boolean isReferencedType(String type) {
-            return referencedTypes.contains(type);
-        }
-
-        /**
-         * Creates a new top-level frame for the compilation unit.
-         *
-         * @return a new frame.
-         */
-        public static Frame compilationUnit() {
-            return new Frame(null);
-        }
-
-    }
-
 }
@@ -19,28 +19,36 @@
 
 package com.puppycrawl.tools.checkstyle.checks.indentation;
 
-import java.lang.reflect.Constructor;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
-import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
- * Factory for handlers. Looks up constructor via reflection.
+ * Factory for handlers. Looks up the handler type in an array indexed by
+ * token type.
  *
  */
 public class HandlerFactory {
 
     /**
-     * Registered handlers.
+     * Registered handlers, indexed by token type. Types without a handler
+     * are {@code null}.
      */
-    private final Map<Integer, Constructor<?>> typeHandlers = new HashMap<Integer, Constructor<?>>();
+    private HandlerType[] typeHandlers = new HandlerType[0];
 
-    /** Cache for created method call handlers. */
-    private final Map<DetailAST, AbstractExpressionHandler> createdHandlers = new HashMap<DetailAST, AbstractExpressionHandler>();
+    /** Number of registered token types. */
+    private int handledTypeCount;
+
+    /**
+     * Cache for created method call handlers. The handlers are looked up by
+     * the identity of their AST, which is also how {@link DetailAST} defines
+     * equality.
+     */
+    private final Map<DetailAST, AbstractExpressionHandler> createdHandlers =
+        new IdentityHashMap<DetailAST, AbstractExpressionHandler>();
 
     /**
      * Creates a HandlerFactory.
@@ -48,64 +56,62 @@ public class HandlerFactory {
      * @noinspection OverlyCoupledMethod
      */
     public HandlerFactory() {
-        register(TokenTypes.CASE_GROUP, CaseHandler.class);
-        register(TokenTypes.LITERAL_SWITCH, SwitchHandler.class);
-        register(TokenTypes.SLIST, SlistHandler.class);
-        register(TokenTypes.PACKAGE_DEF, PackageDefHandler.class);
-        register(TokenTypes.LITERAL_ELSE, ElseHandler.class);
-        register(TokenTypes.LITERAL_IF, IfHandler.class);
-        register(TokenTypes.LITERAL_TRY, TryHandler.class);
-        register(TokenTypes.LITERAL_CATCH, CatchHandler.class);
-        register(TokenTypes.LITERAL_FINALLY, FinallyHandler.class);
-        register(TokenTypes.LITERAL_DO, DoWhileHandler.class);
-        register(TokenTypes.LITERAL_WHILE, WhileHandler.class);
-        register(TokenTypes.LITERAL_FOR, ForHandler.class);
-        register(TokenTypes.METHOD_DEF, MethodDefHandler.class);
-        register(TokenTypes.CTOR_DEF, MethodDefHandler.class);
-        register(TokenTypes.CLASS_DEF, ClassDefHandler.class);
-        register(TokenTypes.ENUM_DEF, ClassDefHandler.class);
-        register(TokenTypes.OBJBLOCK, ObjectBlockHandler.class);
-        register(TokenTypes.INTERFACE_DEF, ClassDefHandler.class);
-        register(TokenTypes.IMPORT, ImportHandler.class);
-        register(TokenTypes.ARRAY_INIT, ArrayInitHandler.class);
-        register(TokenTypes.ANNOTATION_ARRAY_INIT, AnnotationArrayInitHandler.class);
-        register(TokenTypes.METHOD_CALL, MethodCallHandler.class);
-        register(TokenTypes.CTOR_CALL, MethodCallHandler.class);
-        register(TokenTypes.SUPER_CTOR_CALL, MethodCallHandler.class);
-        register(TokenTypes.LABELED_STAT, LabelHandler.class);
-        register(TokenTypes.STATIC_INIT, StaticInitHandler.class);
-        register(TokenTypes.INSTANCE_INIT, SlistHandler.class);
-        register(TokenTypes.VARIABLE_DEF, MemberDefHandler.class);
-        register(TokenTypes.LITERAL_NEW, NewHandler.class);
-        register(TokenTypes.INDEX_OP, IndexHandler.class);
-        register(TokenTypes.LITERAL_SYNCHRONIZED, SynchronizedHandler.class);
-        register(TokenTypes.LAMBDA, LambdaHandler.class);
-        register(TokenTypes.ANNOTATION_DEF, ClassDefHandler.class);
-        register(TokenTypes.ANNOTATION_FIELD_DEF, MethodDefHandler.class);
-        register(TokenTypes.SWITCH_RULE, SwitchRuleHandler.class);
-        register(TokenTypes.LITERAL_YIELD, YieldHandler.class);
-        register(TokenTypes.RECORD_DEF, ClassDefHandler.class);
-        register(TokenTypes.COMPACT_CTOR_DEF, MethodDefHandler.class);
+        register(TokenTypes.CASE_GROUP, HandlerType.CASE);
+        register(TokenTypes.LITERAL_SWITCH, HandlerType.SWITCH);
+        register(TokenTypes.SLIST, HandlerType.SLIST);
+        register(TokenTypes.PACKAGE_DEF, HandlerType.PACKAGE_DEF);
+        register(TokenTypes.LITERAL_ELSE, HandlerType.ELSE);
+        register(TokenTypes.LITERAL_IF, HandlerType.IF);
+        register(TokenTypes.LITERAL_TRY, HandlerType.TRY);
+        register(TokenTypes.LITERAL_CATCH, HandlerType.CATCH);
+        register(TokenTypes.LITERAL_FINALLY, HandlerType.FINALLY);
+        register(TokenTypes.LITERAL_DO, HandlerType.DO_WHILE);
+        register(TokenTypes.LITERAL_WHILE, HandlerType.WHILE);
+        register(TokenTypes.LITERAL_FOR, HandlerType.FOR);
+        register(TokenTypes.METHOD_DEF, HandlerType.METHOD_DEF);
+        register(TokenTypes.CTOR_DEF, HandlerType.METHOD_DEF);
+        register(TokenTypes.CLASS_DEF, HandlerType.CLASS_DEF);
+        register(TokenTypes.ENUM_DEF, HandlerType.CLASS_DEF);
+        register(TokenTypes.OBJBLOCK, HandlerType.OBJECT_BLOCK);
+        register(TokenTypes.INTERFACE_DEF, HandlerType.CLASS_DEF);
+        register(TokenTypes.IMPORT, HandlerType.IMPORT);
+        register(TokenTypes.ARRAY_INIT, HandlerType.ARRAY_INIT);
+        register(TokenTypes.ANNOTATION_ARRAY_INIT, HandlerType.ANNOTATION_ARRAY_INIT);
+        register(TokenTypes.METHOD_CALL, HandlerType.METHOD_CALL);
+        register(TokenTypes.CTOR_CALL, HandlerType.METHOD_CALL);
+        register(TokenTypes.SUPER_CTOR_CALL, HandlerType.METHOD_CALL);
+        register(TokenTypes.LABELED_STAT, HandlerType.LABEL);
+        register(TokenTypes.STATIC_INIT, HandlerType.STATIC_INIT);
+        register(TokenTypes.INSTANCE_INIT, HandlerType.SLIST);
+        register(TokenTypes.VARIABLE_DEF, HandlerType.MEMBER_DEF);
+        register(TokenTypes.LITERAL_NEW, HandlerType.NEW);
+        register(TokenTypes.INDEX_OP, HandlerType.INDEX);
+        register(TokenTypes.LITERAL_SYNCHRONIZED, HandlerType.SYNCHRONIZED);
+        register(TokenTypes.LAMBDA, HandlerType.LAMBDA);
+        register(TokenTypes.ANNOTATION_DEF, HandlerType.CLASS_DEF);
+        register(TokenTypes.ANNOTATION_FIELD_DEF, HandlerType.METHOD_DEF);
+        register(TokenTypes.SWITCH_RULE, HandlerType.SWITCH_RULE);
+        register(TokenTypes.LITERAL_YIELD, HandlerType.YIELD);
+        register(TokenTypes.RECORD_DEF, HandlerType.CLASS_DEF);
+        register(TokenTypes.COMPACT_CTOR_DEF, HandlerType.METHOD_DEF);
     }
 
     /**
      * Registers a handler.
      *
-     * @param <T> type of the handler class object.
      * @param type
      *                type from TokenTypes
-     * @param handlerClass
+     * @param handlerType
      *                the handler to register
      */
-    private <T> void register(int type, Class<T> handlerClass) {
-        final Constructor<T> ctor = CommonUtil.getConstructor(handlerClass,
-                IndentationCheck.class,
-                // current AST
-                DetailAST.class,
-                // parent
-                AbstractExpressionHandler.class
-        );
-        typeHandlers.put(type, ctor);
+    private void register(int type, HandlerType handlerType) {
+        if (type >= typeHandlers.length) {
+            typeHandlers = Arrays.copyOf(typeHandlers, type + 1);
+        }
+        if (typeHandlers[type] == null) {
+            handledTypeCount++;
+        }
+        typeHandlers[type] = handlerType;
     }
 
     /**
@@ -115,8 +121,7 @@ public class HandlerFactory {
      * @return true if handler is registered, false otherwise
      */
     public boolean isHandledType(int type) {
-        final Set<Integer> typeSet = typeHandlers.keySet();
-        return typeSet.contains(type);
+        return type >= 0 && type < typeHandlers.length && typeHandlers[type] != null;
     }
 
     /**
@@ -125,12 +130,13 @@ public class HandlerFactory {
      * @return int[] of TokenType types
      */
     public int[] getHandledTypes() {
-        final Set<Integer> typeSet = typeHandlers.keySet();
-        final int[] types = new int[typeSet.size()];
+        final int[] types = new int[handledTypeCount];
         int index = 0;
-        for (final Integer val : typeSet) {
-            types[index] = val;
-            index++;
+        for (int type = 0; type < typeHandlers.length; type++) {
+            if (typeHandlers[type] != null) {
+                types[index] = type;
+                index++;
+            }
         }
 
         return types;
@@ -157,9 +163,7 @@ public class HandlerFactory {
             resultHandler = createMethodCallHandler(indentCheck, ast, parent);
         }
         else {
-            final Constructor<?> handlerCtor = typeHandlers.get(ast.getType());
-            resultHandler = (AbstractExpressionHandler) CommonUtil.invokeConstructor(
-                handlerCtor, indentCheck, ast, parent);
+            resultHandler = typeHandlers[ast.getType()].create(indentCheck, ast, parent);
         }
         return resultHandler;
     }
@@ -192,4 +196,275 @@ public class HandlerFactory {
         createdHandlers.clear();
     }
 
+    /**
+     * Creates the handlers without reflection, there is a type for each
+     * handler class.
+     */
+    private enum HandlerType {
+
+        /** Creates {@link CaseHandler}. */
+        CASE {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new CaseHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link SwitchHandler}. */
+        SWITCH {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new SwitchHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link SlistHandler}. */
+        SLIST {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new SlistHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link PackageDefHandler}. */
+        PACKAGE_DEF {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new PackageDefHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link ElseHandler}. */
+        ELSE {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new ElseHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link IfHandler}. */
+        IF {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new IfHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link TryHandler}. */
+        TRY {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new TryHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link CatchHandler}. */
+        CATCH {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new CatchHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link FinallyHandler}. */
+        FINALLY {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new FinallyHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link DoWhileHandler}. */
+        DO_WHILE {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new DoWhileHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link WhileHandler}. */
+        WHILE {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new WhileHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link ForHandler}. */
+        FOR {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new ForHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link MethodDefHandler}. */
+        METHOD_DEF {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new MethodDefHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link ClassDefHandler}. */
+        CLASS_DEF {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new ClassDefHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link ObjectBlockHandler}. */
+        OBJECT_BLOCK {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new ObjectBlockHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link ImportHandler}. */
+        IMPORT {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new ImportHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link ArrayInitHandler}. */
+        ARRAY_INIT {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new ArrayInitHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link AnnotationArrayInitHandler}. */
+        ANNOTATION_ARRAY_INIT {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new AnnotationArrayInitHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link MethodCallHandler}. */
+        METHOD_CALL {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new MethodCallHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link LabelHandler}. */
+        LABEL {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new LabelHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link StaticInitHandler}. */
+        STATIC_INIT {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new StaticInitHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link MemberDefHandler}. */
+        MEMBER_DEF {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new MemberDefHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link NewHandler}. */
+        NEW {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new NewHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link IndexHandler}. */
+        INDEX {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new IndexHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link SynchronizedHandler}. */
+        SYNCHRONIZED {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new SynchronizedHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link LambdaHandler}. */
+        LAMBDA {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new LambdaHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link SwitchRuleHandler}. */
+        SWITCH_RULE {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new SwitchRuleHandler(indentCheck, ast, parent);
+            }
+        },
+
+        /** Creates {@link YieldHandler}. */
+        YIELD {
+            @Override
+            public AbstractExpressionHandler create(IndentationCheck indentCheck,
+                    DetailAST ast, AbstractExpressionHandler parent) {
+                return new YieldHandler(indentCheck, ast, parent);
+            }
+        };
+
+        /**
+         * Creates a handler of this type.
+         *
+         * @param indentCheck the indentation check
+         * @param ast the AST to handle
+         * @param parent the handler parent of the AST
+         * @return the new handler
+         */
+        public abstract AbstractExpressionHandler create(IndentationCheck indentCheck,
+                DetailAST ast, AbstractExpressionHandler parent);
+
+    }
+
 }
@@ -21,12 +21,11 @@ package com.puppycrawl.tools.checkstyle.checks.indentation;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.utils.collections.IntSet;
 
 /**
  * <p>
@@ -318,8 +317,14 @@ public class IndentationCheck extends AbstractCheck {
     /** Factory from which handlers are distributed. */
     private final HandlerFactory handlerFactory = new HandlerFactory();
 
+    /**
+     * Handler at the bottom of the handlers stack. It has no AST and always
+     * suggests the zero indentation, so it is shared by all files.
+     */
+    private final PrimordialHandler primordialHandler = new PrimordialHandler(this);
+
     /** Lines logged as having incorrect indentation. */
-    private Set<Integer> incorrectIndentationLines;
+    private final IntSet incorrectIndentationLines = new IntSet();
 
     /** Specify how far new indentation level should be indented when on the next line. */
     private int basicOffset = DEFAULT_INDENTATION;
@@ -486,8 +491,7 @@ public class IndentationCheck extends AbstractCheck {
      * @see java.text.MessageFormat
      */
     public void indentationLog(DetailAST ast, String key, Object... args) {
-        if (!incorrectIndentationLines.contains(ast.getLineNo())) {
-            incorrectIndentationLines.add(ast.getLineNo());
+        if (incorrectIndentationLines.add(ast.getLineNo())) {
             log(ast, key, args);
         }
     }
@@ -520,10 +524,9 @@ public class IndentationCheck extends AbstractCheck {
     public void beginTree(DetailAST ast) {
         handlerFactory.clearCreatedHandlers();
         handlers.clear();
-        final PrimordialHandler primordialHandler = new PrimordialHandler(this);
         handlers.push(primordialHandler);
         primordialHandler.checkIndentation();
-        incorrectIndentationLines = new HashSet<Integer>();
+        incorrectIndentationLines.clear();
     }
 
     @Override
@@ -21,10 +21,8 @@ package com.puppycrawl.tools.checkstyle.checks.javadoc;
 
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser;
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser.ParseErrorMessage;
@@ -36,6 +34,7 @@ import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
+import com.puppycrawl.tools.checkstyle.utils.collections.IntSet;
 
 /**
  * Base class for Checks that process Javadoc comments.
@@ -92,7 +91,7 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
         };
 
     /** The javadoc tokens the check is interested in. */
-    private final Set<Integer> javadocTokens = new HashSet<Integer>();
+    private final IntSet javadocTokens = new IntSet();
 
     /**
      * This property determines if a check should log a violation upon encountering javadoc with
@@ -197,7 +196,7 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
         else {
             final int[] acceptableJavadocTokens = getAcceptableJavadocTokens();
             Arrays.sort(acceptableJavadocTokens);
-            for (Integer javadocTokenId : javadocTokens) {
+            for (int javadocTokenId : javadocTokens.toArray()) {
                 if (Arrays.binarySearch(acceptableJavadocTokens, javadocTokenId) < 0) {
                     final String message = String.format(Locale.ROOT, "Javadoc Token \"%s\" was "
                             + "not found in Acceptable javadoc tokens list in check %s",
@@ -19,10 +19,6 @@
 
 package com.puppycrawl.tools.checkstyle.checks.metrics;
 
-import java.math.BigInteger;
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -249,19 +245,19 @@ public class CyclomaticComplexityCheck
     public static final String MSG_KEY = "cyclomaticComplexity";
 
     /** The initial current value. */
-    private static final BigInteger INITIAL_VALUE = BigInteger.ONE;
+    private static final long INITIAL_VALUE = 1;
 
     /** Default allowed complexity. */
     private static final int DEFAULT_COMPLEXITY_VALUE = 10;
 
     /** Stack of values - all but the current value. */
-    private final Deque<BigInteger> valueStack = new ArrayDeque<BigInteger>();
+    private final MetricValueStack valueStack = new MetricValueStack();
 
     /** Control whether to treat the whole switch block as a single decision point. */
     private boolean switchBlockAsSingleDecisionPoint;
 
     /** The current value. */
-    private BigInteger currentValue = INITIAL_VALUE;
+    private long currentValue = INITIAL_VALUE;
 
     /** Specify the maximum threshold allowed. */
     private int max = DEFAULT_COMPLEXITY_VALUE;
@@ -377,11 +373,11 @@ public class CyclomaticComplexityCheck
     private void visitTokenHook(DetailAST ast) {
         if (switchBlockAsSingleDecisionPoint) {
             if (ast.getType() != TokenTypes.LITERAL_CASE) {
-                incrementCurrentValue(BigInteger.ONE);
+                incrementCurrentValue(1);
             }
         }
         else if (ast.getType() != TokenTypes.LITERAL_SWITCH) {
-            incrementCurrentValue(BigInteger.ONE);
+            incrementCurrentValue(1);
         }
     }
 
@@ -391,9 +387,8 @@ public class CyclomaticComplexityCheck
      * @param ast the token representing the method definition
      */
     private void leaveMethodDef(DetailAST ast) {
-        final BigInteger bigIntegerMax = BigInteger.valueOf(max);
-        if (currentValue.compareTo(bigIntegerMax) > 0) {
-            log(ast, MSG_KEY, currentValue, bigIntegerMax);
+        if (currentValue > max) {
+            log(ast, MSG_KEY, currentValue, max);
         }
         popValue();
     }
@@ -403,8 +398,8 @@ public class CyclomaticComplexityCheck
      *
      * @param amount the amount to increment by
      */
-    private void incrementCurrentValue(BigInteger amount) {
-        currentValue = currentValue.add(amount);
+    private void incrementCurrentValue(long amount) {
+        currentValue += amount;
     }
 
     /** Push the current value on the stack. */
@@ -417,7 +412,7 @@ public class CyclomaticComplexityCheck
      * Pops a value off the stack and makes it the current value.
      */
     private void popValue() {
-        currentValue = valueStack.pop();
+        currentValue = valueStack.popLong();
     }
 
     /** Process the start of the method definition. */
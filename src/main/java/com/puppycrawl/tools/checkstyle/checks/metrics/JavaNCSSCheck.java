@@ -19,9 +19,6 @@
 
 package com.puppycrawl.tools.checkstyle.checks.metrics;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -247,8 +244,14 @@ public class JavaNCSSCheck extends AbstractCheck {
     /** Specify the maximum allowed number of non commenting lines in a method. */
     private int methodMaximum = METHOD_MAX_NCSS;
 
-    /** List containing the stacked counters. */
-    private Deque<Counter> counters;
+    /**
+     * Stack of the number of countable tokens seen when each enclosing
+     * class or method started.
+     */
+    private final MetricValueStack counterStarts = new MetricValueStack();
+
+    /** Number of countable tokens seen so far in the file. */
+    private long count;
 
     @Override
     public int[] getDefaultTokens() {
@@ -298,10 +301,8 @@ public class JavaNCSSCheck extends AbstractCheck {
 
     @Override
     public void beginTree(DetailAST rootAST) {
-        counters = new ArrayDeque<Counter>();
-
-        // add a counter for the file
-        counters.push(new Counter());
+        counterStarts.clear();
+        count = 0;
     }
 
     @Override
@@ -311,16 +312,13 @@ public class JavaNCSSCheck extends AbstractCheck {
         if (tokenType == TokenTypes.CLASS_DEF
             || tokenType == TokenTypes.RECORD_DEF
             || isMethodOrCtorOrInitDefinition(tokenType)) {
-            // add a counter for this class/method
-            counters.push(new Counter());
+            // start a counter for this class/method
+            counterStarts.push(count);
         }
 
         // check if token is countable
         if (isCountable(ast)) {
-            // increment the stacked counters
-            for (final Counter counter : counters) {
-                counter.increment();
-            }
+            count++;
         }
     }
 
@@ -329,45 +327,41 @@ public class JavaNCSSCheck extends AbstractCheck {
         final int tokenType = ast.getType();
 
         if (isMethodOrCtorOrInitDefinition(tokenType)) {
-            // pop counter from the stack
-            final Counter counter = counters.pop();
-
-            final int count = counter.getCount();
-            if (count > methodMaximum) {
-                log(ast, MSG_METHOD, count, methodMaximum);
+            final int counter = popCounter();
+            if (counter > methodMaximum) {
+                log(ast, MSG_METHOD, counter, methodMaximum);
             }
         }
         else if (tokenType == TokenTypes.CLASS_DEF) {
-            // pop counter from the stack
-            final Counter counter = counters.pop();
-
-            final int count = counter.getCount();
-            if (count > classMaximum) {
-                log(ast, MSG_CLASS, count, classMaximum);
+            final int counter = popCounter();
+            if (counter > classMaximum) {
+                log(ast, MSG_CLASS, counter, classMaximum);
             }
         }
         else if (tokenType == TokenTypes.RECORD_DEF) {
-            // pop counter from the stack
-            final Counter counter = counters.pop();
-
-            final int count = counter.getCount();
-            if (count > recordMaximum) {
-                log(ast, MSG_RECORD, count, recordMaximum);
+            final int counter = popCounter();
+            if (counter > recordMaximum) {
+                log(ast, MSG_RECORD, counter, recordMaximum);
             }
         }
     }
 
     @Override
     public void finishTree(DetailAST rootAST) {
-        // pop counter from the stack
-        final Counter counter = counters.pop();
-
-        final int count = counter.getCount();
         if (count > fileMaximum) {
             log(rootAST, MSG_FILE, count, fileMaximum);
         }
     }
 
+    /**
+     * Pops the counter of the class or method which ends.
+     *
+     * @return the number of countable tokens of the class or method
+     */
+    private int popCounter() {
+        return (int) (count - counterStarts.popLong());
+    }
+
     /**
      * Setter to specify the maximum allowed number of non commenting lines
      * in a file including all top level and nested classes.
@@ -507,31 +501,4 @@ public class JavaNCSSCheck extends AbstractCheck {
                 || tokenType == TokenTypes.INSTANCE_INIT;
     }
 
-    /**
-     * Class representing a counter.
-     *
-     */
-    private static class Counter {
-
-        /** The counters internal integer. */
-        private int count;
-
-        /**
-         * Increments the counter.
-         */
-        public void increment() {
-            count++;
-        }
-
-        /**
-         * Gets the counters value.
-         *
-         * @return the counter
-         */
-        public int getCount() {
-            return count;
-        }
-
-    }
-
 }
@@ -0,0 +1,224 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.metrics;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable metric value which is kept in a primitive {@code long} and only
+ * falls back to {@link BigInteger} while the value does not fit into it.
+ */
+/* package */ final class MetricValue {
+
+    /** The value while it fits into a long. */
+    private long value;
+
+    /** The value once it has overflowed a long, {@code null} otherwise. */
+    private BigInteger bigValue;
+
+    /**
+     * Sets the value.
+     *
+     * @param newValue the new value
+     */
+    public void set(long newValue) {
+        value = newValue;
+        bigValue = null;
+    }
+
+    /**
+     * Sets the value to the one of another metric value.
+     *
+     * @param other the metric value to copy
+     */
+    public void set(MetricValue other) {
+        value = other.value;
+        bigValue = other.bigValue;
+    }
+
+    /**
+     * Checks whether the value is zero.
+     *
+     * @return true if the value is zero
+     */
+    public boolean isZero() {
+        return bigValue == null && value == 0;
+    }
+
+    /**
+     * Checks whether the value is greater than the given limit.
+     *
+     * @param limit the limit to compare with
+     * @return true if the value is greater than the limit
+     */
+    public boolean isGreaterThan(long limit) {
+        final boolean result;
+        if (bigValue == null) {
+            result = value > limit;
+        }
+        else {
+            result = bigValue.signum() > 0;
+        }
+        return result;
+    }
+
+    /**
+     * Adds an amount to the value.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        if (bigValue == null) {
+            final long result = value + amount;
+            if (((value ^ result) & (amount ^ result)) < 0) {
+                setBig(BigInteger.valueOf(value).add(BigInteger.valueOf(amount)));
+            }
+            else {
+                value = result;
+            }
+        }
+        else {
+            setBig(bigValue.add(BigInteger.valueOf(amount)));
+        }
+    }
+
+    /**
+     * Adds another metric value to the value.
+     *
+     * @param other the metric value to add
+     */
+    public void add(MetricValue other) {
+        if (other.bigValue == null) {
+            add(other.value);
+        }
+        else {
+            setBig(toBigInteger().add(other.bigValue));
+        }
+    }
+
+    /**
+     * Multiplies the value by another metric value.
+     *
+     * @param other the metric value to multiply by
+     */
+    public void multiply(MetricValue other) {
+        if (bigValue == null && other.bigValue == null) {
+            final long result = value * other.value;
+            if (isMultiplicationOverflow(value, other.value, result)) {
+                setBig(BigInteger.valueOf(value).multiply(BigInteger.valueOf(other.value)));
+            }
+            else {
+                value = result;
+            }
+        }
+        else {
+            setBig(toBigInteger().multiply(other.toBigInteger()));
+        }
+    }
+
+    /**
+     * Returns the value as a number which can be used as a message argument.
+     *
+     * @return the value as {@link Long} or {@link BigInteger}
+     */
+    public Number toNumber() {
+        final Number result;
+        if (bigValue == null) {
+            result = value;
+        }
+        else {
+            result = bigValue;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value as {@link BigInteger}.
+     *
+     * @return the value as {@link BigInteger}
+     */
+    public BigInteger toBigInteger() {
+        final BigInteger result;
+        if (bigValue == null) {
+            result = BigInteger.valueOf(value);
+        }
+        else {
+            result = bigValue;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toNumber().toString();
+    }
+
+    /**
+     * Returns the value if it fits into a long.
+     *
+     * @return the value as long
+     * @throws IllegalStateException if the value does not fit into a long
+     */
+    /* package */ long longValue() {
+        if (bigValue != null) {
+            throw new IllegalStateException("Value does not fit into a long: " + bigValue);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the overflowed value.
+     *
+     * @return the value if it does not fit into a long, {@code null} otherwise
+     */
+    /* package */ BigInteger getBigValue() {
+        return bigValue;
+    }
+
+    /**
+     * Sets a value which might not fit into a long, keeping it in a long
+     * whenever possible.
+     *
+     * @param newValue the new value
+     */
+    /* package */ void setBig(BigInteger newValue) {
+        if (newValue.bitLength() < Long.SIZE) {
+            set(newValue.longValue());
+        }
+        else {
+            value = 0;
+            bigValue = newValue;
+        }
+    }
+
+    /**
+     * Checks whether the multiplication of two longs overflowed.
+     *
+     * @param first the first factor
+     * @param second the second factor
+     * @param result the result of the long multiplication
+     * @return true if the result does not equal the exact product
+     */
+    private static boolean isMultiplicationOverflow(long first, long second, long result) {
+        return first != 0
+                && (result / first != second || first == -1 && second == Long.MIN_VALUE);
+    }
+
+}
@@ -0,0 +1,156 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.metrics;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Stack of metric values backed by a primitive {@code long} array. Values
+ * that have overflowed a long are kept aside and only exist while they
+ * are on the stack.
+ */
+/* package */ final class MetricValueStack {
+
+    /** Initial capacity of the stack. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The values which fit into a long. */
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    /** The overflowed values, {@code null} until a value overflows. */
+    private BigInteger[] bigValues;
+
+    /** Number of values on the stack. */
+    private int size;
+
+    /**
+     * Pushes a value onto the stack.
+     *
+     * @param value the value to push
+     */
+    public void push(long value) {
+        ensureCapacity();
+        values[size] = value;
+        if (bigValues != null) {
+            bigValues[size] = null;
+        }
+        size++;
+    }
+
+    /**
+     * Pushes a copy of a metric value onto the stack.
+     *
+     * @param value the value to push
+     */
+    public void push(MetricValue value) {
+        final BigInteger bigValue = value.getBigValue();
+        if (bigValue == null) {
+            push(value.longValue());
+        }
+        else {
+            ensureCapacity();
+            if (bigValues == null) {
+                bigValues = new BigInteger[values.length];
+            }
+            values[size] = 0;
+            bigValues[size] = bigValue;
+            size++;
+        }
+    }
+
+    /**
+     * Pops a value which fits into a long from the stack.
+     *
+     * @return the popped value
+     * @throws IllegalStateException if the stack is empty or the value
+     *     does not fit into a long
+     */
+    public long popLong() {
+        checkNotEmpty();
+        size--;
+        if (bigValues != null && bigValues[size] != null) {
+            throw new IllegalStateException("Value does not fit into a long: "
+                    + bigValues[size]);
+        }
+        return values[size];
+    }
+
+    /**
+     * Pops a value from the stack into the given metric value.
+     *
+     * @param target the metric value to set to the popped value
+     * @throws IllegalStateException if the stack is empty
+     */
+    public void pop(MetricValue target) {
+        checkNotEmpty();
+        size--;
+        if (bigValues == null || bigValues[size] == null) {
+            target.set(values[size]);
+        }
+        else {
+            target.setBig(bigValues[size]);
+            bigValues[size] = null;
+        }
+    }
+
+    /**
+     * Checks whether the stack is empty.
+     *
+     * @return true if there are no values on the stack
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values from the stack.
+     */
+    public void clear() {
+        if (bigValues != null) {
+            Arrays.fill(bigValues, 0, size, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Grows the arrays if there is no room for one more value.
+     */
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            if (bigValues != null) {
+                bigValues = Arrays.copyOf(bigValues, size * 2);
+            }
+        }
+    }
+
+    /**
+     * Checks that the stack has a value to pop.
+     *
+     * @throws IllegalStateException if the stack is empty
+     */
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+    }
+
+}
@@ -19,9 +19,6 @@
 
 package com.puppycrawl.tools.checkstyle.checks.metrics;
 
-import java.math.BigInteger;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
@@ -246,19 +243,19 @@ public final class NPathComplexityCheck extends AbstractCheck {
     /** Default allowed complexity. */
     private static final int DEFAULT_MAX = 200;
 
-    /** The initial current value. */
-    private static final BigInteger INITIAL_VALUE = BigInteger.ZERO;
-
     /**
      * Stack of NP values for ranges.
      */
-    private final Deque<BigInteger> rangeValues = new ArrayDeque<BigInteger>();
+    private final MetricValueStack rangeValues = new MetricValueStack();
 
     /** Stack of NP values for expressions. */
-    private final Deque<Integer> expressionValues = new ArrayDeque<Integer>();
+    private final MetricValueStack expressionValues = new MetricValueStack();
 
-    /** Stack of belongs to range values for question operator. */
-    private final Deque<Boolean> afterValues = new ArrayDeque<Boolean>();
+    /**
+     * Stack of belongs to range values for question operator, one for true
+     * and zero for false.
+     */
+    private final MetricValueStack afterValues = new MetricValueStack();
 
     /**
      * Range of the last processed expression. Used for checking that ternary operation
@@ -267,7 +264,13 @@ public final class NPathComplexityCheck extends AbstractCheck {
     private final TokenEnd processingTokenEnd = new TokenEnd();
 
     /** NP value for current range. */
-    private BigInteger currentRangeValue = INITIAL_VALUE;
+    private final MetricValue currentRangeValue = new MetricValue();
+
+    /** NP value for range of the last popped token. */
+    private final MetricValue basicRangeValue = new MetricValue();
+
+    /** NP value for expression of the last popped token. */
+    private final MetricValue expressionValue = new MetricValue();
 
     /** Specify the maximum threshold allowed. */
     private int max = DEFAULT_MAX;
@@ -324,7 +327,7 @@ public final class NPathComplexityCheck extends AbstractCheck {
         expressionValues.clear();
         afterValues.clear();
         processingTokenEnd.reset();
-        currentRangeValue = INITIAL_VALUE;
+        currentRangeValue.set(0);
         branchVisited = false;
     }
 
@@ -356,8 +359,8 @@ public final class NPathComplexityCheck extends AbstractCheck {
                 break;
             case TokenTypes.LITERAL_ELSE:
                 branchVisited = true;
-                if (currentRangeValue.equals(BigInteger.ZERO)) {
-                    currentRangeValue = BigInteger.ONE;
+                if (currentRangeValue.isZero()) {
+                    currentRangeValue.set(1);
                 }
                 pushValue(0);
                 break;
@@ -446,12 +449,13 @@ public final class NPathComplexityCheck extends AbstractCheck {
      * @param basicBranchingFactor number of branches inherently added by this token.
      */
     private void visitUnitaryOperator(DetailAST ast, int basicBranchingFactor) {
-        final boolean isAfter = processingTokenEnd.isAfter(ast);
-        afterValues.push(isAfter);
-        if (!isAfter) {
+        if (processingTokenEnd.isAfter(ast)) {
+            afterValues.push(1);
+        }
+        else {
+            afterValues.push(0);
             processingTokenEnd.setToken(getLastToken(ast));
-            final int expressionValue = basicBranchingFactor + countConditionalOperators(ast);
-            pushValue(expressionValue);
+            pushValue(basicBranchingFactor + countConditionalOperators(ast));
         }
     }
 
@@ -459,45 +463,41 @@ public final class NPathComplexityCheck extends AbstractCheck {
      * Leaves ternary operator (?:) and return tokens.
      */
     private void leaveUnitaryOperator() {
-        if (Boolean.FALSE.equals(afterValues.pop())) {
-            final Values valuePair = popValue();
-            BigInteger basicRangeValue = valuePair.getRangeValue();
-            BigInteger expressionValue = valuePair.getExpressionValue();
-            if (expressionValue.equals(BigInteger.ZERO)) {
-                expressionValue = BigInteger.ONE;
+        if (afterValues.popLong() == 0) {
+            popValue();
+            if (expressionValue.isZero()) {
+                expressionValue.set(1);
             }
-            if (basicRangeValue.equals(BigInteger.ZERO)) {
-                basicRangeValue = BigInteger.ONE;
+            if (basicRangeValue.isZero()) {
+                basicRangeValue.set(1);
             }
-            currentRangeValue = currentRangeValue.add(expressionValue).multiply(basicRangeValue);
+            currentRangeValue.add(expressionValue);
+            currentRangeValue.multiply(basicRangeValue);
         }
     }
 
     /** Leaves while, do, for, if, ternary (?::), return or switch. */
     private void leaveConditional() {
-        final Values valuePair = popValue();
-        final BigInteger expressionValue = valuePair.getExpressionValue();
-        BigInteger basicRangeValue = valuePair.getRangeValue();
-        if (currentRangeValue.equals(BigInteger.ZERO)) {
-            currentRangeValue = BigInteger.ONE;
+        popValue();
+        if (currentRangeValue.isZero()) {
+            currentRangeValue.set(1);
         }
-        if (basicRangeValue.equals(BigInteger.ZERO)) {
-            basicRangeValue = BigInteger.ONE;
+        if (basicRangeValue.isZero()) {
+            basicRangeValue.set(1);
         }
-        currentRangeValue = currentRangeValue.add(expressionValue).multiply(basicRangeValue);
+        currentRangeValue.add(expressionValue);
+        currentRangeValue.multiply(basicRangeValue);
     }
 
     /** Leaves else, default or case group tokens. */
     private void leaveBranch() {
-        final Values valuePair = popValue();
-        final BigInteger basicRangeValue = valuePair.getRangeValue();
-        final BigInteger expressionValue = valuePair.getExpressionValue();
-        if (branchVisited && currentRangeValue.equals(BigInteger.ZERO)) {
-            currentRangeValue = BigInteger.ONE;
+        popValue();
+        if (branchVisited && currentRangeValue.isZero()) {
+            currentRangeValue.set(1);
         }
-        currentRangeValue = currentRangeValue.subtract(BigInteger.ONE)
-                .add(basicRangeValue)
-                .add(expressionValue);
+        currentRangeValue.add(-1);
+        currentRangeValue.add(basicRangeValue);
+        currentRangeValue.add(expressionValue);
     }
 
     /**
@@ -506,45 +506,47 @@ public final class NPathComplexityCheck extends AbstractCheck {
      * @param ast the token type representing the method definition
      */
     private void leaveMethodDef(DetailAST ast) {
-        final BigInteger bigIntegerMax = BigInteger.valueOf(max);
-        if (currentRangeValue.compareTo(bigIntegerMax) > 0) {
-            log(ast, MSG_KEY, currentRangeValue, bigIntegerMax);
+        if (currentRangeValue.isGreaterThan(max)) {
+            log(ast, MSG_KEY, currentRangeValue.toNumber(), max);
         }
         popValue();
-        currentRangeValue = INITIAL_VALUE;
+        currentRangeValue.set(0);
     }
 
     /** Leaves catch. */
     private void leaveAddingConditional() {
-        currentRangeValue = currentRangeValue.add(popValue().getRangeValue().add(BigInteger.ONE));
+        popValue();
+        currentRangeValue.add(basicRangeValue);
+        currentRangeValue.add(1);
     }
 
     /**
      * Pushes the current range value on the range value stack. Pushes this token expression value
      * on the expression value stack.
      *
-     * @param expressionValue value of expression calculated for current token.
+     * @param value value of expression calculated for current token.
      */
-    private void pushValue(Integer expressionValue) {
+    private void pushValue(int value) {
         rangeValues.push(currentRangeValue);
-        expressionValues.push(expressionValue);
-        currentRangeValue = INITIAL_VALUE;
+        expressionValues.push(value);
+        currentRangeValue.set(0);
     }
 
     /**
-     * Pops values from both stack of expression values and stack of range values.
-     *
-     * @return pair of head values from both of the stacks.
+     * Pops values from both stack of expression values and stack of range values
+     * into {@code basicRangeValue} and {@code expressionValue}.
      */
-    private Values popValue() {
-        final int expressionValue = expressionValues.pop();
-        return new Values(rangeValues.pop(), BigInteger.valueOf(expressionValue));
+    private void popValue() {
+        rangeValues.pop(basicRangeValue);
+        expressionValues.pop(expressionValue);
     }
 
     /** Leaves try. */
     private void leaveMultiplyingConditional() {
-        currentRangeValue = currentRangeValue.add(BigInteger.ONE)
-                .multiply(popValue().getRangeValue().add(BigInteger.ONE));
+        popValue();
+        basicRangeValue.add(1);
+        currentRangeValue.add(1);
+        currentRangeValue.multiply(basicRangeValue);
     }
 
     /**
@@ -683,46 +685,4 @@ public final class NPathComplexityCheck extends AbstractCheck {
 
     }
 
-    /**
-     * Class that store range value and expression value.
-     */
-    private static class Values {
-
-        /** NP value for range. */
-        private final BigInteger rangeValue;
-
-        /** NP value for expression. */
-        private final BigInteger expressionValue;
-
-        /**
-         * Constructor that assigns all of class fields.
-         *
-         * @param valueOfRange NP value for range
-         * @param valueOfExpression NP value for expression
-         */
-        /* package */ Values(BigInteger valueOfRange, BigInteger valueOfExpression) {
-            rangeValue = valueOfRange;
-            expressionValue = valueOfExpression;
-        }
-
-        /**
-         * Returns NP value for range.
-         *
-         * @return NP value for range
-         */
-        public BigInteger getRangeValue() {
-            return rangeValue;
-        }
-
-        /**
-         * Returns NP value for expression.
-         *
-         * @return NP value for expression
-         */
-        public BigInteger getExpressionValue() {
-            return expressionValue;
-        }
-
-    }
-
 }
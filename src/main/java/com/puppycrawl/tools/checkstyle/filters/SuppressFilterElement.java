@@ -40,6 +40,9 @@ import com.puppycrawl.tools.checkstyle.jre6.util.Objects;
 public class SuppressFilterElement
     implements Filter {
 
+    /** Characters that have a special meaning in a regexp. */
+    private static final String REGEXP_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
     /** The regexp to match file names against. */
     private final Pattern fileRegexp;
 
@@ -73,6 +76,12 @@ public class SuppressFilterElement
     /** CSV for column number filter. */
     private final String columnsCsv;
 
+    /** The file name pattern if it is a plain string, which is matched without the regexp. */
+    private final String fileLiteral;
+
+    /** The check name pattern if it is a plain string, which is matched without the regexp. */
+    private final String checkLiteral;
+
     /**
      * Constructs a {@code SuppressFilterElement} for a
      * file name pattern.
@@ -122,6 +131,8 @@ public class SuppressFilterElement
         else {
             columnFilter = new CsvFilterElement(columns);
         }
+        fileLiteral = getLiteral(fileRegexp);
+        checkLiteral = getLiteral(checkRegexp);
     }
 
     /**
@@ -177,6 +188,29 @@ public class SuppressFilterElement
             columnsCsv = columns;
             columnFilter = new CsvFilterElement(columns);
         }
+        fileLiteral = getLiteral(fileRegexp);
+        checkLiteral = getLiteral(checkRegexp);
+    }
+
+    /**
+     * Returns the pattern as a plain string if it has neither flags nor characters with
+     * a special meaning, so finding it is the same as searching for the string.
+     *
+     * @param regexp the pattern, can be null.
+     * @return the plain string or {@code null} if the pattern has to be matched as a regexp.
+     */
+    private static String getLiteral(Pattern regexp) {
+        String result = null;
+        if (regexp != null && regexp.flags() == 0) {
+            result = regexp.pattern();
+            for (int i = 0; i < result.length(); i++) {
+                if (REGEXP_META_CHARACTERS.indexOf(result.charAt(i)) >= 0) {
+                    result = null;
+                    break;
+                }
+            }
+        }
+        return result;
     }
 
     @Override
@@ -194,10 +228,71 @@ public class SuppressFilterElement
      */
     private boolean isFileNameAndModuleNameMatching(AuditEvent event) {
         return event.getFileName() != null
-                && (fileRegexp == null || fileRegexp.matcher(event.getFileName()).find())
+                && isFileNameMatching(event.getFileName())
                 && event.getViolation() != null
-                && (moduleId == null || moduleId.equals(event.getModuleId()))
-                && (checkRegexp == null || checkRegexp.matcher(event.getSourceName()).find());
+                && isModuleMatching(event.getSourceName(), event.getModuleId());
+    }
+
+    /**
+     * Is matching by file name.
+     *
+     * @param fileName the name of the file, not null.
+     * @return true if it is matching or not set.
+     */
+    /* package */ boolean isFileNameMatching(String fileName) {
+        final boolean result;
+        if (fileLiteral != null) {
+            result = fileName.contains(fileLiteral);
+        }
+        else {
+            result = fileRegexp == null || fileRegexp.matcher(fileName).find();
+        }
+        return result;
+    }
+
+    /**
+     * Is matching by module id and Check name.
+     *
+     * @param sourceName the name of the check, not null.
+     * @param modId the module id of the check, can be null.
+     * @return true if it is matching or not set.
+     */
+    /* package */ boolean isModuleMatching(String sourceName, String modId) {
+        final boolean result;
+        if (moduleId != null && !moduleId.equals(modId)) {
+            result = false;
+        }
+        else if (checkLiteral != null) {
+            result = sourceName.contains(checkLiteral);
+        }
+        else {
+            result = checkRegexp == null || checkRegexp.matcher(sourceName).find();
+        }
+        return result;
+    }
+
+    /**
+     * Is matching by message, line and column. The file name and module are not checked.
+     *
+     * @param event event
+     * @return true if it is matching or not set.
+     */
+    /* package */ boolean isMessageAndPositionMatching(AuditEvent event) {
+        return isMessageNameMatching(event) && isLineAndColumnMatching(event);
+    }
+
+    /**
+     * Returns the key of the file name pattern. Elements with the same key
+     * match the same file names.
+     *
+     * @return the key of the file name pattern, or {@code null} if it is not set.
+     */
+    /* package */ String getFilePatternKey() {
+        String result = null;
+        if (fileRegexp != null) {
+            result = fileRegexp.flags() + ":" + filePattern;
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,154 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+
+/**
+ * Index of the {@link SuppressFilterElement}s of a {@link FilterSet}, which accepts the
+ * same events as the filter set without matching every element against every event.
+ * Events of a file are reported one after another, so the elements matching the file
+ * name are selected once per file, evaluating each distinct file name pattern only once.
+ * These elements are then bucketed by the check name and module id of the events, so
+ * check patterns are evaluated once per check and file. Only the remaining elements
+ * match the message, line and column of an event.
+ * Filters which are not {@code SuppressFilterElement}s are applied to every event.
+ * The index is not thread safe.
+ */
+final class SuppressFilterIndex implements Filter {
+
+    /** Elements grouped by their file name pattern, elements without one have a null key. */
+    private final Map<String, List<SuppressFilterElement>> elementsByFilePattern =
+            new LinkedHashMap<String, List<SuppressFilterElement>>();
+
+    /** Filters which are not indexed. */
+    private final List<Filter> otherFilters = new ArrayList<Filter>();
+
+    /** Elements matching the check name and module id of the current file. */
+    private final Map<String, Map<String, List<SuppressFilterElement>>> elementsByCheck =
+            new HashMap<String, Map<String, List<SuppressFilterElement>>>();
+
+    /** The name of the current file. */
+    private String fileName;
+
+    /** Elements matching the name of the current file. */
+    private List<SuppressFilterElement> fileElements;
+
+    /**
+     * Creates an index of the filters of the filter set.
+     *
+     * @param filterSet the filter set to index.
+     */
+    /* package */ SuppressFilterIndex(FilterSet filterSet) {
+        for (Filter filter : filterSet.getFilters()) {
+            if (filter instanceof SuppressFilterElement) {
+                final SuppressFilterElement element = (SuppressFilterElement) filter;
+                final String key = element.getFilePatternKey();
+                List<SuppressFilterElement> elements = elementsByFilePattern.get(key);
+                if (elements == null) {
+                    elements = new ArrayList<SuppressFilterElement>();
+                    elementsByFilePattern.put(key, elements);
+                }
+                elements.add(element);
+            }
+            else {
+                otherFilters.add(filter);
+            }
+        }
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        boolean result = true;
+        for (Filter filter : otherFilters) {
+            if (!filter.accept(event)) {
+                result = false;
+                break;
+            }
+        }
+        if (result && event.getFileName() != null && event.getViolation() != null) {
+            for (SuppressFilterElement element : getElements(event)) {
+                if (element.isMessageAndPositionMatching(event)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns elements matching the file name, check name and module id of the event.
+     *
+     * @param event the event, which has a file name and a violation.
+     * @return the matching elements.
+     */
+    private List<SuppressFilterElement> getElements(AuditEvent event) {
+        if (!event.getFileName().equals(fileName)) {
+            selectFile(event.getFileName());
+        }
+        final String sourceName = event.getSourceName();
+        Map<String, List<SuppressFilterElement>> elementsByModuleId =
+                elementsByCheck.get(sourceName);
+        if (elementsByModuleId == null) {
+            elementsByModuleId = new HashMap<String, List<SuppressFilterElement>>();
+            elementsByCheck.put(sourceName, elementsByModuleId);
+        }
+        final String moduleId = event.getModuleId();
+        List<SuppressFilterElement> result = elementsByModuleId.get(moduleId);
+        if (result == null) {
+            result = new ArrayList<SuppressFilterElement>();
+            for (SuppressFilterElement element : fileElements) {
+                if (element.isModuleMatching(sourceName, moduleId)) {
+                    result.add(element);
+                }
+            }
+            elementsByModuleId.put(moduleId, result);
+        }
+        return result;
+    }
+
+    /**
+     * Selects elements matching the file name and drops the buckets of the previous file.
+     *
+     * @param name the name of the file.
+     */
+    private void selectFile(String name) {
+        fileName = name;
+        fileElements = new ArrayList<SuppressFilterElement>();
+        elementsByCheck.clear();
+        for (Map.Entry<String, List<SuppressFilterElement>> entry
+                : elementsByFilePattern.entrySet()) {
+            final List<SuppressFilterElement> elements = entry.getValue();
+            if (entry.getKey() == null || elements.get(0).isFileNameMatching(name)) {
+                fileElements.addAll(elements);
+            }
+        }
+    }
+
+}
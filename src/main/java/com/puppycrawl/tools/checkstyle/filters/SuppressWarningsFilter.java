@@ -19,6 +19,8 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.util.Map;
+
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
 import com.puppycrawl.tools.checkstyle.api.Filter;
@@ -123,14 +125,27 @@ public class SuppressWarningsFilter
     extends AutomaticBean
     implements Filter {
 
+    /** The state of the file being processed, shared by the modules of the Checker. */
+    private Map<String, Object> fileState;
+
     @Override
     protected void finishLocalSetup() {
         // No code by default
     }
 
+    /**
+     * Sets the state of the file being processed, in which the
+     * {@code SuppressWarningsHolder} keeps the suppression entries of the file.
+     *
+     * @param fileState the state shared by the modules of the Checker
+     */
+    public void setFileState(Map<String, Object> fileState) {
+        this.fileState = fileState;
+    }
+
     @Override
     public boolean accept(AuditEvent event) {
-        return !SuppressWarningsHolder.isSuppressed(event);
+        return !SuppressWarningsHolder.isSuppressed(fileState, event);
     }
 
 }
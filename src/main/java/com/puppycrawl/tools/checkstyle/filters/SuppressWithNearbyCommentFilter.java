@@ -22,7 +22,11 @@ package com.puppycrawl.tools.checkstyle.filters;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -274,6 +278,9 @@ public class SuppressWithNearbyCommentFilter
     /** Tagged comments. */
     private final List<Tag> tags = new ArrayList<Tag>();
 
+    /** Tagged comments grouped by their expanded patterns. */
+    private final List<TagGroup> tagGroups = new ArrayList<TagGroup>();
+
     /** Control whether to check C style comments ({@code &#47;* ... *&#47;}). */
     private boolean checkC = true;
 
@@ -427,8 +434,8 @@ public class SuppressWithNearbyCommentFilter
      */
     private boolean matchesTag(TreeWalkerAuditEvent event) {
         boolean result = false;
-        for (final Tag tag : tags) {
-            if (tag.isMatch(event)) {
+        for (final TagGroup group : tagGroups) {
+            if (group.isInScopeOfSuppression(event.getLine()) && group.isMatch(event)) {
                 result = true;
                 break;
             }
@@ -438,7 +445,7 @@ public class SuppressWithNearbyCommentFilter
 
     /**
      * Collects all the suppression tags for all comments into a list and
-     * sorts the list.
+     * groups the tags by their expanded patterns.
      */
     private void tagSuppressions() {
         tags.clear();
@@ -453,6 +460,28 @@ public class SuppressWithNearbyCommentFilter
                 tagSuppressions(element);
             }
         }
+        groupTags();
+    }
+
+    /**
+     * Groups the tags by their expanded patterns, so tags of a group
+     * are matched against an event only once.
+     */
+    private void groupTags() {
+        tagGroups.clear();
+        final Map<List<String>, List<Tag>> tagsByKey = new LinkedHashMap<List<String>, List<Tag>>();
+        for (final Tag tag : tags) {
+            final List<String> key = tag.getPatternKey();
+            List<Tag> groupTags = tagsByKey.get(key);
+            if (groupTags == null) {
+                groupTags = new ArrayList<Tag>();
+                tagsByKey.put(key, groupTags);
+            }
+            groupTags.add(tag);
+        }
+        for (final List<Tag> groupTags : tagsByKey.values()) {
+            tagGroups.add(new TagGroup(groupTags));
+        }
     }
 
     /**
@@ -617,74 +646,39 @@ public class SuppressWithNearbyCommentFilter
         }
 
         /**
-         * Determines whether the source of an audit event
-         * matches the text of this tag.
+         * Returns the first line where warnings may be suppressed.
          *
-         * @param event the {@code TreeWalkerAuditEvent} to check.
-         * @return true if the source of event matches the text of this tag.
+         * @return the first line where warnings may be suppressed.
          */
-        public boolean isMatch(TreeWalkerAuditEvent event) {
-            return isInScopeOfSuppression(event)
-                    && isCheckMatch(event)
-                    && isIdMatch(event)
-                    && isMessageMatch(event);
+        public int getFirstLine() {
+            return firstLine;
         }
 
         /**
-         * Checks whether the {@link TreeWalkerAuditEvent} is in the scope of the suppression.
+         * Returns the last line where warnings may be suppressed.
          *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} is in the scope of the suppression.
+         * @return the last line where warnings may be suppressed.
          */
-        private boolean isInScopeOfSuppression(TreeWalkerAuditEvent event) {
-            final int line = event.getLine();
-            return line >= firstLine && line <= lastLine;
+        public int getLastLine() {
+            return lastLine;
         }
 
         /**
-         * Checks whether {@link TreeWalkerAuditEvent} source name matches the check format.
+         * Returns the key of the expanded patterns of this tag.
          *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} source name matches the check format.
+         * @return the key of the expanded patterns.
          */
-        private boolean isCheckMatch(TreeWalkerAuditEvent event) {
-            final Matcher checkMatcher = tagCheckRegexp.matcher(event.getSourceName());
-            return checkMatcher.find();
+        public List<String> getPatternKey() {
+            return TagPatternMatcher.getKey(tagCheckRegexp, tagMessageRegexp, tagIdRegexp);
         }
 
         /**
-         * Checks whether the {@link TreeWalkerAuditEvent} module ID matches the ID format.
+         * Creates a matcher of the expanded patterns of this tag.
          *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} module ID matches the ID format.
+         * @return the matcher of the expanded patterns.
          */
-        private boolean isIdMatch(TreeWalkerAuditEvent event) {
-            boolean match = true;
-            if (tagIdRegexp != null) {
-                if (event.getModuleId() == null) {
-                    match = false;
-                }
-                else {
-                    final Matcher idMatcher = tagIdRegexp.matcher(event.getModuleId());
-                    match = idMatcher.find();
-                }
-            }
-            return match;
-        }
-
-        /**
-         * Checks whether the {@link TreeWalkerAuditEvent} message matches the message format.
-         *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} message matches the message format.
-         */
-        private boolean isMessageMatch(TreeWalkerAuditEvent event) {
-            boolean match = true;
-            if (tagMessageRegexp != null) {
-                final Matcher messageMatcher = tagMessageRegexp.matcher(event.getMessage());
-                match = messageMatcher.find();
-            }
-            return match;
+        public TagPatternMatcher createMatcher() {
+            return new TagPatternMatcher(tagCheckRegexp, tagMessageRegexp, tagIdRegexp);
         }
 
         @Override
@@ -700,4 +694,80 @@ public class SuppressWithNearbyCommentFilter
 
     }
 
+    /**
+     * Tags with the same expanded patterns. Their line ranges are sorted by
+     * the first line, and each range also keeps the greatest last line of the
+     * ranges up to it, so ranges containing a line are found by binary search.
+     */
+    private static final class TagGroup {
+
+        /** Orders tags by the first line where warnings may be suppressed. */
+        private static final Comparator<Tag> FIRST_LINE_COMPARATOR = new Comparator<Tag>() {
+            @Override
+            public int compare(Tag first, Tag second) {
+                return first.getFirstLine() - second.getFirstLine();
+            }
+        };
+
+        /** The matcher of the expanded patterns of the tags. */
+        private final TagPatternMatcher matcher;
+
+        /** The sorted first lines of the tags. */
+        private final int[] firstLines;
+
+        /** The greatest last line of the tags up to each index. */
+        private final int[] maxLastLines;
+
+        /**
+         * Creates a group of tags.
+         *
+         * @param tags the tags with the same expanded patterns, which are sorted in place.
+         */
+        /* package */ TagGroup(List<Tag> tags) {
+            matcher = tags.get(0).createMatcher();
+            Collections.sort(tags, FIRST_LINE_COMPARATOR);
+            firstLines = new int[tags.size()];
+            maxLastLines = new int[firstLines.length];
+            int maxLastLine = Integer.MIN_VALUE;
+            for (int i = 0; i < firstLines.length; i++) {
+                final Tag tag = tags.get(i);
+                firstLines[i] = tag.getFirstLine();
+                maxLastLine = Math.max(maxLastLine, tag.getLastLine());
+                maxLastLines[i] = maxLastLine;
+            }
+        }
+
+        /**
+         * Checks whether a line is in the scope of a tag of the group.
+         *
+         * @param line the line of an event.
+         * @return true if the line is in the scope of a tag.
+         */
+        public boolean isInScopeOfSuppression(int line) {
+            int low = 0;
+            int high = firstLines.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (firstLines[middle] <= line) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low > 0 && maxLastLines[low - 1] >= line;
+        }
+
+        /**
+         * Determines whether an audit event matches the patterns of the tags.
+         *
+         * @param event the {@code TreeWalkerAuditEvent} to check.
+         * @return true if the event matches the patterns of the tags.
+         */
+        public boolean isMatch(TreeWalkerAuditEvent event) {
+            return matcher.isMatch(event);
+        }
+
+    }
+
 }
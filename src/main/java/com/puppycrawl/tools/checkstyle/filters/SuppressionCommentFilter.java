@@ -23,7 +23,9 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -359,6 +361,9 @@ public class SuppressionCommentFilter
     /** Tagged comments. */
     private final List<Tag> tags = new ArrayList<Tag>();
 
+    /** Tagged comments grouped by their expanded patterns. */
+    private final List<TagGroup> tagGroups = new ArrayList<TagGroup>();
+
     /** Control whether to check C style comments ({@code &#47;* ... *&#47;}). */
     private boolean checkC = true;
 
@@ -507,23 +512,36 @@ public class SuppressionCommentFilter
      * @return The {@code Tag} nearest event.
      */
     private Tag findNearestMatch(TreeWalkerAuditEvent event) {
-        Tag result = null;
-        for (Tag tag : tags) {
-            if (tag.getLine() > event.getLine()
-                || tag.getLine() == event.getLine()
-                    && tag.getColumn() > event.getColumn()) {
-                break;
-            }
-            if (tag.isMatch(event)) {
-                result = tag;
+        final long position = getPosition(event.getLine(), event.getColumn());
+        int nearestIndex = -1;
+        for (TagGroup group : tagGroups) {
+            final int index = group.findLastIndex(position);
+            if (index > nearestIndex && group.isMatch(event)) {
+                nearestIndex = index;
             }
         }
+        Tag result = null;
+        if (nearestIndex >= 0) {
+            result = tags.get(nearestIndex);
+        }
         return result;
     }
 
     /**
-     * Collects all the suppression tags for all comments into a list and
-     * sorts the list.
+     * Encodes a position in the file, so that positions are ordered
+     * by line and then by column.
+     *
+     * @param line the line number.
+     * @param column the column number.
+     * @return the encoded position.
+     */
+    private static long getPosition(int line, int column) {
+        return ((long) line << Integer.SIZE) + column;
+    }
+
+    /**
+     * Collects all the suppression tags for all comments into a list,
+     * sorts the list and groups the tags by their expanded patterns.
      */
     private void tagSuppressions() {
         tags.clear();
@@ -539,6 +557,33 @@ public class SuppressionCommentFilter
             }
         }
         Collections.sort(tags);
+        groupTags();
+    }
+
+    /**
+     * Groups the sorted tags by their expanded patterns, so tags of a group
+     * are matched against an event only once.
+     */
+    private void groupTags() {
+        tagGroups.clear();
+        final Map<List<String>, List<Integer>> indexesByKey =
+                new LinkedHashMap<List<String>, List<Integer>>();
+        final Map<List<String>, Tag> firstTags = new LinkedHashMap<List<String>, Tag>();
+        for (int i = 0; i < tags.size(); i++) {
+            final Tag tag = tags.get(i);
+            final List<String> key = tag.getPatternKey();
+            List<Integer> indexes = indexesByKey.get(key);
+            if (indexes == null) {
+                indexes = new ArrayList<Integer>();
+                indexesByKey.put(key, indexes);
+                firstTags.put(key, tag);
+            }
+            indexes.add(i);
+        }
+        for (Map.Entry<List<String>, List<Integer>> entry : indexesByKey.entrySet()) {
+            tagGroups.add(new TagGroup(firstTags.get(entry.getKey()).createMatcher(),
+                    entry.getValue(), tags));
+        }
     }
 
     /**
@@ -759,71 +804,104 @@ public class SuppressionCommentFilter
         }
 
         /**
-         * Determines whether the source of an audit event
-         * matches the text of this tag.
+         * Returns the key of the expanded patterns of this tag.
          *
-         * @param event the {@code TreeWalkerAuditEvent} to check.
-         * @return true if the source of event matches the text of this tag.
+         * @return the key of the expanded patterns.
          */
-        public boolean isMatch(TreeWalkerAuditEvent event) {
-            return isCheckMatch(event) && isIdMatch(event) && isMessageMatch(event);
+        public List<String> getPatternKey() {
+            return TagPatternMatcher.getKey(tagCheckRegexp, tagMessageRegexp, tagIdRegexp);
+        }
+
+        /**
+         * Creates a matcher of the expanded patterns of this tag.
+         *
+         * @return the matcher of the expanded patterns.
+         */
+        public TagPatternMatcher createMatcher() {
+            return new TagPatternMatcher(tagCheckRegexp, tagMessageRegexp, tagIdRegexp);
+        }
+
+        @Override
+        public String toString() {
+            return "Tag[text='" + text + '\''
+                    + ", line=" + line
+                    + ", column=" + column
+                    + ", type=" + tagType
+                    + ", tagCheckRegexp=" + tagCheckRegexp
+                    + ", tagMessageRegexp=" + tagMessageRegexp
+                    + ", tagIdRegexp=" + tagIdRegexp + ']';
         }
 
+    }
+
+    /**
+     * Tags with the same expanded patterns, kept as their indexes in the
+     * sorted list of all tags and their positions.
+     */
+    private static final class TagGroup {
+
+        /** The matcher of the expanded patterns of the tags. */
+        private final TagPatternMatcher matcher;
+
+        /** The indexes of the tags in the sorted list of all tags. */
+        private final int[] indexes;
+
+        /** The positions of the tags, in ascending order. */
+        private final long[] positions;
+
         /**
-         * Checks whether {@link TreeWalkerAuditEvent} source name matches the check format.
+         * Creates a group of tags.
          *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} source name matches the check format.
+         * @param matcher the matcher of the expanded patterns of the tags.
+         * @param tagIndexes the ascending indexes of the tags of the group.
+         * @param tags the sorted list of all tags.
          */
-        private boolean isCheckMatch(TreeWalkerAuditEvent event) {
-            final Matcher checkMatcher = tagCheckRegexp.matcher(event.getSourceName());
-            return checkMatcher.find();
+        /* package */ TagGroup(TagPatternMatcher matcher, List<Integer> tagIndexes,
+                List<Tag> tags) {
+            this.matcher = matcher;
+            indexes = new int[tagIndexes.size()];
+            positions = new long[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = tagIndexes.get(i);
+                final Tag tag = tags.get(indexes[i]);
+                positions[i] = getPosition(tag.getLine(), tag.getColumn());
+            }
         }
 
         /**
-         * Checks whether the {@link TreeWalkerAuditEvent} module ID matches the ID format.
+         * Finds the last tag of the group at or before a position.
          *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} module ID matches the ID format.
+         * @param position the position of an event.
+         * @return the index of the tag in the sorted list of all tags,
+         *     or -1 if there is no such tag.
          */
-        private boolean isIdMatch(TreeWalkerAuditEvent event) {
-            boolean match = true;
-            if (tagIdRegexp != null) {
-                if (event.getModuleId() == null) {
-                    match = false;
+        public int findLastIndex(long position) {
+            int low = 0;
+            int high = positions.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (positions[middle] <= position) {
+                    low = middle + 1;
                 }
                 else {
-                    final Matcher idMatcher = tagIdRegexp.matcher(event.getModuleId());
-                    match = idMatcher.find();
+                    high = middle;
                 }
             }
-            return match;
+            int result = -1;
+            if (low > 0) {
+                result = indexes[low - 1];
+            }
+            return result;
         }
 
         /**
-         * Checks whether the {@link TreeWalkerAuditEvent} message matches the message format.
+         * Determines whether an audit event matches the patterns of the tags.
          *
-         * @param event {@link TreeWalkerAuditEvent} instance.
-         * @return true if the {@link TreeWalkerAuditEvent} message matches the message format.
+         * @param event the {@code TreeWalkerAuditEvent} to check.
+         * @return true if the event matches the patterns of the tags.
          */
-        private boolean isMessageMatch(TreeWalkerAuditEvent event) {
-            boolean match = true;
-            if (tagMessageRegexp != null) {
-                final Matcher messageMatcher = tagMessageRegexp.matcher(event.getMessage());
-                match = messageMatcher.find();
-            }
-            return match;
-        }
-
-        @Override
-        public String toString() {
-            return "Tag[text='" + text + '\''
-                    + ", line=" + line
-                    + ", column=" + column
-                    + ", type=" + tagType
-                    + ", tagCheckRegexp=" + tagCheckRegexp
-                    + ", tagMessageRegexp=" + tagMessageRegexp
-                    + ", tagIdRegexp=" + tagIdRegexp + ']';
+        public boolean isMatch(TreeWalkerAuditEvent event) {
+            return matcher.isMatch(event);
         }
 
     }
@@ -232,6 +232,8 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
     private boolean optional;
     /** Set of individual suppresses. */
     private FilterSet filters = new FilterSet();
+    /** Index of the individual suppresses, which is used to filter events. */
+    private SuppressFilterIndex index = new SuppressFilterIndex(filters);
 
     /**
      * Setter to specify the location of the <em>suppressions XML document</em> file.
@@ -256,7 +258,7 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
 
     @Override
     public boolean accept(AuditEvent event) {
-        return filters.accept(event);
+        return index.accept(event);
     }
 
     @Override
@@ -273,6 +275,7 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
             else {
                 filters = SuppressionsLoader.loadSuppressions(file);
             }
+            index = new SuppressFilterIndex(filters);
         }
     }
 
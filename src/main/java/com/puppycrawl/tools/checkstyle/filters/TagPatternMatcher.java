@@ -0,0 +1,164 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+
+/**
+ * Matches audit events against the check, message and check ID patterns expanded
+ * for suppression comment tags. Tags with the same expanded patterns share a matcher,
+ * which reuses its {@code Matcher}s and remembers the results for source names and
+ * module ids, as they repeat for many events of a file. The matcher is not thread safe.
+ */
+final class TagPatternMatcher {
+
+    /** Matcher of the check regexp. */
+    private final Matcher checkMatcher;
+
+    /** Matcher of the message regexp, null if messages are not matched. */
+    private final Matcher messageMatcher;
+
+    /** Matcher of the check ID regexp, null if ids are not matched. */
+    private final Matcher idMatcher;
+
+    /** Results of matching source names. */
+    private final Map<String, Boolean> checkMatches = new HashMap<String, Boolean>();
+
+    /** Results of matching module ids. */
+    private final Map<String, Boolean> idMatches = new HashMap<String, Boolean>();
+
+    /**
+     * Creates a matcher of the expanded patterns of a tag.
+     *
+     * @param checkRegexp the check regexp.
+     * @param messageRegexp the message regexp, may be null.
+     * @param idRegexp the check ID regexp, may be null.
+     */
+    /* package */ TagPatternMatcher(Pattern checkRegexp, Pattern messageRegexp,
+            Pattern idRegexp) {
+        checkMatcher = checkRegexp.matcher("");
+        messageMatcher = getMatcher(messageRegexp);
+        idMatcher = getMatcher(idRegexp);
+    }
+
+    /**
+     * Returns the key of the expanded patterns of a tag. Tags with equal keys
+     * match the same events.
+     *
+     * @param checkRegexp the check regexp.
+     * @param messageRegexp the message regexp, may be null.
+     * @param idRegexp the check ID regexp, may be null.
+     * @return the key of the patterns.
+     */
+    public static List<String> getKey(Pattern checkRegexp, Pattern messageRegexp,
+            Pattern idRegexp) {
+        return Arrays.asList(checkRegexp.pattern(), getPatternString(messageRegexp),
+                getPatternString(idRegexp));
+    }
+
+    /**
+     * Determines whether the source, check ID and message of an audit event
+     * match the patterns.
+     *
+     * @param event the {@code TreeWalkerAuditEvent} to check.
+     * @return true if the event matches the patterns.
+     */
+    public boolean isMatch(TreeWalkerAuditEvent event) {
+        return isCheckMatch(event.getSourceName())
+                && isIdMatch(event.getModuleId())
+                && (messageMatcher == null
+                    || messageMatcher.reset(event.getMessage()).find());
+    }
+
+    /**
+     * Checks whether the source name matches the check regexp.
+     *
+     * @param sourceName the source name of the event.
+     * @return true if the source name matches.
+     */
+    private boolean isCheckMatch(String sourceName) {
+        Boolean match = checkMatches.get(sourceName);
+        if (match == null) {
+            match = checkMatcher.reset(sourceName).find();
+            checkMatches.put(sourceName, match);
+        }
+        return match;
+    }
+
+    /**
+     * Checks whether the module id matches the check ID regexp.
+     *
+     * @param moduleId the module id of the event, may be null.
+     * @return true if ids are not matched or the module id matches.
+     */
+    private boolean isIdMatch(String moduleId) {
+        boolean result = true;
+        if (idMatcher != null) {
+            if (moduleId == null) {
+                result = false;
+            }
+            else {
+                Boolean match = idMatches.get(moduleId);
+                if (match == null) {
+                    match = idMatcher.reset(moduleId).find();
+                    idMatches.put(moduleId, match);
+                }
+                result = match;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a reusable matcher of a pattern.
+     *
+     * @param pattern the pattern, may be null.
+     * @return the matcher, or null if there is no pattern.
+     */
+    private static Matcher getMatcher(Pattern pattern) {
+        Matcher result = null;
+        if (pattern != null) {
+            result = pattern.matcher("");
+        }
+        return result;
+    }
+
+    /**
+     * Returns the string of a pattern.
+     *
+     * @param pattern the pattern, may be null.
+     * @return the string of the pattern, or null if there is no pattern.
+     */
+    private static String getPatternString(Pattern pattern) {
+        String result = null;
+        if (pattern != null) {
+            result = pattern.pattern();
+        }
+        return result;
+    }
+
+}
@@ -19,15 +19,18 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.jre6.util.Objects;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
+import com.puppycrawl.tools.checkstyle.xpath.SimpleXpathQuery;
 import net.sf.saxon.Configuration;
 import net.sf.saxon.om.Item;
 import net.sf.saxon.sxpath.XPathDynamicContext;
@@ -38,6 +41,7 @@ import net.sf.saxon.trans.XPathException;
 /**
  * This filter element is immutable and processes {@link TreeWalkerAuditEvent}
  * objects based on the criteria of file, check, module id, xpathQuery.
+ * It only caches the positions of the nodes selected from the last tree.
  *
  */
 public class XpathFilterElement implements TreeWalkerFilter {
@@ -63,12 +67,22 @@ public class XpathFilterElement implements TreeWalkerFilter {
     /** Module id filter. */
     private final String moduleId;
 
-    /** Xpath expression. */
+    /** Xpath query evaluated without Saxon, if it is in the supported subset. */
+    private final SimpleXpathQuery simpleQuery;
+
+    /** Xpath expression, if the query is not in the subset of {@code simpleQuery}. */
     private final XPathExpression xpathExpression;
 
     /** Xpath query. */
     private final String xpathQuery;
 
+    /**
+     * Positions of the nodes of the last tree selected by {@code simpleQuery}.
+     * The holder is replaced as a whole, so threads filtering other trees only
+     * cause the query to be evaluated again.
+     */
+    private volatile MatchedNodes matchedNodes;
+
     /**
      * Creates a {@code XpathElement} instance.
      *
@@ -105,16 +119,23 @@ public class XpathFilterElement implements TreeWalkerFilter {
         this.moduleId = moduleId;
         xpathQuery = query;
         if (xpathQuery == null) {
+            simpleQuery = null;
             xpathExpression = null;
         }
         else {
-            final XPathEvaluator xpathEvaluator = new XPathEvaluator(
-                    Configuration.newConfiguration());
-            try {
-                xpathExpression = xpathEvaluator.createExpression(xpathQuery);
+            simpleQuery = SimpleXpathQuery.compile(xpathQuery);
+            if (simpleQuery == null) {
+                final XPathEvaluator xpathEvaluator = new XPathEvaluator(
+                        Configuration.newConfiguration());
+                try {
+                    xpathExpression = xpathEvaluator.createExpression(xpathQuery);
+                }
+                catch (XPathException ex) {
+                    throw new IllegalArgumentException("Unexpected xpath query: " + xpathQuery, ex);
+                }
             }
-            catch (XPathException ex) {
-                throw new IllegalArgumentException("Unexpected xpath query: " + xpathQuery, ex);
+            else {
+                xpathExpression = null;
             }
         }
     }
@@ -158,16 +179,23 @@ public class XpathFilterElement implements TreeWalkerFilter {
         this.moduleId = moduleId;
         xpathQuery = query;
         if (xpathQuery == null) {
+            simpleQuery = null;
             xpathExpression = null;
         }
         else {
-            final XPathEvaluator xpathEvaluator = new XPathEvaluator(
-                    Configuration.newConfiguration());
-            try {
-                xpathExpression = xpathEvaluator.createExpression(xpathQuery);
+            simpleQuery = SimpleXpathQuery.compile(xpathQuery);
+            if (simpleQuery == null) {
+                final XPathEvaluator xpathEvaluator = new XPathEvaluator(
+                        Configuration.newConfiguration());
+                try {
+                    xpathExpression = xpathEvaluator.createExpression(xpathQuery);
+                }
+                catch (XPathException ex) {
+                    throw new IllegalArgumentException("Incorrect xpath query: " + xpathQuery, ex);
+                }
             }
-            catch (XPathException ex) {
-                throw new IllegalArgumentException("Incorrect xpath query: " + xpathQuery, ex);
+            else {
+                xpathExpression = null;
             }
         }
     }
@@ -211,7 +239,11 @@ public class XpathFilterElement implements TreeWalkerFilter {
      */
     private boolean isXpathQueryMatching(TreeWalkerAuditEvent event) {
         boolean isMatching;
-        if (xpathExpression == null) {
+        if (simpleQuery != null) {
+            isMatching = getMatchedNodes(event.getRootAst()).contains(event.getTokenType(),
+                    event.getLine(), event.getColumnCharIndex());
+        }
+        else if (xpathExpression == null) {
             isMatching = true;
         }
         else {
@@ -230,6 +262,27 @@ public class XpathFilterElement implements TreeWalkerFilter {
         return isMatching;
     }
 
+    /**
+     * Returns positions of the nodes selected by the simple query from a tree.
+     * All events of a file share the tree, so the positions for the last tree are kept.
+     *
+     * @param rootAst the root of the tree.
+     * @return the positions of the selected nodes.
+     * @throws IllegalStateException if there is no tree to evaluate the query on.
+     */
+    private MatchedNodes getMatchedNodes(DetailAST rootAst) {
+        if (rootAst == null) {
+            throw new IllegalStateException("Cannot initialize context and evaluate query: "
+                    + xpathQuery);
+        }
+        MatchedNodes result = matchedNodes;
+        if (result == null || !result.isSelectedFrom(rootAst)) {
+            result = new MatchedNodes(rootAst, simpleQuery.evaluate(rootAst));
+            matchedNodes = result;
+        }
+        return result;
+    }
+
     /**
      * Returns list of nodes matching xpath expression given event.
      *
@@ -279,4 +332,76 @@ public class XpathFilterElement implements TreeWalkerFilter {
                 && Objects.equals(xpathQuery, xpathFilter.xpathQuery);
     }
 
+    /**
+     * Token types and positions of the nodes selected from a tree. Only the root
+     * of the tree is referenced, and weakly, so the tree can be collected once its
+     * file is finished.
+     */
+    private static final class MatchedNodes {
+
+        /** The root of the tree the nodes were selected from. */
+        private final WeakReference<DetailAST> rootReference;
+
+        /** Token types of the nodes. */
+        private final int[] tokenTypes;
+
+        /** Line numbers of the nodes. */
+        private final int[] lineNumbers;
+
+        /** Column numbers of the nodes. */
+        private final int[] columnNumbers;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param rootAst the root of the tree.
+         * @param nodes the nodes selected from the tree.
+         */
+        /* package */ MatchedNodes(DetailAST rootAst, List<DetailAST> nodes) {
+            rootReference = new WeakReference<DetailAST>(rootAst);
+            final int size = nodes.size();
+            tokenTypes = new int[size];
+            lineNumbers = new int[size];
+            columnNumbers = new int[size];
+            for (int index = 0; index < size; index++) {
+                final DetailAST node = nodes.get(index);
+                tokenTypes[index] = node.getType();
+                lineNumbers[index] = node.getLineNo();
+                columnNumbers[index] = node.getColumnNo();
+            }
+        }
+
+        /**
+         * Checks whether the nodes were selected from the given tree.
+         *
+         * @param rootAst the root of the tree.
+         * @return true if the nodes were selected from the tree.
+         */
+        public boolean isSelectedFrom(DetailAST rootAst) {
+            return rootReference.get() == rootAst;
+        }
+
+        /**
+         * Checks whether a node with the given token type and position was selected.
+         *
+         * @param tokenType the token type.
+         * @param lineNumber the line number.
+         * @param columnNumber the column number.
+         * @return true if such a node was selected.
+         */
+        public boolean contains(int tokenType, int lineNumber, int columnNumber) {
+            boolean result = false;
+            for (int index = 0; index < tokenTypes.length; index++) {
+                if (tokenTypes[index] == tokenType
+                        && lineNumbers[index] == lineNumber
+                        && columnNumbers[index] == columnNumber) {
+                    result = true;
+                    break;
+                }
+            }
+            return result;
+        }
+
+    }
+
 }
@@ -0,0 +1,93 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.grammar;
+
+import antlr.CharScanner;
+import antlr.InputBuffer;
+
+/**
+ * Input buffer of an ANTLR lexer, which reads the characters directly from a
+ * {@code CharSequence}. Unlike {@code antlr.CharBuffer}, the text is neither copied
+ * through a {@code Reader} nor queued, the lookahead is an index into the text.
+ * Marks are positions in the text, so rewinding costs nothing either.
+ */
+public final class CharSequenceInputBuffer extends InputBuffer {
+
+    /** The text to read. */
+    private final CharSequence text;
+
+    /** The length of the text. */
+    private final int length;
+
+    /** The position of the next character to consume. */
+    private int position;
+
+    /**
+     * Creates a buffer for the given text.
+     *
+     * @param text the text to read.
+     */
+    public CharSequenceInputBuffer(CharSequence text) {
+        this.text = text;
+        length = text.length();
+    }
+
+    @Override
+    public void consume() {
+        position++;
+    }
+
+    @Override
+    public void fill(int amount) {
+        // all characters are available
+    }
+
+    @Override
+    public char LA(int index) {
+        final int offset = position + index - 1;
+        final char result;
+        if (offset < length) {
+            result = text.charAt(offset);
+        }
+        else {
+            result = CharScanner.EOF_CHAR;
+        }
+        return result;
+    }
+
+    @Override
+    public int mark() {
+        nMarkers++;
+        return position;
+    }
+
+    @Override
+    public void rewind(int mark) {
+        position = mark;
+        nMarkers--;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        position = 0;
+    }
+
+}
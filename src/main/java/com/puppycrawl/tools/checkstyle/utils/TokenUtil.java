@@ -190,6 +190,16 @@ public final class TokenUtil {
         return id;
     }
 
+    /**
+     * Checks whether a name is the name of a token.
+     *
+     * @param name the name to check
+     * @return true if the name is the name of a token
+     */
+    public static boolean isTokenName(String name) {
+        return TOKEN_NAME_TO_VALUE.containsKey(name);
+    }
+
     /**
      * Returns the short description of a token for a given name.
      *
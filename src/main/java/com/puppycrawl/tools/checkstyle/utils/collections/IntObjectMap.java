@@ -0,0 +1,329 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+
+package com.puppycrawl.tools.checkstyle.utils.collections;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from primitive {@code int} keys to objects, which uses open addressing
+ * with linear probing, so neither keys nor entries are boxed. Entries can't be
+ * removed and {@code null} values are not allowed. The map is meant for small
+ * and dense keys, like line numbers or token types. Like a {@link java.util.HashMap},
+ * it does not guarantee any iteration order.
+ *
+ * @param <V> the type of the values
+ */
+public final class IntObjectMap<V> {
+
+    /** Initial capacity of the map, must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The keys, a slot is used if its value is not {@code null}. */
+    private int[] keys;
+
+    /** The values of the slots. */
+    private Object[] values;
+
+    /** Number of entries in the map. */
+    private int size;
+
+    /** Unmodifiable view of the map, created on demand. */
+    private Map<Integer, V> mapView;
+
+    /** Creates an empty map. */
+    public IntObjectMap() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key is not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        final int mask = keys.length - 1;
+        int slot = key & mask;
+        V result = null;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                result = (V) values[slot];
+                break;
+            }
+            slot = slot + 1 & mask;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the key is mapped to a value.
+     *
+     * @param key the key
+     * @return {@code true} if the map contains the key
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param key the key
+     * @param value the value, can't be {@code null}
+     * @return the previous value of the key, or {@code null} if there was none
+     * @throws IllegalArgumentException if the value is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        final int mask = keys.length - 1;
+        int slot = key & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = slot + 1 & mask;
+        }
+        final V previous = (V) values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        if (previous == null) {
+            size++;
+            if (size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map has no entries.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Removes all entries, keeping the allocated capacity. */
+    public void clear() {
+        for (int slot = 0; slot < values.length; slot++) {
+            values[slot] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the values of the map. The collection is backed by the map and
+     * can't be modified.
+     *
+     * @return the values
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    @Override
+                    protected V get(int slot) {
+                        return valueAt(slot);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns an unmodifiable {@link Map} view of this map, for callers
+     * which need the collections API. Lookups of the view don't iterate
+     * the entries, but they box the key.
+     *
+     * @return the map view
+     */
+    public Map<Integer, V> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    /**
+     * Rehashes the entries into new arrays.
+     *
+     * @param capacity the new capacity, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        final int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldValues.length; oldSlot++) {
+            if (oldValues[oldSlot] != null) {
+                int slot = oldKeys[oldSlot] & mask;
+                while (values[slot] != null) {
+                    slot = slot + 1 & mask;
+                }
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    /**
+     * Returns the value of a slot.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * Iterator over the used slots of the map.
+     *
+     * @param <E> the type of the iterated elements
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+
+        /** The next used slot, or the capacity if there is none. */
+        private int nextSlot = findUsedSlot(0);
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < values.length;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final E result = get(nextSlot);
+            nextSlot = findUsedSlot(nextSlot + 1);
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        /**
+         * Creates the element of a used slot.
+         *
+         * @param slot the slot
+         * @return the element
+         */
+        protected abstract E get(int slot);
+
+        /**
+         * Finds the first used slot at or after the given one.
+         *
+         * @param from the slot to start at
+         * @return the used slot, or the capacity if there is none
+         */
+        private int findUsedSlot(int from) {
+            int slot = from;
+            while (slot < values.length && values[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+    }
+
+    /** Unmodifiable {@link Map} view of the map. */
+    private final class MapView extends AbstractMap<Integer, V> {
+
+        @Override
+        public V get(Object key) {
+            V result = null;
+            if (key instanceof Integer) {
+                result = IntObjectMap.this.get((Integer) key);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Collection<V> values() {
+            return IntObjectMap.this.values();
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            return new AbstractSet<Entry<Integer, V>>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new SlotIterator<Entry<Integer, V>>() {
+                        @Override
+                        protected Entry<Integer, V> get(int slot) {
+                            return new SimpleImmutableEntry<Integer, V>(keys[slot],
+                                    valueAt(slot));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+    }
+
+}
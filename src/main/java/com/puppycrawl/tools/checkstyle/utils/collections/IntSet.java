@@ -0,0 +1,135 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+
+package com.puppycrawl.tools.checkstyle.utils.collections;
+
+import java.util.BitSet;
+
+/**
+ * Set of {@code int} values backed by bit sets, so the values are not boxed.
+ * The set is meant for small and dense values, like line numbers or token
+ * types. Negative values, like the {@code EOF} token type, are kept in a
+ * separate bit set, which is only created when such a value is added.
+ */
+public final class IntSet {
+
+    /** The bits of the non-negative values in the set. */
+    private final BitSet bits = new BitSet();
+
+    /**
+     * The bits of the negative values in the set, the bit of a value is its
+     * complement. {@code null} until a negative value is added.
+     */
+    private BitSet negativeBits;
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value
+     * @return {@code true} if the set did not contain the value
+     */
+    public boolean add(int value) {
+        final boolean added;
+        if (value >= 0) {
+            added = !bits.get(value);
+            bits.set(value);
+        }
+        else {
+            if (negativeBits == null) {
+                negativeBits = new BitSet();
+            }
+            added = !negativeBits.get(~value);
+            negativeBits.set(~value);
+        }
+        return added;
+    }
+
+    /**
+     * Checks whether the set contains a value.
+     *
+     * @param value the value
+     * @return {@code true} if the set contains the value
+     */
+    public boolean contains(int value) {
+        final boolean result;
+        if (value >= 0) {
+            result = bits.get(value);
+        }
+        else {
+            result = negativeBits != null && negativeBits.get(~value);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        int size = bits.cardinality();
+        if (negativeBits != null) {
+            size += negativeBits.cardinality();
+        }
+        return size;
+    }
+
+    /**
+     * Checks whether the set has no values.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Removes all values, keeping the allocated capacity. */
+    public void clear() {
+        bits.clear();
+        if (negativeBits != null) {
+            negativeBits.clear();
+        }
+    }
+
+    /**
+     * Returns the values of the set in ascending order.
+     *
+     * @return a new array with the values
+     */
+    public int[] toArray() {
+        final int[] result = new int[size()];
+        int index = 0;
+        if (negativeBits != null) {
+            index = negativeBits.cardinality();
+            int negativeIndex = index;
+            for (int bit = negativeBits.nextSetBit(0); bit >= 0;
+                    bit = negativeBits.nextSetBit(bit + 1)) {
+                negativeIndex--;
+                result[negativeIndex] = ~bit;
+            }
+        }
+        for (int value = bits.nextSetBit(0); value >= 0; value = bits.nextSetBit(value + 1)) {
+            result[index] = value;
+            index++;
+        }
+        return result;
+    }
+
+}
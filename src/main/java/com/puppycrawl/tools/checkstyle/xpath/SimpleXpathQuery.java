@@ -0,0 +1,862 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenIndex;
+import com.puppycrawl.tools.checkstyle.jre6.lang.Integer7;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
+
+/**
+ * Evaluates the common subset of xpath queries directly on {@code DetailAST} nodes,
+ * without building the tree of Saxon nodes. The subset consists of absolute location
+ * paths of child ({@code /}) and descendant ({@code //}) steps with token name or
+ * {@code *} tests and the predicates
+ * <ul>
+ *     <li>{@code [n]}, selecting the n-th node of a child step,</li>
+ *     <li>{@code [@text]}, {@code [@text='value']} and
+ *         {@code [starts-with(@text, 'value')]} on the text attribute,</li>
+ *     <li>{@code [./path]}, {@code [.//path]} and {@code [path]}, testing that
+ *         a relative path from the node selects any node.</li>
+ * </ul>
+ * Other queries are not compiled and have to be evaluated by Saxon.
+ * Positional predicates are supported on child steps only.
+ * The query selects the same nodes as Saxon evaluating it on a {@code RootNode},
+ * in document order. Descendant steps with a token name test look the nodes up in
+ * the {@link TokenIndex} of the tree instead of traversing the subtrees.
+ */
+public final class SimpleXpathQuery {
+
+    /** Name of the only supported attribute. */
+    private static final String TEXT_ATTRIBUTE_NAME = "text";
+
+    /** Name of the only supported function. */
+    private static final String STARTS_WITH_FUNCTION_NAME = "starts-with";
+
+    /** Token type matched by the {@code *} name test. */
+    private static final int ANY_TOKEN_TYPE = -1;
+
+    /** The steps of the absolute location path. */
+    private final List<Step> steps;
+
+    /**
+     * Creates a query of the location path.
+     *
+     * @param steps the steps of the absolute location path.
+     */
+    private SimpleXpathQuery(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Compiles a query if it belongs to the supported subset.
+     *
+     * @param query the xpath query.
+     * @return the compiled query, or null if the query is not in the supported subset.
+     */
+    public static SimpleXpathQuery compile(String query) {
+        return new Parser(query).parseQuery();
+    }
+
+    /**
+     * Evaluates the query on a tree.
+     *
+     * @param rootAst the first top level node of the tree.
+     * @return the selected nodes in document order.
+     */
+    public List<DetailAST> evaluate(DetailAST rootAst) {
+        return evaluate(new TokenIndex(rootAst));
+    }
+
+    /**
+     * Evaluates the query on an indexed tree.
+     *
+     * @param tokenIndex the token index of the tree, which has a root.
+     * @return the selected nodes in document order.
+     */
+    public List<DetailAST> evaluate(TokenIndex tokenIndex) {
+        // null stands for the document node, the parent of the top level nodes
+        return new Evaluation(tokenIndex)
+                .evaluate(Collections.<DetailAST>singletonList(null), steps);
+    }
+
+    /**
+     * Returns the first child of a node.
+     *
+     * @param rootAst the first top level node of the tree.
+     * @param node the node, null for the document node.
+     * @return the first child, or null if there is none.
+     */
+    private static DetailAST getFirstChild(DetailAST rootAst, DetailAST node) {
+        final DetailAST result;
+        if (node == null) {
+            result = rootAst;
+        }
+        else {
+            result = node.getFirstChild();
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a node is a descendant of another node.
+     *
+     * @param ancestor the possible ancestor, null for the document node.
+     * @param node the node.
+     * @return true if the node is a descendant of the ancestor.
+     */
+    private static boolean isDescendant(DetailAST ancestor, DetailAST node) {
+        boolean result = ancestor == null;
+        DetailAST parent = node.getParent();
+        while (!result && parent != null) {
+            result = parent == ancestor;
+            parent = parent.getParent();
+        }
+        return result;
+    }
+
+    /** The state of a single evaluation of a query. */
+    private static final class Evaluation {
+
+        /** The token index of the tree. */
+        private final TokenIndex tokenIndex;
+
+        /** The first top level node of the tree. */
+        private final DetailAST rootAst;
+
+        /**
+         * Creates the state of an evaluation on a tree.
+         *
+         * @param tokenIndex the token index of the tree.
+         */
+        /* package */ Evaluation(TokenIndex tokenIndex) {
+            this.tokenIndex = tokenIndex;
+            rootAst = tokenIndex.getRootAst();
+        }
+
+        /**
+         * Evaluates a location path.
+         *
+         * @param context the context nodes in document order.
+         * @param path the steps of the path.
+         * @return the selected nodes in document order.
+         */
+        public List<DetailAST> evaluate(List<DetailAST> context, List<Step> path) {
+            List<DetailAST> nodes = context;
+            for (Step step : path) {
+                if (nodes.isEmpty()) {
+                    break;
+                }
+                if (step.isDescendant()) {
+                    nodes = evaluateDescendantStep(nodes, step);
+                }
+                else {
+                    nodes = evaluateChildStep(nodes, step);
+                }
+            }
+            return nodes;
+        }
+
+        /**
+         * Checks whether a relative path selects any node.
+         *
+         * @param node the context node.
+         * @param path the steps of the path.
+         * @return true if the path selects any node.
+         */
+        public boolean exists(DetailAST node, List<Step> path) {
+            return !evaluate(Collections.singletonList(node), path).isEmpty();
+        }
+
+        /**
+         * Evaluates a child step. The children of nested context nodes are
+         * interleaved in document order, so the result is sorted in that case.
+         *
+         * @param context the context nodes in document order.
+         * @param step the step.
+         * @return the selected nodes in document order.
+         */
+        private List<DetailAST> evaluateChildStep(List<DetailAST> context, Step step) {
+            final List<DetailAST> result = new ArrayList<DetailAST>();
+            boolean nested = false;
+            DetailAST outer = context.get(0);
+            for (DetailAST node : context) {
+                if (node != outer) {
+                    if (isDescendant(outer, node)) {
+                        nested = true;
+                    }
+                    else {
+                        outer = node;
+                    }
+                }
+                final List<DetailAST> children = new ArrayList<DetailAST>();
+                DetailAST child = getFirstChild(rootAst, node);
+                while (child != null) {
+                    if (step.isNameMatching(child)) {
+                        children.add(child);
+                    }
+                    child = child.getNextSibling();
+                }
+                result.addAll(step.filter(this, children));
+            }
+            if (nested) {
+                sortInDocumentOrder(result);
+            }
+            return result;
+        }
+
+        /**
+         * Evaluates a descendant step, which has no positional predicates.
+         * Context nodes nested in a previous context node are skipped, as their
+         * descendants are descendants of the previous node too.
+         *
+         * @param context the context nodes in document order.
+         * @param step the step.
+         * @return the selected nodes in document order.
+         */
+        private List<DetailAST> evaluateDescendantStep(List<DetailAST> context, Step step) {
+            final List<DetailAST> result = new ArrayList<DetailAST>();
+            DetailAST outer = null;
+            boolean first = true;
+            for (DetailAST node : context) {
+                if (first || !isDescendant(outer, node)) {
+                    first = false;
+                    outer = node;
+                    addDescendants(node, step, result);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Adds the descendants of a node selected by a step in document order.
+         *
+         * @param node the node, null for the document node.
+         * @param step the step.
+         * @param result the list to add the selected nodes to.
+         */
+        private void addDescendants(DetailAST node, Step step, List<DetailAST> result) {
+            if (step.getTokenType() == ANY_TOKEN_TYPE) {
+                DetailAST curNode = getFirstChild(rootAst, node);
+                while (curNode != null) {
+                    if (step.isMatching(this, curNode)) {
+                        result.add(curNode);
+                    }
+                    DetailAST toVisit = curNode.getFirstChild();
+                    while (toVisit == null && curNode != node) {
+                        toVisit = curNode.getNextSibling();
+                        curNode = curNode.getParent();
+                    }
+                    curNode = toVisit;
+                }
+            }
+            else {
+                for (DetailAST descendant
+                        : tokenIndex.getDescendants(node, step.getTokenType())) {
+                    if (step.isMatching(this, descendant)) {
+                        result.add(descendant);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sorts nodes in document order.
+         *
+         * @param nodes the nodes.
+         */
+        private void sortInDocumentOrder(List<DetailAST> nodes) {
+            Collections.sort(nodes, new Comparator<DetailAST>() {
+                @Override
+                public int compare(DetailAST first, DetailAST second) {
+                    return Integer7.compare(tokenIndex.getPreOrderNumber(first),
+                            tokenIndex.getPreOrderNumber(second));
+                }
+            });
+        }
+
+    }
+
+    /** A step of a location path. */
+    private static final class Step {
+
+        /** Whether the step selects descendants instead of children. */
+        private final boolean descendant;
+
+        /** The token type of the name test, or {@link #ANY_TOKEN_TYPE}. */
+        private final int tokenType;
+
+        /** The predicates of the step. */
+        private final List<Predicate> predicates;
+
+        /**
+         * Creates a step.
+         *
+         * @param descendant whether the step selects descendants.
+         * @param tokenType the token type of the name test.
+         * @param predicates the predicates of the step.
+         */
+        /* package */ Step(boolean descendant, int tokenType, List<Predicate> predicates) {
+            this.descendant = descendant;
+            this.tokenType = tokenType;
+            this.predicates = predicates;
+        }
+
+        /**
+         * Whether the step selects descendants instead of children.
+         *
+         * @return true for a descendant step.
+         */
+        public boolean isDescendant() {
+            return descendant;
+        }
+
+        /**
+         * Returns the token type of the name test.
+         *
+         * @return the token type, or {@code ANY_TOKEN_TYPE} for {@code *}.
+         */
+        public int getTokenType() {
+            return tokenType;
+        }
+
+        /**
+         * Checks whether a node passes the name test.
+         *
+         * @param node the node.
+         * @return true if the node passes the name test.
+         */
+        public boolean isNameMatching(DetailAST node) {
+            return tokenType == ANY_TOKEN_TYPE || node.getType() == tokenType;
+        }
+
+        /**
+         * Checks whether a node matches all predicates, none of which is positional.
+         *
+         * @param evaluation the evaluation.
+         * @param node the node.
+         * @return true if the node matches all predicates.
+         */
+        public boolean isMatching(Evaluation evaluation, DetailAST node) {
+            boolean result = true;
+            for (Predicate predicate : predicates) {
+                if (!predicate.isMatching(evaluation, node)) {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Applies the predicates in turn to the nodes passing the name test.
+         *
+         * @param evaluation the evaluation.
+         * @param nodes the children of a node passing the name test.
+         * @return the nodes matching the predicates.
+         */
+        public List<DetailAST> filter(Evaluation evaluation, List<DetailAST> nodes) {
+            List<DetailAST> result = nodes;
+            for (Predicate predicate : predicates) {
+                result = predicate.filter(evaluation, result);
+            }
+            return result;
+        }
+
+    }
+
+    /** A predicate of a step. */
+    private abstract static class Predicate {
+
+        /**
+         * Checks whether a node matches the predicate.
+         *
+         * @param evaluation the evaluation.
+         * @param node the node.
+         * @return true if the node matches.
+         */
+        public abstract boolean isMatching(Evaluation evaluation, DetailAST node);
+
+        /**
+         * Selects the nodes matching the predicate.
+         *
+         * @param evaluation the evaluation.
+         * @param nodes the nodes.
+         * @return the matching nodes.
+         */
+        public List<DetailAST> filter(Evaluation evaluation, List<DetailAST> nodes) {
+            final List<DetailAST> result = new ArrayList<DetailAST>();
+            for (DetailAST node : nodes) {
+                if (isMatching(evaluation, node)) {
+                    result.add(node);
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /** Predicate selecting the node at a position. */
+    private static final class PositionPredicate extends Predicate {
+
+        /** The position, starting from 1. */
+        private final int position;
+
+        /**
+         * Creates a positional predicate.
+         *
+         * @param position the position, starting from 1.
+         */
+        /* package */ PositionPredicate(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public boolean isMatching(Evaluation evaluation, DetailAST node) {
+            throw new IllegalStateException("Position is not known for a single node");
+        }
+
+        @Override
+        public List<DetailAST> filter(Evaluation evaluation, List<DetailAST> nodes) {
+            final List<DetailAST> result;
+            if (position >= 1 && position <= nodes.size()) {
+                result = Collections.singletonList(nodes.get(position - 1));
+            }
+            else {
+                result = Collections.emptyList();
+            }
+            return result;
+        }
+
+    }
+
+    /** Predicate on the text attribute. */
+    private static final class TextPredicate extends Predicate {
+
+        /** The value to compare with, null to test the presence of the attribute. */
+        private final String value;
+
+        /** Whether the attribute should start with the value instead of being equal. */
+        private final boolean prefix;
+
+        /**
+         * Creates a predicate on the text attribute.
+         *
+         * @param value the value to compare with, null to test the presence.
+         * @param prefix whether the attribute should start with the value.
+         */
+        /* package */ TextPredicate(String value, boolean prefix) {
+            this.value = value;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean isMatching(Evaluation evaluation, DetailAST node) {
+            final boolean result;
+            final boolean hasText = XpathUtil.supportsTextAttribute(node);
+            if (value == null) {
+                result = hasText;
+            }
+            else if (prefix) {
+                // starts-with treats a missing attribute as an empty string
+                final String text;
+                if (hasText) {
+                    text = XpathUtil.getTextAttributeValue(node);
+                }
+                else {
+                    text = "";
+                }
+                result = text.startsWith(value);
+            }
+            else {
+                result = hasText && value.equals(XpathUtil.getTextAttributeValue(node));
+            }
+            return result;
+        }
+
+    }
+
+    /** Predicate testing that a relative path selects any node. */
+    private static final class PathPredicate extends Predicate {
+
+        /** The steps of the relative path. */
+        private final List<Step> path;
+
+        /**
+         * Creates a predicate on a relative path.
+         *
+         * @param path the steps of the relative path.
+         */
+        /* package */ PathPredicate(List<Step> path) {
+            this.path = path;
+        }
+
+        @Override
+        public boolean isMatching(Evaluation evaluation, DetailAST node) {
+            return evaluation.exists(node, path);
+        }
+
+    }
+
+    /**
+     * Parser of the supported subset. Parsing methods return null as soon as
+     * the query is found to be outside of the subset.
+     */
+    private static final class Parser {
+
+        /** The query. */
+        private final String query;
+
+        /** The position of the next character to parse. */
+        private int position;
+
+        /**
+         * Creates a parser of a query.
+         *
+         * @param query the query.
+         */
+        /* package */ Parser(String query) {
+            this.query = query;
+        }
+
+        /**
+         * Parses the whole query as an absolute location path.
+         *
+         * @return the compiled query, or null if it is outside of the subset.
+         */
+        public SimpleXpathQuery parseQuery() {
+            SimpleXpathQuery result = null;
+            skipWhitespace();
+            if (isNext('/')) {
+                final List<Step> steps = parsePath(false);
+                skipWhitespace();
+                if (steps != null && position == query.length()) {
+                    result = new SimpleXpathQuery(steps);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses a location path. An absolute path starts with a separator,
+         * a relative path may start with {@code .} followed by a separator.
+         *
+         * @param relative whether the path is relative.
+         * @return the steps of the path, or null if it is outside of the subset.
+         */
+        private List<Step> parsePath(boolean relative) {
+            List<Step> steps = new ArrayList<Step>();
+            boolean descendant = false;
+            boolean expectStep = true;
+            if (relative && isNext('.')) {
+                position++;
+                skipWhitespace();
+                expectStep = false;
+                if (!isNext('/')) {
+                    steps = null;
+                }
+            }
+            else if (!relative) {
+                expectStep = false;
+            }
+            while (steps != null) {
+                if (!expectStep) {
+                    if (!isNext('/')) {
+                        break;
+                    }
+                    position++;
+                    descendant = isNext('/');
+                    if (descendant) {
+                        position++;
+                    }
+                    skipWhitespace();
+                }
+                expectStep = false;
+                final Step step = parseStep(descendant);
+                if (step == null) {
+                    steps = null;
+                }
+                else {
+                    steps.add(step);
+                    skipWhitespace();
+                }
+            }
+            return steps;
+        }
+
+        /**
+         * Parses a step with its predicates.
+         *
+         * @param descendant whether the step selects descendants.
+         * @return the step, or null if it is outside of the subset.
+         */
+        private Step parseStep(boolean descendant) {
+            Step result = null;
+            final int tokenType = parseNameTest();
+            if (tokenType != 0) {
+                List<Predicate> predicates = new ArrayList<Predicate>();
+                skipWhitespace();
+                while (predicates != null && isNext('[')) {
+                    position++;
+                    skipWhitespace();
+                    final Predicate predicate = parsePredicate();
+                    skipWhitespace();
+                    if (predicate == null || !isNext(']')
+                            || descendant && predicate instanceof PositionPredicate) {
+                        predicates = null;
+                    }
+                    else {
+                        position++;
+                        predicates.add(predicate);
+                        skipWhitespace();
+                    }
+                }
+                if (predicates != null) {
+                    result = new Step(descendant, tokenType, predicates);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses a name test, which is {@code *} or a token name not followed by
+         * an axis or a function call.
+         *
+         * @return the token type, {@link #ANY_TOKEN_TYPE}, or 0 if it is outside of the subset.
+         */
+        private int parseNameTest() {
+            int result = 0;
+            if (isNext('*')) {
+                position++;
+                result = ANY_TOKEN_TYPE;
+            }
+            else {
+                final String name = parseName();
+                skipWhitespace();
+                if (name != null && !isNext('(') && !isNext(':')
+                        && TokenUtil.isTokenName(name)) {
+                    result = TokenUtil.getTokenId(name);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses the expression of a predicate.
+         *
+         * @return the predicate, or null if it is outside of the subset.
+         */
+        private Predicate parsePredicate() {
+            final Predicate result;
+            if (isNext('@')) {
+                result = parseTextPredicate();
+            }
+            else if (position < query.length() && Character.isDigit(query.charAt(position))) {
+                result = parsePositionPredicate();
+            }
+            else if (query.startsWith(STARTS_WITH_FUNCTION_NAME, position)) {
+                result = parseStartsWithPredicate();
+            }
+            else {
+                final List<Step> path = parsePath(true);
+                if (path == null) {
+                    result = null;
+                }
+                else {
+                    result = new PathPredicate(path);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses {@code @text} or {@code @text = 'value'}.
+         *
+         * @return the predicate, or null if it is outside of the subset.
+         */
+        private Predicate parseTextPredicate() {
+            Predicate result = null;
+            if (parseTextAttribute()) {
+                skipWhitespace();
+                if (isNext('=')) {
+                    position++;
+                    skipWhitespace();
+                    final String value = parseLiteral();
+                    if (value != null) {
+                        result = new TextPredicate(value, false);
+                    }
+                }
+                else {
+                    result = new TextPredicate(null, false);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses {@code starts-with(@text, 'value')}.
+         *
+         * @return the predicate, or null if it is outside of the subset.
+         */
+        private Predicate parseStartsWithPredicate() {
+            Predicate result = null;
+            position += STARTS_WITH_FUNCTION_NAME.length();
+            skipWhitespace();
+            if (isNext('(')) {
+                position++;
+                skipWhitespace();
+                if (parseTextAttribute()) {
+                    skipWhitespace();
+                    if (isNext(',')) {
+                        position++;
+                        skipWhitespace();
+                        final String value = parseLiteral();
+                        skipWhitespace();
+                        if (value != null && isNext(')')) {
+                            position++;
+                            result = new TextPredicate(value, true);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses a positive integer position.
+         *
+         * @return the predicate, or null if it is outside of the subset.
+         */
+        private Predicate parsePositionPredicate() {
+            final int start = position;
+            while (position < query.length() && Character.isDigit(query.charAt(position))) {
+                position++;
+            }
+            Predicate result = null;
+            final String digits = query.substring(start, position);
+            // longer numbers and decimals are left to Saxon
+            if (digits.length() < 9 && !isNext('.') && !isNameCharacter()) {
+                result = new PositionPredicate(Integer.parseInt(digits));
+            }
+            return result;
+        }
+
+        /**
+         * Parses the {@code @text} attribute.
+         *
+         * @return true if the attribute was parsed.
+         */
+        private boolean parseTextAttribute() {
+            boolean result = false;
+            if (isNext('@')) {
+                position++;
+                result = TEXT_ATTRIBUTE_NAME.equals(parseName()) && !isNext(':');
+            }
+            return result;
+        }
+
+        /**
+         * Parses a string literal in single or double quotes. A quote is escaped by
+         * doubling it.
+         *
+         * @return the value of the literal, or null if there is no literal.
+         */
+        private String parseLiteral() {
+            String result = null;
+            if (isNext('\'') || isNext('"')) {
+                final char quote = query.charAt(position);
+                final StringBuilder value = new StringBuilder();
+                position++;
+                while (result == null && position < query.length()) {
+                    final char chr = query.charAt(position);
+                    position++;
+                    if (chr != quote) {
+                        value.append(chr);
+                    }
+                    else if (isNext(quote)) {
+                        value.append(chr);
+                        position++;
+                    }
+                    else {
+                        result = value.toString();
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Parses a name made of name characters.
+         *
+         * @return the name, or null if there is no name.
+         */
+        private String parseName() {
+            final int start = position;
+            while (isNameCharacter()) {
+                position++;
+            }
+            String result = null;
+            if (position > start) {
+                result = query.substring(start, position);
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether the next character may be part of a name.
+         *
+         * @return true if the next character is a letter, digit, '_', '-' or '.'.
+         */
+        private boolean isNameCharacter() {
+            boolean result = false;
+            if (position < query.length()) {
+                final char chr = query.charAt(position);
+                result = Character.isLetterOrDigit(chr) || chr == '_' || chr == '-' || chr == '.';
+            }
+            return result;
+        }
+
+        /**
+         * Checks the next character.
+         *
+         * @param chr the expected character.
+         * @return true if the next character is the expected one.
+         */
+        private boolean isNext(char chr) {
+            return position < query.length() && query.charAt(position) == chr;
+        }
+
+        /** Skips whitespace. */
+        private void skipWhitespace() {
+            while (position < query.length()
+                    && Character.isWhitespace(query.charAt(position))) {
+                position++;
+            }
+        }
+
+    }
+
+}
@@ -19,14 +19,17 @@
 
 package com.puppycrawl.tools.checkstyle.xpath;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.jre6.util.function.Predicate;
-import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
 
@@ -75,18 +78,14 @@ import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
  */
 public class XpathQueryGenerator {
 
-    /** The root ast. */
-    private final DetailAST rootAst;
+    /** The index of the nodes of the file. */
+    private final XpathQueryIndex index;
     /** The line number of the element for which the query should be generated. */
     private final int lineNumber;
     /** The column number of the element for which the query should be generated. */
     private final int columnNumber;
     /** The token type of the element for which the query should be generated. Optional. */
     private final int tokenType;
-    /** The {@code FileText} object, representing content of the file. */
-    private final FileText fileText;
-    /** The distance between tab stop position. */
-    private final int tabWidth;
 
     /**
      * Creates a new {@code XpathQueryGenerator} instance.
@@ -125,12 +124,25 @@ public class XpathQueryGenerator {
      */
     public XpathQueryGenerator(DetailAST rootAst, int lineNumber, int columnNumber, int tokenType,
                                FileText fileText, int tabWidth) {
-        this.rootAst = rootAst;
+        this(new XpathQueryIndex(rootAst, fileText, tabWidth), lineNumber, columnNumber,
+                tokenType);
+    }
+
+    /**
+     * Creates a new {@code XpathQueryGenerator} instance, which uses the given index of the file.
+     * The index should be shared by all generators for the same file.
+     *
+     * @param index index of the nodes of the file
+     * @param lineNumber line number of the element for which the query should be generated
+     * @param columnNumber column number of the element for which the query should be generated
+     * @param tokenType token type of the element for which the query should be generated
+     */
+    public XpathQueryGenerator(XpathQueryIndex index, int lineNumber, int columnNumber,
+                               int tokenType) {
+        this.index = index;
         this.lineNumber = lineNumber;
         this.columnNumber = columnNumber;
         this.tokenType = tokenType;
-        this.fileText = fileText;
-        this.tabWidth = tabWidth;
     }
 
     /**
@@ -142,7 +154,7 @@ public class XpathQueryGenerator {
     public List<String> generate() {
         final List<String> result = new ArrayList<String>();
         for (DetailAST ast : getMatchingAstElements()) {
-            result.add(generateXpathQuery(ast));
+            result.add(generateXpathQuery(ast, index.getFragments(), index.getPaths()));
         }
         return result;
     }
@@ -186,7 +198,22 @@ public class XpathQueryGenerator {
      * @return full xpath query for given ast element
      */
     public static String generateXpathQuery(DetailAST ast) {
-        final StringBuilder xpathQueryBuilder = new StringBuilder(getXpathQuery(null, ast));
+        return generateXpathQuery(ast, new HashMap<DetailAST, String>(),
+                new HashMap<DetailAST, String>());
+    }
+
+    /**
+     * Returns full xpath query for given ast element.
+     *
+     * @param ast {@code DetailAST} ast element
+     * @param fragments memoized xpath fragments of single nodes
+     * @param paths memoized xpath queries of nodes from the root
+     * @return full xpath query for given ast element
+     */
+    private static String generateXpathQuery(DetailAST ast, Map<DetailAST, String> fragments,
+                                             Map<DetailAST, String> paths) {
+        final StringBuilder xpathQueryBuilder =
+                new StringBuilder(getXpathQuery(null, ast, fragments, paths));
         if (!isXpathQueryForNodeIsAccurateEnough(ast)) {
             xpathQueryBuilder.append('[');
             final DetailAST child = findChildWithTextAttributeRecursively(ast);
@@ -194,7 +221,8 @@ public class XpathQueryGenerator {
                 xpathQueryBuilder.append(findPositionAmongSiblings(ast));
             }
             else {
-                xpathQueryBuilder.append('.').append(getXpathQuery(ast, child));
+                xpathQueryBuilder.append('.')
+                        .append(getXpathQuery(ast, child, fragments, paths));
             }
             xpathQueryBuilder.append(']');
         }
@@ -238,54 +266,113 @@ public class XpathQueryGenerator {
      */
     private List<DetailAST> getMatchingAstElements() {
         final List<DetailAST> result = new ArrayList<DetailAST>();
-        DetailAST curNode = rootAst;
-        while (curNode != null) {
-            if (isMatchingByLineAndColumnAndTokenType(curNode)) {
-                result.add(curNode);
-            }
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
+        for (DetailAST ast : index.getNodes(lineNumber, columnNumber)) {
+            if (tokenType == 0 || tokenType == ast.getType()) {
+                result.add(ast);
             }
-
-            curNode = toVisit;
         }
         return result;
     }
 
     /**
      * Returns relative xpath query for given ast element from root.
+     * Fragments of the nodes on the way and queries of ancestors from the root are memoized.
      *
      * @param root {@code DetailAST} root element
      * @param ast {@code DetailAST} ast element
+     * @param fragments memoized xpath fragments of single nodes
+     * @param paths memoized xpath queries of nodes from the root
      * @return relative xpath query for given ast element from root
      */
-    private static String getXpathQuery(DetailAST root, DetailAST ast) {
+    private static String getXpathQuery(DetailAST root, DetailAST ast,
+                                        Map<DetailAST, String> fragments,
+                                        Map<DetailAST, String> paths) {
         final StringBuilder resultBuilder = new StringBuilder(1024);
+        final DetailAST parent = ast.getParent();
         DetailAST cur = ast;
         while (cur != root) {
+            if (root == null && cur != ast && cur != parent) {
+                // fragments of ancestors above the parent do not depend on the ast element
+                resultBuilder.insert(0, getPathFromRoot(cur, fragments, paths));
+                break;
+            }
+            final String fragment;
+            if (cur == parent && !XpathUtil.supportsTextAttribute(cur)
+                    && findChildWithTextAttribute(cur) == ast) {
+                fragment = "/" + TokenUtil.getTokenName(cur.getType());
+            }
+            else {
+                fragment = getFragment(cur, fragments, paths);
+            }
+            resultBuilder.insert(0, fragment);
+            cur = cur.getParent();
+        }
+        return resultBuilder.toString();
+    }
+
+    /**
+     * Returns xpath query for given ast element from the root of the tree.
+     *
+     * @param ast {@code DetailAST} ast element
+     * @param fragments memoized xpath fragments of single nodes
+     * @param paths memoized xpath queries of nodes from the root
+     * @return xpath query for given ast element from the root
+     */
+    private static String getPathFromRoot(DetailAST ast, Map<DetailAST, String> fragments,
+                                          Map<DetailAST, String> paths) {
+        final Deque<DetailAST> unknown = new ArrayDeque<DetailAST>();
+        String path = "";
+        DetailAST cur = ast;
+        while (cur != null) {
+            final String known = paths.get(cur);
+            if (known != null) {
+                path = known;
+                break;
+            }
+            unknown.push(cur);
+            cur = cur.getParent();
+        }
+        while (!unknown.isEmpty()) {
+            final DetailAST node = unknown.pop();
+            path = path + getFragment(node, fragments, paths);
+            paths.put(node, path);
+        }
+        return path;
+    }
+
+    /**
+     * Returns xpath fragment of a single node, with a predicate on its text
+     * or the text of its child if there is one.
+     *
+     * @param ast {@code DetailAST} ast element
+     * @param fragments memoized xpath fragments of single nodes
+     * @param paths memoized xpath queries of nodes from the root
+     * @return xpath fragment of the node
+     */
+    private static String getFragment(DetailAST ast, Map<DetailAST, String> fragments,
+                                      Map<DetailAST, String> paths) {
+        String result = fragments.get(ast);
+        if (result == null) {
             final StringBuilder curNodeQueryBuilder = new StringBuilder(256);
             curNodeQueryBuilder.append('/')
-                    .append(TokenUtil.getTokenName(cur.getType()));
-            if (XpathUtil.supportsTextAttribute(cur)) {
+                    .append(TokenUtil.getTokenName(ast.getType()));
+            if (XpathUtil.supportsTextAttribute(ast)) {
                 curNodeQueryBuilder.append("[@text='")
-                        .append(encode(XpathUtil.getTextAttributeValue(cur)))
+                        .append(encode(XpathUtil.getTextAttributeValue(ast)))
                         .append("']");
             }
             else {
-                final DetailAST child = findChildWithTextAttribute(cur);
-                if (child != null && child != ast) {
+                final DetailAST child = findChildWithTextAttribute(ast);
+                if (child != null) {
                     curNodeQueryBuilder.append("[.")
-                            .append(getXpathQuery(cur, child))
+                            .append(getXpathQuery(ast, child, fragments, paths))
                             .append(']');
                 }
             }
-
-            resultBuilder.insert(0, curNodeQueryBuilder);
-            cur = cur.getParent();
+            result = curNodeQueryBuilder.toString();
+            fragments.put(ast, result);
         }
-        return resultBuilder.toString();
+        return result;
     }
 
     /**
@@ -315,30 +402,6 @@ public class XpathQueryGenerator {
         return result;
     }
 
-    /**
-     * Returns the column number with tabs expanded.
-     *
-     * @param ast {@code DetailAST} root ast
-     * @return the column number with tabs expanded
-     */
-    private int expandedTabColumn(DetailAST ast) {
-        return 1 + CommonUtil.lengthExpandedTabs(fileText.get(lineNumber - 1),
-                ast.getColumnNo(), tabWidth);
-    }
-
-    /**
-     * Checks if the given {@code DetailAST} node is matching line number, column number and token
-     * type.
-     *
-     * @param ast {@code DetailAST} ast element
-     * @return true if the given {@code DetailAST} node is matching
-     */
-    private boolean isMatchingByLineAndColumnAndTokenType(DetailAST ast) {
-        return ast.getLineNo() == lineNumber
-                && expandedTabColumn(ast) == columnNumber
-                && (tokenType == 0 || tokenType == ast.getType());
-    }
-
     /**
      * Escape &lt;, &gt;, &amp;, &#39; and &quot; as their entities.
      * Custom method for Xpath generation to maintain compatibility
@@ -0,0 +1,205 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Index of the nodes of a single file used by {@code XpathQueryGenerator}.
+ * Nodes are grouped by line and sorted by column with tabs expanded, so nodes at
+ * a position are found without walking the whole tree. The index also memoizes
+ * the xpath fragments of nodes, which are shared by the queries of their descendants.
+ * An index is built once per file and reused by all generators for that file.
+ */
+public final class XpathQueryIndex {
+
+    /** Compares nodes by their column number. */
+    private static final Comparator<DetailAST> COLUMN_COMPARATOR = new Comparator<DetailAST>() {
+        @Override
+        public int compare(DetailAST first, DetailAST second) {
+            return first.getColumnNo() - second.getColumnNo();
+        }
+    };
+
+    /** The root ast. */
+    private final DetailAST rootAst;
+    /** The {@code FileText} object, representing content of the file. */
+    private final FileText fileText;
+    /** The distance between tab stop position. */
+    private final int tabWidth;
+
+    /** Nodes of each line, sorted by column number. */
+    private final Map<Integer, DetailAST[]> lineNodes = new HashMap<Integer, DetailAST[]>();
+    /** Column numbers with tabs expanded of the nodes of each line, computed on demand. */
+    private final Map<Integer, int[]> lineColumns = new HashMap<Integer, int[]>();
+
+    /** Memoized xpath fragments of single nodes. */
+    private final Map<DetailAST, String> fragments = new HashMap<DetailAST, String>();
+    /** Memoized xpath queries of nodes from the root. */
+    private final Map<DetailAST, String> paths = new HashMap<DetailAST, String>();
+
+    /**
+     * Creates a new {@code XpathQueryIndex} instance.
+     *
+     * @param rootAst root ast
+     * @param fileText the {@code FileText} object
+     * @param tabWidth distance between tab stop position
+     */
+    public XpathQueryIndex(DetailAST rootAst, FileText fileText, int tabWidth) {
+        this.rootAst = rootAst;
+        this.fileText = fileText;
+        this.tabWidth = tabWidth;
+        buildIndex();
+    }
+
+    /**
+     * Checks whether the index was built for the given file.
+     *
+     * @param ast root ast
+     * @param text the {@code FileText} object
+     * @param width distance between tab stop position
+     * @return true if the index was built for the given root ast, text and tab width
+     */
+    public boolean isIndexOf(DetailAST ast, FileText text, int width) {
+        return rootAst == ast && fileText == text && tabWidth == width;
+    }
+
+    /**
+     * Returns nodes at the given position, in the order of a depth first traversal.
+     *
+     * @param lineNumber line number
+     * @param columnNumber column number with tabs expanded
+     * @return nodes at the given position
+     */
+    List<DetailAST> getNodes(int lineNumber, int columnNumber) {
+        final List<DetailAST> result = new ArrayList<DetailAST>();
+        final DetailAST[] nodes = lineNodes.get(lineNumber);
+        if (nodes != null) {
+            int[] columns = lineColumns.get(lineNumber);
+            if (columns == null) {
+                columns = expandedTabColumns(lineNumber, nodes);
+                lineColumns.put(lineNumber, columns);
+            }
+            int low = 0;
+            int high = columns.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (columns[middle] < columnNumber) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            for (int i = low; i < columns.length && columns[i] == columnNumber; i++) {
+                result.add(nodes[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns memoized xpath fragments of single nodes.
+     *
+     * @return map from nodes to their xpath fragments
+     */
+    Map<DetailAST, String> getFragments() {
+        return fragments;
+    }
+
+    /**
+     * Returns memoized xpath queries of nodes from the root.
+     *
+     * @return map from nodes to their xpath queries
+     */
+    Map<DetailAST, String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Groups all nodes of the tree by line and sorts them by column.
+     */
+    private void buildIndex() {
+        final Map<Integer, List<DetailAST>> nodesByLine = new HashMap<Integer, List<DetailAST>>();
+        DetailAST curNode = rootAst;
+        while (curNode != null) {
+            final int lineNo = curNode.getLineNo();
+            if (lineNo >= 1 && lineNo <= fileText.size()) {
+                List<DetailAST> nodes = nodesByLine.get(lineNo);
+                if (nodes == null) {
+                    nodes = new ArrayList<DetailAST>();
+                    nodesByLine.put(lineNo, nodes);
+                }
+                nodes.add(curNode);
+            }
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+
+            curNode = toVisit;
+        }
+        for (Map.Entry<Integer, List<DetailAST>> entry : nodesByLine.entrySet()) {
+            final List<DetailAST> nodes = entry.getValue();
+            // the sort is stable, so nodes at the same position keep the traversal order
+            Collections.sort(nodes, COLUMN_COMPARATOR);
+            lineNodes.put(entry.getKey(), nodes.toArray(new DetailAST[0]));
+        }
+    }
+
+    /**
+     * Returns the column numbers with tabs expanded of the nodes of a line.
+     * The line is scanned once, as the nodes are sorted by column.
+     *
+     * @param lineNumber line number
+     * @param nodes nodes of the line, sorted by column
+     * @return column numbers with tabs expanded
+     */
+    private int[] expandedTabColumns(int lineNumber, DetailAST... nodes) {
+        final String line = fileText.get(lineNumber - 1);
+        final int[] result = new int[nodes.length];
+        int idx = 0;
+        int len = 0;
+        for (int i = 0; i < result.length; i++) {
+            final int column = nodes[i].getColumnNo();
+            while (idx < column) {
+                if (idx < line.length() && line.charAt(idx) == '\t') {
+                    len = (len / tabWidth + 1) * tabWidth;
+                }
+                else {
+                    len++;
+                }
+                idx++;
+            }
+            result[i] = 1 + len;
+        }
+        return result;
+    }
+
+}
@@ -28,6 +28,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 
 import org.junit.Test;
 
@@ -179,4 +181,41 @@ public class AstTreeStringPrinterTest extends AbstractTreeTestSupport {
                 textBlockContent.matches("\n"), is(true));
     }
 
+    @Test
+    public void testPrintFileAstToWriter() throws Exception {
+        final File input = new File(getPath("InputAstTreeStringPrinterComments.java"));
+        final StringWriter result = new StringWriter();
+        final PrintWriter writer = new PrintWriter(result);
+        AstTreeStringPrinter.printFileAst(input, JavaParser.Options.WITH_COMMENTS, writer);
+        writer.flush();
+        final String expected = readFile(getPath("ExpectedAstTreeStringPrinterComments.txt"));
+
+        assertEquals(expected, toLfLineEnding(result.toString()),
+                "Printed AST is invalid");
+    }
+
+    @Test
+    public void testPrintJavaAndJavadocTreeToWriter() throws Exception {
+        final File input = new File(getPath("InputAstTreeStringPrinterJavaAndJavadoc.java"));
+        final StringWriter result = new StringWriter();
+        final PrintWriter writer = new PrintWriter(result);
+        AstTreeStringPrinter.printJavaAndJavadocTree(input, writer);
+        writer.flush();
+        final String expected =
+                readFile(getPath("ExpectedAstTreeStringPrinterJavaAndJavadoc.txt"));
+
+        assertEquals(expected, toLfLineEnding(result.toString()),
+                "Printed AST is invalid");
+    }
+
+    @Test
+    public void testWriteEscaped() {
+        final StringWriter result = new StringWriter();
+        final PrintWriter writer = new PrintWriter(result);
+        AstTreeStringPrinter.writeEscaped(writer, "a\tb\r\nc\n");
+        writer.flush();
+
+        assertEquals("a\\tb\\r\\nc\\n", result.toString(), "Invalid escaped text");
+    }
+
 }
@@ -0,0 +1,261 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class AsyncAuditListenerTest {
+
+    @Test
+    public void testEventsInOrder() {
+        final RecordingListener first = new RecordingListener();
+        final RecordingListener second = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(
+                Arrays.<AuditListener>asList(first, second), 1);
+        listener.start();
+
+        fireEvents(listener);
+        listener.auditFinished(new AuditEvent(this));
+
+        final List<String> expected = Arrays.asList("auditStarted", "fileStarted:A.java",
+                "addError:A.java:1", "addError:A.java:2", "addException:A.java:test",
+                "fileFinished:A.java", "fileStarted:B.java", "fileFinished:B.java",
+                "auditFinished");
+        assertWithMessage("Invalid events of first listener")
+                .that(first.getEvents())
+                .containsExactlyElementsIn(expected).inOrder();
+        assertWithMessage("Invalid events of second listener")
+                .that(second.getEvents())
+                .containsExactlyElementsIn(expected).inOrder();
+        assertNotSame(Thread.currentThread(), first.getThread(),
+                "Events should be passed on a dedicated thread");
+    }
+
+    @Test
+    public void testExceptionRethrownInAuditFinished() {
+        final IllegalStateException exception = new IllegalStateException("test");
+        final RecordingListener failing = new RecordingListener() {
+            @Override
+            public void fileFinished(AuditEvent event) {
+                throw exception;
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(
+                Collections.<AuditListener>singletonList(failing), 4);
+        listener.start();
+        listener.fileFinished(new AuditEvent(this, "A.java"));
+
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertSame(exception, ex,
+                    "Exception of the listener should be rethrown");
+        }
+        assertWithMessage("Events after the failure should not be passed")
+                .that(failing.getEvents())
+                .isEmpty();
+    }
+
+    @Test
+    public void testErrorRethrownWithNextEvent() throws Exception {
+        final AssertionError error = new AssertionError("test");
+        final RecordingListener failing = new RecordingListener() {
+            @Override
+            public void auditStarted(AuditEvent event) {
+                throw error;
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(
+                Collections.<AuditListener>singletonList(failing), 1);
+        listener.start();
+        listener.auditStarted(new AuditEvent(this));
+        listener.stop();
+
+        try {
+            listener.fileStarted(new AuditEvent(this, "A.java"));
+            fail("Error is expected");
+        }
+        catch (AssertionError ex) {
+            assertSame(error, ex,
+                    "Error of the listener should be rethrown");
+        }
+    }
+
+    @Test
+    public void testStop() {
+        final RecordingListener recorder = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(
+                Collections.<AuditListener>singletonList(recorder), 2);
+        listener.start();
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "A.java"));
+        listener.stop();
+        listener.stop();
+
+        assertWithMessage("Queued events should be passed without the end of the audit")
+                .that(recorder.getEvents())
+                .containsExactly("auditStarted", "fileStarted:A.java").inOrder();
+    }
+
+    @Test
+    public void testInterruptedWhileQueueing() {
+        final AsyncAuditListener listener = new AsyncAuditListener(
+                Collections.<AuditListener>singletonList(new RecordingListener()), 1);
+        listener.start();
+        Thread.currentThread().interrupt();
+        try {
+            listener.auditStarted(new AuditEvent(this));
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Interrupted while queueing audit event");
+        }
+        assertWithMessage("Interrupt status should be restored")
+                .that(Thread.interrupted())
+                .isTrue();
+        listener.stop();
+    }
+
+    @Test
+    public void testInterruptedWhileWaiting() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingListener blocking = new RecordingListener() {
+            @Override
+            public void auditFinished(AuditEvent event) {
+                entered.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(
+                Collections.<AuditListener>singletonList(blocking), 1);
+        listener.start();
+        final List<String> messages = new ArrayList<String>();
+        final Thread auditThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    listener.auditFinished(new AuditEvent(this));
+                }
+                catch (IllegalStateException ex) {
+                    messages.add(ex.getMessage());
+                }
+            }
+        });
+        auditThread.start();
+        entered.await();
+        auditThread.interrupt();
+        auditThread.join();
+        release.countDown();
+
+        assertWithMessage("Invalid exception message")
+                .that(messages)
+                .containsExactly("Interrupted while waiting for audit listeners");
+    }
+
+    private void fireEvents(AuditListener listener) {
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "A.java"));
+        listener.addError(new AuditEvent(this, "A.java",
+                new Violation(1, 0, "", "", null, null, getClass(), null)));
+        listener.addError(new AuditEvent(this, "A.java",
+                new Violation(2, 0, "", "", null, null, getClass(), null)));
+        listener.addException(new AuditEvent(this, "A.java"), new IllegalStateException("test"));
+        listener.fileFinished(new AuditEvent(this, "A.java"));
+        listener.fileStarted(new AuditEvent(this, "B.java"));
+        listener.fileFinished(new AuditEvent(this, "B.java"));
+    }
+
+    private static class RecordingListener implements AuditListener {
+
+        private final List<String> events = new ArrayList<String>();
+
+        private Thread thread;
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            record("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            record("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            record("fileStarted:" + event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            record("fileFinished:" + event.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            record("addError:" + event.getFileName() + ":" + event.getLine());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            record("addException:" + event.getFileName() + ":" + throwable.getMessage());
+        }
+
+        private void record(String event) {
+            thread = Thread.currentThread();
+            events.add(event);
+        }
+
+        public List<String> getEvents() {
+            return events;
+        }
+
+        public Thread getThread() {
+            return thread;
+        }
+
+    }
+
+}
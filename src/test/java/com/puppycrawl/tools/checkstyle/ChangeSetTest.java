@@ -0,0 +1,250 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
+import com.puppycrawl.tools.checkstyle.jre6.file.Path;
+
+public class ChangeSetTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParse() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        final List<String> diff = Arrays.asList(
+                "diff --git a/First.java b/First.java",
+                "index 1234567..89abcde 100644",
+                "--- a/First.java",
+                "+++ b/First.java",
+                "@@ -1 +1 @@ class First {",
+                "-old",
+                "+new",
+                "@@ -10,0 +11,3 @@",
+                "+added",
+                "+++ looks like a header",
+                "+added",
+                "@@ -20,2 +22,0 @@",
+                "-removed",
+                "-removed",
+                "@@ -30,2 +30,2 @@",
+                "-old",
+                "-old",
+                "+new",
+                "+new",
+                "diff --git a/dir/Second.java b/dir/Second.java",
+                "new file mode 100644",
+                "--- /dev/null",
+                "+++ b/dir/Second.java",
+                "@@ -0,0 +1,2 @@",
+                "+added",
+                "+added");
+        final ChangeSet changeSet = ChangeSet.parse(root, diff,
+                Collections.singletonList("Untracked.java"));
+
+        final File first = new File(root, "First.java");
+        assertWithMessage("Invalid changed files")
+                .that(changeSet.getChangedFiles())
+                .containsExactly(first.getCanonicalPath(),
+                        new File(root, "dir/Second.java").getCanonicalPath(),
+                        new File(root, "Untracked.java").getCanonicalPath());
+        assertTrue(changeSet.isChangedFile(first), "File should be changed");
+        assertFalse(changeSet.isChangedFile(new File(root, "Other.java")),
+                "File should not be changed");
+        assertFalse(changeSet.isChangedFile(new File(root, "looks like a header")),
+                "Added line should not be treated as a file header");
+
+        final int[] changedLines = {1, 11, 12, 13, 30, 31};
+        final int[] unchangedLines = {2, 10, 14, 22, 29, 32};
+        for (int line : changedLines) {
+            assertTrue(changeSet.isChangedLine(first, line), "Line should be changed: " + line);
+        }
+        for (int line : unchangedLines) {
+            assertFalse(changeSet.isChangedLine(first, line),
+                    "Line should not be changed: " + line);
+        }
+        assertTrue(changeSet.isChangedLine(first, 0),
+                "Violation without line should be reported for changed file");
+        assertFalse(changeSet.isChangedLine(new File(root, "Other.java"), 0),
+                "Violation without line should not be reported for unchanged file");
+        assertTrue(changeSet.isChangedLine(new File(root, "Untracked.java"), 1000),
+                "Any line of an untracked file should be changed");
+    }
+
+    @Test
+    public void testParseResolvesRelativeFiles() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        final ChangeSet changeSet = ChangeSet.parse(root, Collections.<String>emptyList(),
+                Collections.singletonList("Untracked.java"));
+        final File file = new File(root, "dir/../Untracked.java");
+        assertTrue(changeSet.isChangedFile(file), "Non canonical path should be resolved");
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        final ChangeSet changeSet = ChangeSet.parse(root, Collections.<String>emptyList(),
+                Arrays.asList("B.java", "A.java"));
+        final File first = new File(root, "A.java");
+        final File second = new File(root, "B.java");
+        assertWithMessage("Invalid filtered files")
+                .that(changeSet.filter(Arrays.asList(second, new File(root, "C.java"), first)))
+                .containsExactly(second, first).inOrder();
+    }
+
+    @Test
+    public void testUnquote() {
+        assertEquals("plain.java", ChangeSet.unquote("plain.java"), "Invalid unquoted path");
+        assertEquals("b/a \"b\"\\c\td\n.java",
+                ChangeSet.unquote("\"b/a \\\"b\\\"\\\\c\\td\\n.java\""), "Invalid unquoted path");
+        assertEquals("b/\u00e4.java", ChangeSet.unquote("\"b/\\303\\244.java\""),
+                "Invalid unquoted octal escape");
+        assertEquals("b/\u00e4.java", ChangeSet.unquote("\"b/\u00e4.java\""),
+                "Invalid unquoted non ascii path");
+        assertEquals("\"", ChangeSet.unquote("\""), "Invalid unquoted single quote");
+    }
+
+    @Test
+    public void testFromGit() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        final File changed = writeFile(root, "src/Changed.java", "a\nb\nc\n");
+        final File unchanged = writeFile(root, "src/Unchanged.java", "a\n");
+        final File deleted = writeFile(root, "src/Deleted.java", "a\n");
+        writeFile(root, ".gitignore", "*.log\n");
+        final Git git = Git.init().setDirectory(root).call();
+        final String commit;
+        try {
+            git.add().addFilepattern(".").call();
+            commit = git.commit().setMessage("initial")
+                    .setAuthor("author", "author@example.com")
+                    .setCommitter("author", "author@example.com")
+                    .call().getName();
+        }
+        finally {
+            git.getRepository().close();
+        }
+        writeFile(root, "src/Changed.java", "a\nchanged\nc\nadded\n");
+        final File untracked = writeFile(root, "src/Untracked.java", "a\n");
+        final File ignored = writeFile(root, "src/Ignored.log", "a\n");
+        assertTrue(deleted.delete(), "File should be deleted");
+
+        final ChangeSet changeSet = ChangeSet.fromGit(changed, "HEAD");
+
+        assertWithMessage("Invalid changed files")
+                .that(changeSet.getChangedFiles())
+                .containsExactly(changed.getCanonicalPath(), untracked.getCanonicalPath());
+        assertFalse(changeSet.isChangedFile(unchanged), "File should not be changed");
+        assertFalse(changeSet.isChangedFile(ignored), "Ignored file should not be changed");
+        assertFalse(changeSet.isChangedLine(changed, 1), "Line should not be changed");
+        assertTrue(changeSet.isChangedLine(changed, 2), "Line should be changed");
+        assertFalse(changeSet.isChangedLine(changed, 3), "Line should not be changed");
+        assertTrue(changeSet.isChangedLine(changed, 4), "Line should be changed");
+        assertEquals(commit, changeSet.getBaseCommit(), "Base revision should be resolved");
+
+        final ChangeSet fromDirectory = ChangeSet.fromGit(root, "HEAD");
+        assertEquals(changeSet.getChangedFiles(), fromDirectory.getChangedFiles(),
+                "Repository should be located from a directory");
+    }
+
+    @Test
+    public void testFromGitInvalidRevision() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        Git.init().setDirectory(root).call().getRepository().close();
+        try {
+            ChangeSet.fromGit(root, "nonexistent-revision");
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .contains("nonexistent-revision");
+        }
+    }
+
+    @Test
+    public void testFromGitOptionAsRevision() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        Git.init().setDirectory(root).call().getRepository().close();
+        final File output = new File(root, "output.txt");
+        try {
+            ChangeSet.fromGit(root, "--output=" + output.getPath());
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Invalid base revision: --output=" + output.getPath(),
+                    ex.getMessage(), "Invalid exception message");
+        }
+        assertFalse(output.exists(), "Revision should not be passed to git");
+    }
+
+    @Test
+    public void testFromGitOutsideOfRepository() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        try {
+            ChangeSet.fromGit(folder, "HEAD");
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .contains("rev-parse");
+        }
+    }
+
+    @Test
+    public void testFromGitNonexistentDirectory() throws Exception {
+        final File folder = new File(temporaryFolder.newFolder(), "nonexistent/File.java");
+        try {
+            ChangeSet.fromGit(folder, "HEAD");
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Unable to run git", ex.getMessage(), "Invalid exception message");
+        }
+    }
+
+    private static File writeFile(File root, String name, String content) throws IOException {
+        final File file = new File(root, name);
+        Files7.createDirectories(new Path(file.getParentFile()));
+        Files7.write(new Path(file), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+}
@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -1527,6 +1528,432 @@ public class CheckerTest extends AbstractModuleTestSupport {
         checker.destroy();
     }
 
+    @Test
+    public void testChangeSetRestrictsFiles() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File changed = createFileWithLines(folder, "Changed.java");
+        final File unchanged = createFileWithLines(folder, "Unchanged.java");
+        final ChangeSet changeSet = ChangeSet.parse(folder, Arrays.asList(
+                "diff --git a/Changed.java b/Changed.java",
+                "--- a/Changed.java",
+                "+++ b/Changed.java",
+                "@@ -2,0 +3 @@"), Collections.<String>emptyList());
+        final ProcessedFilesCheck fileCheck = configure(new ProcessedFilesCheck());
+        final GlobalProcessedFilesCheck globalCheck = configure(new GlobalProcessedFilesCheck());
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(fileCheck);
+        checker.addFileSetCheck(globalCheck);
+        checker.addListener(recorder);
+        checker.setChangeSet(changeSet, false);
+
+        final int errors = checker.process(Arrays.asList(changed, unchanged));
+
+        assertWithMessage("Invalid files processed by the check")
+                .that(fileCheck.getProcessedFiles())
+                .containsExactly(changed.getName());
+        assertWithMessage("Invalid files processed by the global check")
+                .that(globalCheck.getProcessedFiles())
+                .containsExactly(changed.getName(), unchanged.getName()).inOrder();
+        assertWithMessage("Invalid violations")
+                .that(recorder.getViolations())
+                .containsExactly(changed.getPath() + ":1", changed.getPath() + ":3",
+                        unchanged.getPath() + ":1", unchanged.getPath() + ":3");
+        assertEquals(4, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testRawBytesKeptOnlyForRawBytesChecks() throws Exception {
+        final File file = createFileWithLines(temporaryFolder.newFolder(), "Test.java");
+        final BytesCheck bytesCheck = configure(new BytesCheck());
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(bytesCheck);
+        checker.process(Collections.singletonList(file));
+        assertWithMessage("Bytes should not be kept without a raw bytes check")
+                .that(bytesCheck.getBytesKept())
+                .containsExactly(false);
+
+        final RawBytesCheckStub rawBytesCheck = configure(new RawBytesCheckStub());
+        checker.addFileSetCheck(rawBytesCheck);
+        checker.process(Collections.singletonList(file));
+        assertWithMessage("Bytes should be kept for a raw bytes check")
+                .that(rawBytesCheck.getBytesKept())
+                .containsExactly(true);
+    }
+
+    @Test
+    public void testChangeSetChangedLinesOnly() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File changed = createFileWithLines(folder, "Changed.java");
+        final File unchanged = createFileWithLines(folder, "Unchanged.java");
+        final ChangeSet changeSet = ChangeSet.parse(folder, Arrays.asList(
+                "diff --git a/Changed.java b/Changed.java",
+                "--- a/Changed.java",
+                "+++ b/Changed.java",
+                "@@ -2,0 +3 @@"), Collections.<String>emptyList());
+        final ProcessedFilesCheck fileCheck = configure(new ProcessedFilesCheck());
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(fileCheck);
+        checker.addFileSetCheck(configure(new GlobalProcessedFilesCheck()));
+        checker.addListener(recorder);
+        checker.setChangeSet(changeSet, true);
+
+        final int errors = checker.process(Arrays.asList(changed, unchanged));
+
+        assertWithMessage("Invalid violations")
+                .that(recorder.getViolations())
+                .containsExactly(changed.getPath() + ":3");
+        assertEquals(1, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testChangedLinesOnlyCache() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File changed = createFileWithLines(folder, "Changed.java");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder.newFolder());
+
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = createCachingChecker(cacheFile, recorder);
+        checker.setChangeSet(createChangeSet(folder, "first", "@@ -1,0 +2 @@"), true);
+        final int errors = checker.process(Collections.singletonList(changed));
+        final PropertyCacheFile cache = Whitebox.getInternalState(checker, "cacheFile");
+        assertWithMessage("File without violations on changed lines should be cached")
+                .that(cache.get(changed.getPath()))
+                .isNotNull();
+        checker.destroy();
+        assertWithMessage("Violations on unchanged lines should not be reported")
+                .that(recorder.getViolations())
+                .isEmpty();
+        assertEquals(0, errors, "Invalid error count");
+
+        final ViolationRecorder otherBaseRecorder = new ViolationRecorder();
+        final Checker otherBaseChecker = createCachingChecker(cacheFile, otherBaseRecorder);
+        otherBaseChecker.setChangeSet(createChangeSet(folder, "second", "@@ -0,0 +1 @@"),
+                true);
+        final int otherBaseErrors =
+                otherBaseChecker.process(Collections.singletonList(changed));
+        otherBaseChecker.destroy();
+        assertWithMessage("Cache of another base commit should not be used")
+                .that(otherBaseRecorder.getViolations())
+                .containsExactly(changed.getPath() + ":1");
+        assertEquals(1, otherBaseErrors, "Invalid error count");
+
+        final ViolationRecorder fullRecorder = new ViolationRecorder();
+        final Checker fullChecker = createCachingChecker(cacheFile, fullRecorder);
+        final int fullErrors = fullChecker.process(Collections.singletonList(changed));
+        fullChecker.destroy();
+        assertWithMessage("Cache of changed lines audit should not be used by a full audit")
+                .that(fullRecorder.getViolations())
+                .containsExactly(changed.getPath() + ":1", changed.getPath() + ":3");
+        assertEquals(2, fullErrors, "Invalid error count");
+    }
+
+    @Test
+    public void testChangedLinesOnlyCacheWithUnknownBase() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File changed = createFileWithLines(folder, "Changed.java");
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder.newFolder());
+
+        final Checker checker = createCachingChecker(cacheFile, new ViolationRecorder());
+        checker.setChangeSet(createChangeSet(folder, null, "@@ -1,0 +2 @@"), true);
+        checker.process(Collections.singletonList(changed));
+        final PropertyCacheFile cache = Whitebox.getInternalState(checker, "cacheFile");
+        checker.destroy();
+        assertWithMessage("File should not be cached without a known base commit")
+                .that(cache.get(changed.getPath()))
+                .isNull();
+    }
+
+    @Test
+    public void testChangeSetWithoutGlobalChecks() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File unchanged = createFileWithLines(folder, "Unchanged.java");
+        final ChangeSet changeSet = ChangeSet.parse(folder, Collections.<String>emptyList(),
+                Collections.singletonList("Other.java"));
+        final ProcessedFilesCheck fileCheck = configure(new ProcessedFilesCheck());
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(fileCheck);
+        checker.addListener(recorder);
+        checker.setChangeSet(changeSet, true);
+
+        final int errors = checker.process(Collections.singletonList(unchanged));
+
+        assertWithMessage("Unchanged file should be skipped")
+                .that(fileCheck.getProcessedFiles())
+                .isEmpty();
+        assertWithMessage("File events should not be fired for skipped files")
+                .that(recorder.getStartedFiles())
+                .isEmpty();
+        assertEquals(0, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testChangedLinesOnlyWithoutChangeSet() throws Exception {
+        final File file = createFileWithLines(temporaryFolder.newFolder(), "File.java");
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(configure(new ProcessedFilesCheck()));
+        checker.addListener(recorder);
+        checker.setChangeSet(null, true);
+
+        final int errors = checker.process(Collections.singletonList(file));
+
+        assertWithMessage("All violations should be reported without a change set")
+                .that(recorder.getViolations())
+                .containsExactly(file.getPath() + ":1", file.getPath() + ":3");
+        assertEquals(2, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testAsyncListenerQueueSize() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File first = createFileWithLines(folder, "First.java");
+        final File second = createFileWithLines(folder, "Second.java");
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(configure(new ProcessedFilesCheck()));
+        checker.addListener(recorder);
+        checker.setAsyncListenerQueueSize(1);
+
+        final int errors = checker.process(Arrays.asList(first, second));
+
+        assertWithMessage("Events should be passed in order")
+                .that(recorder.getViolations())
+                .containsExactly(first.getPath() + ":1", first.getPath() + ":3",
+                        second.getPath() + ":1", second.getPath() + ":3").inOrder();
+        assertWithMessage("Invalid started files")
+                .that(recorder.getStartedFiles())
+                .containsExactly(first.getPath(), second.getPath()).inOrder();
+        assertEquals(4, errors, "Invalid error count");
+        assertSame(Whitebox.getInternalState(checker, "listeners"),
+                Whitebox.getInternalState(checker, "dispatchedListeners"),
+                "Listeners should be notified synchronously after the audit");
+    }
+
+    @Test
+    public void testAsyncListenerException() throws Exception {
+        final File file = createFileWithLines(temporaryFolder.newFolder(), "File.java");
+        final IllegalStateException exception = new IllegalStateException("test");
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(configure(new ProcessedFilesCheck()));
+        checker.addListener(new ViolationRecorder() {
+            @Override
+            public void fileFinished(AuditEvent event) {
+                throw exception;
+            }
+        });
+        checker.setAsyncListenerQueueSize(1);
+
+        try {
+            checker.process(Collections.singletonList(file));
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertSame(exception, ex,
+                    "Exception of the listener should be rethrown");
+        }
+    }
+
+    @Test
+    public void testAsyncListenerWithoutListeners() throws Exception {
+        final File file = createFileWithLines(temporaryFolder.newFolder(), "File.java");
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(configure(new ProcessedFilesCheck()));
+        checker.setAsyncListenerQueueSize(1);
+
+        assertEquals(2, checker.process(Collections.singletonList(file)),
+                "Invalid error count");
+    }
+
+    @Test
+    public void testAsyncListenerStoppedOnException() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(CheckWhichThrowsError.class);
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(checkConfig);
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addProperty("asyncListenerQueueSize", "4");
+        final Checker checker = createChecker(checkerConfig);
+        final ViolationRecorder recorder = new ViolationRecorder();
+        checker.addListener(recorder);
+
+        final String filePath = getPath("InputChecker.java");
+        try {
+            checker.process(Collections.singletonList(new File(filePath)));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Exception was thrown while processing " + filePath, ex.getMessage(),
+                    "Error message is not expected");
+        }
+        assertWithMessage("Queued events should be passed to the listeners")
+                .that(recorder.getStartedFiles())
+                .containsExactly(filePath);
+    }
+
+    @Test
+    public void testInvalidAsyncListenerQueueSize() {
+        final Checker checker = new Checker();
+        try {
+            checker.setAsyncListenerQueueSize(-1);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid async listener queue size: -1", ex.getMessage(),
+                    "Invalid exception message");
+        }
+    }
+
+    @Test
+    public void testViolationBudgetOfErrors() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File first = createFileWithLines(folder, "First.java");
+        final File second = createFileWithLines(folder, "Second.java");
+        final File third = createFileWithLines(folder, "Third.java");
+        final ProcessedFilesCheck check = configure(new ProcessedFilesCheck());
+        final ViolationRecorder recorder = new ViolationRecorder();
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(check);
+        checker.addListener(recorder);
+        checker.setViolationBudget(3, 0);
+
+        final int errors = checker.process(Arrays.asList(first, second, third));
+
+        assertWithMessage("Files after the exceeded budget should be skipped")
+                .that(check.getProcessedFiles())
+                .containsExactly("First.java", "Second.java").inOrder();
+        assertWithMessage("Invalid started files")
+                .that(recorder.getStartedFiles())
+                .containsExactly(first.getPath(), second.getPath()).inOrder();
+        assertEquals(4, errors, "Invalid error count");
+        assertEquals(1, checker.getUncheckedFileCount(), "Invalid unchecked file count");
+
+        checker.process(Collections.singletonList(third));
+        assertEquals(0, checker.getUncheckedFileCount(),
+                "Unchecked file count should be reset by the audit");
+    }
+
+    @Test
+    public void testViolationBudgetOfWarnings() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File first = createFileWithLines(folder, "First.java");
+        final File second = createFileWithLines(folder, "Second.java");
+        final ProcessedFilesCheck check = new ProcessedFilesCheck();
+        final DefaultConfiguration checkConfig =
+                new DefaultConfiguration(ProcessedFilesCheck.class.getSimpleName());
+        checkConfig.addProperty("severity", "warning");
+        check.configure(checkConfig);
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(check);
+        checker.setAsyncListenerQueueSize(1);
+        checker.addListener(new ViolationRecorder());
+        checker.setViolationBudget(0, 1);
+
+        final int errors = checker.process(Arrays.asList(first, second));
+
+        assertWithMessage("Files after the exceeded budget should be skipped")
+                .that(check.getProcessedFiles())
+                .containsExactly("First.java");
+        assertEquals(0, errors, "Invalid error count");
+        assertEquals(1, checker.getUncheckedFileCount(), "Invalid unchecked file count");
+    }
+
+    @Test
+    public void testViolationBudgetNotExceeded() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final File first = createFileWithLines(folder, "First.java");
+        final File second = createFileWithLines(folder, "Second.java");
+        final ProcessedFilesCheck check = configure(new ProcessedFilesCheck());
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(check);
+        checker.setViolationBudget(4, 0);
+
+        final int errors = checker.process(Arrays.asList(first, second));
+
+        assertWithMessage("All files should be processed")
+                .that(check.getProcessedFiles())
+                .containsExactly("First.java", "Second.java");
+        assertEquals(4, errors, "Invalid error count");
+        assertEquals(0, checker.getUncheckedFileCount(), "Invalid unchecked file count");
+    }
+
+    @Test
+    public void testInvalidViolationBudget() {
+        final Checker checker = new Checker();
+        try {
+            checker.setViolationBudget(1, -1);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid violation budget: 1 errors, -1 warnings", ex.getMessage(),
+                    "Invalid exception message");
+        }
+        try {
+            checker.setViolationBudget(-1, 1);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid violation budget: -1 errors, 1 warnings", ex.getMessage(),
+                    "Invalid exception message");
+        }
+    }
+
+    @Test
+    public void testIsPartitionable() throws Exception {
+        final Checker checker = new Checker();
+        checker.addFileSetCheck(configure(new ProcessedFilesCheck()));
+        assertTrue(checker.isPartitionable(), "Checker should be partitionable");
+
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addProperty("cacheFile",
+                File.createTempFile("junit", null, temporaryFolder.newFolder()).getPath());
+        final Checker cachingChecker = new Checker();
+        cachingChecker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        cachingChecker.configure(checkerConfig);
+        assertFalse(cachingChecker.isPartitionable(),
+                "Checker with a cache file should not be partitionable");
+
+        final Checker globalChecker = new Checker();
+        globalChecker.addFileSetCheck(configure(new TranslationCheck()));
+        assertFalse(globalChecker.isPartitionable(),
+                "Checker with a global stateful check should not be partitionable");
+    }
+
+    private static <T extends AbstractFileSetCheck> T configure(T check)
+            throws CheckstyleException {
+        check.configure(new DefaultConfiguration(check.getClass().getSimpleName()));
+        return check;
+    }
+
+    private static ChangeSet createChangeSet(File folder, String commit, String hunk) {
+        return ChangeSet.parse(folder, commit, Arrays.asList(
+                "diff --git a/Changed.java b/Changed.java",
+                "--- a/Changed.java",
+                "+++ b/Changed.java",
+                hunk), Collections.<String>emptyList());
+    }
+
+    private static Checker createCachingChecker(File cacheFile, AuditListener listener)
+            throws CheckstyleException {
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        checker.addFileSetCheck(configure(new ProcessedFilesCheck()));
+        checker.addListener(listener);
+        return checker;
+    }
+
+    private static File createFileWithLines(File folder, String name) throws IOException {
+        final File file = new File(folder, name);
+        Files7.write(new Path(file), "a\nb\nc\n".getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
     public static class DummyFilter implements Filter {
 
         @Override
@@ -1780,6 +2207,94 @@ public class CheckerTest extends AbstractModuleTestSupport {
 
     }
 
+    public static class ProcessedFilesCheck extends AbstractFileSetCheck {
+
+        private final List<String> processedFiles = new ArrayList<String>();
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            processedFiles.add(file.getName());
+            log(1, "first");
+            log(3, "third");
+        }
+
+        public List<String> getProcessedFiles() {
+            return Collections.unmodifiableList(processedFiles);
+        }
+
+    }
+
+    @GlobalStatefulCheck
+    public static class GlobalProcessedFilesCheck extends ProcessedFilesCheck {
+        // only differs by the annotation
+    }
+
+    public static class BytesCheck extends AbstractFileSetCheck {
+
+        private final List<Boolean> bytesKept = new ArrayList<Boolean>();
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            bytesKept.add(fileText.getBytes() != null);
+        }
+
+        public List<Boolean> getBytesKept() {
+            return Collections.unmodifiableList(bytesKept);
+        }
+
+    }
+
+    @RawBytesCheck
+    public static class RawBytesCheckStub extends BytesCheck {
+        // only differs by the annotation
+    }
+
+    public static class ViolationRecorder implements AuditListener {
+
+        private final List<String> violations = new ArrayList<String>();
+
+        private final List<String> startedFiles = new ArrayList<String>();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // not needed
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // not needed
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            startedFiles.add(event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            // not needed
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            violations.add(event.getFileName() + ":" + event.getLine());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            // not needed
+        }
+
+        public List<String> getViolations() {
+            return Collections.unmodifiableList(violations);
+        }
+
+        public List<String> getStartedFiles() {
+            return Collections.unmodifiableList(startedFiles);
+        }
+
+    }
+
     public static class VerifyPositionAfterTabFileSet extends AbstractFileSetCheck {
 
         @Override
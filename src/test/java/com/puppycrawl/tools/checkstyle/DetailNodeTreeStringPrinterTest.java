@@ -28,6 +28,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
 
 import org.junit.Test;
@@ -61,6 +63,19 @@ public class DetailNodeTreeStringPrinterTest extends AbstractTreeTestSupport {
                 getPath("InputDetailNodeTreeStringPrinterJavadocComment.javadoc"));
     }
 
+    @Test
+    public void testPrintFileAstToWriter() throws Exception {
+        final File input =
+                new File(getPath("InputDetailNodeTreeStringPrinterJavadocComment.javadoc"));
+        final StringWriter result = new StringWriter();
+        final PrintWriter writer = new PrintWriter(result);
+        DetailNodeTreeStringPrinter.printFileAst(input, writer);
+        writer.flush();
+
+        assertEquals(readFile(getPath("ExpectedDetailNodeTreeStringPrinterJavadocComment.txt")),
+                toLfLineEnding(result.toString()), "Printed tree is invalid");
+    }
+
     @Test
     public void testParseFileWithError() throws Exception {
         final File file = new File(
@@ -30,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -37,8 +38,11 @@ import org.junit.Test;
 import antlr.NoViableAltException;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 import com.puppycrawl.tools.checkstyle.jre6.util.Optional;
 import com.puppycrawl.tools.checkstyle.jre6.util.function.Predicate;
 
@@ -186,6 +190,72 @@ public class JavaParserTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testTokenize() throws Exception {
+        final FileText text = new FileText(
+                new File(getPath("InputJavaParserHiddenComments.java")).getAbsoluteFile(),
+                StandardCharsets.UTF_8.name());
+        final DetailAST first = JavaParser.tokenize(new FileContents(text));
+        final DetailAST root = JavaParser.parseFileText(text, JavaParser.Options.WITH_COMMENTS);
+        final int[] types = {
+            TokenTypes.IDENT, TokenTypes.SEMI,
+            TokenTypes.SINGLE_LINE_COMMENT, TokenTypes.BLOCK_COMMENT_BEGIN,
+            TokenTypes.COMMENT_CONTENT, TokenTypes.BLOCK_COMMENT_END,
+        };
+        for (int type : types) {
+            final List<String> tokens = new ArrayList<String>();
+            for (DetailAST token = first; token != null; token = token.getNextSibling()) {
+                assertNull(token.getParent(), "Token should not have a parent");
+                addNodes(token, type, tokens);
+            }
+            final List<String> nodes = new ArrayList<String>();
+            for (DetailAST node = root; node != null; node = node.getNextSibling()) {
+                addNodes(node, type, nodes);
+            }
+            assertFalse(nodes.isEmpty(), "Input should contain " + type);
+            Collections.sort(tokens);
+            Collections.sort(nodes);
+            assertEquals(nodes, tokens, "Invalid tokens of type " + type);
+        }
+    }
+
+    @Test
+    public void testTokenizeEmptyFile() throws Exception {
+        final FileText text = new FileText(new File("Empty.java"), new ArrayList<String>());
+        assertNull(JavaParser.tokenize(new FileContents(text)), "Empty file has no tokens");
+    }
+
+    @Test
+    public void testTokenizeException() throws Exception {
+        final FileText text = new FileText(new File("Test.java"),
+                Arrays.asList("class a%$# {}"));
+        try {
+            JavaParser.tokenize(new FileContents(text));
+            fail("exception expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("TokenStreamRecognitionException occurred while lexing file Test.java.",
+                    ex.getMessage(), "Invalid exception message");
+        }
+    }
+
+    /**
+     * Adds the position and text of all nodes of the given type in a subtree.
+     *
+     * @param ast the root of the subtree
+     * @param type the token type
+     * @param result the list to add the nodes to
+     */
+    private static void addNodes(DetailAST ast, int type, List<String> result) {
+        if (ast.getType() == type) {
+            result.add(ast.getLineNo() + ":" + ast.getColumnNo() + " " + ast.getText());
+        }
+        for (DetailAST child = ast.getFirstChild(); child != null;
+                child = child.getNextSibling()) {
+            addNodes(child, type, result);
+        }
+    }
+
     @Test
     public void testComments() throws Exception {
         final DetailAST root =
@@ -33,17 +33,22 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
+import org.eclipse.jgit.api.Git;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -74,12 +79,14 @@ public class MainTest {
             + "Try 'checkstyle --help' for more information.%n");
 
     private static final String USAGE = String.format(Locale.ROOT,
-          "Usage: checkstyle [-dEghjJtTV] [-b=<xpath>] [-c=<configurationFile>] "
-                  + "[-f=<format>]%n"
-                  + "                  [-o=<outputPath>] [-p=<propertiesFile>] "
-                  + "[-s=<suppressionLineColumnNumber>]%n"
-                  + "                  [-w=<tabWidth>] [-e=<exclude>]... [-x=<excludeRegex>]... "
-                  + "<files>...%n"
+          "Usage: checkstyle [-dEghjJltTV] [--merge-reports] [--shard-by-size] [-b=<xpath>]%n"
+                  + "                  [-c=<configurationFile>] [-f=<format>]"
+                  + " [--max-errors=<number>] [-o=<outputPath>]%n"
+                  + "                  [-p=<propertiesFile>] [-r=<ref>]"
+                  + " [-s=<suppressionLineColumnNumber>]%n"
+                  + "                  [--shard=<i/N>] [-w=<tabWidth>] [-e=<exclude>]..."
+                  + " [-x=<excludeRegex>]...%n"
+                  + "                  <files>...%n"
                   + "Checkstyle verifies that the specified source code files adhere to the"
                   + " specified rules. By default%n"
                   + "violations are reported to standard out in plain format. Checkstyle requires"
@@ -124,9 +131,10 @@ public class MainTest {
                   + "                              Javadoc comment content without including"
                   + " '/**' and '*/' at the%n"
                   + "                              beginning and at the end respectively. The"
-                  + " option cannot be used%n"
-                  + "                              other options and requires exactly one file"
-                  + " to run on to be specified.%n"
+                  + " option cannot be used with%n"
+                  + "                              other options except -o and requires exactly"
+                  + " one file to run on to be%n"
+                  + "                              specified.%n"
                   + "  -J, --treeWithJavadoc     Prints Abstract Syntax Tree(AST) with Javadoc"
                   + " nodes and comment nodes%n"
                   + "                              of the checked file. Attention that line number"
@@ -135,10 +143,34 @@ public class MainTest {
                   + " that each javadoc comment%n"
                   + "                              is parsed separately from java file. The"
                   + " option cannot be used with%n"
-                  + "                              other options and requires exactly one file to"
-                  + " run on to be specified.%n"
+                  + "                              other options except -o and requires exactly"
+                  + " one file to run on to be%n"
+                  + "                              specified.%n"
+                  + "  -l, --changed-lines       Reports only violations on lines changed"
+                  + " relative to the revision given%n"
+                  + "                              with --diff-base.%n"
+                  + "      --max-errors=<number> Stops checking files as soon as more errors"
+                  + " than the given number are%n"
+                  + "                              found. The file being checked is finished and"
+                  + " the remaining files are%n"
+                  + "                              skipped.%n"
+                  + "      --merge-reports       Merges the reports given instead of files to"
+                  + " check, like the reports of%n"
+                  + "                              the shards of an audit, into one report. The"
+                  + " reports have to be in%n"
+                  + "                              the format given with -f option, xml or sarif."
+                  + " Files are ordered by%n"
+                  + "                              path, which may differ from the order they were"
+                  + " given to the audits%n"
+                  + "                              in. Output location can be specified with -o"
+                  + " option.%n"
                   + "  -o=<outputPath>           Sets the output file. Defaults to stdout.%n"
                   + "  -p=<propertiesFile>       Sets the property files to load.%n"
+                  + "  -r, --diff-base=<ref>     Checks only files changed relative to the given"
+                  + " git revision, including%n"
+                  + "                              uncommitted and untracked files. Checks"
+                  + " annotated with%n"
+                  + "                              @GlobalStatefulCheck still process all files.%n"
                   + "  -s=<suppressionLineColumnNumber>%n"
                   + "                            Prints xpath suppressions at the file's line and"
                   + " column position.%n"
@@ -158,16 +190,26 @@ public class MainTest {
                   + " but might result in%n"
                   + "                              undesirable matching and suppress other"
                   + " issues.%n"
+                  + "      --shard=<i/N>         Checks only the i-th of N shards of the files,"
+                  + " to split an audit across%n"
+                  + "                              processes. Files are assigned to shards by a"
+                  + " hash of their path%n"
+                  + "                              relative to the current directory.%n"
+                  + "      --shard-by-size       Assigns the files to shards so the total size"
+                  + " of the files of the%n"
+                  + "                              shards is balanced. Used only with --shard"
+                  + " option.%n"
                   + "  -t, --tree                Prints Abstract Syntax Tree(AST) of the checked"
                   + " file. The option cannot%n"
-                  + "                              be used other options and requires exactly one"
-                  + " file to run on to be%n"
-                  + "                              specified.%n"
+                  + "                              be used with other options except -o and"
+                  + " requires exactly one file to%n"
+                  + "                              run on to be specified.%n"
                   + "  -T, --treeWithComments    Prints Abstract Syntax Tree(AST) with comment"
                   + " nodes of the checked%n"
                   + "                              file. The option cannot be used with other"
-                  + " options and requires%n"
-                  + "                              exactly one file to run on to be specified.%n"
+                  + " options except -o and%n"
+                  + "                              requires exactly one file to run on to be"
+                  + " specified.%n"
                   + "  -V, --version             Print version information and exit.%n"
                   + "  -w, --tabWidth=<tabWidth> Sets the length of the tab character. Used only"
                   + " with -s option. Default%n"
@@ -676,6 +718,24 @@ public class MainTest {
                 getPath("InputMain.java"));
     }
 
+    @Test
+    public void testCompressedSarifOutputFile() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "output.sarif.gz");
+        Main.main("-c", getPath("InputMainConfig-classname.xml"),
+                "-f", "sarif",
+                "-o", file.getCanonicalPath(),
+                getPath("InputMain.java"));
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8));
+        try {
+            assertEquals("{", reader.readLine(), "Report should be compressed");
+        }
+        finally {
+            reader.close();
+        }
+        assertEquals("", systemOut.getLog(), "Unexpected output log");
+    }
+
     @Test
     public void testCreateNonExistentOutputFile() throws Exception {
         final String outputFile = temporaryFolder.getRoot().getCanonicalPath() + "nonexistent.out";
@@ -1650,7 +1710,7 @@ public class MainTest {
     }
 
     @Test
-    public void testConflictingOptionsTvsO() throws Exception {
+    public void testConflictingOptionsBvsO() throws Exception {
         final File file = temporaryFolder.newFile("file.output");
 
         exit.expectSystemExitWithStatus(-1);
@@ -1663,7 +1723,47 @@ public class MainTest {
             }
         });
 
-        Main.main("-o", file.getCanonicalPath(), "-t", getPath(""));
+        Main.main("-o", file.getCanonicalPath(), "-b", "/CLASS_DEF", getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testPrintTreeToOutputFile() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "tree.txt");
+        final File input = new File(getPath("InputMain.java"));
+
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() throws IOException, CheckstyleException {
+                assertEquals("", systemOut.getLog(), "Unexpected output log");
+                assertEquals("", systemErr.getLog(), "Unexpected system error log");
+                final String expected = AstTreeStringPrinter.printFileAst(input,
+                        JavaParser.Options.WITH_COMMENTS);
+                assertEquals(expected, new String(Files7.readAllBytes(Paths.get(file.getPath())),
+                        System.getProperty("file.encoding", StandardCharsets.UTF_8.name())),
+                        "Unexpected tree in the output file");
+            }
+        });
+
+        Main.main("-o", file.getCanonicalPath(), "-T", input.getPath());
+    }
+
+    @Test
+    public void testPrintJavadocTreeToOutputFile() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "javadocTree.txt");
+        final File input = new File(getPath("InputMainJavadocComment.javadoc"));
+
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() throws IOException {
+                assertEquals("", systemOut.getLog(), "Unexpected output log");
+                assertEquals(DetailNodeTreeStringPrinter.printFileAst(input),
+                        new String(Files7.readAllBytes(Paths.get(file.getPath())),
+                        System.getProperty("file.encoding", StandardCharsets.UTF_8.name())),
+                        "Unexpected tree in the output file");
+            }
+        });
+
+        Main.main("-o", file.getCanonicalPath(), "-j", input.getPath());
     }
 
     @Test
@@ -1766,6 +1866,305 @@ public class MainTest {
         assertTrue(TestRootModuleChecker.isDestroyed(), "RootModule should be destroyed");
     }
 
+    @Test
+    public void testChangedLinesWithoutDiffBase() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals("Option '--changed-lines' requires '--diff-base'."
+                        + System7.lineSeparator(), systemOut.getLog(), "Unexpected output log");
+                assertEquals("", systemErr.getLog(), "Unexpected system error log");
+            }
+        });
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"), "--changed-lines",
+                getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testDiffBase() throws Exception {
+        final File root = createRepositoryWithChanges();
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"), "--diff-base", "HEAD",
+                root.getPath());
+        final String changedPath = new File(root, "Changed.java").getPath();
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                "[WARN] " + changedPath + ":1:7: " + getInvalidPatternMessage("First")
+                        + " [TypeName]",
+                "[WARN] " + changedPath + ":2:7: " + getInvalidPatternMessage("Added")
+                        + " [TypeName]",
+                auditFinishMessage.getViolation()),
+                systemOut.getLog(), "Unexpected output log");
+        assertEquals("", systemErr.getLog(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testDiffBaseChangedLines() throws Exception {
+        final File root = createRepositoryWithChanges();
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"), "--diff-base", "HEAD",
+                "--changed-lines", root.getPath());
+        final String changedPath = new File(root, "Changed.java").getPath();
+        assertEquals(addEndOfLine(auditStartMessage.getViolation(),
+                "[WARN] " + changedPath + ":2:7: " + getInvalidPatternMessage("Added")
+                        + " [TypeName]",
+                auditFinishMessage.getViolation()),
+                systemOut.getLog(), "Unexpected output log");
+        assertEquals("", systemErr.getLog(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testDiffBaseCustomRootModule() throws Exception {
+        TestRootModuleChecker.reset();
+        final File root = createRepositoryWithChanges();
+        Main.main("-c", getPath("InputMainConfig-custom-root-module.xml"),
+                "--diff-base", "HEAD", root.getPath());
+        assertWithMessage("Only changed files should be passed to the root module")
+                .that(TestRootModuleChecker.getFilesToCheck())
+                .containsExactly(new File(root, "Changed.java"));
+    }
+
+    @Test
+    public void testDiffBaseInvalidRevision() throws Exception {
+        exit.expectSystemExitWithStatus(-2);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertWithMessage("Unexpected system error log")
+                        .that(systemErr.getLog())
+                        .contains("nonexistent-revision");
+            }
+        });
+        final File root = createRepositoryWithChanges();
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"),
+                "--diff-base", "nonexistent-revision", root.getPath());
+    }
+
+    @Test
+    public void testShardsMergedLikeUnshardedAudit() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        for (String name : new String[] {"A", "B", "C", "D", "E"}) {
+            final File folder = new File(root, name.toLowerCase(Locale.ROOT));
+            assertTrue(folder.mkdir(), "Folder should be created");
+            Files7.write(new Path(new File(folder, name + ".java")),
+                    ("class " + name + " {}\n").getBytes(StandardCharsets.UTF_8));
+        }
+        final File output = temporaryFolder.newFolder();
+        for (String format : new String[] {"xml", "sarif"}) {
+            final String unsharded = new File(output, "all." + format).getPath();
+            Main.main("-c", getPath("InputMainConfig-classname2.xml"), "-f", format,
+                    "-o", unsharded, root.getPath());
+            final List<String> shards = new ArrayList<String>();
+            for (int shard = 1; shard <= 3; shard++) {
+                final String report = new File(output, shard + "." + format).getPath();
+                Main.main("-c", getPath("InputMainConfig-classname2.xml"), "-f", format,
+                        "-o", report, "--shard", shard + "/3", "--shard-by-size",
+                        root.getPath());
+                shards.add(report);
+            }
+            final String merged = new File(output, "merged." + format).getPath();
+            final List<String> args = new ArrayList<String>();
+            args.addAll(Arrays.asList("--merge-reports", "-f", format, "-o", merged));
+            args.addAll(shards);
+            Main.main(args.toArray(new String[0]));
+
+            assertEquals(Files7.toString(new File(unsharded), StandardCharsets.UTF_8),
+                    Files7.toString(new File(merged), StandardCharsets.UTF_8),
+                    "Merged " + format + " report should be equal to the unsharded one");
+        }
+        assertEquals("", systemErr.getLog(), "Unexpected system error log");
+    }
+
+    @Test
+    public void testMergeReportsErrorCount() throws Exception {
+        final File report = temporaryFolder.newFile("report.xml");
+        Files7.write(new Path(report), addEndOfLine(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<checkstyle version=\"1\">",
+                "<file name=\"B.java\">",
+                "<error line=\"1\" severity=\"error\" message=\"a\" source=\"a\"/>",
+                "<error line=\"2\" severity=\"warning\" message=\"b\" source=\"b\"/>",
+                "</file>",
+                "<file name=\"A.java\">",
+                "<error line=\"1\" severity=\"error\" message=\"c\" source=\"c\"/>",
+                "</file>",
+                "</checkstyle>").getBytes(StandardCharsets.UTF_8));
+        exit.expectSystemExitWithStatus(2);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(addEndOfLine(
+                        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                        "<checkstyle version=\"1\">",
+                        "<file name=\"A.java\">",
+                        "<error line=\"1\" severity=\"error\" message=\"c\" source=\"c\"/>",
+                        "</file>",
+                        "<file name=\"B.java\">",
+                        "<error line=\"1\" severity=\"error\" message=\"a\" source=\"a\"/>",
+                        "<error line=\"2\" severity=\"warning\" message=\"b\" source=\"b\"/>",
+                        "</file>",
+                        "</checkstyle>"), systemOut.getLog(), "Unexpected output log");
+                assertEquals(addEndOfLine("Checkstyle ends with 2 errors."),
+                        systemErr.getLog(), "Unexpected system error log");
+            }
+        });
+        Main.main("--merge-reports", "-f", "xml", report.getPath());
+    }
+
+    @Test
+    public void testMergeReportsWithoutFormat() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(addEndOfLine(
+                        "Option '--merge-reports' requires '-f xml' or '-f sarif'."),
+                        systemOut.getLog(), "Unexpected output log");
+            }
+        });
+        Main.main("--merge-reports", getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testMergeReportsWithOtherOptions() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(addEndOfLine(
+                        "Option '--merge-reports' cannot be used with other options."),
+                        systemOut.getLog(), "Unexpected output log");
+            }
+        });
+        Main.main("--merge-reports", "-f", "xml", "--shard", "1/2", getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testMergeReportsInvalidReport() throws Exception {
+        exit.expectSystemExitWithStatus(-2);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertWithMessage("Unexpected system error log")
+                        .that(systemErr.getLog())
+                        .contains("Not a SARIF report: ");
+            }
+        });
+        Main.main("--merge-reports", "-f", "sarif", getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testShardBySizeWithoutShard() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(addEndOfLine("Option '--shard-by-size' requires '--shard'."),
+                        systemOut.getLog(), "Unexpected output log");
+            }
+        });
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"), "--shard-by-size",
+                getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testMaxErrors() throws Exception {
+        exit.expectSystemExitWithStatus(2);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() throws IOException {
+                final String expectedPath = getFilePath("InputMain.java");
+                final String log = systemOut.getLog();
+                assertTrue(log.contains(expectedPath + ":3:14: "),
+                        "First file should be checked: " + log);
+                assertFalse(log.contains(getFilePath("InputMain1.java")),
+                        "Second file should not be checked: " + log);
+                assertEquals(addEndOfLine("Stopped the audit as the maximum number of errors "
+                        + "was exceeded, 1 files were not checked.",
+                        "Checkstyle ends with 2 errors."),
+                        systemErr.getLog(), "Unexpected system error log");
+            }
+        });
+        Main.main("-c", getPath("InputMainConfig-classname2-error.xml"), "--max-errors", "1",
+                getPath("InputMain.java"), getPath("InputMain1.java"));
+    }
+
+    @Test
+    public void testMaxErrorsNotExceeded() throws Exception {
+        exit.expectSystemExitWithStatus(3);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(addEndOfLine("Checkstyle ends with 3 errors."),
+                        systemErr.getLog(), "Unexpected system error log");
+            }
+        });
+        Main.main("-c", getPath("InputMainConfig-classname2-error.xml"), "--max-errors", "2",
+                getPath("InputMain.java"), getPath("InputMain1.java"));
+    }
+
+    @Test
+    public void testNegativeMaxErrors() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(addEndOfLine("Option '--max-errors' requires a non-negative number."),
+                        systemOut.getLog(), "Unexpected output log");
+            }
+        });
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"), "--max-errors", "-1",
+                getPath("InputMain.java"));
+    }
+
+    @Test
+    public void testInvalidShard() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format(Locale.ROOT, "Invalid value for option '--shard': "
+                        + "Invalid shard '0/2', expected i/N with 1 <= i <= N.%n") + SHORT_USAGE,
+                        systemErr.getLog(), "Unexpected system error log");
+            }
+        });
+        Main.main("-c", getPath("InputMainConfig-classname2.xml"), "--shard", "0/2",
+                getPath("InputMain.java"));
+    }
+
+    /**
+     * Creates a git repository with a committed file which is changed afterwards
+     * and one which stays unchanged.
+     *
+     * @return the root of the repository
+     * @throws Exception if the repository could not be created
+     */
+    private File createRepositoryWithChanges() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        final File changed = new File(root, "Changed.java");
+        Files7.write(new Path(changed), "class First {}\n".getBytes(StandardCharsets.UTF_8));
+        Files7.write(new Path(new File(root, "Unchanged.java")),
+                "class Unchanged {}\n".getBytes(StandardCharsets.UTF_8));
+        final Git git = Git.init().setDirectory(root).call();
+        try {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("initial")
+                    .setAuthor("author", "author@example.com")
+                    .setCommitter("author", "author@example.com")
+                    .call();
+        }
+        finally {
+            git.getRepository().close();
+        }
+        Files7.write(new Path(changed),
+                "class First {}\nclass Added {}\n".getBytes(StandardCharsets.UTF_8));
+        return root;
+    }
+
+    private String getInvalidPatternMessage(String name) {
+        return new Violation(1, "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {name, "^[a-z0-9]*$"},
+                null, getClass(), null).getViolation();
+    }
+
     @Test
     public void testCustomSimpleRootModule() throws Exception {
         exit.expectSystemExitWithStatus(-2);
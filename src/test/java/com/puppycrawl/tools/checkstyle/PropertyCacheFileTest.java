@@ -91,6 +91,19 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         assertFalse(cache.isInCache("myFile1", 1), "Should return false when file is not in cache");
     }
 
+    @Test
+    public void testPutValue() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder.newFolder())
+                .getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.put("myValue", "value");
+        assertEquals("value", cache.get("myValue"), "Invalid value");
+        cache.reset();
+        assertNull(cache.get("myValue"), "Value should be removed by reset");
+    }
+
     @Test
     public void testResetIfFileDoesNotExist() throws IOException {
         final Configuration config = new DefaultConfiguration("myName");
@@ -0,0 +1,308 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
+import com.puppycrawl.tools.checkstyle.jre6.file.Path;
+import com.puppycrawl.tools.checkstyle.jre6.lang.System7;
+
+public class ReportMergerTest {
+
+    /** Files in the order of an audit of the whole file set. */
+    private static final String[] FILES = {
+        "a/B.java", "a/b/C.java", "a-b/D.java", "a.java",
+    };
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testComparePaths() {
+        assertTrue(ReportMerger.comparePaths("a/B.java", "a/b/C.java") < 0,
+                "Files should be ordered by their names");
+        assertTrue(ReportMerger.comparePaths("a/b/C.java", "a-b/D.java") < 0,
+                "Files should be ordered directory by directory");
+        assertTrue(ReportMerger.comparePaths("a-b\\D.java", "a.java") < 0,
+                "Backslashes should separate directories");
+        assertTrue(ReportMerger.comparePaths("a/b", "a") > 0,
+                "Longer path should be ordered after its prefix");
+        assertEquals(0, ReportMerger.comparePaths("a/b", "a\\b"), "Paths should be equal");
+    }
+
+    @Test
+    public void testMergeXml() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final int expectedErrors = audit(
+                new XMLLogger(expected, OutputStreamOptions.CLOSE), FILES, true);
+        final File first = temporaryFolder.newFile("first.xml");
+        final File second = temporaryFolder.newFile("second.xml");
+        audit(new XMLLogger(Files7.newOutputStream(new Path(first)), OutputStreamOptions.CLOSE),
+                new String[] {FILES[1], FILES[3]}, true);
+        audit(new XMLLogger(Files7.newOutputStream(new Path(second)),
+                OutputStreamOptions.CLOSE), new String[] {FILES[0], FILES[2]}, false);
+
+        final StringWriter merged = new StringWriter();
+        final int errors = ReportMerger.mergeXml(Arrays.asList(first, second), merged);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8.name()), merged.toString(),
+                "Merged report should be equal to the report of the whole file set");
+        assertEquals(expectedErrors, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testMergeSarif() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final int expectedErrors = audit(
+                new SarifLogger(expected, OutputStreamOptions.CLOSE), FILES, true);
+        final File first = temporaryFolder.newFile("first.sarif.gz");
+        final File second = temporaryFolder.newFile("second.sarif");
+        final File empty = temporaryFolder.newFile("empty.sarif");
+        audit(new SarifLogger(Files7.newOutputStream(new Path(first)),
+                OutputStreamOptions.CLOSE, true), new String[] {FILES[1], FILES[3]}, true);
+        audit(new SarifLogger(Files7.newOutputStream(new Path(second)),
+                OutputStreamOptions.CLOSE), new String[] {FILES[0], FILES[2]}, false);
+        audit(new SarifLogger(Files7.newOutputStream(new Path(empty)),
+                OutputStreamOptions.CLOSE), new String[0], false);
+
+        final StringWriter merged = new StringWriter();
+        final int errors = ReportMerger.mergeSarif(Arrays.asList(empty, first, second), merged);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8.name()), merged.toString(),
+                "Merged report should be equal to the report of the whole file set");
+        assertEquals(expectedErrors, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testMergeEmptySarif() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        audit(new SarifLogger(expected, OutputStreamOptions.CLOSE), new String[0], false);
+        final File report = temporaryFolder.newFile("report.sarif");
+        Files7.write(new Path(report), expected.toByteArray());
+
+        final StringWriter merged = new StringWriter();
+        ReportMerger.mergeSarif(Arrays.asList(report, report), merged);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8.name()), merged.toString(),
+                "Merged report should be empty");
+    }
+
+    @Test
+    public void testMergeReformattedXml() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final int expectedErrors = audit(
+                new XMLLogger(expected, OutputStreamOptions.CLOSE), FILES, true);
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        audit(new XMLLogger(first, OutputStreamOptions.CLOSE),
+                new String[] {FILES[1], FILES[3]}, true);
+        audit(new XMLLogger(second, OutputStreamOptions.CLOSE),
+                new String[] {FILES[0], FILES[2]}, false);
+        final File firstReport = temporaryFolder.newFile("first.xml");
+        final File secondReport = temporaryFolder.newFile("second.xml");
+        writeReformattedXml(first, firstReport);
+        writeReformattedXml(second, secondReport);
+
+        final StringWriter merged = new StringWriter();
+        final int errors = ReportMerger.mergeXml(
+                Arrays.asList(firstReport, secondReport), merged);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8.name()), merged.toString(),
+                "Merged report should not depend on the layout of the reports");
+        assertEquals(expectedErrors, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testMergeReformattedSarif() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final int expectedErrors = audit(
+                new SarifLogger(expected, OutputStreamOptions.CLOSE), FILES, true);
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        audit(new SarifLogger(first, OutputStreamOptions.CLOSE),
+                new String[] {FILES[1], FILES[3]}, true);
+        audit(new SarifLogger(second, OutputStreamOptions.CLOSE),
+                new String[] {FILES[0], FILES[2]}, false);
+        final File firstReport = temporaryFolder.newFile("first.sarif");
+        final File secondReport = temporaryFolder.newFile("second.sarif");
+        // strings escape line breaks, so all line breaks are layout
+        Files7.write(new Path(firstReport), first.toString(StandardCharsets.UTF_8.name())
+                .replaceAll("\\n\\s*", "").getBytes(StandardCharsets.UTF_8));
+        Files7.write(new Path(secondReport), second.toString(StandardCharsets.UTF_8.name())
+                .replaceAll("\\n\\s*", "\r\n\t").getBytes(StandardCharsets.UTF_8));
+
+        final StringWriter merged = new StringWriter();
+        final int errors = ReportMerger.mergeSarif(
+                Arrays.asList(firstReport, secondReport), merged);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8.name()), merged.toString(),
+                "Merged report should not depend on the layout of the reports");
+        assertEquals(expectedErrors, errors, "Invalid error count");
+    }
+
+    @Test
+    public void testInvalidReports() throws Exception {
+        final File report = temporaryFolder.newFile("report.txt");
+        Files7.write(new Path(report), "text".getBytes(StandardCharsets.UTF_8));
+        final List<File> reports = Arrays.asList(report);
+        try {
+            ReportMerger.mergeXml(reports, new StringWriter());
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Not an XML report: " + report, ex.getMessage(),
+                    "Invalid exception message");
+        }
+        try {
+            ReportMerger.mergeSarif(reports, new StringWriter());
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Not a SARIF report: " + report, ex.getMessage(),
+                    "Invalid exception message");
+        }
+    }
+
+    @Test
+    public void testInvalidXmlReport() throws Exception {
+        final File report = temporaryFolder.newFile("report.xml");
+        Files7.write(new Path(report), "<?xml version=\"1.0\"?>\n<root/>\n"
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            ReportMerger.mergeXml(Arrays.asList(report), new StringWriter());
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Not an XML report: " + report, ex.getMessage(),
+                    "Invalid exception message");
+        }
+    }
+
+    @Test
+    public void testInvalidSarifReports() throws Exception {
+        final String[] contents = {
+            "{\"runs\": []}",
+            "{\"runs\": [{\"results\": {}}]}",
+            "[{\"runs\": [{\"results\": []}]}]",
+            "{\"runs\": [{\"results\": []}]} []",
+            "{\"runs\": [{\"results\": [], }]}",
+            "{\"runs\": [{\"results\" []}]}",
+            "{runs: [{\"results\": []}]}",
+            "{\"runs\": [{\"results\": [tru]}]}",
+            "{\"runs\": [{\"results\": [\"unterminated]}]}",
+            "{\"runs\": [{\"results\": [\"\\u00\"]}]}",
+        };
+        for (String content : contents) {
+            final File report = temporaryFolder.newFile();
+            Files7.write(new Path(report), content.getBytes(StandardCharsets.UTF_8));
+            try {
+                ReportMerger.mergeSarif(Arrays.asList(report), new StringWriter());
+                fail("Exception is expected for " + content);
+            }
+            catch (CheckstyleException ex) {
+                assertEquals("Not a SARIF report: " + report, ex.getMessage(),
+                        "Invalid exception message for " + content);
+            }
+        }
+    }
+
+    /**
+     * Writes an XML report with its elements indented by nesting level.
+     *
+     * @param report the report written by the logger
+     * @param file the file to write the reformatted report to
+     * @throws IOException if the report could not be written
+     */
+    private static void writeReformattedXml(ByteArrayOutputStream report, File file)
+            throws IOException {
+        final String separator = System7.lineSeparator();
+        final String reformatted = report.toString(StandardCharsets.UTF_8.name())
+                .replace(separator + "<file", separator + "  <file")
+                .replace(separator + "</file>", separator + "  </file>")
+                .replace(separator + "<error", separator + "    <error")
+                .replace(separator + "<exception>" + separator + "<![CDATA[",
+                        separator + "    <exception><![CDATA[");
+        Files7.write(new Path(file), reformatted.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Fires the events of an audit of the given files to a logger.
+     *
+     * @param logger the logger
+     * @param files the names of the files
+     * @param withGeneralException whether to fire an exception without file at the end
+     * @return the number of errors with error severity and exceptions, like
+     *     {@link com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter} counts them
+     * @throws IOException if the output could not be closed
+     */
+    private int audit(AuditListener logger, String[] files, boolean withGeneralException)
+            throws IOException {
+        int errors = 0;
+        logger.auditStarted(new AuditEvent(this));
+        for (String file : files) {
+            logger.fileStarted(new AuditEvent(this, file));
+            logger.addError(new AuditEvent(this, file, new Violation(1, 2, "bundle",
+                    "key." + file, null, SeverityLevel.ERROR, null, getClass(),
+                    "message <&> \"" + file + "\"")));
+            errors++;
+            logger.addError(new AuditEvent(this, file, new Violation(3, 0, "bundle",
+                    "key.warning", null, SeverityLevel.WARNING, "id", getClass(),
+                    "message\nwith line break")));
+            logger.addException(new AuditEvent(this, file),
+                    createException("exception of " + file));
+            errors++;
+            logger.fileFinished(new AuditEvent(this, file));
+        }
+        if (withGeneralException) {
+            logger.addException(new AuditEvent(this), createException("general"));
+            errors++;
+        }
+        logger.auditFinished(new AuditEvent(this));
+        return errors;
+    }
+
+    private static Exception createException(String message) {
+        final Exception result = new IllegalStateException(message);
+        result.setStackTrace(new StackTraceElement[0]);
+        return result;
+    }
+
+}
@@ -21,11 +21,15 @@ package com.puppycrawl.tools.checkstyle;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.Test;
 
@@ -133,6 +137,84 @@ public class SarifLoggerTest extends AbstractModuleTestSupport {
         verifyContent(getPath("ExpectedSarifLoggerDoubleError.sarif"), outStream);
     }
 
+    @Test
+    public void testDuplicateRules() throws IOException {
+        final SarifLogger logger = new SarifLogger(outStream,
+                AutomaticBean.OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final Violation violation =
+                new Violation(1, 1,
+                        "messages.properties", "ruleId", null, SeverityLevel.INFO, null,
+                        getClass(), "found an error");
+        final AuditEvent ev = new AuditEvent(this, "Test.java", violation);
+        final Violation violation2 =
+                new Violation(2, 0,
+                        "messages.properties", "ruleId", null, SeverityLevel.ERROR, null,
+                        getClass(), "found \"another\" error");
+        final AuditEvent ev2 = new AuditEvent(this, "dir\\Test.java", violation2);
+        logger.fileStarted(ev);
+        logger.addError(ev);
+        logger.fileFinished(ev);
+        logger.fileStarted(ev2);
+        logger.addError(ev2);
+        logger.fileFinished(ev2);
+        logger.auditFinished(null);
+        verifyContent(getPath("ExpectedSarifLoggerDuplicateRules.sarif"), outStream);
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        final SarifLogger logger = new SarifLogger(outStream,
+                AutomaticBean.OutputStreamOptions.CLOSE, true);
+        logger.auditStarted(null);
+        final Violation violation =
+                new Violation(1, 1,
+                        "messages.properties", "ruleId", null, SeverityLevel.ERROR, null,
+                        getClass(), "found an error");
+        final AuditEvent ev = new AuditEvent(this, "Test.java", violation);
+        logger.fileStarted(ev);
+        logger.addError(ev);
+        logger.fileFinished(ev);
+        logger.auditFinished(null);
+
+        assertEquals(1, outStream.getCloseCount(), "Invalid close count");
+        verifyContent(getPath("ExpectedSarifLoggerSingleError.sarif"), decompress(outStream));
+    }
+
+    @Test
+    public void testCompressedNoCloseStream() throws IOException {
+        final SarifLogger logger = new SarifLogger(outStream,
+                AutomaticBean.OutputStreamOptions.NONE, true);
+        logger.auditStarted(null);
+        logger.auditFinished(null);
+
+        assertEquals(0, outStream.getCloseCount(), "Invalid close count");
+        verifyContent(getPath("ExpectedSarifLoggerEmpty.sarif"), decompress(outStream));
+    }
+
+    @Test
+    public void testLongMessage() throws IOException {
+        final SarifLogger logger = new SarifLogger(outStream,
+                AutomaticBean.OutputStreamOptions.CLOSE);
+        final StringBuilder message = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            message.append("a/b");
+            expected.append("a\\/b");
+        }
+        logger.auditStarted(null);
+        final Violation violation =
+                new Violation(1, 1,
+                        "messages.properties", "ruleId", null, SeverityLevel.ERROR, null,
+                        getClass(), message.toString());
+        final AuditEvent ev = new AuditEvent(this, "Test.java", violation);
+        logger.addError(ev);
+        logger.auditFinished(null);
+        final String actual = new String(outStream.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(actual.contains("\"text\": \"" + expected + "\""),
+                "Long message should be escaped");
+    }
+
     @Test
     public void testAddException() throws IOException {
         final SarifLogger logger = new SarifLogger(outStream,
@@ -275,6 +357,25 @@ public class SarifLoggerTest extends AbstractModuleTestSupport {
         }
     }
 
+    private static ByteArrayOutputStream decompress(ByteArrayOutputStream compressed)
+            throws IOException {
+        final InputStream input =
+                new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try {
+            final byte[] buffer = new byte[1024];
+            int length = input.read(buffer);
+            while (length != -1) {
+                result.write(buffer, 0, length);
+                length = input.read(buffer);
+            }
+        }
+        finally {
+            input.close();
+        }
+        return result;
+    }
+
     private static void verifyContent(
             String expectedOutputFile,
             ByteArrayOutputStream actualOutputStream) throws IOException {
@@ -0,0 +1,150 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
+import com.puppycrawl.tools.checkstyle.jre6.file.Path;
+
+public class ShardTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParse() {
+        final Shard shard = Shard.parse("2/3");
+        assertEquals(2, shard.getNumber(), "Invalid shard number");
+        assertEquals(3, shard.getCount(), "Invalid shard count");
+    }
+
+    @Test
+    public void testParseInvalid() {
+        final String[] values = {"0/3", "4/3", "1/0", "3", "/3", "1/", "a/3", "1/b", "-1/3"};
+        for (String value : values) {
+            try {
+                Shard.parse(value);
+                fail("Exception is expected for " + value);
+            }
+            catch (IllegalArgumentException ex) {
+                assertEquals("Invalid shard '" + value + "', expected i/N with 1 <= i <= N.",
+                        ex.getMessage(), "Invalid exception message");
+            }
+        }
+    }
+
+    @Test
+    public void testHashShardsPartitionFiles() {
+        final File base = new File("base").getAbsoluteFile();
+        final List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 100; i++) {
+            files.add(new File(base, "dir" + i % 7 + File.separator + "File" + i + ".java"));
+        }
+        final List<File> reversed = new ArrayList<File>(files);
+        Collections.reverse(reversed);
+        final List<File> selected = new ArrayList<File>();
+        for (int number = 1; number <= 4; number++) {
+            final Shard shard = Shard.parse(number + "/4");
+            final List<File> shardFiles = shard.select(files, base, false);
+            assertWithMessage("Shard should contain files")
+                    .that(shardFiles)
+                    .isNotEmpty();
+            final List<File> inFileSetOrder = new ArrayList<File>(files);
+            inFileSetOrder.retainAll(shardFiles);
+            assertWithMessage("Files should keep their order")
+                    .that(shardFiles)
+                    .containsExactlyElementsIn(inFileSetOrder).inOrder();
+            final List<File> reversedShardFiles = shard.select(reversed, base, false);
+            Collections.reverse(reversedShardFiles);
+            assertWithMessage("Assignment should not depend on the order of the files")
+                    .that(reversedShardFiles)
+                    .containsExactlyElementsIn(shardFiles).inOrder();
+            selected.addAll(shardFiles);
+        }
+        assertWithMessage("Every file should be in exactly one shard")
+                .that(selected)
+                .containsExactlyElementsIn(files);
+    }
+
+    @Test
+    public void testHashShardOfRelativePath() {
+        final File first = new File("first").getAbsoluteFile();
+        final File second = new File("second").getAbsoluteFile();
+        for (int number = 1; number <= 3; number++) {
+            final Shard shard = Shard.parse(number + "/3");
+            assertEquals(shard.select(Collections.singletonList(new File(first, "A.java")),
+                    first, false).size(),
+                    shard.select(Collections.singletonList(new File(second, "A.java")),
+                    second, false).size(),
+                    "Shard should depend on the relative path only");
+        }
+    }
+
+    @Test
+    public void testShardsBySize() throws Exception {
+        final File base = temporaryFolder.newFolder();
+        final int[] sizes = {10, 70, 20, 20, 50, 40};
+        final List<File> files = new ArrayList<File>();
+        for (int i = 0; i < sizes.length; i++) {
+            final File file = new File(base, "File" + i + ".java");
+            Files7.write(new Path(file), new byte[sizes[i]]);
+            files.add(file);
+        }
+
+        // 70 -> 1, 50 -> 2, 40 -> 2, 20 -> 1, 20 -> 1, 10 -> 2
+        assertWithMessage("Invalid files of first shard")
+                .that(Shard.parse("1/2").select(files, base, true))
+                .containsExactly(files.get(1), files.get(2), files.get(3)).inOrder();
+        assertWithMessage("Invalid files of second shard")
+                .that(Shard.parse("2/2").select(files, base, true))
+                .containsExactly(files.get(0), files.get(4), files.get(5)).inOrder();
+    }
+
+    @Test
+    public void testShardsBySizeSameSizes() throws Exception {
+        final File base = temporaryFolder.newFolder();
+        final List<File> files = new ArrayList<File>();
+        for (String name : new String[] {"C.java", "A.java", "B.java"}) {
+            final File file = new File(base, name);
+            Files7.write(new Path(file), new byte[1]);
+            files.add(file);
+        }
+
+        assertWithMessage("Files of the same size should be assigned in the order of paths")
+                .that(Shard.parse("1/2").select(files, base, true))
+                .containsExactly(files.get(0), files.get(1)).inOrder();
+        assertWithMessage("Files of the same size should be assigned in the order of paths")
+                .that(Shard.parse("2/2").select(files, base, true))
+                .containsExactly(files.get(2));
+    }
+
+}
@@ -0,0 +1,94 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class TextInternerTest {
+
+    @Test
+    public void testIsProperUtilsClass() throws Exception {
+        assertTrue(TestUtil.isUtilsClassHasPrivateConstructor(TextInterner.class, false),
+                "Constructor is not private");
+    }
+
+    @Test
+    public void testIntern() {
+        final String text = TextInterner.intern(new String("internedText"));
+        assertSame(text, TextInterner.intern(new String("internedText")),
+                "Equal texts should be the same instance");
+        assertNull(TextInterner.intern(null), "Null should stay null");
+    }
+
+    @Test
+    public void testLongTextIsNotInterned() {
+        final char[] chars = new char[TextInterner.MAX_LENGTH + 1];
+        Arrays.fill(chars, 'a');
+        final String text = new String(chars);
+        assertSame(text, TextInterner.intern(text), "Long text should be returned");
+        assertNotSame(text, TextInterner.intern(new String(chars)),
+                "Long text should not be interned");
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTextIsDropped() {
+        final String first = TextInterner.intern(new String("firstText"));
+        final String second = TextInterner.intern(new String("secondText"));
+        for (int index = 1; index < TextInterner.MAX_SIZE; index++) {
+            TextInterner.intern("text" + index);
+            if (index % 2 == 0) {
+                TextInterner.intern(new String("secondText"));
+            }
+        }
+        assertNotSame(first, TextInterner.intern(new String("firstText")),
+                "Unused text should be dropped");
+        assertSame(second, TextInterner.intern(new String("secondText")),
+                "Used text should be kept");
+    }
+
+    @Test
+    public void testNodesShareText() throws Exception {
+        final FileText text = new FileText(new File("Test.java"),
+                Arrays.asList("class Test {", "    String first;", "    String second;", "}"));
+        final DetailAST root = JavaParser.parseFileText(text, JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST objBlock = root.findFirstToken(TokenTypes.OBJBLOCK);
+        final DetailAST firstType = objBlock.findFirstToken(TokenTypes.VARIABLE_DEF)
+                .findFirstToken(TokenTypes.TYPE).getFirstChild();
+        final DetailAST secondType = objBlock.getLastChild().getPreviousSibling()
+                .findFirstToken(TokenTypes.TYPE).getFirstChild();
+        assertEquals("String", firstType.getText(), "Invalid text of first type");
+        assertSame(firstType.getText(), secondType.getText(), "Texts should be shared");
+    }
+
+}
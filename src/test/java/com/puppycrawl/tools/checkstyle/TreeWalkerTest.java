@@ -48,6 +48,9 @@ import com.puppycrawl.tools.checkstyle.api.Context;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.TodoCommentCheck;
+import com.puppycrawl.tools.checkstyle.checks.UpperEllCheck;
 import com.puppycrawl.tools.checkstyle.checks.blocks.LeftCurlyCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
@@ -62,6 +65,7 @@ import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAroundCheck;
 import com.puppycrawl.tools.checkstyle.filters.SuppressWithNearbyCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathSingleFilter;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
 import com.puppycrawl.tools.checkstyle.jre6.file.Path;
@@ -316,6 +320,101 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testTokenStreamChecksOnUnparsableFile() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.configure(createModuleConfig(UpperEllCheck.class));
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<String>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.setupChild(createModuleConfig(UpperEllCheck.class));
+        treeWalker.setupChild(createModuleConfig(TodoCommentCheck.class));
+        final File file = new File(temporaryFolder.newFolder(), "file.java");
+        final List<String> lines = new ArrayList<String>();
+        lines.add(" classD a { long l = 1l; } // TODO: fix");
+        final FileText fileText = new FileText(file, lines);
+        final List<Violation> violations =
+                new ArrayList<Violation>(treeWalker.process(file, fileText));
+        assertEquals(2, violations.size(), "Invalid number of violations");
+        assertEquals(1, violations.get(0).getLineNo(), "Invalid line of first violation");
+        assertEquals(22, violations.get(0).getColumnNo(), "Invalid column of first violation");
+        assertEquals(UpperEllCheck.class.getName(), violations.get(0).getSourceName(),
+                "Invalid source of first violation");
+        assertEquals(TodoCommentCheck.class.getName(), violations.get(1).getSourceName(),
+                "Invalid source of second violation");
+    }
+
+    @Test
+    public void testTokenStreamChecksWithXpathFilterOnUnparsableFile() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.configure(createModuleConfig(UpperEllCheck.class));
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<String>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.setupChild(createModuleConfig(UpperEllCheck.class));
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(SuppressionXpathSingleFilter.class);
+        filterConfig.addProperty("query", "//VARIABLE_DEF/ASSIGN/EXPR/NUM_LONG");
+        treeWalker.setupChild(filterConfig);
+        final File file = new File(temporaryFolder.newFolder(), "file.java");
+        final List<String> lines = new ArrayList<String>();
+        lines.add(" classD a { long l = 1l; }");
+        final FileText fileText = new FileText(file, lines);
+        final List<Violation> violations =
+                new ArrayList<Violation>(treeWalker.process(file, fileText));
+        assertEquals(1, violations.size(), "Invalid number of violations");
+        assertEquals(1, violations.get(0).getLineNo(), "Invalid line of violation");
+        assertEquals(22, violations.get(0).getColumnNo(), "Invalid column of violation");
+        assertEquals(UpperEllCheck.class.getName(), violations.get(0).getSourceName(),
+                "Invalid source of violation");
+    }
+
+    @Test
+    public void testTokenStreamAndAstChecksParseFile() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.configure(createModuleConfig(UpperEllCheck.class));
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<String>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.setupChild(createModuleConfig(UpperEllCheck.class));
+        treeWalker.setupChild(createModuleConfig(TypeNameCheck.class));
+        final File file = new File(temporaryFolder.newFolder(), "file.java");
+        final List<String> lines = new ArrayList<String>();
+        lines.add(" classD a { long l = 1l; } ");
+        final FileText fileText = new FileText(file, lines);
+        try {
+            treeWalker.process(file, fileText);
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException exception) {
+            assertTrue(exception.getMessage().contains("occurred while parsing file"),
+                    "Error message is unexpected");
+        }
+    }
+
+    @Test
+    public void testTokenStreamChecksWithXpathFilter() throws Exception {
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(SuppressionXpathSingleFilter.class);
+        filterConfig.addProperty("query", "//VARIABLE_DEF[./IDENT[@text='second']]"
+                + "/ASSIGN/EXPR/NUM_LONG");
+
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(UpperEllCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+        treeWalkerConfig.addChild(filterConfig);
+
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+
+        final String[] expected = {
+            "4:26: " + getCheckMessage(UpperEllCheck.class, UpperEllCheck.MSG_KEY),
+            "6:33: " + getCheckMessage(TodoCommentCheck.class, TodoCommentCheck.MSG_KEY,
+                    "TODO:"),
+        };
+
+        verify(checkerConfig, getPath("InputTreeWalkerTokenStream.java"), expected);
+    }
+
     @Test
     public void testRequiredTokenIsEmptyIntArray() throws Exception {
         final DefaultConfiguration checkConfig =
@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -36,6 +37,7 @@ import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.internal.utils.CloseAndFlushTestByteArrayOutputStream;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 
 /**
  * Enter a description of class XMLLoggerTest.java.
@@ -374,6 +376,89 @@ public class XMLLoggerTest extends AbstractXmlTestSupport {
         assertNotNull(logger, "instance should not be null");
     }
 
+    @Test
+    public void testEncodeWithoutSpecialCharacters() {
+        final String value = "plain value";
+        assertSame(value, XMLLogger.encode(value), "Value without special characters is copied");
+    }
+
+    @Test
+    public void testParallelFiles() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final AuditEvent first = new AuditEvent(this, "First.java");
+        final AuditEvent second = new AuditEvent(this, "Second.java");
+        logger.fileStarted(first);
+        logger.fileStarted(second);
+        final Violation secondViolation = new Violation(2, 1,
+                "messages.properties", "key", null, SeverityLevel.ERROR, null,
+                getClass(), null);
+        logger.addError(new AuditEvent(this, "Second.java", secondViolation));
+        final Violation firstViolation = new Violation(1, 1,
+                "messages.properties", "key", null, SeverityLevel.ERROR, null,
+                getClass(), null);
+        logger.addError(new AuditEvent(this, "First.java", firstViolation));
+        logger.fileFinished(second);
+        logger.addException(first, new TestException("msg", new RuntimeException("msg")));
+        logger.fileFinished(first);
+        logger.auditFinished(null);
+
+        verifyXml(getPath("ExpectedXMLLoggerParallelFiles.xml"), outStream,
+                firstViolation.getViolation());
+        final String output = outStream.toString(StandardCharsets.UTF_8.name());
+        assertTrue(output.indexOf("First.java") < output.indexOf("Second.java"),
+                "File started first should be written first");
+    }
+
+    @Test
+    public void testParallelFileSpilledToDisk() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        final AuditEvent first = new AuditEvent(this, "First.java");
+        final AuditEvent second = new AuditEvent(this, "Second.java");
+        logger.fileStarted(first);
+        logger.fileStarted(second);
+        final int errorCount = 2000;
+        for (int line = 1; line <= errorCount; line++) {
+            final Violation violation = new Violation(line, 1,
+                    "messages.properties", "key", null, SeverityLevel.ERROR, null,
+                    getClass(), null);
+            logger.addError(new AuditEvent(this, "Second.java", violation));
+        }
+        logger.fileFinished(first);
+        logger.fileFinished(second);
+        logger.auditFinished(null);
+
+        final String output = outStream.toString(StandardCharsets.UTF_8.name());
+        final String secondSection = output.substring(output.indexOf("Second.java"));
+        int count = 0;
+        int index = secondSection.indexOf("<error line=\"");
+        while (index != -1) {
+            count++;
+            assertTrue(secondSection.startsWith("<error line=\"" + count + "\"", index),
+                    "Errors should keep their order");
+            index = secondSection.indexOf("<error line=\"", index + 1);
+        }
+        assertEquals(errorCount, count, "Invalid number of errors");
+    }
+
+    @Test
+    public void testAuditFinishedWithUnfinishedFiles() throws Exception {
+        final XMLLogger logger = new XMLLogger(outStream, OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        logger.fileStarted(new AuditEvent(this, "First.java"));
+        logger.fileStarted(new AuditEvent(this, "Second.java"));
+        final Violation violation = new Violation(1, 1,
+                "messages.properties", "key", null, SeverityLevel.ERROR, null,
+                getClass(), null);
+        logger.addError(new AuditEvent(this, "First.java", violation));
+        logger.addError(new AuditEvent(this, "Second.java", violation));
+        logger.auditFinished(null);
+
+        verifyXml(getPath("ExpectedXMLLoggerUnfinishedFiles.xml"), outStream,
+                violation.getViolation());
+    }
+
     private static class TestException extends RuntimeException {
 
         private static final long serialVersionUID = 1L;
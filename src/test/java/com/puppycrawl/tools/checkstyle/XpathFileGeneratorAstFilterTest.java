@@ -20,11 +20,12 @@
 package com.puppycrawl.tools.checkstyle;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
-import java.util.Map;
 
 import org.junit.Test;
 
@@ -136,16 +137,127 @@ public class XpathFileGeneratorAstFilterTest {
         final XpathFileGeneratorAstFilter filter = new XpathFileGeneratorAstFilter();
 
         assertTrue(TestUtil
-                .isStatefulFieldClearedDuringLocalSetup(filter, event, "MESSAGE_QUERY_MAP",
+                .isStatefulFieldClearedDuringLocalSetup(filter, event, "FILE_QUERIES",
                     new Predicate<Object>() {
                         @Override
                         public boolean test(Object variableStack) {
-                            return ((Map<Violation, String>) variableStack).isEmpty();
+                            return ((ThreadLocal<Object>) variableStack).get() == null;
                         }
                     }),
                 "State is not cleared on finishLocalSetup");
     }
 
+    @Test
+    public void testQueriesOfPreviousFileAreDropped() throws Exception {
+        final Violation violation = new Violation(3, 47, TokenTypes.LCURLY,
+                "messages.properties", null, null, SeverityLevel.ERROR, null, LeftCurlyCheck.class,
+                null);
+        final TreeWalkerAuditEvent event = createTreeWalkerAuditEvent(
+                "InputXpathFileGeneratorAstFilter.java", violation);
+        final Violation otherViolation = new Violation(6, 7, TokenTypes.LITERAL_RETURN,
+                "messages.properties", null, null, SeverityLevel.ERROR, null,
+                XpathFileGeneratorAstFilterTest.class, null);
+        final TreeWalkerAuditEvent otherEvent = new TreeWalkerAuditEvent(
+                event.getFileContents(), "Other.java", otherViolation, event.getRootAst());
+        final XpathFileGeneratorAstFilter filter = new XpathFileGeneratorAstFilter();
+        filter.setTabWidth(6);
+
+        assertTrue(filter.accept(event), "filter accepted");
+        assertTrue(filter.accept(otherEvent), "filter accepted");
+
+        assertNull(XpathFileGeneratorAstFilter.findCorrespondingXpathQuery(
+                new AuditEvent(this, "Test.java", violation)),
+                "query of previous file should be dropped");
+        assertEquals(
+                "/CLASS_DEF[./IDENT[@text='InputXpathFileGeneratorAstFilter']]/OBJBLOCK"
+                        + "/METHOD_DEF[./IDENT[@text='tabMethod']]/SLIST/LITERAL_RETURN",
+                XpathFileGeneratorAstFilter.findCorrespondingXpathQuery(
+                        new AuditEvent(this, "Other.java", otherViolation)),
+                "expected xpath");
+
+        XpathFileGeneratorAstFilter.releaseXpathQueries();
+        assertNull(XpathFileGeneratorAstFilter.findCorrespondingXpathQuery(
+                new AuditEvent(this, "Other.java", otherViolation)),
+                "queries should be released");
+    }
+
+    @Test
+    public void testQueriesAreThreadConfined() throws Exception {
+        final Violation violation = new Violation(3, 47, TokenTypes.LCURLY,
+                "messages.properties", null, null, SeverityLevel.ERROR, null, LeftCurlyCheck.class,
+                null);
+        final TreeWalkerAuditEvent event = createTreeWalkerAuditEvent(
+                "InputXpathFileGeneratorAstFilter.java", violation);
+        final XpathFileGeneratorAstFilter filter = new XpathFileGeneratorAstFilter();
+        assertTrue(filter.accept(event), "filter accepted");
+
+        final String[] otherThreadQuery = {"not set"};
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                otherThreadQuery[0] = XpathFileGeneratorAstFilter.findCorrespondingXpathQuery(
+                        new AuditEvent(this, "Test.java", violation));
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertNull(otherThreadQuery[0], "queries should not be visible to other threads");
+        assertEquals(
+                "/CLASS_DEF[./IDENT[@text='InputXpathFileGeneratorAstFilter']]/OBJBLOCK/LCURLY",
+                XpathFileGeneratorAstFilter.findCorrespondingXpathQuery(
+                        new AuditEvent(this, "Test.java", violation)),
+                "expected xpath");
+        XpathFileGeneratorAstFilter.releaseXpathQueries();
+    }
+
+    @Test
+    public void testIndexIsThreadConfined() throws Exception {
+        final Violation violation = new Violation(3, 47, TokenTypes.LCURLY,
+                "messages.properties", null, null, SeverityLevel.ERROR, null, LeftCurlyCheck.class,
+                null);
+        final TreeWalkerAuditEvent event = createTreeWalkerAuditEvent(
+                "InputXpathFileGeneratorAstFilter.java", violation);
+        final TreeWalkerAuditEvent otherFileEvent = createTreeWalkerAuditEvent(
+                "InputXpathFileGeneratorAstFilter.java", violation);
+        final Violation nextViolation = new Violation(6, 7, TokenTypes.LITERAL_RETURN,
+                "messages.properties", null, null, SeverityLevel.ERROR, null,
+                XpathFileGeneratorAstFilterTest.class, null);
+        final TreeWalkerAuditEvent nextEvent = new TreeWalkerAuditEvent(
+                event.getFileContents(), event.getFileName(), nextViolation, event.getRootAst());
+        final XpathFileGeneratorAstFilter filter = new XpathFileGeneratorAstFilter();
+        filter.setTabWidth(6);
+
+        assertTrue(filter.accept(event), "filter accepted");
+        final Object index = getIndex();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                filter.accept(otherFileEvent);
+                XpathFileGeneratorAstFilter.releaseXpathQueries();
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(filter.accept(nextEvent), "filter accepted");
+
+        assertNotNull(index, "index should be built");
+        assertSame(index, getIndex(), "index should not be replaced by other threads");
+        XpathFileGeneratorAstFilter.releaseXpathQueries();
+        assertNull(getFileQueries().get(), "index should be released");
+    }
+
+    private static ThreadLocal<?> getFileQueries() throws Exception {
+        return (ThreadLocal<?>) TestUtil.getClassDeclaredField(
+                XpathFileGeneratorAstFilter.class, "FILE_QUERIES").get(null);
+    }
+
+    private static Object getIndex() throws Exception {
+        final Object fileQueries = getFileQueries().get();
+        return TestUtil.getClassDeclaredField(fileQueries.getClass(), "index")
+                .get(fileQueries);
+    }
+
     private static TreeWalkerAuditEvent createTreeWalkerAuditEvent(String fileName,
             Violation violation) throws Exception {
         final File file = new File(getPath(fileName));
@@ -28,7 +28,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.OutputStream;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Test;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
@@ -67,8 +67,8 @@ public class XpathFileGeneratorAuditListenerTest {
     private final CloseAndFlushTestByteArrayOutputStream outStream =
             new CloseAndFlushTestByteArrayOutputStream();
 
-    @BeforeClass
-    public static void constructEvents() throws Exception {
+    @Before
+    public void constructEvents() throws Exception {
         final TreeWalkerAuditEvent event1 = createTreeWalkerAuditEvent(
                 "InputXpathFileGeneratorAuditListener.java", FIRST_MESSAGE);
 
@@ -146,6 +146,20 @@ public class XpathFileGeneratorAuditListenerTest {
         }
     }
 
+    @Test
+    public void testFileFinishedReleasesQueries() {
+        final AuditEvent event = createAuditEvent("InputXpathFileGeneratorAuditListener.java",
+                FIRST_MESSAGE);
+        final OutputStream out = new ByteArrayOutputStream();
+        final XpathFileGeneratorAuditListener listener =
+                new XpathFileGeneratorAuditListener(out, AutomaticBean.OutputStreamOptions.CLOSE);
+        listener.fileFinished(event);
+        listener.addError(event);
+        listener.auditFinished(null);
+        final String actual = out.toString();
+        assertTrue(actual.isEmpty(), "Queries should be released when file is finished");
+    }
+
     @Test
     public void testCorrectOne() {
         final AuditEvent event = createAuditEvent("InputXpathFileGeneratorAuditListener.java",
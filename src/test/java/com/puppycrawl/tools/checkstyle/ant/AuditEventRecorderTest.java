@@ -0,0 +1,111 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.ant;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class AuditEventRecorderTest {
+
+    @Test
+    public void testReplay() {
+        final AuditEventRecorder recorder = new AuditEventRecorder();
+        final AuditEvent fileEvent = new AuditEvent(this, "File.java");
+        final Violation violation = new Violation(1, 1, "bundle", "key", null,
+                SeverityLevel.ERROR, null, getClass(), null);
+        final AuditEvent errorEvent = new AuditEvent(this, "File.java", violation);
+        final IllegalStateException exception = new IllegalStateException("test");
+        recorder.auditStarted(new AuditEvent(this));
+        recorder.fileStarted(fileEvent);
+        recorder.addError(errorEvent);
+        recorder.addException(errorEvent, exception);
+        recorder.fileFinished(fileEvent);
+        recorder.auditFinished(new AuditEvent(this));
+
+        final RecordingListener first = new RecordingListener();
+        final RecordingListener second = new RecordingListener();
+        recorder.replay(Arrays.<AuditListener>asList(first, second));
+
+        for (RecordingListener listener : Arrays.asList(first, second)) {
+            assertWithMessage("Invalid replayed events")
+                    .that(listener.getEvents())
+                    .containsExactly("fileStarted File.java", "addError File.java",
+                            "addException File.java test", "fileFinished File.java")
+                    .inOrder();
+        }
+
+        final RecordingListener third = new RecordingListener();
+        recorder.replay(Arrays.<AuditListener>asList(third));
+        assertWithMessage("Events should be released after the replay")
+                .that(third.getEvents())
+                .isEmpty();
+    }
+
+    private static final class RecordingListener implements AuditListener {
+
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            events.add("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            events.add("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            events.add("fileStarted " + event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            events.add("fileFinished " + event.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            events.add("addError " + event.getFileName());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            events.add("addException " + event.getFileName() + " " + throwable.getMessage());
+        }
+
+        public List<String> getEvents() {
+            return events;
+        }
+
+    }
+
+}
@@ -37,7 +37,10 @@ import org.apache.tools.ant.types.FileSet;
 import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.Reference;
 import org.apache.tools.ant.types.resources.FileResource;
+import org.eclipse.jgit.api.Git;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
@@ -64,6 +67,9 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
     private static final String NOT_EXISTING_FILE = "target/not_existing.xml";
     private static final String FAILURE_PROPERTY_VALUE = "myValue";
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/ant/checkstyleanttask/";
@@ -789,6 +795,249 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
                 .isTrue();
     }
 
+    @Test
+    public void testFailFast() throws IOException {
+        final CheckstyleAntTaskLogStub antTask = new CheckstyleAntTaskLogStub();
+        antTask.setConfig(getPath(CONFIG_FILE));
+        antTask.setProject(new Project());
+        antTask.setFile(new File(getPath(WARNING_INPUT)));
+        final FileSet fileSet = new FileSet();
+        fileSet.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.addFileset(fileSet);
+        antTask.setMaxWarnings(0);
+        antTask.setFailFast(true);
+        antTask.setFailOnViolation(false);
+        antTask.execute();
+
+        assertWithMessage("Skipped files should be logged")
+                .that(antTask.getLoggedMessages())
+                .contains("Stopped the audit as the maximum number of errors or warnings was "
+                        + "exceeded, 1 files were not checked.");
+    }
+
+    @Test
+    public void testFailFastCustomRootModule() throws IOException {
+        TestRootModuleChecker.reset();
+
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        antTask.setFile(new File(getPath(VIOLATED_INPUT)));
+        antTask.setMaxWarnings(0);
+        antTask.setFailFast(true);
+        antTask.execute();
+
+        assertWithMessage("Checker is not processed")
+                .that(TestRootModuleChecker.isProcessed())
+                .isTrue();
+    }
+
+    @Test
+    public void testDiffBaseCustomRootModule() throws Exception {
+        TestRootModuleChecker.reset();
+        final File root = createRepositoryWithChanges();
+
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        antTask.getProject().setBaseDir(root);
+        antTask.setFile(new File(root, "Changed.java"));
+        final FileSet fileSet = new FileSet();
+        fileSet.setFile(new File(root, "Unchanged.java"));
+        antTask.addFileset(fileSet);
+        antTask.setDiffBase("HEAD");
+        antTask.execute();
+
+        assertWithMessage("Only changed files should be checked")
+                .that(TestRootModuleChecker.getFilesToCheck())
+                .containsExactly(new File(root, "Changed.java"));
+    }
+
+    @Test
+    public void testDiffBaseChangedLinesOnly() throws Exception {
+        final File root = createRepositoryWithChanges();
+
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.getProject().setBaseDir(root);
+        antTask.setFile(new File(root, "Changed.java"));
+        antTask.setDiffBase("HEAD");
+        antTask.setChangedLinesOnly(true);
+        final CheckstyleAntTask.Formatter formatter = new CheckstyleAntTask.Formatter();
+        final File outputFile = new File(root, "output.txt");
+        formatter.setTofile(outputFile);
+        final CheckstyleAntTask.FormatterType formatterType = new CheckstyleAntTask.FormatterType();
+        formatterType.setValue("plain");
+        formatter.setType(formatterType);
+        antTask.addFormatter(formatter);
+        antTask.setFailOnViolation(false);
+        antTask.execute();
+
+        final List<String> output = FileUtils.readLines(outputFile, StandardCharsets.UTF_8);
+        assertWithMessage("Only violations on changed lines should be reported")
+                .that(output)
+                .hasSize(3);
+        assertWithMessage("Invalid violation")
+                .that(output.get(1))
+                .contains("Changed.java:2:");
+    }
+
+    @Test
+    public void testDiffBaseInvalidRevision() throws Exception {
+        final File root = createRepositoryWithChanges();
+
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        antTask.getProject().setBaseDir(root);
+        antTask.setFile(new File(root, "Changed.java"));
+        antTask.setDiffBase("nonexistent-revision");
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Unable to compute changes since nonexistent-revision");
+        }
+    }
+
+    @Test
+    public void testThreads() throws Exception {
+        final File folder = temporaryFolder.newFolder();
+        final List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 5; i++) {
+            final File file = new File(folder, "Input" + i + ".java");
+            FileUtils.writeStringToFile(file, "class Input" + i
+                    + " { /* this line is longer than the seventy characters allowed */ }\n",
+                    StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        final List<String> singleThreadOutput = checkWithThreads(files, 1);
+        final List<String> output = checkWithThreads(files, 3);
+
+        assertWithMessage("Output should not depend on the number of threads")
+                .that(output)
+                .containsExactlyElementsIn(singleThreadOutput)
+                .inOrder();
+        assertWithMessage("Invalid number of output lines")
+                .that(output)
+                .hasSize(7);
+        assertWithMessage("Invalid violation")
+                .that(output.get(5))
+                .contains("Input4.java:1:");
+    }
+
+    @Test
+    public void testThreadsNotPartitionable() throws IOException {
+        final File config = temporaryFolder.newFile("config.xml");
+        FileUtils.writeStringToFile(config, "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE module PUBLIC \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\"\n"
+                + "    \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n"
+                + "<module name=\"Checker\">\n"
+                + "  <property name=\"cacheFile\" value=\""
+                + new File(temporaryFolder.getRoot(), "cache.properties").getPath() + "\"/>\n"
+                + "  <module name=\"LineLength\"/>\n"
+                + "</module>\n", StandardCharsets.UTF_8);
+        final CheckstyleAntTaskLogStub antTask = new CheckstyleAntTaskLogStub();
+        antTask.setConfig(config.getPath());
+        antTask.setProject(new Project());
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        final FileSet fileSet = new FileSet();
+        fileSet.setFile(new File(getPath(WARNING_INPUT)));
+        antTask.addFileset(fileSet);
+        antTask.setThreads(2);
+        antTask.execute();
+
+        assertWithMessage("Fallback to a single thread should be logged")
+                .that(antTask.getLoggedMessages())
+                .contains("Checking the files with a single thread, as the configuration "
+                        + "does not allow to split them.");
+    }
+
+    @Test
+    public void testThreadsCustomRootModule() throws IOException {
+        TestRootModuleChecker.reset();
+
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        final FileSet fileSet = new FileSet();
+        fileSet.setFile(new File(getPath(WARNING_INPUT)));
+        antTask.addFileset(fileSet);
+        antTask.setThreads(2);
+        antTask.execute();
+
+        assertWithMessage("All files should be processed by the custom root module")
+                .that(TestRootModuleChecker.getFilesToCheck())
+                .hasSize(2);
+    }
+
+    @Test
+    public void testInvalidThreads() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setThreads(0);
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Attribute 'threads' must be a positive number.");
+        }
+    }
+
+    private List<String> checkWithThreads(List<File> files, int threads) throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        final FileSet fileSet = new FileSet();
+        fileSet.setDir(files.get(0).getParentFile());
+        antTask.addFileset(fileSet);
+        antTask.setThreads(threads);
+        final CheckstyleAntTask.Formatter formatter = new CheckstyleAntTask.Formatter();
+        final File outputFile = temporaryFolder.newFile();
+        formatter.setTofile(outputFile);
+        final CheckstyleAntTask.FormatterType formatterType = new CheckstyleAntTask.FormatterType();
+        formatterType.setValue("plain");
+        formatter.setType(formatterType);
+        antTask.addFormatter(formatter);
+        try {
+            antTask.execute();
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (BuildException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Got 5 errors and 0 warnings.");
+        }
+        return FileUtils.readLines(outputFile, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a git repository with a committed file which is changed afterwards
+     * and one which stays unchanged.
+     *
+     * @return the root of the repository
+     * @throws Exception if the repository could not be created
+     */
+    private File createRepositoryWithChanges() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        final File changed = new File(root, "Changed.java");
+        final String firstLine = "class First { /* this line is longer than seventy characters */ }";
+        FileUtils.writeStringToFile(changed, firstLine + "\n", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(root, "Unchanged.java"), "class Unchanged {}\n",
+                StandardCharsets.UTF_8);
+        final Git git = Git.init().setDirectory(root).call();
+        try {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("initial")
+                    .setAuthor("author", "author@example.com")
+                    .setCommitter("author", "author@example.com")
+                    .call();
+        }
+        finally {
+            git.getRepository().close();
+        }
+        FileUtils.writeStringToFile(changed, firstLine + "\nclass Added {}\n",
+                StandardCharsets.UTF_8);
+        return root;
+    }
+
     private static class CheckstyleAntTaskLogStub extends CheckstyleAntTask {
 
         private final List<String> loggedMessages = new ArrayList<String>();
@@ -35,6 +35,7 @@ import org.junit.Test;
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.DetailAstImpl;
+import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class AbstractCheckTest extends AbstractModuleTestSupport {
@@ -236,6 +237,33 @@ public class AbstractCheckTest extends AbstractModuleTestSupport {
                 .isEqualTo(lines);
     }
 
+    @Test
+    public void testSymbolTableWithoutTreeWalker() throws Exception {
+        final DummyAbstractCheck check = new DummyAbstractCheck();
+        final File file = new File(getPath("InputAbstractCheckTestFileContents.java"));
+        final DetailAST root = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final SymbolTable symbolTable = check.getSymbolTable(root);
+
+        assertWithMessage("Symbol table should be created for the tree")
+                .that(symbolTable.getRootAst())
+                .isSameAs(root);
+        assertWithMessage("Symbol table should be reused for nodes of the same tree")
+                .that(check.getSymbolTable(root.getLastChild()))
+                .isSameAs(symbolTable);
+
+        final DetailAST otherRoot = JavaParser.parseFile(file,
+                JavaParser.Options.WITHOUT_COMMENTS);
+        assertWithMessage("Symbol table should be created for another tree")
+                .that(check.getSymbolTable(otherRoot).getRootAst())
+                .isSameAs(otherRoot);
+
+        final SymbolTable setSymbolTable = new SymbolTable(root);
+        check.setSymbolTable(setSymbolTable);
+        assertWithMessage("Symbol table which is set should be used")
+                .that(check.getSymbolTable(otherRoot))
+                .isSameAs(setSymbolTable);
+    }
+
     @Test
     public void testGetAcceptableTokens() {
         final int[] defaultTokens = {TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF};
@@ -24,13 +24,14 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 import org.powermock.reflect.Whitebox;
 
+import com.puppycrawl.tools.checkstyle.utils.collections.IntObjectMap;
+
 public class FileContentsTest {
 
     @Test
@@ -280,7 +281,7 @@ public class FileContentsTest {
     public void testGetJavadocBefore() {
         final FileContents fileContents = new FileContents(
                 new FileText(new File("filename"), Collections.singletonList("    ")));
-        final Map<Integer, TextBlock> javadoc = new HashMap<Integer, TextBlock>();
+        final IntObjectMap<TextBlock> javadoc = new IntObjectMap<TextBlock>();
         javadoc.put(0, new Comment(new String[] {"// "}, 2, 1, 2));
         Whitebox.setInternalState(fileContents, "javadocComments", javadoc);
         final TextBlock javadocBefore = fileContents.getJavadocBefore(2);
@@ -309,8 +310,8 @@ public class FileContentsTest {
     public void testHasIntersectionEarlyOut() throws Exception {
         final FileContents fileContents = new FileContents(
                 new FileText(new File("filename"), Collections.<String>emptyList()));
-        final Map<Integer, List<TextBlock>> clangComments = Whitebox.getInternalState(fileContents,
-                "clangComments");
+        final IntObjectMap<List<TextBlock>> clangComments = Whitebox.getInternalState(
+                fileContents, "clangComments");
         final TextBlock textBlock = new Comment(new String[] {""}, 1, 1, 1);
         clangComments.put(1, Collections.singletonList(textBlock));
         clangComments.put(2, Collections.<TextBlock>emptyList());
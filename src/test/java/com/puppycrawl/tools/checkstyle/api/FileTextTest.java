@@ -24,6 +24,7 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +36,8 @@ import org.powermock.reflect.Whitebox;
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
 import com.puppycrawl.tools.checkstyle.internal.utils.CheckUtil;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
+import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 
 public class FileTextTest extends AbstractPathTestSupport {
 
@@ -86,6 +89,30 @@ public class FileTextTest extends AbstractPathTestSupport {
                 .isEqualTo(charsetName);
     }
 
+    @Test
+    public void testBytes() throws IOException {
+        final File file = new File(getPath("InputFileTextImportControl.xml"));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name(), true);
+        final ByteBuffer bytes = fileText.getBytes();
+        final byte[] actual = new byte[bytes.remaining()];
+        bytes.get(actual);
+        assertWithMessage("Bytes should be the content of the file")
+                .that(actual)
+                .isEqualTo(Files7.readAllBytes(new Path(file)));
+        assertWithMessage("Bytes should be read-only")
+                .that(fileText.getBytes().isReadOnly())
+                .isTrue();
+        assertWithMessage("Bytes should be copied")
+                .that(new FileText(fileText).getBytes())
+                .isEqualTo(fileText.getBytes());
+        assertWithMessage("Bytes should not be kept unless requested")
+                .that(new FileText(file, StandardCharsets.UTF_8.name()).getBytes())
+                .isNull();
+        assertWithMessage("Bytes of a text from lines should be null")
+                .that(new FileText(file, Collections.singletonList("line")).getBytes())
+                .isNull();
+    }
+
     @Test
     public void testLineColumnBeforeCopyConstructor() throws IOException {
         final String charsetName = StandardCharsets.ISO_8859_1.name();
@@ -0,0 +1,193 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable.Frame;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable.FrameType;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable.Symbol;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable.SymbolKind;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+import com.puppycrawl.tools.checkstyle.jre6.util.function.Predicate;
+
+public class SymbolTableTest extends AbstractModuleTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/api/symboltable";
+    }
+
+    private SymbolTable createSymbolTable() throws Exception {
+        final DetailAST root = JavaParser.parseFile(new File(getPath("InputSymbolTable.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        return new SymbolTable(root);
+    }
+
+    /**
+     * Returns the first IDENT with the given text on the given line.
+     *
+     * @param table the symbol table
+     * @param name the text of the identifier
+     * @param lineNo the line of the identifier
+     * @return the IDENT
+     */
+    private static DetailAST getIdent(SymbolTable table, final String name,
+            final int lineNo) {
+        return TestUtil.findTokenInAstByPredicate(table.getRootAst(),
+            new Predicate<DetailAST>() {
+                @Override
+                public boolean test(DetailAST ast) {
+                    return ast.getType() == TokenTypes.IDENT
+                        && ast.getLineNo() == lineNo
+                        && name.equals(ast.getText());
+                }
+            }).orElse(null);
+    }
+
+    @Test
+    public void testEmptyFile() {
+        final SymbolTable table = new SymbolTable(null);
+        final Frame frame = table.getCompilationUnitFrame();
+        assertEquals(FrameType.COMPILATION_UNIT, frame.getType(), "Invalid frame type");
+        assertNull(frame.getAst(), "Compilation unit has no ast");
+        assertNull(frame.getParent(), "Compilation unit has no parent");
+        assertNull(frame.getNameIdent(), "Compilation unit has no name");
+        assertTrue(table.getFrames().isEmpty(), "There should be no frames");
+    }
+
+    @Test
+    public void testTopLevelType() throws Exception {
+        final SymbolTable table = createSymbolTable();
+        final List<Symbol> symbols = table.getCompilationUnitFrame().getSymbols();
+        assertEquals(1, symbols.size(), "Invalid number of top level declarations");
+        final Symbol type = symbols.get(0);
+        assertEquals(SymbolKind.TYPE, type.getKind(), "Invalid kind");
+        assertEquals("InputSymbolTable", type.getName(), "Invalid name");
+        assertFalse(type.getKind().isVariable(), "Type is not a variable");
+        final Frame classFrame = table.getFrame(type.getDefinition());
+        assertEquals(FrameType.CLASS, classFrame.getType(), "Invalid frame type");
+        assertTrue(classFrame.isClassLike(), "Class frame should be class-like");
+        assertEquals("InputSymbolTable", classFrame.getNameIdent().getText(), "Invalid name");
+        assertSame(table.getCompilationUnitFrame(), classFrame.getParent(), "Invalid parent");
+        assertSame(type, table.resolveType(type.getDefinition(), "InputSymbolTable"),
+                "Type should be resolved");
+        assertNull(table.resolveType(type.getDefinition(), "Inner"),
+                "Nested type is not visible outside of the class body");
+    }
+
+    @Test
+    public void testResolveVariables() throws Exception {
+        final SymbolTable table = createSymbolTable();
+
+        final Symbol field = table.resolveVariable(getIdent(table, "field", 10));
+        assertEquals(SymbolKind.FIELD, field.getKind(), "Invalid kind");
+        assertEquals(6, field.getIdent().getLineNo(), "Invalid field");
+        assertFalse(field.isStatic(), "Field is not static");
+        assertFalse(field.isFinal(), "Field is not final");
+
+        final Symbol staticField = table.resolveVariable(getIdent(table, "staticField", 31));
+        assertTrue(staticField.isStatic(), "Field is static");
+
+        assertEquals(SymbolKind.PARAMETER,
+                table.resolveVariable(getIdent(table, "param", 10)).getKind(), "Invalid kind");
+        assertEquals(SymbolKind.LOCAL_VARIABLE,
+                table.resolveVariable(getIdent(table, "local", 23)).getKind(), "Invalid kind");
+        assertEquals(SymbolKind.LAMBDA_PARAMETER,
+                table.resolveVariable(getIdent(table, "value", 11)).getKind(), "Invalid kind");
+        assertEquals(SymbolKind.CATCH_PARAMETER,
+                table.resolveVariable(getIdent(table, "ex", 26)).getKind(), "Invalid kind");
+
+        final Symbol loopVariable = table.resolveVariable(getIdent(table, "i", 29));
+        assertEquals(SymbolKind.LOCAL_VARIABLE, loopVariable.getKind(), "Invalid kind");
+        assertEquals(FrameType.FOR, loopVariable.getFrame().getType(), "Invalid frame");
+
+        final Symbol shared = table.resolveVariable(getIdent(table, "shared", 17));
+        assertEquals(14, shared.getIdent().getLineNo(),
+                "Variable of a previous case group should be visible");
+
+        assertNull(table.resolveVariable(getIdent(table, "apply", 31)),
+                "Method is not a variable");
+    }
+
+    @Test
+    public void testDeclarationResolvesToItself() throws Exception {
+        final SymbolTable table = createSymbolTable();
+        final DetailAST declaration = getIdent(table, "local", 10);
+        assertSame(declaration, table.resolveVariable(declaration).getIdent(),
+                "Declaration should resolve to itself");
+        final DetailAST usage = getIdent(table, "local", 11);
+        assertSame(declaration, table.resolveVariable(usage).getIdent(),
+                "Usage should resolve to the declaration");
+    }
+
+    @Test
+    public void testNestedTypes() throws Exception {
+        final SymbolTable table = createSymbolTable();
+        final DetailAST innerField = getIdent(table, "field", 35);
+        final Symbol symbol = table.resolveVariable(innerField);
+        assertSame(innerField, symbol.getIdent(), "Inner field shadows outer field");
+        assertEquals("Inner", symbol.getFrame().getNameIdent().getText(), "Invalid frame");
+
+        final Symbol constant = table.resolveVariable(getIdent(table, "CONSTANT", 39));
+        assertTrue(constant.isStatic(), "Interface field is static");
+
+        final Symbol red = table.resolveVariable(getIdent(table, "RED", 43));
+        assertEquals(SymbolKind.ENUM_CONSTANT, red.getKind(), "Invalid kind");
+        assertTrue(red.isStatic(), "Enum constant is static");
+        final Frame body = table.getFrame(red.getDefinition());
+        assertEquals(FrameType.ENUM_CONSTANT, body.getType(), "Invalid frame type");
+        assertEquals("RED", body.getNameIdent().getText(), "Invalid name");
+        assertEquals(SymbolKind.FIELD, body.getSymbols("body").get(0).getKind(),
+                "Invalid kind");
+        assertNull(table.getFrame(getIdent(table, "GREEN", 46).getParent()),
+                "Enum constant without body has no frame");
+    }
+
+    @Test
+    public void testEnclosingFrame() throws Exception {
+        final SymbolTable table = createSymbolTable();
+        final Frame methodFrame = table.getEnclosingFrame(getIdent(table, "param", 9));
+        assertEquals(FrameType.METHOD, methodFrame.getType(), "Invalid frame type");
+        assertEquals("method", methodFrame.getNameIdent().getText(), "Invalid name");
+        assertEquals(SymbolKind.METHOD,
+                methodFrame.getParent().getSymbols("method").get(0).getKind(), "Invalid kind");
+
+        final Frame lambdaFrame = table.getEnclosingFrame(getIdent(table, "value", 11));
+        assertEquals(FrameType.LAMBDA, lambdaFrame.getType(), "Invalid frame type");
+        assertFalse(lambdaFrame.isClassLike(), "Lambda is not class-like");
+
+        assertSame(table.getCompilationUnitFrame(),
+                table.getEnclosingFrame(getIdent(table, "Function", 3)),
+                "Imports are in the compilation unit");
+    }
+
+}
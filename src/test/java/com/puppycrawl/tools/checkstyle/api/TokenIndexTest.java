@@ -0,0 +1,160 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
+import com.puppycrawl.tools.checkstyle.DetailAstImpl;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+public class TokenIndexTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/api/symboltable";
+    }
+
+    /**
+     * Returns all nodes of the tree in document order.
+     *
+     * @param rootAst the first top level node
+     * @return the nodes
+     */
+    private static List<DetailAST> getAllNodes(DetailAST rootAst) {
+        final List<DetailAST> result = new ArrayList<DetailAST>();
+        DetailAST curNode = rootAst;
+        while (curNode != null) {
+            result.add(curNode);
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+            curNode = toVisit;
+        }
+        return result;
+    }
+
+    private static boolean isAncestor(DetailAST ancestor, DetailAST node) {
+        boolean result = false;
+        for (DetailAST parent = node.getParent(); parent != null && !result;
+                parent = parent.getParent()) {
+            result = parent == ancestor;
+        }
+        return result;
+    }
+
+    @Test
+    public void testEmptyFile() {
+        final TokenIndex index = new TokenIndex(null);
+        assertNull(index.getRootAst(), "Empty file has no root");
+        assertTrue(index.getTokens(TokenTypes.IDENT).isEmpty(), "There should be no tokens");
+        assertFalse(index.containsDescendant(null, TokenTypes.IDENT),
+                "There should be no descendants");
+    }
+
+    @Test
+    public void testSameNodesAsTraversal() throws Exception {
+        final DetailAST rootAst = JavaParser.parseFile(new File(getPath("InputSymbolTable.java")),
+                JavaParser.Options.WITH_COMMENTS);
+        final TokenIndex index = new TokenIndex(rootAst);
+        final List<DetailAST> nodes = getAllNodes(rootAst);
+        final int[] types = {
+            TokenTypes.IDENT, TokenTypes.SLIST, TokenTypes.METHOD_DEF,
+            TokenTypes.BLOCK_COMMENT_BEGIN, TokenTypes.LAMBDA,
+        };
+        for (int type : types) {
+            final List<DetailAST> expected = new ArrayList<DetailAST>();
+            for (DetailAST node : nodes) {
+                if (node.getType() == type) {
+                    expected.add(node);
+                }
+            }
+            assertWithMessage("Invalid tokens of type " + TokenUtil.getTokenName(type))
+                    .that(index.getTokens(type))
+                    .containsExactlyElementsIn(expected)
+                    .inOrder();
+        }
+        for (int number = 0; number < nodes.size(); number++) {
+            final DetailAST node = nodes.get(number);
+            assertEquals(number, index.getPreOrderNumber(node), "Invalid number of " + node);
+            for (int type : types) {
+                final List<DetailAST> expected = new ArrayList<DetailAST>();
+                for (DetailAST descendant : index.getTokens(type)) {
+                    if (isAncestor(node, descendant)) {
+                        expected.add(descendant);
+                    }
+                }
+                assertWithMessage("Invalid descendants of " + node)
+                        .that(index.getDescendants(node, type))
+                        .containsExactlyElementsIn(expected)
+                        .inOrder();
+                assertEquals(!expected.isEmpty(), index.containsDescendant(node, type),
+                        "Invalid result of containsDescendant for " + node);
+            }
+        }
+    }
+
+    @Test
+    public void testIsAncestor() throws Exception {
+        final DetailAST rootAst = JavaParser.parseFile(new File(getPath("InputSymbolTable.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final TokenIndex index = new TokenIndex(rootAst);
+        final List<DetailAST> nodes = getAllNodes(rootAst);
+        for (DetailAST ancestor : nodes) {
+            assertTrue(index.isAncestor(null, ancestor), "Document is ancestor of " + ancestor);
+            for (DetailAST node : nodes) {
+                assertEquals(isAncestor(ancestor, node), index.isAncestor(ancestor, node),
+                        "Invalid result for " + ancestor + " and " + node);
+            }
+        }
+    }
+
+    @Test
+    public void testNodeOfOtherTree() {
+        final DetailAstImpl root = new DetailAstImpl();
+        root.setType(TokenTypes.CLASS_DEF);
+        final DetailAstImpl other = new DetailAstImpl();
+        other.setType(TokenTypes.CLASS_DEF);
+        final TokenIndex index = new TokenIndex(root);
+        try {
+            index.getDescendants(other, TokenTypes.CLASS_DEF);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().startsWith("Node is not part of the indexed tree"),
+                    "Invalid exception message");
+        }
+    }
+
+}
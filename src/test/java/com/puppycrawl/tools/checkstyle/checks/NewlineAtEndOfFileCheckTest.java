@@ -42,6 +42,7 @@ import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class NewlineAtEndOfFileCheckTest
@@ -222,6 +223,22 @@ public class NewlineAtEndOfFileCheckTest
                 "Violation message differs from expected");
     }
 
+    @Test
+    public void testBytesOfFileText() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(NewlineAtEndOfFileCheck.class);
+        final NewlineAtEndOfFileCheck check = new NewlineAtEndOfFileCheck();
+        check.configure(checkConfig);
+        final FileText fileText = new FileText(
+                new File(getPath("InputNewlineAtEndOfFileNoNewline.java")),
+                StandardCharsets.UTF_8.name(), true);
+        // the check must not open the file, which would fail
+        final File impossibleFile = new File("");
+        final Set<Violation> violations = check.process(impossibleFile, fileText);
+        assertEquals(1, violations.size(), "Amount of violations is unexpected");
+        assertEquals(getCheckMessage(MSG_KEY_NO_NEWLINE_EOF), violations.iterator().next()
+                .getViolation(), "Violation message differs from expected");
+    }
+
     @Test
     public void testWrongSeparatorLength() throws Exception {
         final RandomAccessFile file =
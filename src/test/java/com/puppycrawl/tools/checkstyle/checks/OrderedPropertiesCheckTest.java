@@ -24,8 +24,7 @@ import static com.puppycrawl.tools.checkstyle.checks.OrderedPropertiesCheck.MSG_
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.SortedSet;
 
 import org.junit.Test;
@@ -34,8 +33,6 @@ import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Violation;
-import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
-import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class OrderedPropertiesCheckTest extends AbstractModuleTestSupport {
@@ -117,54 +114,23 @@ public class OrderedPropertiesCheckTest extends AbstractModuleTestSupport {
     }
 
     /**
-     * Tests IO exception, that can occur during reading of properties file.
+     * Tests that the check works on the text it is given and does not read the file again.
      */
     @Test
-    public void testIoException() throws Exception {
+    public void testFileTextIsUsed() throws Exception {
         final DefaultConfiguration checkConfig = createModuleConfig(OrderedPropertiesCheck.class);
         final OrderedPropertiesCheck check = new OrderedPropertiesCheck();
         check.configure(checkConfig);
-        final String fileName =
-                getPath("InputOrderedPropertiesCheckNotExisting.properties");
-        final File file = new File(fileName);
-        final FileText fileText = new FileText(file, Collections.<String>emptyList());
-        final SortedSet<Violation> violations =
-                check.process(file, fileText);
+        final File file = new File(getPath("InputOrderedPropertiesCheckNotExisting.properties"));
+        final FileText fileText = new FileText(file, Arrays.asList("b=1", "a=2"));
+        final SortedSet<Violation> violations = check.process(file, fileText);
         assertEquals(1, violations.size(), "Wrong violations count: " + violations.size());
         final Violation violation = violations.iterator().next();
-        final String retrievedMessage = violations.iterator().next().getKey();
-        assertEquals("unable.open.cause", retrievedMessage,
-                "violation key '" + retrievedMessage + "' is not valid");
-        assertEquals(violation.getViolation(),
-                getCheckMessage(MSG_IO_EXCEPTION_KEY, fileName, getFileNotFoundDetail(file)),
+        assertEquals(2, violation.getLineNo(), "Invalid line number");
+        assertEquals(getCheckMessage(MSG_KEY, "a", "b"), violation.getViolation(),
                 "violation '" + violation.getViolation() + "' is not valid");
     }
 
-    /**
-     * This test validates the PIT mutation of getIndex().
-     * Here the for statement for
-     * (int index = startLineNo; index < fileText.size(); index++)
-     * will change to
-     * for (int index = startLineNo; true; index++)
-     * By creating a FileText having no lines it makes sure that
-     * fileText.size() returning zero size.
-     * This will keep the for loop intact.
-     */
-    @Test
-    public void testKeepForLoopIntact() throws Exception {
-
-        final DefaultConfiguration checkConfig = createModuleConfig(OrderedPropertiesCheck.class);
-        final OrderedPropertiesCheck check = new OrderedPropertiesCheck();
-        check.configure(checkConfig);
-        final String fileName =
-                getPath("InputOrderedProperties2EmptyValue.properties");
-        final File file = new File(fileName);
-        final FileText fileText = new FileText(file, Collections.<String>emptyList());
-        final SortedSet<Violation> violations = check.process(file, fileText);
-
-        assertEquals(1, violations.size(), "Wrong violations count: " + violations.size());
-    }
-
     @Test
     public void testFileExtension() {
 
@@ -172,20 +138,4 @@ public class OrderedPropertiesCheckTest extends AbstractModuleTestSupport {
         assertEquals(".properties", check.getFileExtensions()[0], "File extension should be set");
     }
 
-    /**
-     * Method generates NoSuchFileException details. It tries to a open file that does not exist.
-     *
-     * @param file to be opened
-     * @return localized detail message of {@link IOException}
-     */
-    private static String getFileNotFoundDetail(File file) {
-        // Create exception to know detail message we should wait in LocalisedMessage
-        try {
-            Files7.newInputStream(new Path(file));
-            throw new IllegalStateException("File " + file.getPath() + " should not exist");
-        }
-        catch (IOException ex) {
-            return ex.getLocalizedMessage();
-        }
-    }
 }
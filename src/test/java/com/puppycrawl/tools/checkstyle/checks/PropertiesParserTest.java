@@ -0,0 +1,129 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+public class PropertiesParserTest {
+
+    @Test
+    public void testSameAsProperties() throws Exception {
+        final String[][] texts = {
+            {"key=value", "key2 = value2", "key3:value3", "key4 value4", "key5"},
+            {"  # comment", "\t! comment", "", "   ", "\fkey=value"},
+            {"key = = value", "key2 : : value", "key3 =:value", "key4 \t value"},
+            {"multi=one \\", "    two \\", "\tthree", "next=value"},
+            {"ends=with \\\\", "even=backslashes"},
+            {"comment=continued \\", "# is no comment", "last=value \\"},
+            {"empty=continuation \\", "", "after=empty"},
+            {"blank=continuation \\", "   ", "after=blank"},
+            {"key\\ with\\ spaces=value", "key\\=with\\:separators=value"},
+            {"escapes=\\t\\r\\n\\f\\u0041\\u00e4\\q\\\\", "\\u0041key=value"},
+            {"# comment \\", "key=value"},
+            {"dangling=\\"},
+        };
+        for (String[] lines : texts) {
+            final List<PropertiesParser.Property> properties = parse(lines);
+            final Map<String, String> parsed = new HashMap<String, String>();
+            for (PropertiesParser.Property property : properties) {
+                parsed.put(property.getKey(), property.getValue());
+            }
+            assertWithMessage("Invalid properties of " + Arrays.toString(lines))
+                    .that(parsed)
+                    .isEqualTo(load(lines));
+        }
+    }
+
+    @Test
+    public void testLineNumbers() {
+        final List<PropertiesParser.Property> properties = parse(
+                "# comment", "", "first=1", "second=2 \\", "  continued", "third=3",
+                "first=4");
+        final List<String> actual = new ArrayList<String>();
+        for (PropertiesParser.Property property : properties) {
+            actual.add(property.getKey() + ":" + property.getLineNo());
+        }
+        assertWithMessage("Invalid properties")
+                .that(actual)
+                .containsExactly("first:3", "second:4", "third:6", "first:7")
+                .inOrder();
+    }
+
+    @Test
+    public void testMalformedEscape() {
+        final String[] texts = {"key=\\u001xyz", "key=\\u00", "\\uzzzz=value"};
+        for (String text : texts) {
+            final List<PropertiesParser.Property> properties =
+                    new ArrayList<PropertiesParser.Property>();
+            try {
+                PropertiesParser.parse(createFileText("valid=1", text, "next=2"), properties);
+                fail("Exception is expected for " + text);
+            }
+            catch (IllegalArgumentException ex) {
+                assertEquals("Malformed \\uxxxx encoding.", ex.getMessage(),
+                        "Invalid exception message");
+            }
+            assertEquals(1, properties.size(),
+                    "Properties before the malformed escape should be parsed");
+        }
+    }
+
+    private static List<PropertiesParser.Property> parse(String... lines) {
+        final List<PropertiesParser.Property> properties =
+                new ArrayList<PropertiesParser.Property>();
+        PropertiesParser.parse(createFileText(lines), properties);
+        return properties;
+    }
+
+    private static FileText createFileText(String... lines) {
+        return new FileText(new File("test.properties"), Arrays.asList(lines));
+    }
+
+    private static Map<String, String> load(String... lines) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        final Properties properties = new Properties();
+        properties.load(new StringReader(text.toString()));
+        final Map<String, String> result = new HashMap<String, String>();
+        for (String name : properties.stringPropertyNames()) {
+            result.put(name, properties.getProperty(name));
+        }
+        return result;
+    }
+
+}
@@ -29,8 +29,10 @@ import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.After;
 import org.junit.Test;
@@ -45,6 +47,8 @@ import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck;
@@ -59,6 +63,10 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
 
+    private static final String FILE_NAME = "filename";
+
+    private final Map<String, Object> fileState = new ConcurrentHashMap<String, Object>();
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/checks/suppresswarningsholder";
@@ -67,9 +75,6 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
     @After
     public void cleanUp() {
         // clear cache that may have been set by tests
-
-        new SuppressWarningsHolder().beginTree(null);
-
         final Map<String, String> map = Whitebox.getInternalState(SuppressWarningsHolder.class,
                 "CHECK_ALIAS_MAP");
         map.clear();
@@ -178,7 +183,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         populateHolder("MockEntry", 100, 100, 350, 350);
         final AuditEvent event = createAuditEvent("check", 100, 10);
 
-        assertFalse(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -188,7 +194,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         final AuditEvent event = createAuditEvent("id", 110, 10);
         holder.setAliasList(MemberNameCheck.class.getName() + "=check");
 
-        assertTrue(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -196,7 +203,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         populateHolder("check", 100, 100, 350, 350);
         final AuditEvent event = createAuditEvent("check", 350, 350);
 
-        assertTrue(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -204,7 +212,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         populateHolder("check", 100, 100, 350, 350);
         final AuditEvent event = createAuditEvent("check", 350, 352);
 
-        assertFalse(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -212,7 +221,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         populateHolder("check", 100, 100, 350, 350);
         final AuditEvent event = createAuditEvent("check", 400, 10);
 
-        assertFalse(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -220,7 +230,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         populateHolder("check", 100, 100, 350, 350);
         final AuditEvent event = createAuditEvent("check", 100, 100);
 
-        assertTrue(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -228,7 +239,8 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         populateHolder("check", 100, 100, 350, 350);
         final AuditEvent event = createAuditEvent("check", 100, 0);
 
-        assertTrue(SuppressWarningsHolder.isSuppressed(event), "Event is not suppressed");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, event),
+                "Event is not suppressed");
     }
 
     @Test
@@ -239,24 +251,84 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         final Violation firstViolationForTest =
             new Violation(100, 10, null, null, null, "id", MemberNameCheck.class, "msg");
         final AuditEvent firstEventForTest =
-            new AuditEvent(source, "fileName", firstViolationForTest);
-        assertFalse(SuppressWarningsHolder.isSuppressed(firstEventForTest), "Event is suppressed");
+            new AuditEvent(source, FILE_NAME, firstViolationForTest);
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, firstEventForTest),
+                "Event is suppressed");
 
         final Violation secondViolationForTest =
             new Violation(100, 150, null, null, null, "id", MemberNameCheck.class, "msg");
         final AuditEvent secondEventForTest =
-            new AuditEvent(source, "fileName", secondViolationForTest);
-        assertTrue(SuppressWarningsHolder.isSuppressed(secondEventForTest),
+            new AuditEvent(source, FILE_NAME, secondViolationForTest);
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, secondEventForTest),
                 "Event is not suppressed");
 
         final Violation thirdViolationForTest =
             new Violation(200, 1, null, null, null, "id", MemberNameCheck.class, "msg");
         final AuditEvent thirdEventForTest =
-            new AuditEvent(source, "fileName", thirdViolationForTest);
-        assertTrue(SuppressWarningsHolder.isSuppressed(thirdEventForTest),
+            new AuditEvent(source, FILE_NAME, thirdViolationForTest);
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, thirdEventForTest),
                 "Event is not suppressed");
     }
 
+    @Test
+    public void testIsSuppressedByOverlappingRegions() throws Exception {
+        createHolder(FILE_NAME).beginTree(null);
+        populateHolder("MemberName", 10, 5, 100, 0);
+        populateHolder("membername", 20, 5, 30, 10);
+        populateHolder("other", 1, 0, 500, 0);
+
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, createAuditEvent("id", 25, 1)),
+                "Event should be suppressed by outer region");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, createAuditEvent("id", 100, 0)),
+                "Event should be suppressed at the end of outer region");
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, createAuditEvent("id", 100, 1)),
+                "Event should not be suppressed after the end of outer region");
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, createAuditEvent("id", 10, 4)),
+                "Event should not be suppressed before the start of outer region");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState,
+                createAuditEvent("other", 200, 1)),
+                "Event should be suppressed by module id");
+
+        populateHolder("membername", 150, 1, 160, 0);
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState, createAuditEvent("id", 155, 1)),
+                "Event should be suppressed by region added after a lookup");
+        createHolder(FILE_NAME).beginTree(null);
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState, createAuditEvent("id", 155, 1)),
+                "Event should not be suppressed after the file is started again");
+        assertFalse(SuppressWarningsHolder.isSuppressed(null, createAuditEvent("id", 155, 1)),
+                "Event should not be suppressed without file state");
+    }
+
+    @Test
+    public void testIsSuppressedOnOtherThread() throws Exception {
+        final File file = new File(getPath("InputSuppressWarningsHolder.java"));
+        final SuppressWarningsHolder holder = new SuppressWarningsHolder();
+        holder.setFileState(fileState);
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final Thread walker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                holder.setFileContents(createFileContents(file.getPath()));
+                holder.beginTree(rootAst);
+                visitAnnotations(holder, rootAst);
+            }
+        });
+        walker.start();
+        walker.join();
+
+        holder.setAliasList(MemberNameCheck.class.getName() + "=unused");
+        final Violation violation = new Violation(17, 9, null, null, null, null,
+                MemberNameCheck.class, "violation");
+        final Violation otherViolation = new Violation(14, 5, null, null, null, null,
+                MemberNameCheck.class, "violation");
+        assertTrue(SuppressWarningsHolder.isSuppressed(fileState,
+                new AuditEvent(this, file.getPath(), violation)),
+                "Entries of the walker thread should be visible to the filter thread");
+        assertFalse(SuppressWarningsHolder.isSuppressed(fileState,
+                new AuditEvent(this, file.getPath(), otherViolation)),
+                "Event outside of suppressed region should not be suppressed");
+    }
+
     @Test
     public void testAnnotationInTry() throws Exception {
         final Configuration checkConfig = createModuleConfig(SuppressWarningsHolder.class);
@@ -399,11 +471,12 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
     @Test
     @SuppressWarnings("unchecked")
     public void testClearState() throws Exception {
-        final SuppressWarningsHolder check = new SuppressWarningsHolder();
+        final String fileName = getPath("InputSuppressWarningsHolder.java");
+        final SuppressWarningsHolder check = createHolder(fileName);
 
         final Optional<DetailAST> annotationDef = TestUtil.findTokenInAstByPredicate(
                 JavaParser.parseFile(
-                    new File(getPath("InputSuppressWarningsHolder.java")),
+                    new File(fileName),
                     JavaParser.Options.WITHOUT_COMMENTS),
             new Predicate<DetailAST>() {
                 @Override
@@ -415,17 +488,20 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         assertTrue(annotationDef.isPresent(), "Ast should contain ANNOTATION");
         assertTrue(
             TestUtil.isStatefulFieldClearedDuringBeginTree(check, annotationDef.get(),
-                "ENTRIES",
+                "fileState",
                 new Predicate<Object>() {
                     @Override
-                    public boolean test(Object entries) {
-                        return ((ThreadLocal<List<Object>>) entries).get().isEmpty();
+                    public boolean test(Object state) {
+                        final Object suppressions = ((Map<String, Object>) state).values()
+                                .iterator().next();
+                        return Whitebox.<List<?>>getInternalState(suppressions, "entries")
+                                .isEmpty();
                     }
                 }),
                 "State is not cleared on beginTree");
     }
 
-    private static void populateHolder(String checkName, int firstLine,
+    private void populateHolder(String checkName, int firstLine,
                                                          int firstColumn, int lastLine,
                                                          int lastColumn) throws Exception {
         final Class<?> entry = Class
@@ -437,16 +513,38 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
         final Object entryInstance = entryConstr.newInstance(checkName, firstLine,
                 firstColumn, lastLine, lastColumn);
 
-        final ThreadLocal<List<Object>> entries = Whitebox
-                .getInternalState(SuppressWarningsHolder.class, "ENTRIES");
-        entries.get().add(entryInstance);
+        if (fileState.isEmpty()) {
+            createHolder(FILE_NAME).beginTree(null);
+        }
+        Whitebox.invokeMethod(fileState.values().iterator().next(), "add", entryInstance);
     }
 
     private static AuditEvent createAuditEvent(String moduleId, int line, int column) {
         final Checker source = new Checker();
         final Violation violation = new Violation(line, column, null, null, null,
                 moduleId, MemberNameCheck.class, "violation");
-        return new AuditEvent(source, "filename", violation);
+        return new AuditEvent(source, FILE_NAME, violation);
+    }
+
+    private SuppressWarningsHolder createHolder(String fileName) {
+        final SuppressWarningsHolder holder = new SuppressWarningsHolder();
+        holder.setFileContents(createFileContents(fileName));
+        holder.setFileState(fileState);
+        return holder;
+    }
+
+    private static FileContents createFileContents(String fileName) {
+        return new FileContents(
+                new FileText(new File(fileName), Collections.<String>emptyList()));
+    }
+
+    private static void visitAnnotations(SuppressWarningsHolder holder, DetailAST ast) {
+        for (DetailAST child = ast; child != null; child = child.getNextSibling()) {
+            if (child.getType() == TokenTypes.ANNOTATION) {
+                holder.visitToken(child);
+            }
+            visitAnnotations(holder, child.getFirstChild());
+        }
     }
 
     @Test
@@ -477,4 +575,34 @@ public class SuppressWarningsHolderTest extends AbstractModuleTestSupport {
             getNonCompilablePath("InputSuppressWarningsHolderTextBlocks.java"), expected);
     }
 
+    @Test
+    public void testSuppressWarningsWithBasedir() throws Exception {
+        final Configuration checkConfig = createModuleConfig(SuppressWarningsHolder.class);
+        final DefaultConfiguration treeWalker = createModuleConfig(TreeWalker.class);
+        final Configuration filter = createModuleConfig(SuppressWarningsFilter.class);
+        final DefaultConfiguration violationCheck = createModuleConfig(MemberNameCheck.class);
+
+        treeWalker.addChild(checkConfig);
+        treeWalker.addChild(violationCheck);
+
+        final String fileName = "InputSuppressWarningsHolderTextBlocks.java";
+        final String path = getNonCompilablePath(fileName);
+        final DefaultConfiguration root = createRootConfig(treeWalker);
+        root.addChild(filter);
+        root.addAttribute("basedir", new File(path).getParent());
+
+        final String pattern = "^[a-z][a-zA-Z0-9]*$";
+
+        final String[] expected = {
+            "15:12: " + getCheckMessage(MemberNameCheck.class,
+                AbstractNameCheck.MSG_INVALID_PATTERN, "STRING3", pattern),
+            "17:12: " + getCheckMessage(MemberNameCheck.class,
+                AbstractNameCheck.MSG_INVALID_PATTERN, "STRING4", pattern),
+            "46:12: " + getCheckMessage(MemberNameCheck.class,
+                AbstractNameCheck.MSG_INVALID_PATTERN, "STRING8", pattern),
+            };
+
+        verify(createChecker(root), path, fileName, expected);
+    }
+
 }
@@ -22,18 +22,9 @@ package com.puppycrawl.tools.checkstyle.checks;
 import static com.puppycrawl.tools.checkstyle.checks.UniquePropertiesCheck.MSG_IO_EXCEPTION_KEY;
 import static com.puppycrawl.tools.checkstyle.checks.UniquePropertiesCheck.MSG_KEY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.SortedSet;
 
 import org.junit.Test;
@@ -42,8 +33,6 @@ import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Violation;
-import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
-import com.puppycrawl.tools.checkstyle.jre6.file.Path;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class UniquePropertiesCheckTest extends AbstractModuleTestSupport {
@@ -80,29 +69,6 @@ public class UniquePropertiesCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputUniqueProperties.properties"), expected);
     }
 
-    /**
-     * Tests the {@link UniquePropertiesCheck#getLineNumber(FileText, String)}
-     * method return value.
-     *
-     * @noinspection JavadocReference Test javadocs should explain all.
-     */
-    @Test
-    public void testNotFoundKey() throws Exception {
-        final List<String> testStrings = new ArrayList<String>(3);
-        final Method getLineNumber = UniquePropertiesCheck.class.getDeclaredMethod(
-            "getLineNumber", FileText.class, String.class);
-        assertNotNull(getLineNumber, "Get line number method should be present");
-        getLineNumber.setAccessible(true);
-        testStrings.add("");
-        testStrings.add("0 = 0");
-        testStrings.add("445");
-        final FileText fileText = new FileText(new File("some.properties"), testStrings);
-        final Object lineNumber = getLineNumber.invoke(UniquePropertiesCheck.class,
-                fileText, "some key");
-        assertNotNull(lineNumber, "Line number should not be null");
-        assertEquals(1, lineNumber, "Invalid line number");
-    }
-
     @Test
     public void testDuplicatedProperty() throws Exception {
         final DefaultConfiguration checkConfig = createModuleConfig(UniquePropertiesCheck.class);
@@ -119,71 +85,33 @@ public class UniquePropertiesCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputUniqueProperties.txt"), expected);
     }
 
+    @Test
+    public void testMalformedValue() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(UniquePropertiesCheck.class);
+        final String fileName = getPath("InputUniquePropertiesMalformedValue.properties");
+        final String[] expected = {
+            "1: " + getCheckMessage(MSG_IO_EXCEPTION_KEY, fileName, "Malformed \\uxxxx encoding."),
+            "2: " + getCheckMessage(MSG_KEY, "key", 2),
+        };
+        verify(checkConfig, fileName, expected);
+    }
+
     /**
-     * Tests IO exception, that can occur during reading of properties file.
+     * Tests that the check works on the text it is given and does not read the file again.
      */
     @Test
-    public void testIoException() throws Exception {
+    public void testFileTextIsUsed() throws Exception {
         final DefaultConfiguration checkConfig = createModuleConfig(UniquePropertiesCheck.class);
         final UniquePropertiesCheck check = new UniquePropertiesCheck();
         check.configure(checkConfig);
-        final String fileName =
-                getPath("InputUniquePropertiesCheckNotExisting.properties");
-        final File file = new File(fileName);
-        final FileText fileText = new FileText(file, Collections.<String>emptyList());
-        final SortedSet<Violation> violations =
-                check.process(file, fileText);
+        final File file = new File(getPath("InputUniquePropertiesCheckNotExisting.properties"));
+        final FileText fileText = new FileText(file, Arrays.asList("a=1", "b=2", "a=3"));
+        final SortedSet<Violation> violations = check.process(file, fileText);
         assertEquals(1, violations.size(), "Wrong messages count: " + violations.size());
         final Violation violation = violations.iterator().next();
-        final String retrievedMessage = violations.iterator().next().getKey();
-        assertEquals("unable.open.cause", retrievedMessage,
-                "violation key '" + retrievedMessage + "' is not valid");
-        assertEquals(violation.getViolation(),
-                getCheckMessage(MSG_IO_EXCEPTION_KEY, fileName, getFileNotFoundDetail(file)),
+        assertEquals(1, violation.getLineNo(), "Invalid line number");
+        assertEquals(getCheckMessage(MSG_KEY, "a", 2), violation.getViolation(),
                 "violation '" + violation.getViolation() + "' is not valid");
     }
 
-    @Test
-    public void testWrongKeyTypeInProperties() throws Exception {
-        final Class<?> uniquePropertiesClass = Class
-                .forName("com.puppycrawl.tools.checkstyle.checks."
-                    + "UniquePropertiesCheck$UniqueProperties");
-        final Constructor<?> constructor = uniquePropertiesClass.getDeclaredConstructor();
-        constructor.setAccessible(true);
-        final Object uniqueProperties = constructor.newInstance();
-        final Method method = uniqueProperties.getClass().getDeclaredMethod("put", Object.class,
-                Object.class);
-        final Object result = method.invoke(uniqueProperties, 1, "value");
-        final Map<Object, Object> table = new HashMap<Object, Object>();
-        final Object expected = table.put(1, "value");
-        assertEquals(expected, result, "Invalid result of put method");
-
-        final Object result2 = method.invoke(uniqueProperties, 1, "value");
-        final Object expected2 = table.put(1, "value");
-        assertEquals(expected2, result2, "Value should be substituted");
-    }
-
-    /**
-     * Method generates NoSuchFileException details. It tries to a open file that does not exist.
-     *
-     * @param file to be opened
-     * @return localized detail message of {@link NoSuchFileException}
-     */
-    private static String getFileNotFoundDetail(File file) {
-        // Create exception to know detail message we should wait in
-        // LocalisedMessage
-        try {
-            final InputStream stream = Files7.newInputStream(new Path(file));
-            try {
-                throw new IllegalStateException("File " + file.getPath() + " should not exist");
-            }
-            finally {
-                stream.close();
-            }
-        }
-        catch (IOException ex) {
-            return ex.getLocalizedMessage();
-        }
-    }
-
 }
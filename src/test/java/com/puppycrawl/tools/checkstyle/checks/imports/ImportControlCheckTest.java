@@ -22,11 +22,16 @@ package com.puppycrawl.tools.checkstyle.checks.imports;
 import static com.puppycrawl.tools.checkstyle.checks.imports.ImportControlCheck.MSG_DISALLOWED;
 import static com.puppycrawl.tools.checkstyle.checks.imports.ImportControlCheck.MSG_MISSING_FILE;
 import static com.puppycrawl.tools.checkstyle.checks.imports.ImportControlCheck.MSG_UNKNOWN_PKG;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -428,6 +433,27 @@ public class ImportControlCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputImportControlFileName.java"), expected);
     }
 
+    @Test
+    public void testAccessResultsOfFileAndPackageInOneRun() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(ImportControlCheck.class);
+        checkConfig.addProperty("file", getResourcePath("InputImportControlFileName.xml"));
+        final Map<String, List<String>> expectedMessages =
+            new LinkedHashMap<String, List<String>>(2);
+        expectedMessages.put(getPath("InputImportControlFileName.java"), singletonList(
+            "3:1: " + getCheckMessage(MSG_DISALLOWED, "java.awt.Image")
+        ));
+        expectedMessages.put(getPath("InputImportControl.java"), asList(
+            "4:1: " + getCheckMessage(MSG_DISALLOWED, "javax.swing.border.*"),
+            "5:1: " + getCheckMessage(MSG_DISALLOWED, "java.io.File"),
+            "6:1: " + getCheckMessage(MSG_DISALLOWED, "java.awt.Button.ABORT")
+        ));
+
+        verify(createChecker(checkConfig), new File[] {
+            new File(getPath("InputImportControlFileName.java")),
+            new File(getPath("InputImportControl.java")),
+        }, expectedMessages);
+    }
+
     @Test
     public void testFileNameNoExtension() throws Exception {
         final DefaultConfiguration checkConfig = createModuleConfig(ImportControlCheck.class);
@@ -254,4 +254,32 @@ public class PkgImportControlTest {
                 "Package should not be null");
     }
 
+    @Test
+    public void testLocateFinestKeepsDeclarationOrder() {
+        final PkgImportControl root = new PkgImportControl(
+                "com.kazgroup", false, MismatchStrategy.DISALLOWED);
+        final PkgImportControl regexChild = new PkgImportControl(root,
+                "court.*", true, MismatchStrategy.DELEGATE_TO_PARENT);
+        final PkgImportControl plainChild = new PkgImportControl(root,
+                "courtlink", false, MismatchStrategy.DELEGATE_TO_PARENT);
+        final PkgImportControl otherChild = new PkgImportControl(root,
+                "other.sub", false, MismatchStrategy.DELEGATE_TO_PARENT);
+        final FileImportControl fileChild = new FileImportControl(root, "MyClass", false);
+        root.addChild(regexChild);
+        root.addChild(plainChild);
+        root.addChild(otherChild);
+        root.addChild(fileChild);
+
+        assertEquals(regexChild, root.locateFinest("com.kazgroup.courtlink", "MyClass"),
+                "Child declared first should be found first");
+        assertEquals(otherChild, root.locateFinest("com.kazgroup.other.sub.pkg", "MyClass"),
+                "Unexpected response");
+        assertEquals(fileChild, root.locateFinest("com.kazgroup.other", "MyClass"),
+                "Unexpected response");
+        assertEquals(fileChild, root.locateFinest("com.kazgroup", "MyClass"),
+                "Unexpected response");
+        assertEquals(root, root.locateFinest("com.kazgroup.unknown", "Other"),
+                "Unexpected response");
+    }
+
 }
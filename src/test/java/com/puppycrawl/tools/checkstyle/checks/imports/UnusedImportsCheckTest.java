@@ -182,8 +182,6 @@ public class UnusedImportsCheckTest extends AbstractModuleTestSupport {
             TokenTypes.VARIABLE_DEF,
             TokenTypes.RECORD_DEF,
             TokenTypes.COMPACT_CTOR_DEF,
-            TokenTypes.OBJBLOCK,
-            TokenTypes.SLIST,
         };
 
         assertArrayEquals(expected, actual, "Default required tokens are invalid");
@@ -211,8 +209,6 @@ public class UnusedImportsCheckTest extends AbstractModuleTestSupport {
             TokenTypes.VARIABLE_DEF,
             TokenTypes.RECORD_DEF,
             TokenTypes.COMPACT_CTOR_DEF,
-            TokenTypes.OBJBLOCK,
-            TokenTypes.SLIST,
         };
 
         assertArrayEquals(expected, actual, "Default acceptable tokens are invalid");
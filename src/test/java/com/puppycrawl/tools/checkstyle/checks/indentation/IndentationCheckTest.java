@@ -25,10 +25,12 @@ import static com.puppycrawl.tools.checkstyle.checks.indentation.IndentationChec
 import static com.puppycrawl.tools.checkstyle.checks.indentation.IndentationCheck.MSG_ERROR_MULTI;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -45,6 +47,7 @@ import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
 import com.puppycrawl.tools.checkstyle.jre6.file.Files7;
 import com.puppycrawl.tools.checkstyle.jre6.file.Paths;
@@ -197,6 +200,45 @@ public class IndentationCheckTest extends AbstractModuleTestSupport {
         assertArrayEquals(expected, acceptableTokens, "Default acceptable tokens are invalid");
     }
 
+    @Test
+    public void testHandledTypes() {
+        final HandlerFactory handlerFactory = new HandlerFactory();
+        final int[] handledTypes = handlerFactory.getHandledTypes();
+        final int[] sorted = handledTypes.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, handledTypes, "Handled types should be in ascending order");
+        for (int type : handledTypes) {
+            assertTrue(handlerFactory.isHandledType(type), "Type should be handled: " + type);
+        }
+        assertFalse(handlerFactory.isHandledType(-1), "Negative type should not be handled");
+        assertFalse(handlerFactory.isHandledType(TokenTypes.EXPR),
+                "Type without handler should not be handled");
+        assertFalse(handlerFactory.isHandledType(Integer.MAX_VALUE),
+                "Unknown type should not be handled");
+    }
+
+    @Test
+    public void testSameCheckOnSeveralFiles() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(IndentationCheck.class);
+        checkConfig.addProperty("arrayInitIndent", "4");
+        checkConfig.addProperty("basicOffset", "4");
+        checkConfig.addProperty("braceAdjustment", "0");
+        checkConfig.addProperty("caseIndent", "4");
+        checkConfig.addProperty("forceStrictCondition", "true");
+        checkConfig.addProperty("lineWrappingIndentation", "8");
+        checkConfig.addProperty("tabWidth", "4");
+        checkConfig.addProperty("throwsIndent", "8");
+        final String filePath = getPath("InputIndentationMethodCStyle.java");
+        final String[] expected = {
+            "20:30: " + getCheckMessage(MSG_ERROR, "int", 29, 12),
+            "21:30: " + getCheckMessage(MSG_ERROR, "int", 29, 12),
+            "20:30: " + getCheckMessage(MSG_ERROR, "int", 29, 12),
+            "21:30: " + getCheckMessage(MSG_ERROR, "int", 29, 12),
+        };
+        verify(createChecker(checkConfig), new File[] {new File(filePath), new File(filePath)},
+                filePath, expected);
+    }
+
     @Test
     public void testThrowsIndentProperty() {
         final IndentationCheck indentationCheck = new IndentationCheck();
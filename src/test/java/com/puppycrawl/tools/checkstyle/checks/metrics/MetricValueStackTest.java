@@ -0,0 +1,104 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class MetricValueStackTest {
+
+    @Test
+    public void testPushAndPop() {
+        final MetricValueStack stack = new MetricValueStack();
+        assertTrue(stack.isEmpty(), "Stack should be empty initially");
+        for (int i = 0; i < 100; i++) {
+            stack.push(i);
+        }
+        assertFalse(stack.isEmpty(), "Stack should not be empty");
+        final MetricValue value = new MetricValue();
+        stack.pop(value);
+        assertEquals(Long.valueOf(99), value.toNumber(), "Invalid popped value");
+        for (int i = 98; i >= 0; i--) {
+            assertEquals((long) i, stack.popLong(), "Invalid popped value");
+        }
+        assertTrue(stack.isEmpty(), "Stack should be empty");
+    }
+
+    @Test
+    public void testOverflowedValues() {
+        final BigInteger big = BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(3);
+        final MetricValue value = new MetricValue();
+        value.setBig(big);
+        final MetricValueStack stack = new MetricValueStack();
+        stack.push(value);
+        for (int i = 0; i < 20; i++) {
+            stack.push(i);
+        }
+        stack.push(value);
+
+        final MetricValue popped = new MetricValue();
+        stack.pop(popped);
+        assertEquals(big, popped.toNumber(), "Invalid popped value");
+        for (int i = 19; i >= 0; i--) {
+            stack.pop(popped);
+            assertEquals(Long.valueOf(i), popped.toNumber(), "Invalid popped value");
+        }
+        try {
+            stack.popLong();
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Value does not fit into a long: " + big,
+                    ex.getMessage(), "Invalid exception message");
+        }
+    }
+
+    @Test
+    public void testClear() {
+        final MetricValue value = new MetricValue();
+        value.setBig(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1));
+        final MetricValueStack stack = new MetricValueStack();
+        stack.push(value);
+        stack.push(1);
+        stack.clear();
+        assertTrue(stack.isEmpty(), "Stack should be empty after clear");
+        stack.push(2);
+        assertEquals(2L, stack.popLong(), "Invalid popped value");
+    }
+
+    @Test
+    public void testPopEmpty() {
+        final MetricValueStack stack = new MetricValueStack();
+        try {
+            stack.pop(new MetricValue());
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Stack is empty", ex.getMessage(), "Invalid exception message");
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class MetricValueTest {
+
+    private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+    @Test
+    public void testLongArithmetic() {
+        final MetricValue value = new MetricValue();
+        assertTrue(value.isZero(), "Value should be zero initially");
+        value.add(3);
+        final MetricValue other = new MetricValue();
+        other.set(5);
+        value.multiply(other);
+        value.add(other);
+        value.add(-1);
+        assertEquals(Long.valueOf(19), value.toNumber(), "Invalid value");
+        assertNull(value.getBigValue(), "Value should fit into a long");
+        assertTrue(value.isGreaterThan(18), "Value should be greater than 18");
+        assertFalse(value.isGreaterThan(19), "Value should not be greater than 19");
+        assertEquals("19", value.toString(), "Invalid string");
+    }
+
+    @Test
+    public void testAdditionOverflow() {
+        final MetricValue value = new MetricValue();
+        value.set(Long.MAX_VALUE);
+        value.add(2);
+        assertEquals(MAX_LONG.add(BigInteger.valueOf(2)), value.toNumber(), "Invalid value");
+        assertTrue(value.isGreaterThan(Long.MAX_VALUE), "Value should be greater than any long");
+        assertFalse(value.isZero(), "Value should not be zero");
+
+        value.add(-2);
+        assertEquals(Long.valueOf(Long.MAX_VALUE), value.toNumber(),
+                "Value should be a long again");
+        assertEquals(Long.MAX_VALUE, value.longValue(), "Invalid long value");
+    }
+
+    @Test
+    public void testMultiplicationOverflow() {
+        final MetricValue value = new MetricValue();
+        value.set(3486784401L);
+        final MetricValue factor = new MetricValue();
+        factor.set(value);
+        value.multiply(factor);
+        value.multiply(factor);
+        final BigInteger expected = BigInteger.valueOf(3486784401L).pow(3);
+        assertEquals(expected, value.toNumber(), "Invalid value");
+        assertEquals(expected, value.toBigInteger(), "Invalid big value");
+
+        final MetricValue copy = new MetricValue();
+        copy.set(value);
+        copy.add(value);
+        assertEquals(expected.shiftLeft(1), copy.toNumber(), "Invalid sum");
+        copy.set(1);
+        copy.add(value);
+        assertEquals(expected.add(BigInteger.ONE), copy.toNumber(), "Invalid sum");
+        factor.multiply(value);
+        assertEquals(expected.multiply(BigInteger.valueOf(3486784401L)), factor.toNumber(),
+                "Invalid product");
+    }
+
+    @Test
+    public void testNegativeOverflow() {
+        final MetricValue value = new MetricValue();
+        value.set(Long.MIN_VALUE);
+        final MetricValue factor = new MetricValue();
+        factor.set(-1);
+        factor.multiply(value);
+        assertEquals(MAX_LONG.add(BigInteger.ONE), factor.toNumber(), "Invalid product");
+        value.add(-1);
+        assertFalse(value.isGreaterThan(Long.MIN_VALUE),
+                "Value should be less than any long");
+    }
+
+    @Test
+    public void testLongValueOfOverflowedValue() {
+        final MetricValue value = new MetricValue();
+        value.setBig(MAX_LONG.shiftLeft(1));
+        try {
+            value.longValue();
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Value does not fit into a long: " + MAX_LONG.shiftLeft(1),
+                    ex.getMessage(), "Invalid exception message");
+        }
+    }
+
+}
@@ -26,7 +26,6 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
-import java.util.Collection;
 import java.util.SortedSet;
 
 import org.junit.Test;
@@ -36,7 +35,6 @@ import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.DetailAstImpl;
 import com.puppycrawl.tools.checkstyle.JavaParser;
-import com.puppycrawl.tools.checkstyle.api.Context;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
@@ -135,7 +133,6 @@ public class NPathComplexityCheckTest extends AbstractModuleTestSupport {
     }
 
     @Test
-    @SuppressWarnings("unchecked")
     public void testStatefulFieldsClearedOnBeginTree1() throws Exception {
         final DetailAstImpl ast = new DetailAstImpl();
         ast.setType(TokenTypes.LITERAL_ELSE);
@@ -146,7 +143,7 @@ public class NPathComplexityCheckTest extends AbstractModuleTestSupport {
                 new Predicate<Object>() {
                     @Override
                     public boolean test(Object rangeValues) {
-                        return ((Collection<Context>) rangeValues).isEmpty();
+                        return ((MetricValueStack) rangeValues).isEmpty();
                     }
                 }),
                 "Stateful field is not cleared after beginTree");
@@ -155,14 +152,13 @@ public class NPathComplexityCheckTest extends AbstractModuleTestSupport {
                 new Predicate<Object>() {
                     @Override
                     public boolean test(Object expressionValues) {
-                        return ((Collection<Context>) expressionValues).isEmpty();
+                        return ((MetricValueStack) expressionValues).isEmpty();
                     }
                 }),
                 "Stateful field is not cleared after beginTree");
     }
 
     @Test
-    @SuppressWarnings("unchecked")
     public void testStatefulFieldsClearedOnBeginTree2() throws Exception {
         final DetailAstImpl ast = new DetailAstImpl();
         ast.setType(TokenTypes.LITERAL_RETURN);
@@ -177,7 +173,7 @@ public class NPathComplexityCheckTest extends AbstractModuleTestSupport {
                 new Predicate<Object>() {
                     @Override
                     public boolean test(Object isAfterValues) {
-                        return ((Collection<Context>) isAfterValues).isEmpty();
+                        return ((MetricValueStack) isAfterValues).isEmpty();
                     }
                 }),
                 "Stateful field is not cleared after beginTree");
@@ -24,6 +24,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.regex.Pattern;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -57,6 +59,26 @@ public class SuppressFilterElementTest {
         assertFalse(filter.accept(ev), "Names match");
     }
 
+    @Test
+    public void testDecideByPlainAndRegexpPatterns() {
+        final Violation violation =
+            new Violation(1, 0, "", "", null, null, getClass(), null);
+        final AuditEvent ev = new AuditEvent(this, "dir/ATestXjava", violation);
+        final SuppressFilterElement plain =
+                new SuppressFilterElement("dir/ATest", "FilterElement", null, null, null, null);
+        final SuppressFilterElement regexp =
+                new SuppressFilterElement("Test.java", "Filter.*Test$", null, null, null, null);
+        final SuppressFilterElement notMatching =
+                new SuppressFilterElement("Test\\.java", null, null, null, null, null);
+        final SuppressFilterElement caseInsensitive =
+                new SuppressFilterElement(Pattern.compile("atest", Pattern.CASE_INSENSITIVE),
+                        null, null, null, null, null);
+        assertFalse(plain.accept(ev), "Plain patterns match");
+        assertFalse(regexp.accept(ev), "Regexp patterns match");
+        assertTrue(notMatching.accept(ev), "Escaped dot does not match");
+        assertFalse(caseInsensitive.accept(ev), "Pattern flags are respected");
+    }
+
     @Test
     public void testDecideByMessage() {
         final Violation violation =
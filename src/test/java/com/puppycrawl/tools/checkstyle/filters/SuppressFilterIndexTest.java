@@ -0,0 +1,121 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.TreeWalkerTest;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
+
+public class SuppressFilterIndexTest {
+
+    @Test
+    public void testAcceptsSameEventsAsFilterSet() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement("Test", "Test", null, null, null, null));
+        filterSet.addFilter(new SuppressFilterElement("Test", "ConstantName", null, null,
+                "10-20", null));
+        filterSet.addFilter(new SuppressFilterElement("A.*\\.java", null, "message", null,
+                null, null));
+        filterSet.addFilter(new SuppressFilterElement("B.java", null, null, "id", null, "5"));
+        filterSet.addFilter(new SuppressFilterElement(null, "Tree[a-z]+Test", null, null,
+                null, null));
+        filterSet.addFilter(new SuppressFilterElement(Pattern.compile("c\\.java",
+                Pattern.CASE_INSENSITIVE), Pattern.compile("constantname",
+                Pattern.CASE_INSENSITIVE), null, null, null, null));
+        filterSet.addFilter(new SeverityMatchFilter());
+        final SuppressFilterIndex index = new SuppressFilterIndex(filterSet);
+
+        final String[] fileNames = {"ATest.java", "B.java", "BXjava", "C.JAVA", "Other.java"};
+        final Class<?>[] sources = {ConstantNameCheck.class, TreeWalkerTest.class, getClass()};
+        final String[] moduleIds = {null, "id", "other"};
+        final String[] messages = {null, "some message"};
+        final SeverityLevel[] severities = {SeverityLevel.ERROR, SeverityLevel.WARNING};
+        final int[] lines = {1, 15};
+        final int[] columns = {0, 5};
+        int rejected = 0;
+        for (String fileName : fileNames) {
+            for (Class<?> source : sources) {
+                for (String moduleId : moduleIds) {
+                    for (String message : messages) {
+                        for (SeverityLevel severity : severities) {
+                            for (int line : lines) {
+                                for (int column : columns) {
+                                    final Violation violation = new Violation(line, column,
+                                            "", "", null, severity, moduleId, source, message);
+                                    final AuditEvent event =
+                                            new AuditEvent(this, fileName, violation);
+                                    final boolean expected = filterSet.accept(event);
+                                    assertEquals(expected, index.accept(event),
+                                            "Invalid result for " + fileName + " " + violation);
+                                    if (!expected) {
+                                        rejected++;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(rejected > 0, "Some events should be rejected");
+    }
+
+    @Test
+    public void testEventsWithoutFileOrViolation() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(
+                new SuppressFilterElement((String) null, null, null, null, null, null));
+        final SuppressFilterIndex index = new SuppressFilterIndex(filterSet);
+
+        assertTrue(index.accept(new AuditEvent(this)), "Event without file should be accepted");
+        assertTrue(index.accept(new AuditEvent(this, "Test.java")),
+                "Event without violation should be accepted");
+        final Violation violation = new Violation(1, 0, "", "", null, null, getClass(), null);
+        assertFalse(index.accept(new AuditEvent(this, "Test.java", violation)),
+                "Event should be suppressed");
+    }
+
+    @Test
+    public void testFileChange() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement("First", null, null, null, null, null));
+        final SuppressFilterIndex index = new SuppressFilterIndex(filterSet);
+        final Violation violation = new Violation(1, 0, "", "", null, null, getClass(), null);
+
+        assertFalse(index.accept(new AuditEvent(this, "First.java", violation)),
+                "Event of first file should be suppressed");
+        assertTrue(index.accept(new AuditEvent(this, "Second.java", violation)),
+                "Event of second file should be accepted");
+        assertFalse(index.accept(new AuditEvent(this, "First.java", violation)),
+                "Event of first file should be suppressed again");
+    }
+
+}
@@ -0,0 +1,89 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.coding.IllegalCatchCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
+
+public class TagPatternMatcherTest {
+
+    @Test
+    public void testGetKey() {
+        final Pattern check = Pattern.compile("Check");
+        assertEquals(TagPatternMatcher.getKey(check, null, null),
+                TagPatternMatcher.getKey(Pattern.compile("Check"), null, null),
+                "Keys of equal patterns should be equal");
+        assertNotEquals(TagPatternMatcher.getKey(check, null, null),
+                TagPatternMatcher.getKey(check, null, Pattern.compile("null")),
+                "Missing pattern should differ from any pattern");
+        assertNotEquals(TagPatternMatcher.getKey(check, Pattern.compile("id"), null),
+                TagPatternMatcher.getKey(check, null, Pattern.compile("id")),
+                "Message and id patterns should be distinguished");
+    }
+
+    @Test
+    public void testIsMatch() {
+        final TagPatternMatcher matcher = new TagPatternMatcher(Pattern.compile("ConstantName"),
+                Pattern.compile("^Invalid"), Pattern.compile("constant"));
+
+        assertTrue(matcher.isMatch(createEvent(ConstantNameCheck.class, "constantId", "Invalid")),
+                "Event should match");
+        assertFalse(matcher.isMatch(createEvent(IllegalCatchCheck.class, "constantId",
+                "Invalid")), "Event of other check should not match");
+        assertFalse(matcher.isMatch(createEvent(ConstantNameCheck.class, null, "Invalid")),
+                "Event without id should not match");
+        assertFalse(matcher.isMatch(createEvent(ConstantNameCheck.class, "other", "Invalid")),
+                "Event with other id should not match");
+        assertFalse(matcher.isMatch(createEvent(ConstantNameCheck.class, "constantId",
+                "Not Invalid")), "Event with other message should not match");
+        assertTrue(matcher.isMatch(createEvent(ConstantNameCheck.class, "constantId",
+                "Invalid name")), "Remembered source and id should match again");
+    }
+
+    @Test
+    public void testIsMatchWithoutMessageAndId() {
+        final TagPatternMatcher matcher =
+                new TagPatternMatcher(Pattern.compile("Name"), null, null);
+
+        assertTrue(matcher.isMatch(createEvent(ConstantNameCheck.class, null, "message")),
+                "Event without id should match");
+        assertTrue(matcher.isMatch(createEvent(ConstantNameCheck.class, "id", "message")),
+                "Event with id should match");
+    }
+
+    private static TreeWalkerAuditEvent createEvent(Class<?> source, String moduleId,
+            String message) {
+        final Violation violation = new Violation(1, 1, null, null, null, moduleId, source,
+                message);
+        return new TreeWalkerAuditEvent(null, "filename", violation, null);
+    }
+
+}
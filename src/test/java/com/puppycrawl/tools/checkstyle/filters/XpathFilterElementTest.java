@@ -20,10 +20,12 @@
 package com.puppycrawl.tools.checkstyle.filters;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.lang.ref.WeakReference;
 import java.util.regex.Pattern;
 
 import org.junit.Before;
@@ -32,11 +34,13 @@ import org.junit.Test;
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+import com.puppycrawl.tools.checkstyle.xpath.SimpleXpathQuery;
 import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -98,6 +102,63 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
         assertTrue(filter.accept(ev), "Event should be accepted");
     }
 
+    @Test
+    public void testMatchingEventsOfSameAndOtherTree() throws Exception {
+        final String xpath = "//VARIABLE_DEF[./IDENT[@text='someVariable']]";
+        final XpathFilterElement filter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null, xpath);
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        assertFalse(filter.accept(getEvent(10, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "First event should be rejected");
+        assertFalse(filter.accept(getEvent(15, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "Second event of the same tree should be rejected");
+        assertTrue(filter.accept(getEvent(5, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "Other event of the same tree should be accepted");
+        assertFalse(filter.accept(getEvent(10, 8, TokenTypes.VARIABLE_DEF)),
+                "Event of other tree should be rejected");
+    }
+
+    @Test
+    public void testTreeIsNotRetained() throws Exception {
+        final XpathFilterElement filter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null,
+                "//VARIABLE_DEF[./IDENT[@text='someVariable']]");
+        final WeakReference<DetailAST> reference = acceptEventOfNewTree(filter);
+        for (int attempt = 0; attempt < 20 && reference.get() != null; attempt++) {
+            System.gc();
+        }
+        assertNull(reference.get(), "Tree of the last event should not be retained");
+    }
+
+    @Test
+    public void testMatchingEventsOnSeveralThreads() throws Exception {
+        final XpathFilterElement filter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null,
+                "//VARIABLE_DEF[./IDENT[@text='someVariable']]");
+        final DetailAST otherRootAst =
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final boolean[] otherResults = new boolean[100];
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int index = 0; index < otherResults.length; index++) {
+                    otherResults[index] = filter.accept(
+                            getEvent(5, 8, TokenTypes.VARIABLE_DEF, otherRootAst));
+                }
+            }
+        });
+        thread.start();
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        for (int index = 0; index < otherResults.length; index++) {
+            assertFalse(filter.accept(getEvent(10, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                    "Event should be rejected");
+        }
+        thread.join();
+        for (boolean result : otherResults) {
+            assertTrue(result, "Event of other thread should be accepted");
+        }
+    }
+
     @Test
     public void testComplexQuery() throws Exception {
         final String xpath = "//VARIABLE_DEF[./IDENT[@text='pi'] and "
@@ -305,17 +366,36 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
             .withPrefabValues(XPathExpression.class,
                 xpathEvaluator.createExpression("//METHOD_DEF"),
                 xpathEvaluator.createExpression("//VARIABLE_DEF"))
+            .withPrefabValues(SimpleXpathQuery.class,
+                SimpleXpathQuery.compile("//METHOD_DEF"),
+                SimpleXpathQuery.compile("//VARIABLE_DEF"))
+            .withPrefabValues(WeakReference.class,
+                new WeakReference<Object>(new Object()),
+                new WeakReference<Object>(new Object()))
                 .usingGetClass()
                 .verify();
     }
 
+    private WeakReference<DetailAST> acceptEventOfNewTree(XpathFilterElement filter)
+            throws Exception {
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        assertFalse(filter.accept(getEvent(10, 8, TokenTypes.VARIABLE_DEF, rootAst)),
+                "Event should be rejected");
+        return new WeakReference<DetailAST>(rootAst);
+    }
+
     private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType)
             throws Exception {
+        return getEvent(line, column, tokenType,
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+    }
+
+    private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType,
+            DetailAST rootAst) {
         final Violation message =
                 new Violation(line, column, tokenType, "", "", null, null, null,
                         getClass(), null);
-        return new TreeWalkerAuditEvent(fileContents, file.getName(), message,
-                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        return new TreeWalkerAuditEvent(fileContents, file.getName(), message, rootAst);
     }
 
 }
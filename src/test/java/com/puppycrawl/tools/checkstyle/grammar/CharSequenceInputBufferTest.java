@@ -0,0 +1,118 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.grammar;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import antlr.CharScanner;
+import antlr.Token;
+import antlr.TokenStreamSelector;
+import com.puppycrawl.tools.checkstyle.AbstractTreeTestSupport;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+
+public class CharSequenceInputBufferTest extends AbstractTreeTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/grammar/java14";
+    }
+
+    /**
+     * Lexes all tokens of a lexer the same way as {@code JavaParser}.
+     *
+     * @param lexer the lexer
+     * @param fileText the lexed text
+     * @return the type, position and text of the tokens
+     * @throws Exception if the text can't be lexed
+     */
+    private static List<String> lex(GeneratedJavaLexer lexer, FileText fileText)
+            throws Exception {
+        lexer.setCommentListener(new FileContents(fileText));
+        final GeneratedTextBlockLexer textBlockLexer =
+                new GeneratedTextBlockLexer(lexer.getInputState());
+        final TokenStreamSelector selector = new TokenStreamSelector();
+        lexer.selector = selector;
+        textBlockLexer.selector = selector;
+        selector.addInputStream(textBlockLexer, "textBlockLexer");
+        selector.select(lexer);
+        final List<String> result = new ArrayList<String>();
+        Token token = selector.nextToken();
+        while (token.getType() != Token.EOF_TYPE) {
+            result.add(token.getType() + " " + token.getLine() + ":" + token.getColumn()
+                    + " " + token.getText());
+            token = selector.nextToken();
+        }
+        return result;
+    }
+
+    @Test
+    public void testSameTokensAsReader() throws Exception {
+        final String[] inputs = {
+            "InputJava14TextBlocks.java",
+            "InputJava14TextBlocksEscapesAreOneChar.java",
+            "InputJava14EscapedS.java",
+        };
+        for (String input : inputs) {
+            final FileText fileText = new FileText(new File(getNonCompilablePath(input)),
+                    StandardCharsets.UTF_8.name());
+            final String text = fileText.getFullText().toString();
+            final List<String> expected =
+                    lex(new GeneratedJavaLexer(new StringReader(text)), fileText);
+            assertTrue(expected.size() > 1, "Input should have tokens");
+            assertWithMessage("Invalid tokens of " + input)
+                    .that(lex(new GeneratedJavaLexer(new CharSequenceInputBuffer(text)),
+                            fileText))
+                    .containsExactlyElementsIn(expected)
+                    .inOrder();
+        }
+    }
+
+    @Test
+    public void testLookaheadAndMarks() {
+        final CharSequenceInputBuffer buffer = new CharSequenceInputBuffer("abc");
+        buffer.fill(3);
+        assertEquals('a', buffer.LA(1), "Invalid first character");
+        assertEquals('c', buffer.LA(3), "Invalid third character");
+        assertEquals(CharScanner.EOF_CHAR, buffer.LA(4), "Invalid character after end");
+        buffer.consume();
+        final int mark = buffer.mark();
+        assertTrue(buffer.isMarked(), "Buffer should be marked");
+        buffer.consume();
+        assertEquals('c', buffer.LA(1), "Invalid character after consume");
+        buffer.rewind(mark);
+        assertFalse(buffer.isMarked(), "Buffer should not be marked");
+        assertEquals('b', buffer.LA(1), "Invalid character after rewind");
+        buffer.reset();
+        assertEquals('a', buffer.LA(1), "Invalid character after reset");
+    }
+
+}
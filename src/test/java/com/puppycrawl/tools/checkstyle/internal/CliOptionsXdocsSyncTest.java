@@ -54,7 +54,14 @@ public class CliOptionsXdocsSyncTest {
         final Set<String> cmdOptions = getListById(sections.item(2), "CLI_Options");
         for (String option : cmdOptions) {
             final String text = option.trim().replaceAll("\\s+", " ");
-            cmdDesc.put(text.substring(0, 2), text.substring(text.indexOf(" - ") + 3));
+            final String name;
+            if (text.startsWith("--")) {
+                name = text.split("[ ,]", 2)[0];
+            }
+            else {
+                name = text.substring(0, 2);
+            }
+            cmdDesc.put(name, text.substring(text.indexOf(" - ") + 3));
         }
 
         final Class<?> cliOptions = Class.forName("com.puppycrawl.tools.checkstyle"
@@ -96,8 +103,10 @@ public class CliOptionsXdocsSyncTest {
         final Set<String> shortParamsMain = new HashSet<String>();
         final Set<String> longParamsMain = new HashSet<String>();
         for (OptionSpec option : commandLine.getCommandSpec().options()) {
-            shortParamsMain.add(option.shortestName());
             final String name = option.longestName();
+            if (option.shortestName().length() == 2) {
+                shortParamsMain.add(option.shortestName());
+            }
             if (name.length() != 2) {
                 longParamsMain.add(name);
             }
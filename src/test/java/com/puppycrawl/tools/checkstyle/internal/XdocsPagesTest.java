@@ -136,6 +136,9 @@ public class XdocsPagesTest {
             "TreeWalker.moduleFactory",
             "TreeWalker.cacheFile",
             "TreeWalker.upChild",
+            "TreeWalker.fileState",
+            "SuppressWarningsHolder.fileState",
+            "SuppressWarningsFilter.fileState",
             "SuppressWithNearbyCommentFilter.fileContents",
             "SuppressionCommentFilter.fileContents"
     );
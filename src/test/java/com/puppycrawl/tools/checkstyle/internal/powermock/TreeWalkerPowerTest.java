@@ -43,6 +43,8 @@ import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SymbolTable;
+import com.puppycrawl.tools.checkstyle.api.TokenIndex;
 import com.puppycrawl.tools.checkstyle.checks.indentation.CommentsIndentationCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
 
@@ -75,7 +77,8 @@ public class TreeWalkerPowerTest extends AbstractModuleTestSupport {
         treeWalkerSpy.setFileContents(new FileContents(fileText));
         Whitebox.invokeMethod(treeWalkerSpy, "processFiltered", file, fileText);
         verifyPrivate(treeWalkerSpy, times(1)).invoke("walk",
-                any(DetailAST.class), any(FileContents.class), any(classAstState));
+                any(DetailAST.class), any(FileContents.class), any(SymbolTable.class),
+                any(TokenIndex.class), any(classAstState));
         verifyPrivate(treeWalkerSpy, times(0)).invoke("getFilteredViolations",
                 any(String.class), any(FileContents.class), any(DetailAST.class));
     }
@@ -97,7 +100,8 @@ public class TreeWalkerPowerTest extends AbstractModuleTestSupport {
         treeWalkerSpy.setFileContents(new FileContents(fileText));
         Whitebox.invokeMethod(treeWalkerSpy, "processFiltered", file, fileText);
         verifyPrivate(treeWalkerSpy, times(1)).invoke("walk",
-                any(DetailAST.class), any(FileContents.class), any(classAstState));
+                any(DetailAST.class), any(FileContents.class), any(SymbolTable.class),
+                any(TokenIndex.class), any(classAstState));
         verifyPrivate(treeWalkerSpy, times(0)).invoke("getFilteredViolations",
                 any(String.class), any(FileContents.class), any(DetailAST.class));
     }
@@ -240,6 +240,12 @@ public class TokenUtilTest {
         assertEquals(TokenTypes.EOF, TokenUtil.getTokenId(id), "Invalid token id");
     }
 
+    @Test
+    public void testIsTokenName() {
+        assertTrue(TokenUtil.isTokenName("CLASS_DEF"), "Token name should be known");
+        assertFalse(TokenUtil.isTokenName("CLASS"), "Name should not be a token name");
+    }
+
     @Test
     public void testCorrectBehaviourOfShortDescription() {
         final String id = "EOF";
@@ -0,0 +1,218 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+
+package com.puppycrawl.tools.checkstyle.utils.collections;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class IntObjectMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        assertWithMessage("Map should be empty initially")
+                .that(map.isEmpty())
+                .isTrue();
+        for (int key = -50; key < 1000; key += 3) {
+            assertWithMessage("Invalid previous value")
+                    .that(map.put(key, String.valueOf(key)))
+                    .isNull();
+        }
+        assertWithMessage("Invalid size")
+                .that(map.size())
+                .isEqualTo(350);
+        for (int key = -50; key < 1000; key++) {
+            final String expected;
+            if ((key + 50) % 3 == 0) {
+                expected = String.valueOf(key);
+            }
+            else {
+                expected = null;
+            }
+            assertWithMessage("Invalid value of " + key)
+                    .that(map.get(key))
+                    .isEqualTo(expected);
+            assertWithMessage("Invalid containsKey of " + key)
+                    .that(map.containsKey(key))
+                    .isEqualTo(expected != null);
+        }
+    }
+
+    @Test
+    public void testReplace() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        map.put(5, "first");
+        assertWithMessage("Invalid previous value")
+                .that(map.put(5, "second"))
+                .isEqualTo("first");
+        assertWithMessage("Invalid size")
+                .that(map.size())
+                .isEqualTo(1);
+        assertWithMessage("Invalid value")
+                .that(map.get(5))
+                .isEqualTo("second");
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        final IntObjectMap<Integer> map = new IntObjectMap<Integer>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i << 16, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertWithMessage("Invalid value")
+                    .that(map.get(i << 16))
+                    .isEqualTo(i);
+        }
+        assertWithMessage("Key should not be found")
+                .that(map.get(100 << 16))
+                .isNull();
+    }
+
+    @Test
+    public void testNullValue() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        try {
+            map.put(1, null);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Null values are not supported");
+        }
+    }
+
+    @Test
+    public void testClear() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        map.put(1, "one");
+        map.put(2, "two");
+        map.clear();
+        assertWithMessage("Map should be empty")
+                .that(map.isEmpty())
+                .isTrue();
+        assertWithMessage("Key should not be found")
+                .that(map.get(1))
+                .isNull();
+        assertWithMessage("Values should be empty")
+                .that(map.values())
+                .isEmpty();
+    }
+
+    @Test
+    public void testIterationContainsAllEntries() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        final Map<Integer, String> hashMap = new HashMap<Integer, String>();
+        for (int key : new int[] {2, 1, 17, 30, 16, 18}) {
+            map.put(key, String.valueOf(key));
+            hashMap.put(key, String.valueOf(key));
+        }
+        assertWithMessage("Invalid values")
+                .that(map.values())
+                .containsExactlyElementsIn(hashMap.values());
+        assertWithMessage("Invalid map view")
+                .that(map.asMap().entrySet())
+                .containsExactlyElementsIn(hashMap.entrySet());
+    }
+
+    @Test
+    public void testMapView() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        final Map<Integer, String> view = map.asMap();
+        map.put(3, "three");
+        assertWithMessage("View should be cached")
+                .that(map.asMap())
+                .isSameAs(view);
+        assertWithMessage("Invalid view value")
+                .that(view.get(3))
+                .isEqualTo("three");
+        assertWithMessage("Invalid view value")
+                .that(view.get("3"))
+                .isNull();
+        assertWithMessage("Invalid view containsKey")
+                .that(view.containsKey(3))
+                .isTrue();
+        assertWithMessage("Invalid view containsKey")
+                .that(view.containsKey(4))
+                .isFalse();
+        assertWithMessage("Invalid view size")
+                .that(view.size())
+                .isEqualTo(1);
+        assertWithMessage("Invalid view values")
+                .that(view.values())
+                .containsExactly("three");
+        assertWithMessage("Invalid view")
+                .that(view.entrySet().size())
+                .isEqualTo(1);
+        try {
+            view.put(4, "four");
+            fail("Exception is expected");
+        }
+        catch (UnsupportedOperationException ex) {
+            assertWithMessage("Map should not be modified")
+                    .that(map.size())
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testIterator() {
+        final IntObjectMap<String> map = new IntObjectMap<String>();
+        map.put(1, "one");
+        final Iterator<String> iterator = map.values().iterator();
+        final List<String> values = new ArrayList<String>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+        assertWithMessage("Invalid values")
+                .that(values)
+                .containsExactly("one");
+        try {
+            iterator.next();
+            fail("Exception is expected");
+        }
+        catch (NoSuchElementException ex) {
+            assertWithMessage("Exception message should be empty")
+                    .that(ex.getMessage())
+                    .isNull();
+        }
+        try {
+            iterator.remove();
+            fail("Exception is expected");
+        }
+        catch (UnsupportedOperationException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("remove");
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+
+package com.puppycrawl.tools.checkstyle.utils.collections;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import org.junit.Test;
+
+public class IntSetTest {
+
+    @Test
+    public void testAddAndContains() {
+        final IntSet set = new IntSet();
+        assertWithMessage("Set should be empty initially")
+                .that(set.isEmpty())
+                .isTrue();
+        assertWithMessage("Value should be added")
+                .that(set.add(7))
+                .isTrue();
+        assertWithMessage("Value should not be added twice")
+                .that(set.add(7))
+                .isFalse();
+        assertWithMessage("Value should be added")
+                .that(set.add(1000))
+                .isTrue();
+        assertWithMessage("Invalid contains")
+                .that(set.contains(7))
+                .isTrue();
+        assertWithMessage("Invalid contains")
+                .that(set.contains(8))
+                .isFalse();
+        assertWithMessage("Invalid contains")
+                .that(set.contains(-7))
+                .isFalse();
+        assertWithMessage("Invalid size")
+                .that(set.size())
+                .isEqualTo(2);
+        assertWithMessage("Set should not be empty")
+                .that(set.isEmpty())
+                .isFalse();
+    }
+
+    @Test
+    public void testNegativeValues() {
+        final IntSet set = new IntSet();
+        assertWithMessage("Value should be added")
+                .that(set.add(-1))
+                .isTrue();
+        assertWithMessage("Value should not be added twice")
+                .that(set.add(-1))
+                .isFalse();
+        set.add(-5);
+        set.add(3);
+        set.add(0);
+        assertWithMessage("Invalid contains")
+                .that(set.contains(-5))
+                .isTrue();
+        assertWithMessage("Invalid contains")
+                .that(set.contains(-2))
+                .isFalse();
+        assertWithMessage("Invalid contains")
+                .that(set.contains(1))
+                .isFalse();
+        assertWithMessage("Invalid size")
+                .that(set.size())
+                .isEqualTo(4);
+        assertWithMessage("Invalid values")
+                .that(set.toArray())
+                .asList()
+                .containsExactly(-5, -1, 0, 3)
+                .inOrder();
+    }
+
+    @Test
+    public void testClear() {
+        final IntSet set = new IntSet();
+        set.clear();
+        set.add(2);
+        set.add(-2);
+        set.clear();
+        assertWithMessage("Set should be empty")
+                .that(set.isEmpty())
+                .isTrue();
+        assertWithMessage("Invalid contains")
+                .that(set.contains(-2))
+                .isFalse();
+        assertWithMessage("Invalid values")
+                .that(set.toArray())
+                .isEmpty();
+    }
+
+}
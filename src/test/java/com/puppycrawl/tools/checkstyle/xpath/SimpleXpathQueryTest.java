@@ -0,0 +1,169 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import net.sf.saxon.Configuration;
+import net.sf.saxon.om.Item;
+import net.sf.saxon.sxpath.XPathDynamicContext;
+import net.sf.saxon.sxpath.XPathEvaluator;
+import net.sf.saxon.sxpath.XPathExpression;
+
+public class SimpleXpathQueryTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/xpath/xpathquerygenerator";
+    }
+
+    @Test
+    public void testSameNodesAsSaxon() throws Exception {
+        final String[] queries = {
+            "/CLASS_DEF",
+            "/IMPORT[2]",
+            "/*",
+            "/*/*",
+            "/CLASS_DEF[./IDENT[@text='InputXpathQueryGenerator']]"
+                + "/OBJBLOCK/METHOD_DEF[./IDENT[@text='Label']]/SLIST",
+            "/CLASS_DEF/OBJBLOCK/VARIABLE_DEF[2]",
+            "/CLASS_DEF/OBJBLOCK/*[3]",
+            "/CLASS_DEF/OBJBLOCK/VARIABLE_DEF[1][./IDENT]",
+            "/CLASS_DEF/OBJBLOCK/VARIABLE_DEF[./IDENT][2]",
+            "/CLASS_DEF/OBJBLOCK/VARIABLE_DEF[0]",
+            "/CLASS_DEF/OBJBLOCK/VARIABLE_DEF[100]",
+            "//METHOD_DEF",
+            "//METHOD_DEF//IDENT",
+            "//SLIST//SLIST",
+            "//SLIST//SLIST/*",
+            "//SLIST/*",
+            "//*",
+            "//IDENT[@text='i']",
+            "//IDENT[@text = \"mUse1\"]",
+            "//IDENT[starts-with(@text, 'mUse')]",
+            "//*[starts-with(@text, '')]",
+            "//*[@text]",
+            "//STRING_LITERAL[@text='it''s']",
+            "//VARIABLE_DEF[./IDENT[starts-with(@text, 'mUse')]]/TYPE",
+            "//VARIABLE_DEF[.//IDENT[@text='Object']]",
+            "//VARIABLE_DEF[TYPE/IDENT]",
+            "//METHOD_DEF/SLIST/*[1]",
+            " / CLASS_DEF [ ./IDENT ] / OBJBLOCK ",
+            "//COMMENT_CONTENT",
+        };
+        final String[] inputs = {
+            "InputXpathQueryGenerator.java",
+            "InputXpathQueryGeneratorEscapeCharacters.java",
+            "InputXpathQueryGeneratorTabWidth.java",
+        };
+        for (String input : inputs) {
+            final DetailAST rootAst = JavaParser.parseFile(new File(getPath(input)),
+                    JavaParser.Options.WITH_COMMENTS);
+            for (String query : queries) {
+                final SimpleXpathQuery simpleQuery = SimpleXpathQuery.compile(query);
+                assertNotNull(simpleQuery, "Query should be compiled: " + query);
+                // the order of Saxon depends on the depth of nodes
+                assertWithMessage("Invalid nodes of " + query + " in " + input)
+                        .that(simpleQuery.evaluate(rootAst))
+                        .containsExactlyElementsIn(evaluateWithSaxon(query, rootAst));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedQueries() {
+        final String[] queries = {
+            "/",
+            "COMPILATION_UNIT",
+            "//IDENT[1]",
+            "//IDENT | //STRING_LITERAL",
+            "//IDENT[@text='a' or @text='b']",
+            "//IDENT[@text!='a']",
+            "//IDENT[@other='a']",
+            "//IDENT[1.5]",
+            "//IDENT[last()]",
+            "//IDENT/..",
+            "//IDENT[.]",
+            "//IDENT[//SLIST]",
+            "/descendant::IDENT",
+            "/COMPILATION_UNIT",
+            "count(//IDENT)",
+            "//IDENT[@text='unterminated]",
+            "//IDENT[starts-with(@text 'a')]",
+            "//IDENT[",
+            "//IDENT]",
+        };
+        for (String query : queries) {
+            assertNull(SimpleXpathQuery.compile(query),
+                    "Query should not be compiled: " + query);
+        }
+    }
+
+    @Test
+    public void testDocumentOrder() throws Exception {
+        final DetailAST rootAst = JavaParser.parseFile(
+                new File(getPath("InputXpathQueryGenerator.java")),
+                JavaParser.Options.WITH_COMMENTS);
+        final List<DetailAST> expected = new ArrayList<DetailAST>();
+        DetailAST curNode = rootAst;
+        while (curNode != null) {
+            if (curNode.getParent() != null && curNode.getParent().getType() == TokenTypes.SLIST) {
+                expected.add(curNode);
+            }
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+            curNode = toVisit;
+        }
+
+        assertWithMessage("Nodes should be in document order")
+                .that(SimpleXpathQuery.compile("//SLIST/*").evaluate(rootAst))
+                .containsExactlyElementsIn(expected)
+                .inOrder();
+    }
+
+    private static List<DetailAST> evaluateWithSaxon(String query, DetailAST rootAst)
+            throws Exception {
+        final XPathExpression expression =
+                new XPathEvaluator(Configuration.newConfiguration()).createExpression(query);
+        final XPathDynamicContext context = expression.createDynamicContext(
+                new RootNode(rootAst));
+        final List<DetailAST> result = new ArrayList<DetailAST>();
+        for (Item item : expression.evaluate(context)) {
+            result.add(((AbstractNode) item).getUnderlyingNode());
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,122 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2021 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.jre6.charset.StandardCharsets;
+
+public class XpathQueryIndexTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/xpath/xpathquerygenerator";
+    }
+
+    @Test
+    public void testGetNodes() throws Exception {
+        final File file = new File(getPath("InputXpathQueryGenerator.java"));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS);
+        final XpathQueryIndex index = new XpathQueryIndex(rootAst, fileText, 4);
+
+        final List<DetailAST> nodes = index.getNodes(12, 1);
+        assertEquals(3, nodes.size(), "Invalid number of nodes");
+        assertEquals(TokenTypes.CLASS_DEF, nodes.get(0).getType(), "Invalid first node");
+        assertEquals(TokenTypes.MODIFIERS, nodes.get(1).getType(), "Invalid second node");
+        assertEquals(TokenTypes.LITERAL_PUBLIC, nodes.get(2).getType(), "Invalid third node");
+        assertWithMessage("Nodes should not be found past the end of a line")
+                .that(index.getNodes(12, 1000))
+                .isEmpty();
+        assertWithMessage("Nodes should not be found on a nonexistent line")
+                .that(index.getNodes(10000, 1))
+                .isEmpty();
+    }
+
+    @Test
+    public void testIsIndexOf() throws Exception {
+        final File file = new File(getPath("InputXpathQueryGenerator.java"));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS);
+        final XpathQueryIndex index = new XpathQueryIndex(rootAst, fileText, 4);
+
+        assertTrue(index.isIndexOf(rootAst, fileText, 4), "Index should match its file");
+        assertFalse(index.isIndexOf(rootAst, fileText, 8), "Index should not match tab width");
+        assertFalse(index.isIndexOf(rootAst.getNextSibling(), fileText, 4),
+                "Index should not match other root");
+        assertFalse(index.isIndexOf(rootAst,
+                new FileText(file, StandardCharsets.UTF_8.name()), 4),
+                "Index should not match other text");
+    }
+
+    /**
+     * Queries generated with a shared index must be the same as queries
+     * generated without one for every node of the file.
+     *
+     * @throws Exception if there is an error.
+     */
+    @Test
+    public void testSharedIndexGeneratesSameQueries() throws Exception {
+        final String[] inputs = {
+            "InputXpathQueryGenerator.java",
+            "InputXpathQueryGeneratorEscapeCharacters.java",
+            "InputXpathQueryGeneratorTabWidth.java",
+        };
+        for (String input : inputs) {
+            final File file = new File(getPath(input));
+            final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+            final DetailAST rootAst =
+                    JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS);
+            final XpathQueryIndex index = new XpathQueryIndex(rootAst, fileText, 4);
+            DetailAST curNode = rootAst;
+            while (curNode != null) {
+                final int line = curNode.getLineNo();
+                final int column = 1 + curNode.getColumnNo();
+                final List<String> expected = new XpathQueryGenerator(rootAst, line, column,
+                        curNode.getType(), fileText, 4).generate();
+                final List<String> actual =
+                        new XpathQueryGenerator(index, line, column, curNode.getType())
+                                .generate();
+                assertEquals(expected, actual,
+                        "Invalid queries in " + input + " at " + line + ":" + column);
+                DetailAST toVisit = curNode.getFirstChild();
+                while (curNode != null && toVisit == null) {
+                    toVisit = curNode.getNextSibling();
+                    curNode = curNode.getParent();
+                }
+                curNode = toVisit;
+            }
+        }
+    }
+
+}
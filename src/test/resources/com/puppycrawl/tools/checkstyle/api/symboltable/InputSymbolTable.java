@@ -0,0 +1,48 @@
+package com.puppycrawl.tools.checkstyle.api.symboltable;
+
+import java.util.function.Function;
+
+public class InputSymbolTable {
+    private int field;
+    private static int staticField;
+
+    public int method(int param) {
+        int local = field + param;
+        Function<Integer, Integer> lambda = value -> value + local;
+        switch (param) {
+            case 1:
+                int shared = 1;
+                break;
+            case 2:
+                shared = 2;
+                break;
+            default:
+                break;
+        }
+        try {
+            local++;
+        }
+        catch (IllegalStateException ex) {
+            throw ex;
+        }
+        for (int i = 0; i < param; i++) {
+            local += i;
+        }
+        return local + lambda.apply(staticField);
+    }
+
+    class Inner {
+        int field;
+    }
+
+    interface Constants {
+        int CONSTANT = 1;
+    }
+
+    enum Color {
+        RED {
+            int body;
+        },
+        GREEN;
+    }
+}
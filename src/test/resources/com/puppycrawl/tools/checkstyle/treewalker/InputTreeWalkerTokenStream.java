@@ -0,0 +1,7 @@
+package com.puppycrawl.tools.checkstyle.treewalker;
+
+public class InputTreeWalkerTokenStream {
+    private long first = 1l;
+
+    private long second = 2l; // TODO: suppressed by xpath
+}